@@ -0,0 +1,184 @@
+package net.smelly.disparser.benchmarks;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
+import net.smelly.disparser.Argument;
+import net.smelly.disparser.MessageReader;
+import net.smelly.disparser.ParseResult;
+import net.smelly.disparser.arguments.EitherArgument;
+import net.smelly.disparser.arguments.java.BooleanArgument;
+import net.smelly.disparser.arguments.java.ByteArgument;
+import net.smelly.disparser.arguments.java.CharArgument;
+import net.smelly.disparser.arguments.java.ColorArgument;
+import net.smelly.disparser.arguments.java.DoubleArgument;
+import net.smelly.disparser.arguments.java.EnumArgument;
+import net.smelly.disparser.arguments.java.FloatArgument;
+import net.smelly.disparser.arguments.java.IntegerArgument;
+import net.smelly.disparser.arguments.java.LongArgument;
+import net.smelly.disparser.arguments.java.NumberArgument;
+import net.smelly.disparser.arguments.java.ShortArgument;
+import net.smelly.disparser.arguments.java.StringArgument;
+import net.smelly.disparser.arguments.java.URLArgument;
+import net.smelly.disparser.arguments.jda.EmojiArgument;
+import net.smelly.disparser.arguments.jda.GuildArgument;
+import net.smelly.disparser.arguments.jda.GuildChannelArgument;
+import net.smelly.disparser.arguments.jda.RoleArgument;
+import net.smelly.disparser.arguments.jda.TextChannelArgument;
+import net.smelly.disparser.arguments.jda.UserArgument;
+import net.smelly.disparser.arguments.jda.VoiceChannelArgument;
+import net.smelly.disparser.arguments.jda.WebhookArgument;
+import net.smelly.disparser.feedback.exceptions.DisparserExceptionProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Argument#tryParse(MessageReader)} for each built-in {@link Argument}.
+ * <p>The {@link MessageReader} gets rewound before each operation, so only the parsing of the argument gets measured.</p>
+ *
+ * @author Luke Tonon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentBenchmark {
+	@Param({
+		"boolean", "byte", "char", "color", "color_rgb", "double", "enum", "float", "integer", "long", "number", "short", "string", "url", "either",
+		"emoji", "emoji_custom", "emoji_multiple", "guild", "guild_channel", "role", "text_channel", "user", "voice_channel", "webhook"
+	})
+	public String argument;
+	@Param({"true", "false"})
+	public boolean valid;
+	private Argument<?> parsedArgument;
+	private MessageReader reader;
+
+	@Setup
+	public void setup() {
+		JDA jda = Stubs.jda();
+		String input;
+		switch (this.argument) {
+			case "boolean":
+				this.parsedArgument = BooleanArgument.get();
+				input = this.valid ? "true" : "maybe";
+				break;
+			case "byte":
+				this.parsedArgument = ByteArgument.get();
+				input = this.valid ? "-12" : "1200";
+				break;
+			case "char":
+				this.parsedArgument = CharArgument.get();
+				input = this.valid ? "c" : "chars";
+				break;
+			case "color":
+				this.parsedArgument = ColorArgument.get();
+				input = this.valid ? "magenta" : "ultraviolet";
+				break;
+			case "color_rgb":
+				this.parsedArgument = ColorArgument.get();
+				input = this.valid ? "16711935" : "#ff00ff";
+				break;
+			case "double":
+				this.parsedArgument = DoubleArgument.get();
+				input = this.valid ? "1234.5678" : "1234.5678.9";
+				break;
+			case "enum":
+				this.parsedArgument = EnumArgument.get(TimeUnit.class);
+				input = this.valid ? "milliseconds" : "fortnights";
+				break;
+			case "float":
+				this.parsedArgument = FloatArgument.getClamped(0.0F, 100.0F);
+				input = this.valid ? "55.5" : "155.5";
+				break;
+			case "integer":
+				this.parsedArgument = IntegerArgument.get();
+				input = this.valid ? "123456" : "123456abc";
+				break;
+			case "long":
+				this.parsedArgument = LongArgument.get();
+				input = this.valid ? "123456789012345678" : "1234567890123456789012";
+				break;
+			case "number":
+				this.parsedArgument = NumberArgument.get();
+				input = this.valid ? "1234.5678" : "one";
+				break;
+			case "short":
+				this.parsedArgument = ShortArgument.get();
+				input = this.valid ? "1234" : "123456";
+				break;
+			case "string":
+				this.parsedArgument = StringArgument.getClamped(1, 8);
+				input = this.valid ? "disparse" : "disparser";
+				break;
+			case "url":
+				this.parsedArgument = URLArgument.get();
+				input = this.valid ? "https://github.com/SmellyModder/Disparser" : "github.com/SmellyModder/Disparser";
+				break;
+			case "either":
+				this.parsedArgument = EitherArgument.of(IntegerArgument.get(), ColorArgument.get());
+				input = this.valid ? "magenta" : "ultraviolet";
+				break;
+			case "emoji":
+				this.parsedArgument = EmojiArgument.get();
+				input = this.valid ? "😀" : "smile";
+				break;
+			case "emoji_custom":
+				this.parsedArgument = EmojiArgument.get();
+				input = this.valid ? "<:custom:123456789012345678>" : "<:custom:>";
+				break;
+			case "emoji_multiple":
+				this.parsedArgument = EmojiArgument.getMultipleClamped(2, 6, true);
+				input = this.valid ? "😀😁<:custom:123456789012345678>" : "😀";
+				break;
+			case "guild":
+				this.parsedArgument = GuildArgument.get(jda);
+				input = this.valid ? "123456789012345678" : "guild";
+				break;
+			case "guild_channel":
+				this.parsedArgument = GuildChannelArgument.get();
+				input = this.valid ? "123456789012345678" : "channel";
+				break;
+			case "role":
+				this.parsedArgument = RoleArgument.get();
+				input = this.valid ? "<@&123456789012345678>" : "<@&role>";
+				break;
+			case "text_channel":
+				this.parsedArgument = TextChannelArgument.get();
+				input = this.valid ? "<#123456789012345678>" : "<#channel>";
+				break;
+			case "user":
+				this.parsedArgument = UserArgument.get();
+				input = this.valid ? "<@!123456789012345678>" : "<@!user>";
+				break;
+			case "voice_channel":
+				this.parsedArgument = VoiceChannelArgument.get();
+				input = this.valid ? "123456789012345678" : "channel";
+				break;
+			default:
+				this.parsedArgument = WebhookArgument.get();
+				input = this.valid ? "123456789012345678" : "webhook";
+		}
+		String content = "!argument " + input;
+		Message message = Stubs.message(jda, content, true, true);
+		this.reader = new MessageReader(DisparserExceptionProvider.INSTANCE, message, content);
+	}
+
+	@Benchmark
+	public ParseResult<?> tryParse() {
+		MessageReader reader = this.reader;
+		reader.setIndex(0);
+		return this.parsedArgument.tryParse(reader);
+	}
+}
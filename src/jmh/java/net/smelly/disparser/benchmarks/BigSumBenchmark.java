@@ -0,0 +1,65 @@
+package net.smelly.disparser.benchmarks;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.smelly.disparser.commands.BigSumTestCommand;
+import net.smelly.disparser.context.handlers.CommandHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks disparsing and running {@link BigSumTestCommand} end-to-end with {@link CommandHandler#onMessageReceived(MessageReceivedEvent)}.
+ * <p>The handler uses a {@link DirectExecutorService}, so each operation covers the prefix and alias lookup, reading the unboxed integer argument, and running the sum on the benchmark thread.
+ * This measures the whole command, so it allocates everything a command needs, such as its {@link net.smelly.disparser.MessageReader}, its context and argument list, the task handed to the executor, and the feedback the command sends.
+ * See {@link PrimitiveArgumentBenchmark} for the parse of the primitive argument on its own, which doesn't allocate.</p>
+ *
+ * @author Luke Tonon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BigSumBenchmark {
+	@Param({"100000", "1000000", "10"})
+	public String iterations;
+	private final RecordingFeedbackHandler.Recording recording = new RecordingFeedbackHandler.Recording();
+	private CommandHandler handler;
+	private MessageReceivedEvent event;
+
+	@Setup
+	public void setup() {
+		JDA jda = Stubs.jda();
+		this.event = new MessageReceivedEvent(jda, 0L, Stubs.message(jda, "!sum " + this.iterations, true, true));
+		this.handler = new CommandHandler.Builder()
+			.setPrefix("!")
+			.setFeedbackBuilder(RecordingFeedbackHandler.builder(this.recording))
+			.setExecutorService(new DirectExecutorService())
+			.registerCommand(new BigSumTestCommand())
+			.build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.handler.shutdown();
+	}
+
+	@Benchmark
+	public RecordingFeedbackHandler.Recording onMessageReceived() {
+		this.handler.onMessageReceived(this.event);
+		return this.recording;
+	}
+}
@@ -0,0 +1,146 @@
+package net.smelly.disparser.benchmarks;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.Webhook;
+import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.smelly.disparser.Command;
+import net.smelly.disparser.ConfiguredArgument;
+import net.smelly.disparser.arguments.java.LongArgument;
+import net.smelly.disparser.arguments.jda.WebhookArgument;
+import net.smelly.disparser.concurrent.KeyedExecutorService;
+import net.smelly.disparser.concurrent.VirtualThreads;
+import net.smelly.disparser.context.GuildMessageCommandContext;
+import net.smelly.disparser.context.handlers.GuildCommandHandler;
+import net.smelly.disparser.context.tree.ArgumentNode;
+import net.smelly.disparser.context.tree.RootNode;
+import net.smelly.disparser.feedback.CommandMessage;
+import net.smelly.disparser.feedback.FeedbackHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the throughput of {@link GuildCommandHandler} for commands that wait on a REST request, comparing the default {@link KeyedExecutorService} with {@link VirtualThreads}.
+ * <p>Each operation dispatches a batch of messages from different channels calling a command whose stubbed REST request takes 200 ms, and waits for all of them to finish.
+ * The request is either made by the command itself, blocking its thread, or by a {@link WebhookArgument}, which doesn't block.
+ * Results are per message. Virtual threads need Java 21 or newer, e.g. `./gradlew jmh -Pjmh.include=BlockingDispatchBenchmark -Pjmh.jvm=/path/to/java21/bin/java`; on older runtimes the virtual executor falls back to the keyed one.</p>
+ *
+ * @author Luke Tonon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class BlockingDispatchBenchmark {
+	private static final int BATCH = 64;
+	private static final long REST_LATENCY_MILLIS = 200L;
+	private static final RootNode<GuildMessageReceivedEvent, GuildMessageCommandContext> ASYNC_NODE = RootNode.Builder.create(GuildMessageCommandContext.class)
+		.then(
+			ArgumentNode.Builder.create(ConfiguredArgument.named(WebhookArgument.get(), channel -> "webhook"), GuildMessageCommandContext.class)
+				.consumes(context -> context.getFeedbackHandler().sendFeedback(CommandMessage.EMPTY))
+		).build();
+	private static final RootNode<GuildMessageReceivedEvent, GuildMessageCommandContext> BLOCKING_NODE = RootNode.Builder.create(GuildMessageCommandContext.class)
+		.then(
+			ArgumentNode.Builder.create(ConfiguredArgument.named(LongArgument.get(), channel -> "webhook"), GuildMessageCommandContext.class)
+				.consumes(context -> {
+					context.getEvent().getJDA().retrieveWebhookById(context.getLong(0)).submit().join();
+					context.getFeedbackHandler().sendFeedback(CommandMessage.EMPTY);
+				})
+		).build();
+	@Param({"keyed", "virtual"})
+	public String executor;
+	@Param({"blocking", "async"})
+	public String request;
+	private final LatchFeedbackHandler feedbackHandler = new LatchFeedbackHandler();
+	private final GuildMessageReceivedEvent[] events = new GuildMessageReceivedEvent[BATCH];
+	private ScheduledExecutorService restScheduler;
+	private GuildCommandHandler handler;
+
+	@Setup
+	public void setup() {
+		this.restScheduler = Executors.newSingleThreadScheduledExecutor();
+		Webhook webhook = Stubs.stub(Webhook.class);
+		RestAction<?> webhookAction = Stubs.builder(RestAction.class).answer("submit", args -> {
+			CompletableFuture<Webhook> future = new CompletableFuture<>();
+			this.restScheduler.schedule(() -> future.complete(webhook), REST_LATENCY_MILLIS, TimeUnit.MILLISECONDS);
+			return future;
+		}).build();
+		JDA jda = Stubs.builder(JDA.class).returns("retrieveWebhookById", webhookAction).build();
+		for (int i = 0; i < BATCH; i++) {
+			this.events[i] = new GuildMessageReceivedEvent(jda, 0L, Stubs.message(jda, "!webhook 123456789012345678", true, true, 700000000000000000L + i));
+		}
+		GuildCommandHandler.Builder builder = new GuildCommandHandler.Builder()
+			.setPrefix("!")
+			.setFeedbackBuilder(channel -> this.feedbackHandler)
+			.registerCommand(new Command<>(Collections.singleton("webhook"), Collections.emptySet(), this.request.equals("async") ? ASYNC_NODE : BLOCKING_NODE));
+		if (this.executor.equals("virtual")) {
+			builder.setVirtualThreadExecutor();
+		}
+		this.handler = builder.build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.handler.shutdown();
+		this.restScheduler.shutdownNow();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void dispatchBlocking() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(BATCH);
+		this.feedbackHandler.latch = latch;
+		for (GuildMessageReceivedEvent event : this.events) {
+			this.handler.onGuildMessageReceived(event);
+		}
+		latch.await();
+	}
+
+	/**
+	 * A {@link FeedbackHandler} that counts down a latch for each feedback it gets sent.
+	 */
+	static final class LatchFeedbackHandler implements FeedbackHandler {
+		private volatile CountDownLatch latch;
+
+		@Override
+		public void sendFeedback(CommandMessage commandMessage) {
+			this.latch.countDown();
+		}
+
+		@Override
+		public void sendFeedback(MessageEmbed messageEmbed) {
+			this.latch.countDown();
+		}
+
+		@Override
+		public void sendSuccess(CommandMessage message) {
+			this.latch.countDown();
+		}
+
+		@Override
+		public void sendError(Exception exception) {
+			this.latch.countDown();
+		}
+	}
+}
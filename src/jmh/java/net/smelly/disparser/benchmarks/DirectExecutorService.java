@@ -0,0 +1,49 @@
+package net.smelly.disparser.benchmarks;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} that runs tasks on the calling thread.
+ * <p>Command handlers using this dispatch synchronously, so a benchmark measures the whole dispatch of a message instead of handing it off to another thread.</p>
+ *
+ * @author Luke Tonon
+ */
+@ThreadSafe
+public final class DirectExecutorService extends AbstractExecutorService {
+	private volatile boolean shutdown;
+
+	@Override
+	public void execute(Runnable command) {
+		command.run();
+	}
+
+	@Override
+	public void shutdown() {
+		this.shutdown = true;
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		this.shutdown = true;
+		return Collections.emptyList();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return this.shutdown;
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) {
+		return this.shutdown;
+	}
+}
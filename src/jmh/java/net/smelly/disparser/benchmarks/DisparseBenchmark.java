@@ -0,0 +1,91 @@
+package net.smelly.disparser.benchmarks;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.smelly.disparser.Command;
+import net.smelly.disparser.MessageReader;
+import net.smelly.disparser.commands.BigSumTestCommand;
+import net.smelly.disparser.commands.ComplexTestCommand;
+import net.smelly.disparser.commands.EmojiTestCommand;
+import net.smelly.disparser.commands.OptionalTestCommand;
+import net.smelly.disparser.context.CommandContextBuilder;
+import net.smelly.disparser.context.MessageCommandContext;
+import net.smelly.disparser.feedback.FeedbackHandler;
+import net.smelly.disparser.feedback.FeedbackHandlerBuilder;
+import net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider;
+import net.smelly.disparser.feedback.exceptions.DisparserExceptionProvider;
+import net.smelly.disparser.properties.CommandPropertyMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link CommandContextBuilder#disparseRoot(CommandContextBuilder, net.smelly.disparser.context.tree.RootNode)} over the test commands.
+ * <p>Each operation creates a new {@link MessageReader} and {@link MessageCommandContext.Builder}, like a command handler does, but never runs the command's consumer.</p>
+ *
+ * @author Luke Tonon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisparseBenchmark {
+	@Param({"complex", "complex_integer", "sum", "optional", "emoji"})
+	public String command;
+	@Param({"true", "false"})
+	public boolean valid;
+	private Command<MessageReceivedEvent, MessageCommandContext> parsedCommand;
+	private String content;
+	private Message message;
+	private MessageReceivedEvent event;
+	private CommandPropertyMap.PropertyMap propertyMap;
+	private FeedbackHandler feedbackHandler;
+	private final BuiltInExceptionProvider exceptionProvider = DisparserExceptionProvider.INSTANCE;
+
+	@Setup
+	public void setup() {
+		switch (this.command) {
+			case "complex":
+				this.parsedCommand = new ComplexTestCommand();
+				this.content = this.valid ? "!complex <#123456789012345678> <@!123456789012345678> 55.5 c" : "!complex <#123456789012345678> <@!123456789012345678> 155.5 c";
+				break;
+			case "complex_integer":
+				this.parsedCommand = new ComplexTestCommand();
+				this.content = this.valid ? "!complex <@!123456789012345678> 12 55.5 c" : "!complex <@!123456789012345678> 12 55.5 long";
+				break;
+			case "sum":
+				this.parsedCommand = new BigSumTestCommand();
+				this.content = this.valid ? "!sum 1000000" : "!sum 10";
+				break;
+			case "optional":
+				this.parsedCommand = new OptionalTestCommand();
+				this.content = this.valid ? "!optional 42" : "!optional forty-two";
+				break;
+			default:
+				this.parsedCommand = new EmojiTestCommand();
+				this.content = this.valid ? "!emoji 😀😁😂" : "!emoji 😀";
+		}
+		this.message = Stubs.message(Stubs.jda(), this.content, true, true);
+		this.event = new MessageReceivedEvent(this.message.getJDA(), 0L, this.message);
+		this.propertyMap = CommandPropertyMap.<MessageReceivedEvent, MessageCommandContext>createEmpty().putCommand(this.parsedCommand);
+		this.feedbackHandler = FeedbackHandlerBuilder.SIMPLE_BUILDER.build(this.message.getChannel());
+	}
+
+	@Benchmark
+	public CommandContextBuilder<MessageReceivedEvent, MessageCommandContext> disparseRoot() {
+		MessageReader reader = new MessageReader(this.exceptionProvider, this.message, this.content);
+		return CommandContextBuilder.disparseRoot(new MessageCommandContext.Builder(this.event, this.propertyMap, this.message.getChannel(), this.feedbackHandler, this.exceptionProvider, reader), this.parsedCommand.getRootNode());
+	}
+}
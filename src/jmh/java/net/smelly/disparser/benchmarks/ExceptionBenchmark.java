@@ -0,0 +1,106 @@
+package net.smelly.disparser.benchmarks;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.smelly.disparser.ConfiguredArgument;
+import net.smelly.disparser.MessageReader;
+import net.smelly.disparser.arguments.java.BooleanArgument;
+import net.smelly.disparser.arguments.java.ByteArgument;
+import net.smelly.disparser.arguments.java.CharArgument;
+import net.smelly.disparser.arguments.java.DoubleArgument;
+import net.smelly.disparser.arguments.java.IntegerArgument;
+import net.smelly.disparser.arguments.java.LongArgument;
+import net.smelly.disparser.arguments.java.ShortArgument;
+import net.smelly.disparser.arguments.java.URLArgument;
+import net.smelly.disparser.context.CommandContextBuilder;
+import net.smelly.disparser.context.MessageCommandContext;
+import net.smelly.disparser.context.tree.ArgumentNode;
+import net.smelly.disparser.context.tree.RootNode;
+import net.smelly.disparser.feedback.FeedbackHandler;
+import net.smelly.disparser.feedback.FeedbackHandlerBuilder;
+import net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider;
+import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.feedback.exceptions.DisparserExceptionProvider;
+import net.smelly.disparser.properties.CommandPropertyMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creating {@link CommandException}s with the built-in exception creators, with and without reading their messages.
+ * <p>{@link #disparseFailingBranches()} disparses a message where every child of the root fails, which only reports the failure of the last child.
+ * Run with the GC profiler to see how much gets allocated for exceptions that never get sent.</p>
+ *
+ * @author Luke Tonon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionBenchmark {
+	private static final String CONTENT = "!fail abc";
+	private final BuiltInExceptionProvider exceptionProvider = DisparserExceptionProvider.INSTANCE;
+	private RootNode<MessageReceivedEvent, MessageCommandContext> rootNode;
+	private Message message;
+	private MessageReceivedEvent event;
+	private CommandPropertyMap.PropertyMap propertyMap;
+	private FeedbackHandler feedbackHandler;
+
+	@Setup
+	public void setup() {
+		this.rootNode = RootNode.Builder.create(MessageCommandContext.class)
+				.then(branch(ConfiguredArgument.named(IntegerArgument.get(), channel -> "integer")))
+				.then(branch(ConfiguredArgument.named(LongArgument.get(), channel -> "long")))
+				.then(branch(ConfiguredArgument.named(ShortArgument.get(), channel -> "short")))
+				.then(branch(ConfiguredArgument.named(ByteArgument.get(), channel -> "byte")))
+				.then(branch(ConfiguredArgument.named(DoubleArgument.get(), channel -> "double")))
+				.then(branch(ConfiguredArgument.named(BooleanArgument.get(), channel -> "boolean")))
+				.then(branch(ConfiguredArgument.named(URLArgument.get(), channel -> "url")))
+				.build();
+		this.message = Stubs.message(Stubs.jda(), CONTENT, true, true);
+		this.event = new MessageReceivedEvent(this.message.getJDA(), 0L, this.message);
+		this.propertyMap = new CommandPropertyMap.PropertyMap();
+		this.feedbackHandler = FeedbackHandlerBuilder.SIMPLE_BUILDER.build(this.message.getChannel());
+	}
+
+	private static ArgumentNode.Builder<MessageReceivedEvent, MessageCommandContext> branch(ConfiguredArgument<?> argument) {
+		return ArgumentNode.Builder.create(argument, MessageCommandContext.class).then(ArgumentNode.Builder.create(ConfiguredArgument.named(CharArgument.get(), channel -> "character"), MessageCommandContext.class).consumes(context -> {}));
+	}
+
+	@Benchmark
+	public CommandException create() {
+		return this.exceptionProvider.getInvalidIntegerException().create("abc");
+	}
+
+	@Benchmark
+	public String createAndRender() {
+		return this.exceptionProvider.getInvalidIntegerException().create("abc").getCommandMessage().getMessage(null);
+	}
+
+	@Benchmark
+	public CommandException createSimple() {
+		return this.exceptionProvider.getNoArgumentsException().create();
+	}
+
+	@Benchmark
+	public CommandException createNested() {
+		return this.exceptionProvider.getArgumentErrorException().create("integer", "`abc` is not a valid integer!", 1);
+	}
+
+	@Benchmark
+	public CommandContextBuilder<MessageReceivedEvent, MessageCommandContext> disparseFailingBranches() {
+		MessageReader reader = new MessageReader(this.exceptionProvider, this.message, CONTENT);
+		return CommandContextBuilder.disparseRoot(new MessageCommandContext.Builder(this.event, this.propertyMap, this.message.getChannel(), this.feedbackHandler, this.exceptionProvider, reader), this.rootNode);
+	}
+}
@@ -0,0 +1,127 @@
+package net.smelly.disparser.benchmarks;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
+import net.smelly.disparser.Command;
+import net.smelly.disparser.ConfiguredArgument;
+import net.smelly.disparser.arguments.java.IntegerArgument;
+import net.smelly.disparser.arguments.jda.UserArgument;
+import net.smelly.disparser.context.GuildMessageCommandContext;
+import net.smelly.disparser.context.handlers.GuildCommandHandler;
+import net.smelly.disparser.context.tree.ArgumentNode;
+import net.smelly.disparser.context.tree.RootNode;
+import net.smelly.disparser.feedback.CommandMessage;
+import net.smelly.disparser.feedback.FeedbackHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks dispatching a message end-to-end with {@link GuildCommandHandler#onGuildMessageReceived(GuildMessageReceivedEvent)}.
+ * <p>The handler uses a {@link DirectExecutorService}, so each operation covers the prefix and alias lookup, the permission check, disparsing and running the command on the benchmark thread.</p>
+ *
+ * @author Luke Tonon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GuildCommandHandlerBenchmark {
+	private static final RootNode<GuildMessageReceivedEvent, GuildMessageCommandContext> NODE = RootNode.Builder.create(GuildMessageCommandContext.class)
+		.then(
+			ArgumentNode.Builder.create(ConfiguredArgument.named(UserArgument.get(), channel -> "user"), GuildMessageCommandContext.class)
+				.then(
+					ArgumentNode.Builder.create(ConfiguredArgument.named(IntegerArgument.getClamped(0, 100), channel -> "amount"), GuildMessageCommandContext.class)
+						.consumes(context -> context.getFeedbackHandler().sendFeedback(CommandMessage.EMPTY))
+				)
+		).build();
+	@Param({"valid", "wrong_prefix", "unknown_command", "bad_argument", "missing_permissions"})
+	public String message;
+	private GuildCommandHandler handler;
+	private GuildMessageReceivedEvent event;
+	private final CountingFeedbackHandler feedbackHandler = new CountingFeedbackHandler();
+
+	@Setup
+	public void setup() {
+		String content;
+		boolean hasPermissions = true;
+		switch (this.message) {
+			case "valid":
+				content = "!give <@!123456789012345678> 50";
+				break;
+			case "wrong_prefix":
+				content = "?give <@!123456789012345678> 50";
+				break;
+			case "unknown_command":
+				content = "!take <@!123456789012345678> 50";
+				break;
+			case "bad_argument":
+				content = "!give <@!123456789012345678> 500";
+				break;
+			default:
+				content = "!give <@!123456789012345678> 50";
+				hasPermissions = false;
+		}
+		JDA jda = Stubs.jda();
+		this.event = new GuildMessageReceivedEvent(jda, 0L, Stubs.message(jda, content, true, hasPermissions));
+		this.handler = new GuildCommandHandler.Builder()
+			.setPrefix("!")
+			.setFeedbackBuilder(channel -> this.feedbackHandler)
+			.setExecutorService(new DirectExecutorService())
+			.registerCommand(new Command<>(Collections.singleton("give"), Collections.emptySet(), NODE))
+			.build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.handler.shutdown();
+	}
+
+	@Benchmark
+	public int onGuildMessageReceived() {
+		this.handler.onGuildMessageReceived(this.event);
+		return this.feedbackHandler.count;
+	}
+
+	/**
+	 * A {@link FeedbackHandler} that only counts the feedback it gets sent.
+	 */
+	static final class CountingFeedbackHandler implements FeedbackHandler {
+		private int count;
+
+		@Override
+		public void sendFeedback(CommandMessage commandMessage) {
+			this.count++;
+		}
+
+		@Override
+		public void sendFeedback(MessageEmbed messageEmbed) {
+			this.count++;
+		}
+
+		@Override
+		public void sendSuccess(CommandMessage message) {
+			this.count++;
+		}
+
+		@Override
+		public void sendError(Exception exception) {
+			this.count++;
+		}
+	}
+}
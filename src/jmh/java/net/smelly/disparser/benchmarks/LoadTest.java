@@ -0,0 +1,342 @@
+package net.smelly.disparser.benchmarks;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.events.Event;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.priv.PrivateMessageReceivedEvent;
+import net.smelly.disparser.Command;
+import net.smelly.disparser.ConfiguredArgument;
+import net.smelly.disparser.arguments.java.IntegerArgument;
+import net.smelly.disparser.arguments.jda.UserArgument;
+import net.smelly.disparser.concurrent.KeyedExecutorService;
+import net.smelly.disparser.context.CommandContext;
+import net.smelly.disparser.context.GuildMessageCommandContext;
+import net.smelly.disparser.context.MessageCommandContext;
+import net.smelly.disparser.context.PrivateMessageCommandContext;
+import net.smelly.disparser.context.handlers.AbstractCommandHandler;
+import net.smelly.disparser.context.handlers.AbstractCommandHandlerBuilder;
+import net.smelly.disparser.context.handlers.CommandHandler;
+import net.smelly.disparser.context.handlers.GuildCommandHandler;
+import net.smelly.disparser.context.handlers.PrivateCommandHandler;
+import net.smelly.disparser.context.tree.ArgumentNode;
+import net.smelly.disparser.context.tree.RootNode;
+import net.smelly.disparser.feedback.CommandMessage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * An offline load test that replays a synthetic stream of message events through the built-in command handlers.
+ * <p>The stream is a configurable mix of {@link Scenario}s, such as valid commands, wrong prefixes, bad arguments, and missing permissions, and each handler records its feedback with a {@link RecordingFeedbackHandler}.</p>
+ * <p>Each handler runs its commands on a {@link KeyedExecutorService}, with the messages spread over a number of channels so they get keyed across its lanes.
+ * For each handler this reports messages per second, the p50/p99/p999 dispatch latency, measured from when a message is sent until the handler's task finishes, and the depth of the executor's queues.
+ * When a rate is set, latencies are measured from when each message was scheduled to be sent, so a stalled handler doesn't hide its own latency.</p>
+ * <p>Options are passed as {@code key=value} arguments:</p>
+ * <ul>
+ *     <li>{@code messages} - The amount of messages to send for each handler, 100000 by default.</li>
+ *     <li>{@code warmup} - The amount of messages to send before measuring, 20000 by default.</li>
+ *     <li>{@code threads} - The amount of lanes in each handler's executor, 1 by default.</li>
+ *     <li>{@code channels} - The amount of channels the messages are sent in, 64 by default.</li>
+ *     <li>{@code rate} - The amount of messages to send per second, or 0 to send them as fast as possible, which is the default.</li>
+ *     <li>{@code work} - Microseconds that valid commands block for, simulating a REST call, 0 by default.</li>
+ *     <li>{@code handlers} - A comma separated list of handlers to test, {@code guild,private,message} by default.</li>
+ *     <li>{@code mix} - A comma separated list of {@code scenario:weight} pairs, {@code valid:70,wrong_prefix:10,unknown_command:5,bad_argument:10,missing_permissions:5} by default.</li>
+ *     <li>{@code seed} - The seed for generating messages.</li>
+ * </ul>
+ *
+ * @author Luke Tonon
+ */
+public final class LoadTest {
+	private static final int POOL_SIZE = 4096;
+	private final int messages;
+	private final int warmup;
+	private final int threads;
+	private final int channels;
+	private final int rate;
+	private final long workNanos;
+	private final String[] handlers;
+	private final EnumMap<Scenario, Integer> mix;
+	private final long seed;
+
+	private LoadTest(Map<String, String> options) {
+		this.messages = Integer.parseInt(options.getOrDefault("messages", "100000"));
+		this.warmup = Integer.parseInt(options.getOrDefault("warmup", "20000"));
+		this.threads = Integer.parseInt(options.getOrDefault("threads", "1"));
+		this.channels = Integer.parseInt(options.getOrDefault("channels", "64"));
+		this.rate = Integer.parseInt(options.getOrDefault("rate", "0"));
+		this.workNanos = TimeUnit.MICROSECONDS.toNanos(Long.parseLong(options.getOrDefault("work", "0")));
+		this.handlers = options.getOrDefault("handlers", "guild,private,message").split(",");
+		this.mix = new EnumMap<>(Scenario.class);
+		for (String entry : options.getOrDefault("mix", "valid:70,wrong_prefix:10,unknown_command:5,bad_argument:10,missing_permissions:5").split(",")) {
+			String[] pair = entry.split(":");
+			this.mix.put(Scenario.valueOf(pair[0].toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1]));
+		}
+		this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			int split = arg.indexOf('=');
+			if (split < 0) {
+				throw new IllegalArgumentException("Options must be passed as key=value, got: " + arg);
+			}
+			options.put(arg.substring(0, split), arg.substring(split + 1));
+		}
+		LoadTest loadTest = new LoadTest(options);
+		System.out.printf("messages=%d, warmup=%d, threads=%d, channels=%d, rate=%s, work=%dus, mix=%s%n", loadTest.messages, loadTest.warmup, loadTest.threads, loadTest.channels, loadTest.rate > 0 ? loadTest.rate + "/s" : "unlimited", TimeUnit.NANOSECONDS.toMicros(loadTest.workNanos), loadTest.mix);
+		for (String handler : loadTest.handlers) {
+			switch (handler) {
+				case "guild":
+					loadTest.run(handler, new GuildCommandHandler.Builder(), GuildMessageCommandContext.class, (jda, message) -> new GuildMessageReceivedEvent(jda, 0L, message.createMessage(jda, true)), GuildCommandHandler::onGuildMessageReceived);
+					break;
+				case "private":
+					loadTest.run(handler, new PrivateCommandHandler.Builder(), PrivateMessageCommandContext.class, (jda, message) -> new PrivateMessageReceivedEvent(jda, 0L, message.createMessage(jda, false)), PrivateCommandHandler::onPrivateMessageReceived);
+					break;
+				case "message":
+					loadTest.run(handler, new CommandHandler.Builder(), MessageCommandContext.class, (jda, message) -> new MessageReceivedEvent(jda, 0L, message.createMessage(jda, true)), CommandHandler::onMessageReceived);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown handler: " + handler);
+			}
+		}
+	}
+
+	private <E extends Event, C extends CommandContext<E>, H extends AbstractCommandHandler<E, C>> void run(String name, AbstractCommandHandlerBuilder<E, C, H, ?> handlerBuilder, Class<C> contextClass, EventFactory<E> eventFactory, BiConsumer<H, E> dispatcher) throws InterruptedException {
+		Random random = new Random(this.seed);
+		JDA jda = Stubs.jda();
+		Scenario[] weightedScenarios = this.getWeightedScenarios();
+		Scenario[] scenarios = new Scenario[POOL_SIZE];
+		Object[] events = new Object[POOL_SIZE];
+		for (int i = 0; i < POOL_SIZE; i++) {
+			Scenario scenario = weightedScenarios[random.nextInt(weightedScenarios.length)];
+			scenarios[i] = scenario;
+			events[i] = eventFactory.create(jda, scenario.withRandom(random, random.nextInt(this.channels) + 1L));
+		}
+		handlerBuilder.registerCommand(createCommand(contextClass, this.workNanos));
+		this.runRound(handlerBuilder, events, dispatcher, this.warmup, null);
+		Report report = new Report(name, this.messages);
+		for (int i = 0; i < this.messages; i++) {
+			report.sent.merge(scenarios[i % POOL_SIZE], 1, Integer::sum);
+		}
+		this.runRound(handlerBuilder, events, dispatcher, this.messages, report);
+		report.print();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <E extends Event, C extends CommandContext<E>, H extends AbstractCommandHandler<E, C>> void runRound(AbstractCommandHandlerBuilder<E, C, H, ?> handlerBuilder, Object[] events, BiConsumer<H, E> dispatcher, int messages, Report report) throws InterruptedException {
+		if (messages <= 0) return;
+		long[] latencies = new long[messages];
+		RecordingFeedbackHandler.Recording recording = new RecordingFeedbackHandler.Recording();
+		TaskTimer timer = new TaskTimer(latencies);
+		KeyedExecutorService executor = KeyedExecutorService.builder("LoadTest").setLanes(this.threads).setTaskDecorator(timer).build();
+		H handler = handlerBuilder.setFeedbackBuilder(RecordingFeedbackHandler.builder(recording)).setExecutorService(executor).build();
+		long intervalNanos = this.rate > 0 ? TimeUnit.SECONDS.toNanos(1) / this.rate : 0L;
+		long queueDepthSum = 0L;
+		int maxQueueDepth = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < messages; i++) {
+			if (intervalNanos > 0L) {
+				long scheduled = start + i * intervalNanos;
+				long wait;
+				while ((wait = scheduled - System.nanoTime()) > 0L) {
+					LockSupport.parkNanos(wait);
+				}
+				timer.sendTime = scheduled;
+			} else {
+				timer.sendTime = System.nanoTime();
+			}
+			dispatcher.accept(handler, (E) events[i % events.length]);
+			int queueDepth = executor.getQueuedTasks();
+			queueDepthSum += queueDepth;
+			maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+		}
+		handler.shutdown();
+		executor.awaitTermination(1, TimeUnit.HOURS);
+		long elapsed = System.nanoTime() - start;
+		if (report != null) {
+			report.complete(elapsed, latencies, timer.recorded.get(), (double) queueDepthSum / messages, maxQueueDepth, recording);
+		}
+	}
+
+	private Scenario[] getWeightedScenarios() {
+		int total = this.mix.values().stream().mapToInt(Integer::intValue).sum();
+		if (total <= 0) {
+			throw new IllegalArgumentException("The mix must have a positive total weight");
+		}
+		Scenario[] weighted = new Scenario[total];
+		int index = 0;
+		for (Map.Entry<Scenario, Integer> entry : this.mix.entrySet()) {
+			Arrays.fill(weighted, index, index + entry.getValue(), entry.getKey());
+			index += entry.getValue();
+		}
+		return weighted;
+	}
+
+	private static <E extends Event, C extends CommandContext<E>> Command<E, C> createCommand(Class<C> contextClass, long workNanos) {
+		RootNode<E, C> node = RootNode.Builder.<E, C>create(contextClass)
+			.then(
+				ArgumentNode.Builder.<E, C>create(ConfiguredArgument.named(UserArgument.get(), channel -> "user"), contextClass)
+					.then(
+						ArgumentNode.Builder.<E, C>create(ConfiguredArgument.named(IntegerArgument.getClamped(0, 100), channel -> "amount"), contextClass)
+							.consumes(context -> {
+								if (workNanos > 0L) {
+									LockSupport.parkNanos(workNanos);
+								}
+								context.getFeedbackHandler().sendSuccess(CommandMessage.EMPTY);
+							})
+					)
+			).build();
+		return new Command<>(Collections.singleton("give"), Collections.singleton(Permission.MANAGE_CHANNEL), node);
+	}
+
+	/**
+	 * The kinds of messages sent in a load test.
+	 */
+	enum Scenario {
+		VALID,
+		WRONG_PREFIX,
+		UNKNOWN_COMMAND,
+		BAD_ARGUMENT,
+		MISSING_PERMISSIONS;
+
+		private static final String[] BAD_ARGUMENTS = {" <@!%d> %d", " <@!%d> lots", " <@!%d>", " user %d", ""};
+
+		private GeneratedMessage withRandom(Random random, long channelId) {
+			long user = 100000000000000000L + (random.nextLong() >>> 1) % 900000000000000000L;
+			int amount = random.nextInt(101);
+			switch (this) {
+				case WRONG_PREFIX:
+					return new GeneratedMessage(String.format("?give <@!%d> %d", user, amount), true, channelId);
+				case UNKNOWN_COMMAND:
+					return new GeneratedMessage(String.format("!take <@!%d> %d", user, amount), true, channelId);
+				case BAD_ARGUMENT:
+					return new GeneratedMessage(String.format("!give" + BAD_ARGUMENTS[random.nextInt(BAD_ARGUMENTS.length)], user, 101 + amount), true, channelId);
+				case MISSING_PERMISSIONS:
+					return new GeneratedMessage(String.format("!give <@!%d> %d", user, amount), false, channelId);
+				default:
+					return new GeneratedMessage(String.format("!give <@!%d> %d", user, amount), true, channelId);
+			}
+		}
+	}
+
+	static final class GeneratedMessage {
+		private final String content;
+		private final boolean hasPermissions;
+		private final long channelId;
+
+		private GeneratedMessage(String content, boolean hasPermissions, long channelId) {
+			this.content = content;
+			this.hasPermissions = hasPermissions;
+			this.channelId = channelId;
+		}
+
+		private Message createMessage(JDA jda, boolean fromGuild) {
+			return Stubs.message(jda, this.content, fromGuild, this.hasPermissions, this.channelId);
+		}
+	}
+
+	@FunctionalInterface
+	interface EventFactory<E extends Event> {
+		E create(JDA jda, GeneratedMessage message);
+	}
+
+	/**
+	 * A task decorator for a {@link KeyedExecutorService} that records how long each task took from when its message was sent until it finished.
+	 * <p>Each task gets wrapped with its own send time when it gets executed. Tasks executed by the thread sending messages use the {@link #sendTime} it set for the current message,
+	 * and tasks executed from other threads, such as feedback sent by a running command, use the time they were executed at.</p>
+	 */
+	static final class TaskTimer implements UnaryOperator<Runnable> {
+		private final Thread sender = Thread.currentThread();
+		private final long[] latencies;
+		private final AtomicInteger recorded = new AtomicInteger();
+		private long sendTime;
+
+		private TaskTimer(long[] latencies) {
+			this.latencies = latencies;
+		}
+
+		@Override
+		public Runnable apply(Runnable runnable) {
+			return new TimedTask(runnable, Thread.currentThread() == this.sender ? this.sendTime : System.nanoTime());
+		}
+
+		private final class TimedTask implements Runnable {
+			private final Runnable runnable;
+			private final long sendTime;
+
+			private TimedTask(Runnable runnable, long sendTime) {
+				this.runnable = runnable;
+				this.sendTime = sendTime;
+			}
+
+			@Override
+			public void run() {
+				try {
+					this.runnable.run();
+				} finally {
+					int index = TaskTimer.this.recorded.getAndIncrement();
+					if (index < TaskTimer.this.latencies.length) {
+						TaskTimer.this.latencies[index] = System.nanoTime() - this.sendTime;
+					}
+				}
+			}
+		}
+	}
+
+	static final class Report {
+		private final String name;
+		private final int messages;
+		private final EnumMap<Scenario, Integer> sent = new EnumMap<>(Scenario.class);
+		private long elapsed;
+		private long[] latencies;
+		private double averageQueueDepth;
+		private int maxQueueDepth;
+		private RecordingFeedbackHandler.Recording recording;
+
+		private Report(String name, int messages) {
+			this.name = name;
+			this.messages = messages;
+		}
+
+		private void complete(long elapsed, long[] latencies, int recorded, double averageQueueDepth, int maxQueueDepth, RecordingFeedbackHandler.Recording recording) {
+			this.elapsed = elapsed;
+			this.latencies = Arrays.copyOf(latencies, Math.min(recorded, latencies.length));
+			Arrays.sort(this.latencies);
+			this.averageQueueDepth = averageQueueDepth;
+			this.maxQueueDepth = maxQueueDepth;
+			this.recording = recording;
+		}
+
+		private double percentile(double percentile) {
+			if (this.latencies.length == 0) return 0.0D;
+			int index = Math.max(0, (int) Math.ceil(percentile * this.latencies.length) - 1);
+			return this.latencies[index] / 1000.0D;
+		}
+
+		private void print() {
+			double seconds = this.elapsed / 1.0E9D;
+			System.out.printf("%n[%s] %d messages in %.3f s, %.0f msgs/sec%n", this.name, this.messages, seconds, this.messages / seconds);
+			System.out.printf("  latency: p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus%n", this.percentile(0.5D), this.percentile(0.99D), this.percentile(0.999D), this.percentile(1.0D));
+			System.out.printf("  queue depth: avg=%.1f max=%d%n", this.averageQueueDepth, this.maxQueueDepth);
+			System.out.printf("  sent: %s%n", this.sent);
+			System.out.printf("  feedback: successes=%d, errors=%d, other=%d%n", this.recording.getSuccesses(), this.recording.getErrors(), this.recording.getFeedback());
+			for (String sample : this.recording.getErrorSamples()) {
+				System.out.printf("    error: %s%n", sample);
+			}
+		}
+	}
+}
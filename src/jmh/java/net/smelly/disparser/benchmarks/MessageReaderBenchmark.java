@@ -0,0 +1,80 @@
+package net.smelly.disparser.benchmarks;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.smelly.disparser.MessageReader;
+import net.smelly.disparser.feedback.exceptions.DisparserExceptionProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks tokenizing messages with {@link MessageReader#create(net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider, Message)}.
+ *
+ * @author Luke Tonon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageReaderBenchmark {
+	@Param({"short", "complex", "long", "whitespace"})
+	public String content;
+	private Message message;
+
+	@Setup
+	public void setup() {
+		String content;
+		switch (this.content) {
+			case "short":
+				content = "!ping";
+				break;
+			case "complex":
+				content = "!complex <#123456789012345678> <@!123456789012345678> 55.5 c";
+				break;
+			case "long":
+				StringBuilder builder = new StringBuilder("!sum");
+				for (int i = 0; i < 200; i++) {
+					builder.append(' ').append(i);
+				}
+				content = builder.toString();
+				break;
+			default:
+				content = "  !complex \t<#123456789012345678>\n\n<@!123456789012345678>   55.5  c  ";
+		}
+		this.message = Stubs.message(Stubs.jda(), content, true, true);
+	}
+
+	@Benchmark
+	public MessageReader create() {
+		return MessageReader.create(DisparserExceptionProvider.INSTANCE, this.message);
+	}
+
+	@Benchmark
+	public void createAndReadComponents(Blackhole blackhole) {
+		MessageReader reader = MessageReader.create(DisparserExceptionProvider.INSTANCE, this.message);
+		while (reader.hasNextArg()) {
+			blackhole.consume(reader.tryNextComponent());
+		}
+	}
+
+	@Benchmark
+	public void createAndReadArguments(Blackhole blackhole) {
+		MessageReader reader = MessageReader.create(DisparserExceptionProvider.INSTANCE, this.message);
+		while (reader.hasNextArg()) {
+			blackhole.consume(reader.tryNextArgument());
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package net.smelly.disparser.benchmarks;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
+import net.smelly.disparser.MessageReader;
+import net.smelly.disparser.PrimitiveArgument;
+import net.smelly.disparser.arguments.java.BooleanArgument;
+import net.smelly.disparser.arguments.java.ByteArgument;
+import net.smelly.disparser.arguments.java.CharArgument;
+import net.smelly.disparser.arguments.java.DoubleArgument;
+import net.smelly.disparser.arguments.java.IntegerArgument;
+import net.smelly.disparser.arguments.java.LongArgument;
+import net.smelly.disparser.arguments.java.ShortArgument;
+import net.smelly.disparser.context.ParsedArgumentList;
+import net.smelly.disparser.feedback.exceptions.DisparserExceptionProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the unboxed path of each built-in {@link PrimitiveArgument}, from {@link PrimitiveArgument#tryParsePrimitive(MessageReader)} to reading the value back out of a {@link ParsedArgumentList}.
+ * <p>The {@link MessageReader} gets rewound and the {@link ParsedArgumentList} cleared before each operation, so only the parse and the unboxed store and read get measured.
+ * Run with the GC profiler, which the {@code jmh} task does, to check the allocation rate of each argument.</p>
+ * <p>The integral, char, and boolean arguments shouldn't allocate anything, whether the input is valid or not, as a failed read only creates its exception when it gets reported.
+ * The double argument still materializes the component as a {@link String} to parse it, and invalid input also creates the {@link NumberFormatException} thrown by {@link Double#parseDouble(String)}.</p>
+ *
+ * @author Luke Tonon
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveArgumentBenchmark {
+	@Param({"integer", "long", "short", "byte", "char", "boolean", "double"})
+	public String argument;
+	@Param({"true", "false"})
+	public boolean valid;
+	private final ParsedArgumentList arguments = new ParsedArgumentList();
+	private PrimitiveArgument<?> primitiveArgument;
+	private MessageReader reader;
+
+	@Setup
+	public void setup() {
+		String input;
+		switch (this.argument) {
+			case "integer":
+				this.primitiveArgument = IntegerArgument.get();
+				input = this.valid ? "123456" : "123456abc";
+				break;
+			case "long":
+				this.primitiveArgument = LongArgument.get();
+				input = this.valid ? "123456789012345678" : "1234567890123456789012";
+				break;
+			case "short":
+				this.primitiveArgument = ShortArgument.get();
+				input = this.valid ? "1234" : "123456";
+				break;
+			case "byte":
+				this.primitiveArgument = ByteArgument.get();
+				input = this.valid ? "-12" : "1200";
+				break;
+			case "char":
+				this.primitiveArgument = CharArgument.get();
+				input = this.valid ? "c" : "chars";
+				break;
+			case "boolean":
+				this.primitiveArgument = BooleanArgument.get();
+				input = this.valid ? "true" : "maybe";
+				break;
+			default:
+				this.primitiveArgument = DoubleArgument.get();
+				input = this.valid ? "1234.5678" : "1234.5678.9";
+		}
+		JDA jda = Stubs.jda();
+		String content = "!argument " + input;
+		Message message = Stubs.message(jda, content, true, true);
+		this.reader = new MessageReader(DisparserExceptionProvider.INSTANCE, message, content);
+	}
+
+	@Benchmark
+	public long tryParsePrimitive() {
+		MessageReader reader = this.reader;
+		reader.setIndex(0);
+		return this.primitiveArgument.tryParsePrimitive(reader);
+	}
+
+	@Benchmark
+	public long parseAndStore() {
+		MessageReader reader = this.reader;
+		ParsedArgumentList arguments = this.arguments;
+		reader.setIndex(0);
+		arguments.clear();
+		long value = this.primitiveArgument.tryParsePrimitive(reader);
+		if (reader.hasReadFailed()) {
+			return -1L;
+		}
+		arguments.addPrimitive(this.primitiveArgument, value);
+		return arguments.getLong(0);
+	}
+}
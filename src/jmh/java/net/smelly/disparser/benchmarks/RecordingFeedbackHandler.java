@@ -0,0 +1,114 @@
+package net.smelly.disparser.benchmarks;
+
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.smelly.disparser.feedback.CommandMessage;
+import net.smelly.disparser.feedback.FeedbackHandler;
+import net.smelly.disparser.feedback.FeedbackHandlerBuilder;
+import net.smelly.disparser.feedback.exceptions.CommandException;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link FeedbackHandler} that records the feedback it gets sent onto a {@link Recording} instead of sending it to Discord.
+ *
+ * @author Luke Tonon
+ * @see Recording
+ */
+@ThreadSafe
+public final class RecordingFeedbackHandler implements FeedbackHandler {
+	private final Recording recording;
+	private final MessageChannel channel;
+
+	public RecordingFeedbackHandler(Recording recording, MessageChannel channel) {
+		this.recording = recording;
+		this.channel = channel;
+	}
+
+	/**
+	 * @param recording The {@link Recording} to record feedback onto.
+	 * @return A {@link FeedbackHandlerBuilder} that builds {@link RecordingFeedbackHandler}s for a {@link Recording}.
+	 */
+	public static FeedbackHandlerBuilder builder(Recording recording) {
+		return channel -> new RecordingFeedbackHandler(recording, channel);
+	}
+
+	@Override
+	public void sendFeedback(CommandMessage commandMessage) {
+		this.recording.feedback.increment();
+	}
+
+	@Override
+	public void sendFeedback(MessageEmbed messageEmbed) {
+		this.recording.feedback.increment();
+	}
+
+	@Override
+	public void sendSuccess(CommandMessage message) {
+		this.recording.successes.increment();
+	}
+
+	@Override
+	public void sendError(Exception exception) {
+		this.recording.errors.increment();
+		if (this.recording.sampledErrors.get() < Recording.MAX_ERROR_SAMPLES && this.recording.sampledErrors.getAndIncrement() < Recording.MAX_ERROR_SAMPLES) {
+			String message = exception instanceof CommandException ? ((CommandException) exception).getCommandMessage().getMessage(this.channel) : String.valueOf(exception.getMessage());
+			this.recording.errorSamples.add(message.replace('\n', ' '));
+		}
+	}
+
+	/**
+	 * Counts the feedback sent to {@link RecordingFeedbackHandler}s and keeps a few samples of the errors sent.
+	 */
+	@ThreadSafe
+	public static final class Recording {
+		private static final int MAX_ERROR_SAMPLES = 5;
+		private final LongAdder feedback = new LongAdder();
+		private final LongAdder successes = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private final AtomicInteger sampledErrors = new AtomicInteger();
+		private final ConcurrentLinkedQueue<String> errorSamples = new ConcurrentLinkedQueue<>();
+
+		/**
+		 * @return The amount of feedback messages and embeds sent.
+		 */
+		public long getFeedback() {
+			return this.feedback.sum();
+		}
+
+		/**
+		 * @return The amount of success messages sent.
+		 */
+		public long getSuccesses() {
+			return this.successes.sum();
+		}
+
+		/**
+		 * @return The amount of errors sent.
+		 */
+		public long getErrors() {
+			return this.errors.sum();
+		}
+
+		/**
+		 * @return The messages of the first few errors sent.
+		 */
+		public List<String> getErrorSamples() {
+			return new ArrayList<>(this.errorSamples);
+		}
+
+		@Override
+		public String toString() {
+			return "Recording{" +
+					"feedback=" + this.getFeedback() +
+					", successes=" + this.getSuccesses() +
+					", errors=" + this.getErrors() +
+					'}';
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package net.smelly.disparser.benchmarks;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.ChannelType;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.PrivateChannel;
+import net.dv8tion.jda.api.entities.TextChannel;
+import net.dv8tion.jda.api.entities.Webhook;
+import net.dv8tion.jda.api.requests.RestAction;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Creates stub implementations of JDA interfaces, such as {@link net.dv8tion.jda.api.entities.Message}, so commands can be disparsed and dispatched without connecting to Discord.
+ * <p>Stubs answer methods by name using their answers. Methods without an answer return zero for primitives, the first constant for enums, an empty string for strings, a completed future for futures, and another stub for interfaces, which gets cached so calling the same method twice returns the same stub.</p>
+ *
+ * @author Luke Tonon
+ */
+public final class Stubs {
+
+	private Stubs() {}
+
+	/**
+	 * @param type The interface to stub.
+	 * @param <T>  The type of the interface.
+	 * @return A new stub of an interface without any answers.
+	 */
+	public static <T> T stub(Class<T> type) {
+		return builder(type).build();
+	}
+
+	/**
+	 * @param type The interface to stub.
+	 * @param <T>  The type of the interface.
+	 * @return A new {@link Builder} for a stub of an interface.
+	 */
+	public static <T> Builder<T> builder(Class<T> type) {
+		return new Builder<>(type);
+	}
+
+	/**
+	 * Creates a stub {@link JDA} that can find any entity by its ID, including webhooks.
+	 *
+	 * @return A new stub {@link JDA}.
+	 */
+	public static JDA jda() {
+		RestAction<?> webhookAction = builder(RestAction.class).returns("submit", CompletableFuture.completedFuture(stub(Webhook.class))).build();
+		return builder(JDA.class).returns("retrieveWebhookById", webhookAction).build();
+	}
+
+	/**
+	 * Creates a stub {@link Message} sent in a {@link TextChannel} of a {@link Guild} or in a {@link PrivateChannel}.
+	 * <p>The guild of the message can find any entity by its ID.</p>
+	 *
+	 * @param jda            The {@link JDA} of the message.
+	 * @param content        The raw content of the message.
+	 * @param fromGuild      If the message is sent in a guild.
+	 * @param hasPermissions If the member who sent the message has all permissions, by owning the guild.
+	 * @return A new stub {@link Message}.
+	 */
+	public static Message message(JDA jda, String content, boolean fromGuild, boolean hasPermissions) {
+		return message(jda, content, fromGuild, hasPermissions, 0L);
+	}
+
+	/**
+	 * Creates a stub {@link Message} sent in a {@link TextChannel} of a {@link Guild} or in a {@link PrivateChannel} with an ID.
+	 *
+	 * @param jda            The {@link JDA} of the message.
+	 * @param content        The raw content of the message.
+	 * @param fromGuild      If the message is sent in a guild.
+	 * @param hasPermissions If the member who sent the message has all permissions, by owning the guild.
+	 * @param channelId      The ID of the channel the message is sent in.
+	 * @return A new stub {@link Message}.
+	 */
+	public static Message message(JDA jda, String content, boolean fromGuild, boolean hasPermissions, long channelId) {
+		Guild guild = builder(Guild.class).returns("getJDA", jda).build();
+		TextChannel textChannel = builder(TextChannel.class).returns("getGuild", guild).returns("getJDA", jda).returns("getName", "general").returns("getIdLong", channelId).build();
+		PrivateChannel privateChannel = builder(PrivateChannel.class).returns("getJDA", jda).returns("getName", "private").returns("getIdLong", channelId).build();
+		Member member = builder(Member.class).returns("getGuild", guild).returns("hasPermission", hasPermissions).returns("isOwner", hasPermissions).build();
+		return builder(Message.class)
+			.returns("getContentRaw", content)
+			.returns("getJDA", jda)
+			.returns("isFromGuild", fromGuild)
+			.returns("getChannelType", fromGuild ? ChannelType.TEXT : ChannelType.PRIVATE)
+			.returns("getChannel", fromGuild ? textChannel : privateChannel)
+			.returns("getTextChannel", fromGuild ? textChannel : null)
+			.returns("getPrivateChannel", fromGuild ? null : privateChannel)
+			.returns("getGuild", fromGuild ? guild : null)
+			.returns("getMember", fromGuild ? member : null)
+			.returns("getIdLong", 1L)
+			.build();
+	}
+
+	private static Object getDefaultValue(Class<?> type, Map<Method, Object> children, Method method) {
+		if (type == void.class) return null;
+		if (type == boolean.class) return false;
+		if (type == char.class) return '\0';
+		if (type == byte.class) return (byte) 0;
+		if (type == short.class) return (short) 0;
+		if (type == int.class) return 0;
+		if (type == long.class) return 0L;
+		if (type == float.class) return 0.0F;
+		if (type == double.class) return 0.0D;
+		if (type == String.class) return "";
+		if (type.isEnum()) {
+			Object[] constants = type.getEnumConstants();
+			return constants.length > 0 ? constants[0] : null;
+		}
+		if (type == CompletableFuture.class) return CompletableFuture.completedFuture(null);
+		if (type.isInterface()) return children.computeIfAbsent(method, key -> stub(type));
+		return null;
+	}
+
+	/**
+	 * A builder for stubs.
+	 *
+	 * @param <T> The type of the interface to stub.
+	 */
+	public static final class Builder<T> {
+		private final Class<T> type;
+		private final Map<String, Function<Object[], Object>> answers = new HashMap<>();
+
+		private Builder(Class<T> type) {
+			this.type = type;
+		}
+
+		/**
+		 * Answers all methods with a name using a function of their arguments.
+		 *
+		 * @param name   The name of the methods to answer.
+		 * @param answer A {@link Function} taking the arguments of the call, which are null for no arguments, and returning the result.
+		 * @return This builder.
+		 */
+		public Builder<T> answer(String name, Function<Object[], Object> answer) {
+			this.answers.put(name, answer);
+			return this;
+		}
+
+		/**
+		 * Answers all methods with a name using a constant value.
+		 *
+		 * @param name  The name of the methods to answer.
+		 * @param value The value to return.
+		 * @return This builder.
+		 */
+		public Builder<T> returns(String name, Object value) {
+			return this.answer(name, args -> value);
+		}
+
+		/**
+		 * @return A new stub built from this builder.
+		 */
+		public T build() {
+			Map<String, Function<Object[], Object>> answers = new HashMap<>(this.answers);
+			Map<Method, Object> children = new ConcurrentHashMap<>();
+			String name = this.type.getSimpleName() + "Stub";
+			return this.type.cast(Proxy.newProxyInstance(this.type.getClassLoader(), new Class<?>[] {this.type}, new Handler(name, answers, children)));
+		}
+	}
+
+	@ThreadSafe
+	private static final class Handler implements InvocationHandler {
+		private final String name;
+		private final Map<String, Function<Object[], Object>> answers;
+		private final Map<Method, Object> children;
+
+		private Handler(String name, Map<String, Function<Object[], Object>> answers, Map<Method, Object> children) {
+			this.name = name;
+			this.answers = answers;
+			this.children = children;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			Function<Object[], Object> answer = this.answers.get(method.getName());
+			if (answer != null) {
+				return answer.apply(args);
+			}
+			if (method.getDeclaringClass() == Object.class) {
+				switch (method.getName()) {
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						return this.name;
+				}
+			}
+			return getDefaultValue(method.getReturnType(), this.children, method);
+		}
+	}
+}
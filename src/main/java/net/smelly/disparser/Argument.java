@@ -7,21 +7,45 @@ import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * Implemented on classes to be used as arguments for parsing components of messages.
+ * <p>Implementations must override at least one of {@link #tryParse(MessageReader)} and {@link #parse(MessageReader)}, as each one calls the other by default.
+ * {@link #tryParse(MessageReader)} is the fast path that Disparser calls, so new arguments should override it.</p>
  *
  * @param <T> Type of this argument
  * @author Luke Tonon
  * @see ConfiguredArgument
  * @see ParsedArgument
+ * @see ParseResult
  */
 @ThreadSafe
 public interface Argument<T> {
+	/**
+	 * Tries to parse the argument into a {@link ParseResult}.
+	 * <p>Failures should be returned using {@link ParseResult#failure(java.util.function.Supplier)} instead of throwing, so that failing speculative parses don't have to create an exception.</p>
+	 * <p>By default this adapts {@link #parse(MessageReader)} for arguments written before this method existed, catching the {@link CommandException} it throws.
+	 * Arguments should override this instead, as the default still creates an exception for every failure.</p>
+	 *
+	 * @param reader An {@link MessageReader} to use in parsing for this argument.
+	 * @return A {@link ParseResult} containing the parsed object or the failure.
+	 */
+	@Nonnull
+	default ParseResult<T> tryParse(MessageReader reader) {
+		try {
+			return ParseResult.success(this.parse(reader).getResult());
+		} catch (CommandException exception) {
+			return ParseResult.failure(() -> exception);
+		}
+	}
+
 	/**
 	 * Parses the argument into a {@link ParsedArgument}
+	 * <p>By default this is simply an adapter for {@link #tryParse(MessageReader)} that throws failures.</p>
 	 *
 	 * @param reader An {@link MessageReader} to use in parsing for this argument.
 	 * @return A {@link ParsedArgument} containing the parsed object.
 	 * @throws CommandException If an exception occurs trying to parse the argument.
 	 */
 	@Nonnull
-	ParsedArgument<T> parse(MessageReader reader) throws CommandException;
-}
\ No newline at end of file
+	default ParsedArgument<T> parse(MessageReader reader) throws CommandException {
+		return this.tryParse(reader).orElseThrow();
+	}
+}
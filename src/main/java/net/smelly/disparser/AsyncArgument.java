@@ -0,0 +1,65 @@
+package net.smelly.disparser;
+
+import net.smelly.disparser.feedback.exceptions.CommandException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * An {@link Argument} that needs to look up its result asynchronously, such as with a REST request.
+ * <p>When disparsing, the lookups of all the asynchronous arguments of a command get started as they are read, so they are all in flight at once, and the command only runs once they have all finished.
+ * The thread processing the command doesn't wait on them, so it's free to process other commands in the meantime.</p>
+ *
+ * @param <T> Type of this argument
+ * @author Luke Tonon
+ * @see net.smelly.disparser.context.CommandContextBuilder#addPendingArgument(CompletableFuture)
+ */
+@ThreadSafe
+public interface AsyncArgument<T> extends Argument<T> {
+	/**
+	 * Tries to parse the argument into a {@link ParseResult} of a {@link CompletableFuture} for its {@link ParsedArgument}, without waiting for any lookups.
+	 * <p>Failures that can be found without a lookup, such as malformed IDs, should be returned using {@link ParseResult#failure(java.util.function.Supplier)} so other nodes can be tried.
+	 * Failed lookups should complete the future exceptionally with a {@link CommandException}.</p>
+	 *
+	 * @param reader An {@link MessageReader} to use in parsing for this argument.
+	 * @return A {@link ParseResult} containing a {@link CompletableFuture} for the {@link ParsedArgument}, or the failure.
+	 */
+	@Nonnull
+	ParseResult<CompletableFuture<ParsedArgument<T>>> tryParseAsync(MessageReader reader);
+
+	/**
+	 * Gets if this argument should be parsed with {@link #tryParseAsync(MessageReader)} when disparsing.
+	 * <p>Arguments that only sometimes need lookups, such as ones configured to only use cached entities, can return false to be parsed with {@link #tryParse(MessageReader)} instead.</p>
+	 *
+	 * @return If this argument should be parsed asynchronously when disparsing.
+	 */
+	default boolean isAsync() {
+		return true;
+	}
+
+	/**
+	 * Tries to parse the argument into a {@link ParseResult}, waiting for its lookup to finish.
+	 *
+	 * @param reader An {@link MessageReader} to use in parsing for this argument.
+	 * @return A {@link ParseResult} containing the parsed object or the failure.
+	 */
+	@Nonnull
+	@Override
+	default ParseResult<T> tryParse(MessageReader reader) {
+		ParseResult<CompletableFuture<ParsedArgument<T>>> result = this.tryParseAsync(reader);
+		if (!result.isSuccess()) {
+			return ParseResult.failure(result.getFailure());
+		}
+		try {
+			return ParseResult.success(result.getArgument().getResult().join().getResult());
+		} catch (CompletionException exception) {
+			Throwable cause = exception.getCause();
+			if (cause instanceof CommandException) {
+				return ParseResult.failure(() -> (CommandException) cause);
+			}
+			throw exception;
+		}
+	}
+}
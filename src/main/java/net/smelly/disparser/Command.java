@@ -8,7 +8,9 @@ import net.smelly.disparser.context.tree.RootNode;
 import net.smelly.disparser.feedback.exceptions.CommandException;
 import net.smelly.disparser.properties.AliasesProperty;
 import net.smelly.disparser.properties.CommandProperty;
+import net.smelly.disparser.properties.CooldownProperty;
 import net.smelly.disparser.properties.PermissionsProperty;
+import net.smelly.disparser.properties.RateLimit;
 import org.apache.commons.collections4.set.UnmodifiableSet;
 
 import javax.annotation.concurrent.Immutable;
@@ -27,6 +29,7 @@ import java.util.Set;
 public class Command<E extends Event, C extends CommandContext<E>> {
 	private final AliasesProperty aliasesProperty;
 	private final PermissionsProperty permissionsProperty;
+	private final CooldownProperty cooldownProperty;
 	private final UnmodifiableSet<CommandProperty<?, ?>> properties;
 	private final RootNode<E, C> rootNode;
 
@@ -35,11 +38,17 @@ public class Command<E extends Event, C extends CommandContext<E>> {
 	}
 
 	public Command(Set<String> aliases, Set<Permission> permissions, RootNode<E, C> rootNode) {
+		this(aliases, permissions, RateLimit.unlimited(), rootNode);
+	}
+
+	public Command(Set<String> aliases, Set<Permission> permissions, RateLimit cooldown, RootNode<E, C> rootNode) {
 		this.aliasesProperty = AliasesProperty.create(aliases);
 		this.permissionsProperty = PermissionsProperty.create(permissions);
+		this.cooldownProperty = CooldownProperty.create(cooldown);
 		Set<CommandProperty<?, ?>> properties = new HashSet<>();
 		properties.add(this.aliasesProperty);
 		properties.add(this.permissionsProperty);
+		properties.add(this.cooldownProperty);
 		this.properties = (UnmodifiableSet<CommandProperty<?, ?>>) UnmodifiableSet.unmodifiableSet(properties);
 		this.rootNode = rootNode;
 	}
@@ -47,10 +56,20 @@ public class Command<E extends Event, C extends CommandContext<E>> {
 	public Command(AliasesProperty aliasesProperty, PermissionsProperty permissionsProperty, Set<CommandProperty<?, ?>> properties, RootNode<E, C> rootNode) {
 		this.aliasesProperty = aliasesProperty;
 		this.permissionsProperty = permissionsProperty;
+		this.cooldownProperty = findCooldownProperty(properties);
 		this.properties = (UnmodifiableSet<CommandProperty<?, ?>>) UnmodifiableSet.unmodifiableSet(properties);
 		this.rootNode = rootNode;
 	}
 
+	private static CooldownProperty findCooldownProperty(Set<CommandProperty<?, ?>> properties) {
+		for (CommandProperty<?, ?> property : properties) {
+			if (property instanceof CooldownProperty) {
+				return (CooldownProperty) property;
+			}
+		}
+		return CooldownProperty.create(RateLimit.unlimited());
+	}
+
 	/**
 	 * Used for processing this command.
 	 * <b>Override this if you wish to do manual things</b>
@@ -79,6 +98,16 @@ public class Command<E extends Event, C extends CommandContext<E>> {
 		return this.permissionsProperty;
 	}
 
+	/**
+	 * Gets this command's {@link CooldownProperty}.
+	 * <p>Commands have no cooldown by default.</p>
+	 *
+	 * @return This command's {@link CooldownProperty}.
+	 */
+	public CooldownProperty getCooldownProperty() {
+		return this.cooldownProperty;
+	}
+
 	/**
 	 * Gets this command's properties.
 	 *
@@ -102,6 +131,7 @@ public class Command<E extends Event, C extends CommandContext<E>> {
 		return "Command{" +
 				"aliasesProperty=" + this.aliasesProperty +
 				", permissionsProperty=" + this.permissionsProperty +
+				", cooldownProperty=" + this.cooldownProperty +
 				", properties=" + this.properties +
 				", rootNode=" + this.rootNode +
 				'}';
@@ -44,6 +44,17 @@ public final class ConfiguredArgument<T> {
 		return new ConfiguredArgument<>(argument, name);
 	}
 
+	/**
+	 * Tries to parse the {@link Argument} in this {@link ConfiguredArgument} for a given {@link MessageReader}.
+	 *
+	 * @param reader A {@link MessageReader} to parse the {@link Argument} from.
+	 * @return A {@link ParseResult} from the {@link Argument} being parsed.
+	 * @see Argument#tryParse(MessageReader)
+	 */
+	public ParseResult<T> tryParse(MessageReader reader) {
+		return this.argument.tryParse(reader);
+	}
+
 	/**
 	 * Parses the {@link Argument} in this {@link ConfiguredArgument} for a given {@link MessageReader}.
 	 *
@@ -4,30 +4,67 @@ import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Message;
 import net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider;
 import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.feedback.exceptions.DynamicCommandExceptionCreator;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
-import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Used to read a {@link Message} and parse {@link Argument}s from it.
- * <p> Stores a {@link Message} and its contents split by spaces. </p>
+ * <p> Stores a {@link Message} and the start and end offsets of its whitespace separated components. </p>
+ * <p> The raw content is only scanned once, and a component is only turned into a {@link String} when it's asked for. Numeric reads are parsed straight from the offsets. </p>
  *
  * @author Luke Tonon
  */
 public final class MessageReader {
+	private static final int DEFAULT_CAPACITY = 8;
 	private final BuiltInExceptionProvider exceptionProvider;
 	private final Message message;
-	private final String[] components;
+	private final String content;
+	private final int[] offsets;
 	private final int length;
+	@Nullable
+	private String[] components;
+	private ReadType readType = ReadType.INT;
+	private int readComponent;
+	private boolean readFailed;
+	@Nullable
+	private Supplier<CommandException> readFailure;
 	private int index;
 
-	public MessageReader(BuiltInExceptionProvider exceptionProvider, Message message, String[] components) {
+	public MessageReader(BuiltInExceptionProvider exceptionProvider, Message message, String content) {
 		this.exceptionProvider = exceptionProvider;
 		this.message = message;
-		this.components = components;
-		this.length = components.length;
+		this.content = content;
+		int[] offsets = new int[DEFAULT_CAPACITY << 1];
+		int length = 0;
+		int contentLength = content.length();
+		int i = 0;
+		while (i < contentLength) {
+			while (i < contentLength && Character.isWhitespace(content.charAt(i))) {
+				i++;
+			}
+			if (i == contentLength) break;
+			int start = i;
+			while (i < contentLength && !Character.isWhitespace(content.charAt(i))) {
+				i++;
+			}
+			if ((length << 1) == offsets.length) {
+				offsets = Arrays.copyOf(offsets, offsets.length << 1);
+			}
+			offsets[length << 1] = start;
+			offsets[(length << 1) + 1] = i;
+			length++;
+		}
+		//An empty message still has an empty first component, just like splitting it would.
+		this.offsets = offsets;
+		this.length = Math.max(1, length);
+	}
+
+	public MessageReader(BuiltInExceptionProvider exceptionProvider, Message message, String[] components) {
+		this(exceptionProvider, message, String.join(" ", components));
 	}
 
 	/**
@@ -38,7 +75,7 @@ public final class MessageReader {
 	 * @return {@link MessageReader} for the message.
 	 */
 	public static MessageReader create(final BuiltInExceptionProvider exceptionProvider, final Message message) {
-		return new MessageReader(exceptionProvider, message, message.getContentRaw().split("\\s+"));
+		return new MessageReader(exceptionProvider, message, message.getContentRaw());
 	}
 
 	/**
@@ -56,10 +93,28 @@ public final class MessageReader {
 	}
 
 	/**
+	 * @return The raw content this reader reads from.
+	 */
+	public String getContent() {
+		return this.content;
+	}
+
+	/**
+	 * Gets the split up message components for this {@link MessageReader}.
+	 * <p>This materializes every component, so prefer {@link #getComponent(int)} or the offset getters when possible.</p>
+	 *
 	 * @return The split up message components for this {@link MessageReader}.
 	 */
 	public String[] getComponents() {
-		return this.components;
+		String[] components = this.components;
+		if (components == null) {
+			components = new String[this.length];
+			for (int i = 0; i < this.length; i++) {
+				components[i] = this.getComponent(i);
+			}
+			this.components = components;
+		}
+		return components;
 	}
 
 	/**
@@ -80,79 +135,269 @@ public final class MessageReader {
 	 * @return The current message component.
 	 */
 	public String getCurrentComponent() {
-		return this.components[this.index];
+		return this.getComponent(this.index);
 	}
 
-	public Integer nextInt() throws CommandException {
-		String nextArg = this.nextArgument();
-		try {
-			return Integer.parseInt(nextArg);
-		} catch (NumberFormatException exception) {
-			throw this.exceptionProvider.getInvalidIntegerException().create(nextArg);
+	/**
+	 * Gets a message component by its index.
+	 *
+	 * @param component The index of the component.
+	 * @return The message component at the given index.
+	 * @throws IndexOutOfBoundsException If there is no component at the given index.
+	 */
+	public String getComponent(int component) {
+		String[] components = this.components;
+		if (components != null) {
+			return components[component];
 		}
+		return this.content.substring(this.getComponentStart(component), this.getComponentEnd(component));
+	}
+
+	/**
+	 * Gets the offset in {@link #getContent()} that a component starts at.
+	 *
+	 * @param component The index of the component.
+	 * @return The inclusive start offset of the component.
+	 * @throws IndexOutOfBoundsException If there is no component at the given index.
+	 */
+	public int getComponentStart(int component) {
+		this.checkComponent(component);
+		return this.offsets[component << 1];
+	}
+
+	/**
+	 * Gets the offset in {@link #getContent()} that a component ends at.
+	 *
+	 * @param component The index of the component.
+	 * @return The exclusive end offset of the component.
+	 * @throws IndexOutOfBoundsException If there is no component at the given index.
+	 */
+	public int getComponentEnd(int component) {
+		this.checkComponent(component);
+		return this.offsets[(component << 1) + 1];
+	}
+
+	/**
+	 * Gets the length of a component without materializing it.
+	 *
+	 * @param component The index of the component.
+	 * @return The length of the component.
+	 * @throws IndexOutOfBoundsException If there is no component at the given index.
+	 */
+	public int getComponentLength(int component) {
+		return this.getComponentEnd(component) - this.getComponentStart(component);
+	}
+
+	/**
+	 * Checks if a component matches a string, ignoring case, without materializing the component.
+	 *
+	 * @param component The index of the component.
+	 * @param string    The string to compare the component to.
+	 * @return If the component matches the string, ignoring case.
+	 * @throws IndexOutOfBoundsException If there is no component at the given index.
+	 */
+	public boolean componentEqualsIgnoreCase(int component, String string) {
+		int start = this.getComponentStart(component);
+		int length = this.getComponentEnd(component) - start;
+		return length == string.length() && this.content.regionMatches(true, start, string, 0, length);
+	}
+
+	public Integer nextInt() throws CommandException {
+		int value = this.readInt();
+		if (this.readFailed) throw this.getReadException();
+		return value;
 	}
 
 	public Long nextLong() throws CommandException {
-		String nextArg = this.nextArgument();
-		try {
-			return Long.parseLong(nextArg);
-		} catch (NumberFormatException exception) {
-			throw this.exceptionProvider.getInvalidLongException().create(nextArg);
-		}
+		long value = this.readLong();
+		if (this.readFailed) throw this.getReadException();
+		return value;
 	}
 
 	public Character nextChar() throws CommandException {
-		String nextArg = this.nextArgument();
-		if (nextArg.length() > 1) {
-			throw this.exceptionProvider.getInvalidCharException().create(nextArg);
-		}
-		return nextArg.charAt(0);
+		char value = this.readChar();
+		if (this.readFailed) throw this.getReadException();
+		return value;
 	}
 
 	public Short nextShort() throws CommandException {
-		String nextArg = this.nextArgument();
-		try {
-			return Short.parseShort(nextArg);
-		} catch (NumberFormatException exception) {
-			throw this.exceptionProvider.getInvalidShortException().create(nextArg);
-		}
+		short value = this.readShort();
+		if (this.readFailed) throw this.getReadException();
+		return value;
 	}
 
 	public Byte nextByte() throws CommandException {
-		String nextArg = this.nextArgument();
-		try {
-			return Byte.parseByte(nextArg);
-		} catch (NumberFormatException exception) {
-			throw this.exceptionProvider.getInvalidByteException().create(nextArg);
-		}
+		byte value = this.readByte();
+		if (this.readFailed) throw this.getReadException();
+		return value;
 	}
 
 	public Float nextFloat() throws CommandException {
-		String nextArg = this.nextArgument();
-		try {
-			return Float.parseFloat(nextArg);
-		} catch (NumberFormatException exception) {
-			throw this.exceptionProvider.getInvalidFloatException().create(nextArg);
-		}
+		float value = this.readFloat();
+		if (this.readFailed) throw this.getReadException();
+		return value;
 	}
 
 	public Double nextDouble() throws CommandException {
-		String nextArg = this.nextArgument();
-		try {
-			return Double.parseDouble(nextArg);
-		} catch (NumberFormatException exception) {
-			throw this.exceptionProvider.getInvalidDoubleException().create(nextArg);
-		}
+		double value = this.readDouble();
+		if (this.readFailed) throw this.getReadException();
+		return value;
 	}
 
 	public boolean nextBoolean() throws CommandException {
-		String nextArg = this.nextArgument();
-		if (nextArg.equalsIgnoreCase("true")) {
-			return true;
-		} else if (nextArg.equalsIgnoreCase("false")) {
-			return false;
+		boolean value = this.readBoolean();
+		if (this.readFailed) throw this.getReadException();
+		return value;
+	}
+
+	/**
+	 * Reads the next component as an int without boxing it or throwing.
+	 * <p>If the read fails, {@link #hasReadFailed()} will be true and the exception for it can be created using {@link #getReadException()}.</p>
+	 *
+	 * @return The read int, or 0 if the read failed.
+	 */
+	public int readInt() {
+		return (int) this.readIntegral(ReadType.INT, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Reads the next component as a long without boxing it or throwing.
+	 *
+	 * @return The read long, or 0 if the read failed.
+	 * @see #readInt()
+	 */
+	public long readLong() {
+		return this.readIntegral(ReadType.LONG, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Reads the next component as a short without boxing it or throwing.
+	 *
+	 * @return The read short, or 0 if the read failed.
+	 * @see #readInt()
+	 */
+	public short readShort() {
+		return (short) this.readIntegral(ReadType.SHORT, Short.MIN_VALUE, Short.MAX_VALUE);
+	}
+
+	/**
+	 * Reads the next component as a byte without boxing it or throwing.
+	 *
+	 * @return The read byte, or 0 if the read failed.
+	 * @see #readInt()
+	 */
+	public byte readByte() {
+		return (byte) this.readIntegral(ReadType.BYTE, Byte.MIN_VALUE, Byte.MAX_VALUE);
+	}
+
+	/**
+	 * Reads the next component as a float without boxing it or throwing.
+	 * <p>Unlike the integral reads, this still materializes the component to parse it.</p>
+	 *
+	 * @return The read float, or 0 if the read failed.
+	 * @see #readInt()
+	 */
+	public float readFloat() {
+		return (float) this.readFloatingPoint(ReadType.FLOAT);
+	}
+
+	/**
+	 * Reads the next component as a double without boxing it or throwing.
+	 * <p>Unlike the integral reads, this still materializes the component to parse it.</p>
+	 *
+	 * @return The read double, or 0 if the read failed.
+	 * @see #readInt()
+	 */
+	public double readDouble() {
+		return this.readFloatingPoint(ReadType.DOUBLE);
+	}
+
+	/**
+	 * Reads the next component as a char without boxing it or throwing.
+	 *
+	 * @return The read char, or 0 if the read failed.
+	 * @see #readInt()
+	 */
+	public char readChar() {
+		if (this.startRead(ReadType.CHAR)) {
+			int component = this.index;
+			if (this.getComponentLength(component) == 1) {
+				return this.content.charAt(this.getComponentStart(component));
+			}
+			this.readFailed = true;
+		}
+		return 0;
+	}
+
+	/**
+	 * Reads the next component as a boolean without boxing it or throwing.
+	 *
+	 * @return The read boolean, or false if the read failed.
+	 * @see #readInt()
+	 */
+	public boolean readBoolean() {
+		if (this.startRead(ReadType.BOOLEAN)) {
+			int component = this.index;
+			if (this.componentEqualsIgnoreCase(component, "true")) {
+				return true;
+			} else if (!this.componentEqualsIgnoreCase(component, "false")) {
+				this.readFailed = true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return If the last read, such as {@link #readInt()} or {@link #tryNextComponent()}, failed.
+	 */
+	public boolean hasReadFailed() {
+		return this.readFailed;
+	}
+
+	/**
+	 * Marks the last read as failed with a custom failure.
+	 * <p>This is useful for failures that aren't caused by reading, such as a read value being out of range.</p>
+	 *
+	 * @param failure A {@link Supplier} to lazily create the {@link CommandException} describing the failure.
+	 */
+	public void failRead(Supplier<CommandException> failure) {
+		this.readFailed = true;
+		this.readFailure = failure;
+	}
+
+	/**
+	 * Gets a {@link Supplier} that lazily creates the {@link CommandException} describing why the last read failed.
+	 * <p>The returned {@link Supplier} won't be affected by further reads, and nothing gets formatted until it gets called.</p>
+	 *
+	 * @return A {@link Supplier} that lazily creates the {@link CommandException} describing why the last read failed.
+	 * @throws IllegalStateException If the last read didn't fail.
+	 */
+	public Supplier<CommandException> getReadFailure() {
+		if (!this.readFailed) {
+			throw new IllegalStateException("The last read didn't fail");
 		}
-		throw this.exceptionProvider.getInvalidBooleanException().create(nextArg);
+		Supplier<CommandException> readFailure = this.readFailure;
+		if (readFailure != null) {
+			return readFailure;
+		}
+		BuiltInExceptionProvider exceptionProvider = this.exceptionProvider;
+		int component = this.readComponent;
+		if (component >= this.length) {
+			return () -> exceptionProvider.getExpectedArgumentException().create(component);
+		}
+		ReadType readType = this.readType;
+		return () -> readType.createException(exceptionProvider, this.getComponent(component));
+	}
+
+	/**
+	 * Creates the {@link CommandException} describing why the last read failed.
+	 * <p>This should only be called when {@link #hasReadFailed()} is true.</p>
+	 *
+	 * @return The {@link CommandException} describing why the last read failed.
+	 * @throws IllegalStateException If the last read didn't fail.
+	 */
+	public CommandException getReadException() {
+		return this.getReadFailure().get();
 	}
 
 	/**
@@ -166,6 +411,18 @@ public final class MessageReader {
 		return parser.parse(this.nextArgument());
 	}
 
+	/**
+	 * Used to try to convert strings to non-primitive type arguments without throwing.
+	 *
+	 * @param parser A {@link TryParser} to try to parse the next string argument to a {@link ParseResult}.
+	 * @param <A>    The type of the argument.
+	 * @return The {@link ParseResult} from the parser, or a failed {@link ParseResult} if there was no next argument.
+	 */
+	public <A> ParseResult<A> tryParseNextArgument(TryParser<A> parser) {
+		String nextArg = this.tryNextArgument();
+		return nextArg == null ? ParseResult.failure(this.getReadFailure()) : parser.tryParse(nextArg);
+	}
+
 	/**
 	 * Gets the next argument in the message's components.
 	 * <p> Should ideally only be called once in {@link Argument#parse(MessageReader)}. </p>
@@ -173,20 +430,61 @@ public final class MessageReader {
 	 * @return The next argument.
 	 */
 	public String nextArgument() throws CommandException {
-		if (this.hasNextArg()) {
-			this.index++;
-			return this.components[this.index];
-		} else {
-			this.index++;
-			throw this.exceptionProvider.getExpectedArgumentException().create(this.index);
+		return this.getComponent(this.nextComponent());
+	}
+
+	/**
+	 * Tries to get the next argument in the message's components without throwing.
+	 *
+	 * @return The next argument, or null if there is none, in which case {@link #hasReadFailed()} will be true.
+	 */
+	@Nullable
+	public String tryNextArgument() {
+		int component = this.tryNextComponent();
+		return this.readFailed ? null : this.getComponent(component);
+	}
+
+	/**
+	 * Moves onto the next component without materializing it.
+	 * <p>Use the offset getters, such as {@link #getComponentStart(int)}, to read the returned component.</p>
+	 *
+	 * @return The index of the next component.
+	 * @throws CommandException If there is no next component.
+	 */
+	public int nextComponent() throws CommandException {
+		int component = this.tryNextComponent();
+		if (this.readFailed) throw this.getReadException();
+		return component;
+	}
+
+	/**
+	 * Moves onto the next component without materializing it or throwing.
+	 *
+	 * @return The index of the next component. If there is none, {@link #hasReadFailed()} will be true.
+	 */
+	public int tryNextComponent() {
+		this.startRead(ReadType.STRING);
+		return this.index;
+	}
+
+	/**
+	 * Sets the current component index, used for rewinding the reader after a failed parse.
+	 *
+	 * @param index The component index to set.
+	 * @throws IndexOutOfBoundsException If the index is negative.
+	 */
+	public void setIndex(int index) {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("Index: " + index);
 		}
+		this.index = index;
 	}
 
 	public String lastArgument() throws CommandException {
 		if (this.index <= 0) {
 			throw this.exceptionProvider.getExpectedArgumentException().create(this.index - 1);
 		}
-		return this.components[--this.index];
+		return this.getComponent(--this.index);
 	}
 
 	/**
@@ -203,23 +501,135 @@ public final class MessageReader {
 		return this.message.isFromGuild() ? this.message.getGuild() : null;
 	}
 
+	private void checkComponent(int component) {
+		if (component < 0 || component >= this.length) {
+			throw new IndexOutOfBoundsException("Component: " + component + ", Length: " + this.length);
+		}
+	}
+
+	/**
+	 * Moves onto the next component for a primitive read, setting up the read's failure state.
+	 *
+	 * @return If there was a next component to read.
+	 */
+	private boolean startRead(ReadType type) {
+		this.readType = type;
+		this.readFailure = null;
+		this.readComponent = ++this.index;
+		this.readFailed = this.index >= this.length;
+		return !this.readFailed;
+	}
+
+	/**
+	 * Parses a base 10 integral value straight from the next component's offsets, following the same rules as {@link Long#parseLong(String)}.
+	 */
+	private long readIntegral(ReadType type, long min, long max) {
+		if (!this.startRead(type)) return 0L;
+		int start = this.getComponentStart(this.index);
+		int end = this.getComponentEnd(this.index);
+		this.readFailed = true;
+		if (start >= end) return 0L;
+		String content = this.content;
+		boolean negative = false;
+		long limit = -Long.MAX_VALUE;
+		int i = start;
+		char first = content.charAt(i);
+		if (first < '0') {
+			if (first == '-') {
+				negative = true;
+				limit = Long.MIN_VALUE;
+			} else if (first != '+') {
+				return 0L;
+			}
+			if (++i == end) return 0L;
+		}
+		long multiplyMin = limit / 10;
+		long result = 0L;
+		while (i < end) {
+			int digit = Character.digit(content.charAt(i++), 10);
+			if (digit < 0 || result < multiplyMin) return 0L;
+			result *= 10;
+			if (result < limit + digit) return 0L;
+			result -= digit;
+		}
+		long value = negative ? result : -result;
+		if (value < min || value > max) return 0L;
+		this.readFailed = false;
+		return value;
+	}
+
+	private double readFloatingPoint(ReadType type) {
+		if (!this.startRead(type)) return 0.0D;
+		try {
+			String component = this.getComponent(this.index);
+			return type == ReadType.FLOAT ? Float.parseFloat(component) : Double.parseDouble(component);
+		} catch (NumberFormatException exception) {
+			this.readFailed = true;
+			return 0.0D;
+		}
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
 		if (o == null || this.getClass() != o.getClass()) return false;
 		MessageReader reader = (MessageReader) o;
-		return this.length == reader.length && Arrays.equals(Arrays.copyOfRange(this.components, 1, this.components.length), Arrays.copyOfRange(reader.components, 1, reader.components.length));
+		if (this.length != reader.length) return false;
+		for (int i = 1; i < this.length; i++) {
+			int length = this.getComponentLength(i);
+			if (length != reader.getComponentLength(i) || !this.content.regionMatches(this.getComponentStart(i), reader.content, reader.getComponentStart(i), length)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	@Override
 	public int hashCode() {
-		int result = Objects.hash(this.length);
-		result = 31 * result + Arrays.hashCode(Arrays.copyOfRange(this.components, 1, this.components.length));
-		return result;
+		int componentsHash = 1;
+		for (int i = 1; i < this.length; i++) {
+			int componentHash = 0;
+			for (int j = this.getComponentStart(i), end = this.getComponentEnd(i); j < end; j++) {
+				componentHash = 31 * componentHash + this.content.charAt(j);
+			}
+			componentsHash = 31 * componentsHash + componentHash;
+		}
+		return 31 * (31 + this.length) + componentsHash;
 	}
 
 	@FunctionalInterface
 	public interface Parser<A> {
 		ParsedArgument<A> parse(String arg) throws CommandException;
 	}
-}
\ No newline at end of file
+
+	@FunctionalInterface
+	public interface TryParser<A> {
+		ParseResult<A> tryParse(String arg);
+	}
+
+	/**
+	 * The types of primitive reads, used for lazily creating the exception for a failed read.
+	 */
+	private enum ReadType {
+		INT(BuiltInExceptionProvider::getInvalidIntegerException),
+		LONG(BuiltInExceptionProvider::getInvalidLongException),
+		SHORT(BuiltInExceptionProvider::getInvalidShortException),
+		BYTE(BuiltInExceptionProvider::getInvalidByteException),
+		FLOAT(BuiltInExceptionProvider::getInvalidFloatException),
+		DOUBLE(BuiltInExceptionProvider::getInvalidDoubleException),
+		CHAR(BuiltInExceptionProvider::getInvalidCharException),
+		BOOLEAN(BuiltInExceptionProvider::getInvalidBooleanException),
+		//Component reads can only fail by there being no next component
+		STRING(null);
+
+		private final Function<BuiltInExceptionProvider, DynamicCommandExceptionCreator<String>> exceptionGetter;
+
+		ReadType(Function<BuiltInExceptionProvider, DynamicCommandExceptionCreator<String>> exceptionGetter) {
+			this.exceptionGetter = exceptionGetter;
+		}
+
+		private CommandException createException(BuiltInExceptionProvider exceptionProvider, String component) {
+			return this.exceptionGetter.apply(exceptionProvider).create(component);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package net.smelly.disparser;
+
+import net.smelly.disparser.feedback.exceptions.CommandException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The result of trying to parse an {@link Argument}, which is either a {@link ParsedArgument} or a failure.
+ * <p>A failure holds a {@link Supplier} for its {@link CommandException}, so the exception and its message only get created if the failure actually gets reported. This makes failing speculative parses, such as trying the children of a node, cheap.</p>
+ *
+ * @param <T> The type of the parsed result.
+ * @author Luke Tonon
+ * @see Argument#tryParse(MessageReader)
+ */
+@Immutable
+public final class ParseResult<T> {
+	@Nullable
+	private final ParsedArgument<T> argument;
+	@Nullable
+	private final Supplier<CommandException> failure;
+
+	private ParseResult(@Nullable ParsedArgument<T> argument, @Nullable Supplier<CommandException> failure) {
+		this.argument = argument;
+		this.failure = failure;
+	}
+
+	/**
+	 * @param result The result.
+	 * @param <T>    The type of the result.
+	 * @return A new successful {@link ParseResult} that contains a non-null result.
+	 * @throws NullPointerException if result is null
+	 */
+	public static <T> ParseResult<T> success(@Nonnull T result) {
+		return new ParseResult<>(ParsedArgument.parse(result), null);
+	}
+
+	/**
+	 * @param failure A {@link Supplier} to lazily create the {@link CommandException} describing the failure.
+	 * @param <T>     The type of the result.
+	 * @return A new failed {@link ParseResult}.
+	 * @throws NullPointerException if failure is null
+	 */
+	public static <T> ParseResult<T> failure(@Nonnull Supplier<CommandException> failure) {
+		return new ParseResult<>(null, Objects.requireNonNull(failure));
+	}
+
+	/**
+	 * @return If this result is successful.
+	 */
+	public boolean isSuccess() {
+		return this.argument != null;
+	}
+
+	/**
+	 * @return The {@link ParsedArgument} of this result.
+	 * @throws IllegalStateException If this result is a failure.
+	 */
+	@Nonnull
+	public ParsedArgument<T> getArgument() {
+		if (this.argument == null) {
+			throw new IllegalStateException("Cannot get the argument of a failed result");
+		}
+		return this.argument;
+	}
+
+	/**
+	 * @return The {@link Supplier} for the {@link CommandException} describing the failure of this result.
+	 * @throws IllegalStateException If this result is successful.
+	 */
+	@Nonnull
+	public Supplier<CommandException> getFailure() {
+		if (this.failure == null) {
+			throw new IllegalStateException("Cannot get the failure of a successful result");
+		}
+		return this.failure;
+	}
+
+	/**
+	 * Gets the {@link ParsedArgument} of this result, or throws the {@link CommandException} describing its failure.
+	 *
+	 * @return The {@link ParsedArgument} of this result.
+	 * @throws CommandException If this result is a failure.
+	 */
+	@Nonnull
+	public ParsedArgument<T> orElseThrow() throws CommandException {
+		if (this.argument == null) {
+			throw this.getFailure().get();
+		}
+		return this.argument;
+	}
+
+	/**
+	 * Maps the result of this result, keeping failures as they are.
+	 *
+	 * @param mapper A {@link Function} to map the result with.
+	 * @param <R>    The type of the mapped result.
+	 * @return A new {@link ParseResult} with the mapped result, or this result cast if it's a failure.
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> ParseResult<R> map(Function<? super T, ? extends R> mapper) {
+		if (this.argument == null) {
+			return (ParseResult<R>) this;
+		}
+		return success(mapper.apply(this.argument.getResult()));
+	}
+
+	@Override
+	public String toString() {
+		return this.argument != null ? "ParseResult{argument=" + this.argument + '}' : "ParseResult{failed}";
+	}
+}
@@ -0,0 +1,68 @@
+package net.smelly.disparser;
+
+import net.smelly.disparser.context.CommandContext;
+import net.smelly.disparser.feedback.exceptions.CommandException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * An {@link Argument} extension for arguments that parse a primitive value.
+ * <p>Primitive arguments get parsed without boxing and get stored unboxed in a {@link CommandContext}, so reading them with methods like {@link CommandContext#getInt(int)} doesn't create any garbage.</p>
+ * <p>The primitive value is passed around as a long. Integral values are stored as is, floating point values are stored as the raw bits of a double, booleans are stored as 0 or 1 and chars are stored as their numeric value.</p>
+ *
+ * @param <T> The boxed type of this argument.
+ * @author Luke Tonon
+ * @see Argument
+ * @see CommandContext#getInt(int)
+ */
+@ThreadSafe
+public interface PrimitiveArgument<T> extends Argument<T> {
+	/**
+	 * Tries to parse the argument into its primitive value.
+	 * <p>Failures are signaled through the {@link MessageReader}, where {@link MessageReader#hasReadFailed()} will be true afterwards. Failures not caused by reading, such as range checks, should be set using {@link MessageReader#failRead(java.util.function.Supplier)}.</p>
+	 *
+	 * @param reader An {@link MessageReader} to use in parsing for this argument.
+	 * @return The parsed primitive value stored as a long, or 0 if it failed.
+	 */
+	long tryParsePrimitive(MessageReader reader);
+
+	/**
+	 * Boxes a primitive value parsed by this argument.
+	 *
+	 * @param value A primitive value parsed by {@link #tryParsePrimitive(MessageReader)}.
+	 * @return The boxed value.
+	 */
+	@Nonnull
+	T box(long value);
+
+	/**
+	 * @return If this argument parses floating point values, meaning its values are stored as the raw bits of a double.
+	 */
+	default boolean isFloatingPoint() {
+		return false;
+	}
+
+	/**
+	 * Parses the argument into its primitive value.
+	 *
+	 * @param reader An {@link MessageReader} to use in parsing for this argument.
+	 * @return The parsed primitive value stored as a long.
+	 * @throws CommandException If an exception occurs trying to parse the argument.
+	 * @see #tryParsePrimitive(MessageReader)
+	 */
+	default long parsePrimitive(MessageReader reader) throws CommandException {
+		long value = this.tryParsePrimitive(reader);
+		if (reader.hasReadFailed()) {
+			throw reader.getReadException();
+		}
+		return value;
+	}
+
+	@Nonnull
+	@Override
+	default ParseResult<T> tryParse(MessageReader reader) {
+		long value = this.tryParsePrimitive(reader);
+		return reader.hasReadFailed() ? ParseResult.failure(reader.getReadFailure()) : ParseResult.success(this.box(value));
+	}
+}
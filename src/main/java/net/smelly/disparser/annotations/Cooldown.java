@@ -0,0 +1,44 @@
+package net.smelly.disparser.annotations;
+
+import net.smelly.disparser.properties.RateLimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Used to overwrite a command instance's cooldown when registering it to a {@link net.smelly.disparser.context.handlers.AbstractCommandHandler}.
+ * <p>Cooldowns get checked before a command gets disparsed, so users on cooldown get rejected before any of their message gets read.</p>
+ *
+ * @author Luke Tonon
+ * @see RateLimit
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({TYPE, FIELD})
+public @interface Cooldown {
+	/**
+	 * @return - The length of the cooldown, or 0 for no cooldown.
+	 */
+	long value();
+
+	/**
+	 * @return - The {@link TimeUnit} of the length of the cooldown.
+	 */
+	TimeUnit unit() default TimeUnit.SECONDS;
+
+	/**
+	 * @return - The number of times the command can be used within the length of the cooldown.
+	 */
+	int uses() default 1;
+
+	/**
+	 * @return - What the cooldown applies to.
+	 */
+	RateLimit.Scope scope() default RateLimit.Scope.USER;
+}
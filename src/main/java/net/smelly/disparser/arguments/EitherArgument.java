@@ -2,8 +2,7 @@ package net.smelly.disparser.arguments;
 
 import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.ParseResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -45,16 +44,14 @@ public final class EitherArgument<F, S, FA extends Argument<F>, SA extends Argum
 
 	@Nonnull
 	@Override
-	public ParsedArgument<Either<F, S>> parse(MessageReader reader) throws CommandException {
+	public ParseResult<Either<F, S>> tryParse(MessageReader reader) {
 		int prevIndex = reader.getIndex();
-		try {
-			return ParsedArgument.parse(Either.first(this.firstArgument.parse(reader).getResult()));
-		} catch (CommandException e) {
-			if (prevIndex < reader.getIndex()) {
-				reader.lastArgument();
-			}
-			return ParsedArgument.parse(Either.second(this.secondArgument.parse(reader).getResult()));
+		ParseResult<F> first = this.firstArgument.tryParse(reader);
+		if (first.isSuccess()) {
+			return ParseResult.success(Either.first(first.getArgument().getResult()));
 		}
+		reader.setIndex(prevIndex);
+		return this.secondArgument.tryParse(reader).map(Either::second);
 	}
 
 	public static final class Either<F, S> {
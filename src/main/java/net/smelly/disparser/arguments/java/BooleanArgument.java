@@ -1,9 +1,7 @@
 package net.smelly.disparser.arguments.java;
 
-import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.PrimitiveArgument;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -14,7 +12,7 @@ import javax.annotation.concurrent.ThreadSafe;
  * @author Luke Tonon
  */
 @ThreadSafe
-public final class BooleanArgument implements Argument<Boolean> {
+public final class BooleanArgument implements PrimitiveArgument<Boolean> {
 	private static final BooleanArgument DEFAULT = new BooleanArgument();
 
 	private BooleanArgument() {
@@ -27,10 +25,15 @@ public final class BooleanArgument implements Argument<Boolean> {
 		return DEFAULT;
 	}
 
+	@Override
+	public long tryParsePrimitive(MessageReader reader) {
+		return reader.readBoolean() ? 1L : 0L;
+	}
+
 	@Nonnull
 	@Override
-	public ParsedArgument<Boolean> parse(MessageReader reader) throws CommandException {
-		return ParsedArgument.parse(reader.nextBoolean());
+	public Boolean box(long value) {
+		return value != 0L;
 	}
 
 	@Override
@@ -1,9 +1,7 @@
 package net.smelly.disparser.arguments.java;
 
-import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.PrimitiveArgument;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -14,7 +12,7 @@ import javax.annotation.concurrent.ThreadSafe;
  * @author Luke Tonon
  */
 @ThreadSafe
-public final class ByteArgument implements Argument<Byte> {
+public final class ByteArgument implements PrimitiveArgument<Byte> {
 	private static final ByteArgument DEFAULT = new ByteArgument(Byte.MIN_VALUE, Byte.MAX_VALUE);
 	private final byte minimum;
 	private final byte maximum;
@@ -62,16 +60,23 @@ public final class ByteArgument implements Argument<Byte> {
 		return new ByteArgument(Byte.MIN_VALUE, max);
 	}
 
-	@Nonnull
 	@Override
-	public ParsedArgument<Byte> parse(MessageReader reader) throws CommandException {
-		byte abyte = reader.nextByte();
-		if (abyte > this.maximum) {
-			throw reader.getExceptionProvider().getValueTooHighException().create(abyte, this.maximum);
-		} else if (abyte < this.minimum) {
-			throw reader.getExceptionProvider().getValueTooLowException().create(abyte, this.minimum);
+	public long tryParsePrimitive(MessageReader reader) {
+		byte abyte = reader.readByte();
+		if (!reader.hasReadFailed()) {
+			if (abyte > this.maximum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooHighException().create(abyte, this.maximum));
+			} else if (abyte < this.minimum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooLowException().create(abyte, this.minimum));
+			}
 		}
-		return ParsedArgument.parse(abyte);
+		return abyte;
+	}
+
+	@Nonnull
+	@Override
+	public Byte box(long value) {
+		return (byte) value;
 	}
 
 	@Override
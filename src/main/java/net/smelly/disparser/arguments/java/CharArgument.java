@@ -1,9 +1,7 @@
 package net.smelly.disparser.arguments.java;
 
-import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.PrimitiveArgument;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -14,7 +12,7 @@ import javax.annotation.concurrent.ThreadSafe;
  * @author Luke Tonon
  */
 @ThreadSafe
-public final class CharArgument implements Argument<Character> {
+public final class CharArgument implements PrimitiveArgument<Character> {
 	private static final CharArgument DEFAULT = new CharArgument();
 
 	private CharArgument() {
@@ -27,10 +25,15 @@ public final class CharArgument implements Argument<Character> {
 		return DEFAULT;
 	}
 
+	@Override
+	public long tryParsePrimitive(MessageReader reader) {
+		return reader.readChar();
+	}
+
 	@Nonnull
 	@Override
-	public ParsedArgument<Character> parse(MessageReader reader) throws CommandException {
-		return ParsedArgument.parse(reader.nextChar());
+	public Character box(long value) {
+		return (char) value;
 	}
 
 	@Override
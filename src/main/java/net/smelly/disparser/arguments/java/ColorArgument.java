@@ -2,8 +2,7 @@ package net.smelly.disparser.arguments.java;
 
 import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.ParseResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -33,17 +32,22 @@ public final class ColorArgument implements Argument<Color> {
 
 	@Nonnull
 	@Override
-	public ParsedArgument<Color> parse(MessageReader reader) throws CommandException {
-		try {
-			return ParsedArgument.parse(this.colorTypeEnumArgument.parse(reader).getResult().color);
-		} catch (CommandException enumException) {
-			try {
-				reader.lastArgument();
-				return ParsedArgument.parse(new Color(reader.nextInt()));
-			} catch (CommandException e) {
-				throw reader.getExceptionProvider().getInvalidColorException().create(reader.getCurrentComponent());
-			}
+	public ParseResult<Color> tryParse(MessageReader reader) {
+		int prevIndex = reader.getIndex();
+		ParseResult<ColorType> colorType = this.colorTypeEnumArgument.tryParse(reader);
+		if (colorType.isSuccess()) {
+			return ParseResult.success(colorType.getArgument().getResult().color);
 		}
+		reader.setIndex(prevIndex);
+		int rgb = reader.readInt();
+		if (!reader.hasReadFailed()) {
+			return ParseResult.success(new Color(rgb));
+		}
+		int component = reader.getIndex();
+		if (component >= reader.getLength()) {
+			return ParseResult.failure(reader.getReadFailure());
+		}
+		return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidColorException().create(reader.getComponent(component)));
 	}
 
 	public enum ColorType {
@@ -1,9 +1,7 @@
 package net.smelly.disparser.arguments.java;
 
-import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.PrimitiveArgument;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -14,7 +12,7 @@ import javax.annotation.concurrent.ThreadSafe;
  * @author Luke Tonon
  */
 @ThreadSafe
-public final class DoubleArgument implements Argument<Double> {
+public final class DoubleArgument implements PrimitiveArgument<Double> {
 	private static final DoubleArgument DEFAULT = new DoubleArgument(Double.MIN_VALUE, Double.MAX_VALUE);
 	private final double minimum;
 	private final double maximum;
@@ -62,16 +60,28 @@ public final class DoubleArgument implements Argument<Double> {
 		return new DoubleArgument(Double.MIN_VALUE, max);
 	}
 
-	@Nonnull
 	@Override
-	public ParsedArgument<Double> parse(MessageReader reader) throws CommandException {
-		double adouble = reader.nextDouble();
-		if (adouble > this.maximum) {
-			throw reader.getExceptionProvider().getValueTooHighException().create(adouble, this.maximum);
-		} else if (adouble < this.minimum) {
-			throw reader.getExceptionProvider().getValueTooHighException().create(adouble, this.minimum);
+	public long tryParsePrimitive(MessageReader reader) {
+		double adouble = reader.readDouble();
+		if (!reader.hasReadFailed()) {
+			if (adouble > this.maximum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooHighException().create(adouble, this.maximum));
+			} else if (adouble < this.minimum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooHighException().create(adouble, this.minimum));
+			}
 		}
-		return ParsedArgument.parse(adouble);
+		return Double.doubleToRawLongBits(adouble);
+	}
+
+	@Nonnull
+	@Override
+	public Double box(long value) {
+		return Double.longBitsToDouble(value);
+	}
+
+	@Override
+	public boolean isFloatingPoint() {
+		return true;
 	}
 
 	@Override
@@ -2,8 +2,7 @@ package net.smelly.disparser.arguments.java;
 
 import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.ParseResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -32,14 +31,14 @@ public final class EnumArgument<E extends Enum<?>> implements Argument<E> {
 
 	@Nonnull
 	@Override
-	public ParsedArgument<E> parse(MessageReader reader) throws CommandException {
-		return reader.parseNextArgument((arg) -> {
+	public ParseResult<E> tryParse(MessageReader reader) {
+		return reader.tryParseNextArgument((arg) -> {
 			for (E type : this.values) {
 				if (type.toString().equalsIgnoreCase(arg)) {
-					return ParsedArgument.parse(type);
+					return ParseResult.success(type);
 				}
 			}
-			throw reader.getExceptionProvider().getInvalidEnumException().create(arg);
+			return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidEnumException().create(arg));
 		});
 	}
 
@@ -1,9 +1,7 @@
 package net.smelly.disparser.arguments.java;
 
-import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.PrimitiveArgument;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -14,7 +12,7 @@ import javax.annotation.concurrent.ThreadSafe;
  * @author Luke Tonon
  */
 @ThreadSafe
-public final class FloatArgument implements Argument<Float> {
+public final class FloatArgument implements PrimitiveArgument<Float> {
 	private static final FloatArgument DEFAULT = new FloatArgument(Float.MIN_VALUE, Float.MAX_VALUE);
 	private final float minimum;
 	private final float maximum;
@@ -62,16 +60,28 @@ public final class FloatArgument implements Argument<Float> {
 		return new FloatArgument(Float.MIN_VALUE, max);
 	}
 
-	@Nonnull
 	@Override
-	public ParsedArgument<Float> parse(MessageReader reader) throws CommandException {
-		float afloat = reader.nextFloat();
-		if (afloat > this.maximum) {
-			throw reader.getExceptionProvider().getValueTooHighException().create(afloat, this.maximum);
-		} else if (afloat < this.minimum) {
-			throw reader.getExceptionProvider().getValueTooLowException().create(afloat, this.minimum);
+	public long tryParsePrimitive(MessageReader reader) {
+		float afloat = reader.readFloat();
+		if (!reader.hasReadFailed()) {
+			if (afloat > this.maximum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooHighException().create(afloat, this.maximum));
+			} else if (afloat < this.minimum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooLowException().create(afloat, this.minimum));
+			}
 		}
-		return ParsedArgument.parse(afloat);
+		return Double.doubleToRawLongBits(afloat);
+	}
+
+	@Nonnull
+	@Override
+	public Float box(long value) {
+		return (float) Double.longBitsToDouble(value);
+	}
+
+	@Override
+	public boolean isFloatingPoint() {
+		return true;
 	}
 
 	@Override
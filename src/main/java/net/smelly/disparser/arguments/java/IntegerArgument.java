@@ -1,9 +1,7 @@
 package net.smelly.disparser.arguments.java;
 
-import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.PrimitiveArgument;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -14,7 +12,7 @@ import javax.annotation.concurrent.ThreadSafe;
  * @author Luke Tonon
  */
 @ThreadSafe
-public final class IntegerArgument implements Argument<Integer> {
+public final class IntegerArgument implements PrimitiveArgument<Integer> {
 	private static final IntegerArgument DEFAULT = new IntegerArgument(Integer.MIN_VALUE, Integer.MAX_VALUE);
 	private final int minimum;
 	private final int maximum;
@@ -62,16 +60,23 @@ public final class IntegerArgument implements Argument<Integer> {
 		return new IntegerArgument(Integer.MIN_VALUE, max);
 	}
 
-	@Nonnull
 	@Override
-	public ParsedArgument<Integer> parse(MessageReader reader) throws CommandException {
-		int integer = reader.nextInt();
-		if (integer > this.maximum) {
-			throw reader.getExceptionProvider().getValueTooHighException().create(integer, this.maximum);
-		} else if (integer < this.minimum) {
-			throw reader.getExceptionProvider().getValueTooHighException().create(integer, this.minimum);
+	public long tryParsePrimitive(MessageReader reader) {
+		int integer = reader.readInt();
+		if (!reader.hasReadFailed()) {
+			if (integer > this.maximum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooHighException().create(integer, this.maximum));
+			} else if (integer < this.minimum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooHighException().create(integer, this.minimum));
+			}
 		}
-		return ParsedArgument.parse(integer);
+		return integer;
+	}
+
+	@Nonnull
+	@Override
+	public Integer box(long value) {
+		return (int) value;
 	}
 
 	@Override
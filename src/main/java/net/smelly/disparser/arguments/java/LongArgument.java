@@ -1,9 +1,7 @@
 package net.smelly.disparser.arguments.java;
 
-import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.PrimitiveArgument;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -14,7 +12,7 @@ import javax.annotation.concurrent.ThreadSafe;
  * @author Luke Tonon
  */
 @ThreadSafe
-public final class LongArgument implements Argument<Long> {
+public final class LongArgument implements PrimitiveArgument<Long> {
 	private static final LongArgument DEFAULT = new LongArgument(Long.MIN_VALUE, Long.MAX_VALUE);
 	private final long minimum;
 	private final long maximum;
@@ -62,16 +60,23 @@ public final class LongArgument implements Argument<Long> {
 		return new LongArgument(Long.MIN_VALUE, max);
 	}
 
-	@Nonnull
 	@Override
-	public ParsedArgument<Long> parse(MessageReader reader) throws CommandException {
-		long along = reader.nextLong();
-		if (along > this.maximum) {
-			throw reader.getExceptionProvider().getValueTooHighException().create(along, this.maximum);
-		} else if (along < this.minimum) {
-			throw reader.getExceptionProvider().getValueTooHighException().create(along, this.minimum);
+	public long tryParsePrimitive(MessageReader reader) {
+		long along = reader.readLong();
+		if (!reader.hasReadFailed()) {
+			if (along > this.maximum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooHighException().create(along, this.maximum));
+			} else if (along < this.minimum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooHighException().create(along, this.minimum));
+			}
 		}
-		return ParsedArgument.parse(along);
+		return along;
+	}
+
+	@Nonnull
+	@Override
+	public Long box(long value) {
+		return value;
 	}
 
 	@Override
@@ -2,13 +2,12 @@ package net.smelly.disparser.arguments.java;
 
 import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.ParseResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import java.text.NumberFormat;
-import java.text.ParseException;
+import java.text.ParsePosition;
 
 /**
  * A simple argument for parsing a number.
@@ -68,20 +67,20 @@ public final class NumberArgument implements Argument<Number> {
 
 	@Nonnull
 	@Override
-	public ParsedArgument<Number> parse(MessageReader reader) throws CommandException {
-		return reader.parseNextArgument((arg) -> {
-			try {
-				Number number = NUMBER_FORMAT.get().parse(arg);
-				double adouble = number.doubleValue();
-				if (adouble > this.maximum) {
-					throw reader.getExceptionProvider().getValueTooHighException().create(adouble, this.maximum);
-				} else if (adouble < this.minimum) {
-					throw reader.getExceptionProvider().getValueTooHighException().create(adouble, this.minimum);
-				}
-				return ParsedArgument.parse(number);
-			} catch (ParseException e) {
-				throw reader.getExceptionProvider().getInvalidNumberException().create(arg);
+	public ParseResult<Number> tryParse(MessageReader reader) {
+		return reader.tryParseNextArgument((arg) -> {
+			ParsePosition position = new ParsePosition(0);
+			Number number = NUMBER_FORMAT.get().parse(arg, position);
+			if (position.getIndex() == 0) {
+				return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidNumberException().create(arg));
 			}
+			double adouble = number.doubleValue();
+			if (adouble > this.maximum) {
+				return ParseResult.failure(() -> reader.getExceptionProvider().getValueTooHighException().create(adouble, this.maximum));
+			} else if (adouble < this.minimum) {
+				return ParseResult.failure(() -> reader.getExceptionProvider().getValueTooHighException().create(adouble, this.minimum));
+			}
+			return ParseResult.success(number);
 		});
 	}
 
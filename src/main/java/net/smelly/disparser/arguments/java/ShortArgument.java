@@ -1,9 +1,7 @@
 package net.smelly.disparser.arguments.java;
 
-import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.PrimitiveArgument;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -14,7 +12,7 @@ import javax.annotation.concurrent.ThreadSafe;
  * @author Luke Tonon
  */
 @ThreadSafe
-public final class ShortArgument implements Argument<Short> {
+public final class ShortArgument implements PrimitiveArgument<Short> {
 	private static final ShortArgument DEFAULT = new ShortArgument(Short.MIN_VALUE, Short.MAX_VALUE);
 	private final short minimum;
 	private final short maximum;
@@ -62,16 +60,23 @@ public final class ShortArgument implements Argument<Short> {
 		return new ShortArgument(Short.MIN_VALUE, max);
 	}
 
-	@Nonnull
 	@Override
-	public ParsedArgument<Short> parse(MessageReader reader) throws CommandException {
-		short ashort = reader.nextShort();
-		if (ashort > this.maximum) {
-			throw reader.getExceptionProvider().getValueTooHighException().create(ashort, this.maximum);
-		} else if (ashort < this.minimum) {
-			throw reader.getExceptionProvider().getValueTooLowException().create(ashort, this.minimum);
+	public long tryParsePrimitive(MessageReader reader) {
+		short ashort = reader.readShort();
+		if (!reader.hasReadFailed()) {
+			if (ashort > this.maximum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooHighException().create(ashort, this.maximum));
+			} else if (ashort < this.minimum) {
+				reader.failRead(() -> reader.getExceptionProvider().getValueTooLowException().create(ashort, this.minimum));
+			}
 		}
-		return ParsedArgument.parse(ashort);
+		return ashort;
+	}
+
+	@Nonnull
+	@Override
+	public Short box(long value) {
+		return (short) value;
 	}
 
 	@Override
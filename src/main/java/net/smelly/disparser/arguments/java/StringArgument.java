@@ -2,8 +2,7 @@ package net.smelly.disparser.arguments.java;
 
 import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.ParseResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -64,14 +63,15 @@ public final class StringArgument implements Argument<String> {
 
 	@Nonnull
 	@Override
-	public ParsedArgument<String> parse(MessageReader reader) throws CommandException {
-		String nextArgument = reader.nextArgument();
-		if (nextArgument.length() > this.maxChars) {
-			throw reader.getExceptionProvider().getTooHighStringLengthException().create(nextArgument, this.maxChars);
-		} else if (nextArgument.length() < this.minChars) {
-			throw reader.getExceptionProvider().getTooLowStringLengthException().create(nextArgument, this.maxChars);
-		}
-		return ParsedArgument.parse(nextArgument);
+	public ParseResult<String> tryParse(MessageReader reader) {
+		return reader.tryParseNextArgument((nextArgument) -> {
+			if (nextArgument.length() > this.maxChars) {
+				return ParseResult.failure(() -> reader.getExceptionProvider().getTooHighStringLengthException().create(nextArgument, this.maxChars));
+			} else if (nextArgument.length() < this.minChars) {
+				return ParseResult.failure(() -> reader.getExceptionProvider().getTooLowStringLengthException().create(nextArgument, this.maxChars));
+			}
+			return ParseResult.success(nextArgument);
+		});
 	}
 
 	@Override
@@ -2,8 +2,7 @@ package net.smelly.disparser.arguments.java;
 
 import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.ParseResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -31,16 +30,15 @@ public final class URLArgument implements Argument<URL> {
 
 	@Nonnull
 	@Override
-	public ParsedArgument<URL> parse(MessageReader reader) throws CommandException {
-		String next = reader.nextArgument();
-		if (next.startsWith("<") && next.endsWith(">")) {
-			next = next.substring(1, next.length() - 1);
-		}
-		try {
-			return ParsedArgument.parse(new URL(next));
-		} catch (MalformedURLException e) {
-			throw reader.getExceptionProvider().getInvalidURLException().create(next);
-		}
+	public ParseResult<URL> tryParse(MessageReader reader) {
+		return reader.tryParseNextArgument((arg) -> {
+			String next = arg.startsWith("<") && arg.endsWith(">") ? arg.substring(1, arg.length() - 1) : arg;
+			try {
+				return ParseResult.success(new URL(next));
+			} catch (MalformedURLException e) {
+				return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidURLException().create(next));
+			}
+		});
 	}
 
 	@Override
@@ -3,8 +3,7 @@ package net.smelly.disparser.arguments.jda;
 import net.dv8tion.jda.api.entities.Activity;
 import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.ParseResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -100,25 +99,26 @@ public final class EmojiArgument implements Argument<Activity.Emoji> {
 
 	@Nonnull
 	@Override
-	public ParsedArgument<Activity.Emoji> parse(MessageReader reader) throws CommandException {
-		String string = reader.nextArgument();
-		List<Activity.Emoji> emojiCount = getEmojis(string);
-		if (emojiCount.size() == 1) {
-			return ParsedArgument.parse(new Activity.Emoji(string));
-		} else {
-			Matcher matcher = CUSTOM_EMOJI_PATTERN.matcher(string);
-			if (matcher.find()) {
-				if (this.allowCustomEmotes) {
-					throw reader.getExceptionProvider().getCustomEmojiException().create();
-				}
-				try {
-					return ParsedArgument.parse(new Activity.Emoji(matcher.group(2), Long.parseLong(matcher.group(3)), !matcher.group(1).isEmpty()));
-				} catch (NumberFormatException e) {
-					throw reader.getExceptionProvider().getInvalidEmojiException().create(string);
+	public ParseResult<Activity.Emoji> tryParse(MessageReader reader) {
+		return reader.tryParseNextArgument((string) -> {
+			List<Activity.Emoji> emojiCount = getEmojis(string);
+			if (emojiCount.size() == 1) {
+				return ParseResult.success(new Activity.Emoji(string));
+			} else {
+				Matcher matcher = CUSTOM_EMOJI_PATTERN.matcher(string);
+				if (matcher.find()) {
+					if (this.allowCustomEmotes) {
+						return ParseResult.failure(() -> reader.getExceptionProvider().getCustomEmojiException().create());
+					}
+					try {
+						return ParseResult.success(new Activity.Emoji(matcher.group(2), Long.parseLong(matcher.group(3)), !matcher.group(1).isEmpty()));
+					} catch (NumberFormatException e) {
+						return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidEmojiException().create(string));
+					}
 				}
 			}
-		}
-		throw reader.getExceptionProvider().getInvalidEmojiException().create(string);
+			return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidEmojiException().create(string));
+		});
 	}
 
 	@Override
@@ -153,33 +153,35 @@ public final class EmojiArgument implements Argument<Activity.Emoji> {
 
 		@Nonnull
 		@Override
-		public ParsedArgument<List<Activity.Emoji>> parse(MessageReader reader) throws CommandException {
-			String string = reader.nextArgument();
-			List<Activity.Emoji> emojis = new ArrayList<>(getEmojis(string));
-			Matcher matcher = CUSTOM_EMOJI_PATTERN.matcher(string);
-			if (matcher.find()) {
-				if (!this.allowCustomEmotes) {
-					throw reader.getExceptionProvider().getCustomEmojiException().create();
-				}
-				emojis.add(new Activity.Emoji(matcher.group(2), Long.parseLong(matcher.group(3)), !matcher.group(1).isEmpty()));
-				while (matcher.find()) {
-					try {
-						emojis.add(new Activity.Emoji(matcher.group(2), Long.parseLong(matcher.group(3)), !matcher.group(1).isEmpty()));
-					} catch (NumberFormatException e) {
-						throw reader.getExceptionProvider().getInvalidEmojiException().create(matcher.group());
+		public ParseResult<List<Activity.Emoji>> tryParse(MessageReader reader) {
+			return reader.tryParseNextArgument((string) -> {
+				List<Activity.Emoji> emojis = new ArrayList<>(getEmojis(string));
+				Matcher matcher = CUSTOM_EMOJI_PATTERN.matcher(string);
+				if (matcher.find()) {
+					if (!this.allowCustomEmotes) {
+						return ParseResult.failure(() -> reader.getExceptionProvider().getCustomEmojiException().create());
+					}
+					emojis.add(new Activity.Emoji(matcher.group(2), Long.parseLong(matcher.group(3)), !matcher.group(1).isEmpty()));
+					while (matcher.find()) {
+						try {
+							emojis.add(new Activity.Emoji(matcher.group(2), Long.parseLong(matcher.group(3)), !matcher.group(1).isEmpty()));
+						} catch (NumberFormatException e) {
+							String group = matcher.group();
+							return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidEmojiException().create(group));
+						}
 					}
 				}
-			}
-			int size = emojis.size();
-			if (size > 0) {
-				if (size > this.max) {
-					throw reader.getExceptionProvider().getTooManyEmojisException().create(string, this.max);
-				} else if (size < this.min) {
-					throw reader.getExceptionProvider().getNotEnoughEmojisException().create(string, this.min);
+				int size = emojis.size();
+				if (size > 0) {
+					if (size > this.max) {
+						return ParseResult.failure(() -> reader.getExceptionProvider().getTooManyEmojisException().create(string, this.max));
+					} else if (size < this.min) {
+						return ParseResult.failure(() -> reader.getExceptionProvider().getNotEnoughEmojisException().create(string, this.min));
+					}
+					return ParseResult.success(emojis);
 				}
-				return ParsedArgument.parse(emojis);
-			}
-			throw reader.getExceptionProvider().getNoValidEmojisException().create(string);
+				return ParseResult.failure(() -> reader.getExceptionProvider().getNoValidEmojisException().create(string));
+			});
 		}
 
 		@Override
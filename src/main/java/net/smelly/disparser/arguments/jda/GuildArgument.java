@@ -4,8 +4,7 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.ParseResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
@@ -34,18 +33,18 @@ public final class GuildArgument implements Argument<Guild> {
 
 	@Nonnull
 	@Override
-	public ParsedArgument<Guild> parse(MessageReader reader) throws CommandException {
-		return reader.parseNextArgument((arg) -> {
+	public ParseResult<Guild> tryParse(MessageReader reader) {
+		return reader.tryParseNextArgument((arg) -> {
 			try {
 				long id = Long.parseLong(arg);
 				Guild guild = this.jda.getGuildById(id);
 				if (guild != null) {
-					return ParsedArgument.parse(guild);
+					return ParseResult.success(guild);
 				} else {
-					throw reader.getExceptionProvider().getGuildNotFoundException().create(id);
+					return ParseResult.failure(() -> reader.getExceptionProvider().getGuildNotFoundException().create(id));
 				}
 			} catch (NumberFormatException exception) {
-				throw reader.getExceptionProvider().getInvalidGuildIdException().create(arg);
+				return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidGuildIdException().create(arg));
 			}
 		});
 	}
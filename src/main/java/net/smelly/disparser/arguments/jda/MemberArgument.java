@@ -0,0 +1,142 @@
+package net.smelly.disparser.arguments.jda;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.smelly.disparser.AsyncArgument;
+import net.smelly.disparser.MessageReader;
+import net.smelly.disparser.ParseResult;
+import net.smelly.disparser.ParsedArgument;
+import net.smelly.disparser.feedback.exceptions.CommandException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An argument that can parse {@link Member}s of the message sent's {@link Guild} by their ID or a mention of them.
+ * <p>By default only cached members can be parsed. The uncached instance, {@link #getUncached()}, retrieves members that aren't cached asynchronously.</p>
+ * <p>This uses the same exceptions as {@link UserArgument} when a member can't be found.</p>
+ *
+ * @author Luke Tonon
+ */
+@ThreadSafe
+public final class MemberArgument implements AsyncArgument<Member> {
+	private static final Pattern MENTION_PATTERN = Pattern.compile("^<@!?(\\d+)>$");
+	private static final MemberArgument DEFAULT = new MemberArgument(false);
+	private static final MemberArgument UNCACHED = new MemberArgument(true);
+	private final boolean uncached;
+
+	private MemberArgument(boolean uncached) {
+		this.uncached = uncached;
+	}
+
+	/**
+	 * @return A default instance.
+	 */
+	public static MemberArgument get() {
+		return DEFAULT;
+	}
+
+	/**
+	 * @return An instance that retrieves members that aren't cached.
+	 */
+	public static MemberArgument getUncached() {
+		return UNCACHED;
+	}
+
+	@Nonnull
+	@Override
+	public ParseResult<Member> tryParse(MessageReader reader) {
+		if (this.uncached) {
+			return AsyncArgument.super.tryParse(reader);
+		}
+		return reader.tryParseNextArgument((arg) -> {
+			Guild guild = reader.getGuild();
+			try {
+				long parsedId = Long.parseLong(arg);
+				Member foundMember = guild != null ? guild.getMemberById(parsedId) : null;
+				if (foundMember != null) {
+					return ParseResult.success(foundMember);
+				} else {
+					return ParseResult.failure(() -> reader.getExceptionProvider().getUserNotFoundException().create(parsedId));
+				}
+			} catch (NumberFormatException exception) {
+				Matcher matcher = MENTION_PATTERN.matcher(arg);
+
+				if (matcher.matches()) {
+					Member foundMember = guild != null ? guild.getMemberById(Long.parseLong(matcher.group(1))) : null;
+					if (foundMember != null) {
+						return ParseResult.success(foundMember);
+					} else {
+						return ParseResult.failure(() -> reader.getExceptionProvider().getMentionUserNotFoundException().create());
+					}
+				}
+
+				return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidUserException().create(arg));
+			}
+		});
+	}
+
+	/**
+	 * Tries to parse a member, retrieving it without waiting for the REST request if this argument is uncached and the member isn't cached.
+	 *
+	 * @param reader An {@link MessageReader} to use in parsing for this argument.
+	 * @return A {@link ParseResult} containing a {@link CompletableFuture} for the member, or the failure.
+	 */
+	@Nonnull
+	@Override
+	public ParseResult<CompletableFuture<ParsedArgument<Member>>> tryParseAsync(MessageReader reader) {
+		if (!this.uncached) {
+			return this.tryParse(reader).map(member -> CompletableFuture.completedFuture(ParsedArgument.parse(member)));
+		}
+		return reader.tryParseNextArgument((arg) -> {
+			long id;
+			boolean mention = false;
+			try {
+				id = Long.parseLong(arg);
+			} catch (NumberFormatException exception) {
+				Matcher matcher = MENTION_PATTERN.matcher(arg);
+				if (!matcher.matches()) {
+					return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidUserException().create(arg));
+				}
+				id = Long.parseLong(matcher.group(1));
+				mention = true;
+			}
+			long parsedId = id;
+			Supplier<CommandException> notFound = mention ? () -> reader.getExceptionProvider().getMentionUserNotFoundException().create() : () -> reader.getExceptionProvider().getUserNotFoundException().create(parsedId);
+			Guild guild = reader.getGuild();
+			if (guild == null) {
+				return ParseResult.failure(notFound);
+			}
+			Member cachedMember = guild.getMemberById(id);
+			if (cachedMember != null) {
+				return ParseResult.success(CompletableFuture.completedFuture(ParsedArgument.parse(cachedMember)));
+			}
+			return ParseResult.success(guild.retrieveMemberById(id).submit().handle((member, throwable) -> {
+				if (member == null) {
+					throw new CompletionException(notFound.get());
+				}
+				return ParsedArgument.parse(member);
+			}));
+		});
+	}
+
+	/**
+	 * @return If this argument retrieves members that aren't cached.
+	 */
+	@Override
+	public boolean isAsync() {
+		return this.uncached;
+	}
+
+	@Override
+	public String toString() {
+		return "MemberArgument{" +
+				"uncached=" + this.uncached +
+				'}';
+	}
+}
@@ -5,8 +5,7 @@ import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Role;
 import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.ParseResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -50,16 +49,16 @@ public final class RoleArgument implements Argument<Role> {
 
 	@Nonnull
 	@Override
-	public ParsedArgument<Role> parse(MessageReader reader) throws CommandException {
-		return reader.parseNextArgument((arg) -> {
+	public ParseResult<Role> tryParse(MessageReader reader) {
+		return reader.tryParseNextArgument((arg) -> {
 			Guild guild = reader.getGuild();
 			try {
 				long parsedId = Long.parseLong(arg);
 				Role foundRole = this.findRole(guild, parsedId);
 				if (foundRole != null) {
-					return ParsedArgument.parse(foundRole);
+					return ParseResult.success(foundRole);
 				} else {
-					throw reader.getExceptionProvider().getRoleNotFoundException().create(parsedId);
+					return ParseResult.failure(() -> reader.getExceptionProvider().getRoleNotFoundException().create(parsedId));
 				}
 			} catch (NumberFormatException exception) {
 				Matcher matcher = MENTION_PATTERN.matcher(arg);
@@ -68,13 +67,13 @@ public final class RoleArgument implements Argument<Role> {
 					long parsedId = Long.parseLong(matcher.group(1));
 					Role foundRole = this.findRole(guild, parsedId);
 					if (foundRole != null) {
-						return ParsedArgument.parse(foundRole);
+						return ParseResult.success(foundRole);
 					} else {
-						throw reader.getExceptionProvider().getMentionRoleNotFoundException().create();
+						return ParseResult.failure(() -> reader.getExceptionProvider().getMentionRoleNotFoundException().create());
 					}
 				}
 
-				throw reader.getExceptionProvider().getInvalidRoleIdException().create(arg);
+				return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidRoleIdException().create(arg));
 			}
 		});
 	}
@@ -5,8 +5,7 @@ import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.TextChannel;
 import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.ParseResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -51,16 +50,16 @@ public final class TextChannelArgument implements Argument<TextChannel> {
 
 	@Nonnull
 	@Override
-	public ParsedArgument<TextChannel> parse(MessageReader reader) throws CommandException {
-		return reader.parseNextArgument((arg) -> {
+	public ParseResult<TextChannel> tryParse(MessageReader reader) {
+		return reader.tryParseNextArgument((arg) -> {
 			Guild guild = reader.getGuild();
 			try {
 				long parsedId = Long.parseLong(arg);
 				TextChannel foundChannel = this.findChannelWithId(guild, parsedId);
 				if (foundChannel != null) {
-					return ParsedArgument.parse(foundChannel);
+					return ParseResult.success(foundChannel);
 				} else {
-					throw reader.getExceptionProvider().getChannelNotFoundException().create(parsedId);
+					return ParseResult.failure(() -> reader.getExceptionProvider().getChannelNotFoundException().create(parsedId));
 				}
 			} catch (NumberFormatException exception) {
 				Matcher matcher = MENTION_PATTERN.matcher(arg);
@@ -69,13 +68,13 @@ public final class TextChannelArgument implements Argument<TextChannel> {
 					long parsedId = Long.parseLong(matcher.group(1));
 					TextChannel foundChannel = this.findChannelWithId(guild, parsedId);
 					if (foundChannel != null) {
-						return ParsedArgument.parse(foundChannel);
+						return ParseResult.success(foundChannel);
 					} else {
-						throw reader.getExceptionProvider().getMentionChannelNotFoundException().create();
+						return ParseResult.failure(() -> reader.getExceptionProvider().getMentionChannelNotFoundException().create());
 					}
 				}
 
-				throw reader.getExceptionProvider().getInvalidChannelIdException().create(arg);
+				return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidChannelIdException().create(arg));
 			}
 		});
 	}
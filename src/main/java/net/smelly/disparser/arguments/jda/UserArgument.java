@@ -3,8 +3,9 @@ package net.smelly.disparser.arguments.jda;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.MessageType;
 import net.dv8tion.jda.api.entities.User;
-import net.smelly.disparser.Argument;
+import net.smelly.disparser.AsyncArgument;
 import net.smelly.disparser.MessageReader;
+import net.smelly.disparser.ParseResult;
 import net.smelly.disparser.ParsedArgument;
 import net.smelly.disparser.feedback.exceptions.CommandException;
 
@@ -12,24 +13,31 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * An argument that can parse users by their ID or a mention of the user.
  * Define a JDA to get the User from or leave null to use the JDA of the message that was sent.
+ * <p>By default only cached users can be parsed. Uncached instances, such as {@link #getUncached()}, retrieve users that aren't cached asynchronously.</p>
  *
  * @author Luke Tonon
  */
 @ThreadSafe
-public final class UserArgument implements Argument<User> {
+public final class UserArgument implements AsyncArgument<User> {
 	private static final Pattern MENTION_PATTERN = Pattern.compile("^<@!?(\\d+)>$");
-	private static final UserArgument DEFAULT = new UserArgument(null);
+	private static final UserArgument DEFAULT = new UserArgument(null, false);
+	private static final UserArgument UNCACHED = new UserArgument(null, true);
 	@Nullable
 	private final JDA jda;
+	private final boolean uncached;
 
-	private UserArgument(@Nullable JDA jda) {
+	private UserArgument(@Nullable JDA jda, boolean uncached) {
 		this.jda = jda;
+		this.uncached = uncached;
 	}
 
 	/**
@@ -46,20 +54,40 @@ public final class UserArgument implements Argument<User> {
 	 * @return An instance of this argument with a JDA.
 	 */
 	public static UserArgument create(JDA jda) {
-		return new UserArgument(jda);
+		return new UserArgument(jda, false);
+	}
+
+	/**
+	 * @return A default instance that retrieves users that aren't cached.
+	 */
+	public static UserArgument getUncached() {
+		return UNCACHED;
+	}
+
+	/**
+	 * Very similar to {@link #create(JDA)} with the difference being users that aren't cached get retrieved.
+	 *
+	 * @param jda A {@link JDA} to get the user from.
+	 * @return An instance of this argument with a JDA that retrieves users that aren't cached.
+	 */
+	public static UserArgument createUncached(JDA jda) {
+		return new UserArgument(jda, true);
 	}
 
 	@Nonnull
 	@Override
-	public ParsedArgument<User> parse(MessageReader reader) throws CommandException {
-		return reader.parseNextArgument((arg) -> {
+	public ParseResult<User> tryParse(MessageReader reader) {
+		if (this.uncached) {
+			return AsyncArgument.super.tryParse(reader);
+		}
+		return reader.tryParseNextArgument((arg) -> {
 			try {
 				long id = Long.parseLong(arg);
 				User foundUser = this.findUserWithId(reader, id);
 				if (foundUser != null) {
-					return ParsedArgument.parse(foundUser);
+					return ParseResult.success(foundUser);
 				} else {
-					throw reader.getExceptionProvider().getUserNotFoundException().create(id);
+					return ParseResult.failure(() -> reader.getExceptionProvider().getUserNotFoundException().create(id));
 				}
 			} catch (NumberFormatException exception) {
 				Matcher matcher = MENTION_PATTERN.matcher(arg);
@@ -67,17 +95,69 @@ public final class UserArgument implements Argument<User> {
 				if (matcher.matches()) {
 					User foundUser = this.findUserWithId(reader, Long.parseLong(matcher.group(1)));
 					if (foundUser != null) {
-						return ParsedArgument.parse(foundUser);
+						return ParseResult.success(foundUser);
 					} else {
-						throw reader.getExceptionProvider().getMentionUserNotFoundException().create();
+						return ParseResult.failure(() -> reader.getExceptionProvider().getMentionUserNotFoundException().create());
 					}
 				}
 
-				throw reader.getExceptionProvider().getInvalidUserException().create(arg);
+				return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidUserException().create(arg));
 			}
 		});
 	}
 
+	/**
+	 * Tries to parse a user, retrieving it without waiting for the REST request if this argument is uncached and the user isn't cached.
+	 *
+	 * @param reader An {@link MessageReader} to use in parsing for this argument.
+	 * @return A {@link ParseResult} containing a {@link CompletableFuture} for the user, or the failure.
+	 */
+	@Nonnull
+	@Override
+	public ParseResult<CompletableFuture<ParsedArgument<User>>> tryParseAsync(MessageReader reader) {
+		if (!this.uncached) {
+			return this.tryParse(reader).map(user -> CompletableFuture.completedFuture(ParsedArgument.parse(user)));
+		}
+		return reader.tryParseNextArgument((arg) -> {
+			long id;
+			boolean mention = false;
+			try {
+				id = Long.parseLong(arg);
+			} catch (NumberFormatException exception) {
+				Matcher matcher = MENTION_PATTERN.matcher(arg);
+				if (!matcher.matches()) {
+					return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidUserException().create(arg));
+				}
+				id = Long.parseLong(matcher.group(1));
+				mention = true;
+			}
+			long parsedId = id;
+			Supplier<CommandException> notFound = mention ? () -> reader.getExceptionProvider().getMentionUserNotFoundException().create() : () -> reader.getExceptionProvider().getUserNotFoundException().create(parsedId);
+			JDA jda = this.jda != null ? this.jda : reader.getMessage().getType() == MessageType.DEFAULT ? reader.getMessage().getJDA() : null;
+			if (jda == null) {
+				return ParseResult.failure(notFound);
+			}
+			User cachedUser = jda.getUserById(id);
+			if (cachedUser != null) {
+				return ParseResult.success(CompletableFuture.completedFuture(ParsedArgument.parse(cachedUser)));
+			}
+			return ParseResult.success(jda.retrieveUserById(id).submit().handle((user, throwable) -> {
+				if (user == null) {
+					throw new CompletionException(notFound.get());
+				}
+				return ParsedArgument.parse(user);
+			}));
+		});
+	}
+
+	/**
+	 * @return If this argument retrieves users that aren't cached.
+	 */
+	@Override
+	public boolean isAsync() {
+		return this.uncached;
+	}
+
 	@Nullable
 	private User findUserWithId(MessageReader reader, long id) {
 		if (this.jda != null) {
@@ -91,18 +171,19 @@ public final class UserArgument implements Argument<User> {
 		if (this == o) return true;
 		if (o == null || this.getClass() != o.getClass()) return false;
 		UserArgument that = (UserArgument) o;
-		return Objects.equals(this.jda, that.jda);
+		return this.uncached == that.uncached && Objects.equals(this.jda, that.jda);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.jda);
+		return Objects.hash(this.jda, this.uncached);
 	}
 
 	@Override
 	public String toString() {
 		return "UserArgument{" +
 				"jda=" + (this.jda != null ? this.jda : "undefined") +
+				", uncached=" + this.uncached +
 				'}';
 	}
 }
\ No newline at end of file
@@ -5,8 +5,7 @@ import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.VoiceChannel;
 import net.smelly.disparser.Argument;
 import net.smelly.disparser.MessageReader;
-import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.ParseResult;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -48,18 +47,18 @@ public final class VoiceChannelArgument implements Argument<VoiceChannel> {
 
 	@Nonnull
 	@Override
-	public ParsedArgument<VoiceChannel> parse(MessageReader reader) throws CommandException {
-		return reader.parseNextArgument((arg) -> {
+	public ParseResult<VoiceChannel> tryParse(MessageReader reader) {
+		return reader.tryParseNextArgument((arg) -> {
 			try {
 				long parsedLong = Long.parseLong(arg);
 				VoiceChannel foundChannel = this.jda != null ? this.jda.getVoiceChannelById(parsedLong) : this.getVoiceChannelById(reader.getMessage(), parsedLong);
 				if (foundChannel != null) {
-					return ParsedArgument.parse(foundChannel);
+					return ParseResult.success(foundChannel);
 				} else {
-					throw reader.getExceptionProvider().getChannelNotFoundException().create(parsedLong);
+					return ParseResult.failure(() -> reader.getExceptionProvider().getChannelNotFoundException().create(parsedLong));
 				}
 			} catch (NumberFormatException exception) {
-				throw reader.getExceptionProvider().getInvalidChannelIdException().create(arg);
+				return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidChannelIdException().create(arg));
 			}
 		});
 	}
@@ -4,25 +4,27 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageType;
 import net.dv8tion.jda.api.entities.Webhook;
-import net.smelly.disparser.Argument;
+import net.smelly.disparser.AsyncArgument;
 import net.smelly.disparser.MessageReader;
+import net.smelly.disparser.ParseResult;
 import net.smelly.disparser.ParsedArgument;
-import net.smelly.disparser.feedback.exceptions.CommandException;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * An argument that can parse {@link Webhook}s by their ID.
  * Define a {@link JDA} to get a {@link Webhook} from or leave null to use the {@link JDA} of the message that was sent.
+ * <p>Webhooks aren't cached, so they get retrieved asynchronously.</p>
  *
  * @author Luke Tonon
  */
 @ThreadSafe
-public final class WebhookArgument implements Argument<Webhook> {
+public final class WebhookArgument implements AsyncArgument<Webhook> {
 	private static final WebhookArgument DEFAULT = new WebhookArgument(null);
 	@Nullable
 	private final JDA jda;
@@ -48,31 +50,41 @@ public final class WebhookArgument implements Argument<Webhook> {
 		return new WebhookArgument(jda);
 	}
 
+	/**
+	 * Tries to parse a {@link Webhook} by its ID, retrieving it without waiting for the REST request.
+	 *
+	 * @param reader An {@link MessageReader} to use in parsing for this argument.
+	 * @return A {@link ParseResult} containing a {@link CompletableFuture} for the retrieved {@link Webhook}, or the failure if the ID is invalid.
+	 */
 	@Nonnull
 	@Override
-	public ParsedArgument<Webhook> parse(MessageReader reader) throws CommandException {
-		return reader.parseNextArgument((arg) -> {
+	public ParseResult<CompletableFuture<ParsedArgument<Webhook>>> tryParseAsync(MessageReader reader) {
+		return reader.tryParseNextArgument((arg) -> {
+			long parsedLong;
 			try {
-				long parsedLong = Long.parseLong(arg);
-				try {
-					Webhook foundWebhook = this.jda == null ? this.getWebhookById(reader.getMessage(), parsedLong) : this.jda.retrieveWebhookById(parsedLong).submit().get();
-					if (foundWebhook != null) {
-						return ParsedArgument.parse(foundWebhook);
-					} else {
-						throw reader.getExceptionProvider().getWebhookNotFoundException().create(parsedLong);
-					}
-				} catch (ExecutionException | InterruptedException exception) {
-					throw reader.getExceptionProvider().getWebhookNotFoundException().create(parsedLong);
-				}
+				parsedLong = Long.parseLong(arg);
 			} catch (NumberFormatException exception) {
-				throw reader.getExceptionProvider().getInvalidWebhookIdException().create(arg);
+				return ParseResult.failure(() -> reader.getExceptionProvider().getInvalidWebhookIdException().create(arg));
+			}
+			JDA jda = this.getJDA(reader.getMessage());
+			if (jda == null) {
+				return ParseResult.failure(() -> reader.getExceptionProvider().getWebhookNotFoundException().create(parsedLong));
 			}
+			return ParseResult.success(jda.retrieveWebhookById(parsedLong).submit().handle((webhook, throwable) -> {
+				if (webhook == null) {
+					throw new CompletionException(reader.getExceptionProvider().getWebhookNotFoundException().create(parsedLong));
+				}
+				return ParsedArgument.parse(webhook);
+			}));
 		});
 	}
 
 	@Nullable
-	private Webhook getWebhookById(Message message, long parsedLong) throws ExecutionException, InterruptedException {
-		return message.getType() == MessageType.DEFAULT ? message.getJDA().retrieveWebhookById(parsedLong).submit().get() : null;
+	private JDA getJDA(Message message) {
+		if (this.jda != null) {
+			return this.jda;
+		}
+		return message.getType() == MessageType.DEFAULT ? message.getJDA() : null;
 	}
 
 	@Override
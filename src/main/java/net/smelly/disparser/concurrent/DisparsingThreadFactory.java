@@ -14,7 +14,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 @ThreadSafe
 public final class DisparsingThreadFactory implements ThreadFactory {
 	private static final AtomicInteger POOL_NUMBER = new AtomicInteger(0);
-	private static final String DISPARSER_WORKER = "Disparser-Worker-";
+	static final String DISPARSER_WORKER = "Disparser-Worker-";
 	private final AtomicInteger threadNumber = new AtomicInteger(1);
 	private final ThreadGroup threadGroup;
 	private final String namePrefix;
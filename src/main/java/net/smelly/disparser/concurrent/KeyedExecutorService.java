@@ -0,0 +1,443 @@
+package net.smelly.disparser.concurrent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} made up of serial lanes, each running its tasks one at a time on its own thread.
+ * <p>Tasks executed with a key, such as the ID of a channel, always run on the same lane, so tasks for one key run in the order they were executed in while tasks for different keys can run in parallel.
+ * Tasks executed without a key get spread across the lanes and have no ordering guarantees.</p>
+ * <p>This is the default {@link java.util.concurrent.ExecutorService} used by Disparser's command handlers, which key the commands they execute by the ID of the channel they were sent in.</p>
+ *
+ * @author Luke Tonon
+ * @see Builder
+ */
+@ThreadSafe
+public final class KeyedExecutorService extends AbstractExecutorService {
+	/**
+	 * The largest capacity a bounded lane queue can have, which keeps the table {@link OverflowPolicy#DROP_FAIR} counts the tasks of a full queue in at most 2^30 slots.
+	 */
+	public static final int MAXIMUM_BOUNDED_QUEUE_CAPACITY = 1 << 29;
+	private final ThreadPoolExecutor[] lanes;
+	private final AtomicInteger nextLane = new AtomicInteger();
+	private final OverflowPolicy overflowPolicy;
+	private final LongAdder rejectedTasks = new LongAdder();
+	@Nullable
+	private final UnaryOperator<Runnable> taskDecorator;
+	private volatile boolean shutdown;
+
+	private KeyedExecutorService(int laneCount, int queueCapacity, OverflowPolicy overflowPolicy, ThreadFactory threadFactory, @Nullable UnaryOperator<Runnable> taskDecorator) {
+		ThreadPoolExecutor[] lanes = new ThreadPoolExecutor[laneCount];
+		for (int i = 0; i < laneCount; i++) {
+			BlockingQueue<Runnable> queue = queueCapacity == Integer.MAX_VALUE ? new LinkedBlockingQueue<>() : new ArrayBlockingQueue<>(queueCapacity);
+			lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, queue, threadFactory, new OverflowHandler(queueCapacity));
+		}
+		this.lanes = lanes;
+		this.overflowPolicy = overflowPolicy;
+		this.taskDecorator = taskDecorator;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link KeyedExecutorService}.
+	 *
+	 * @param workerSuffix The suffix to come after the "Disparser-Worker-" prefix for the naming of the threads of the lanes.
+	 * @return A new {@link Builder} for a {@link KeyedExecutorService}.
+	 */
+	public static Builder builder(String workerSuffix) {
+		return new Builder(new DisparsingThreadFactory(workerSuffix));
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link KeyedExecutorService}.
+	 *
+	 * @param threadFactory The {@link ThreadFactory} to create the threads of the lanes with.
+	 * @return A new {@link Builder} for a {@link KeyedExecutorService}.
+	 */
+	public static Builder builder(ThreadFactory threadFactory) {
+		return new Builder(threadFactory);
+	}
+
+	/**
+	 * Gets the index of the lane that tasks for a key run on.
+	 * <p>Keys get mixed before picking a lane, as Discord IDs share many of their low bits.</p>
+	 *
+	 * @param key The key to get the lane for.
+	 * @return The index of the lane that tasks for the key run on.
+	 */
+	public int getLane(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) ((hash >>> 32) % this.lanes.length);
+	}
+
+	/**
+	 * Executes a task on the lane for a key, after all the tasks previously executed for that key.
+	 *
+	 * @param key      The key of the task, such as the ID of a channel.
+	 * @param runnable The task to execute.
+	 * @throws RejectedExecutionException If this executor has been shut down, or the queue of the lane is full and the {@link OverflowPolicy} is {@link OverflowPolicy#ABORT}.
+	 */
+	public void execute(long key, Runnable runnable) {
+		this.execute(key, key, runnable);
+	}
+
+	/**
+	 * Executes a task on the lane for a key, after all the tasks previously executed for that key.
+	 * <p>The fairness key is what {@link OverflowPolicy#DROP_FAIR} balances the queues by, such as the ID of a guild when the key is the ID of a channel.</p>
+	 *
+	 * @param key         The key of the task, such as the ID of a channel.
+	 * @param fairnessKey The key to balance full queues by, such as the ID of a guild.
+	 * @param runnable    The task to execute.
+	 * @throws RejectedExecutionException If this executor has been shut down, or the queue of the lane is full and the {@link OverflowPolicy} is {@link OverflowPolicy#ABORT}.
+	 */
+	public void execute(long key, long fairnessKey, Runnable runnable) {
+		UnaryOperator<Runnable> taskDecorator = this.taskDecorator;
+		if (taskDecorator != null) {
+			runnable = taskDecorator.apply(runnable);
+		}
+		this.lanes[this.getLane(key)].execute(this.overflowPolicy == OverflowPolicy.DROP_FAIR ? new FairTask(fairnessKey, runnable) : runnable);
+	}
+
+	/**
+	 * Executes a task on the next lane, without any ordering guarantees.
+	 *
+	 * @param runnable The task to execute.
+	 * @throws RejectedExecutionException If this executor has been shut down, or the queue of the lane is full and the {@link OverflowPolicy} is {@link OverflowPolicy#ABORT}.
+	 */
+	@Override
+	public void execute(@Nonnull Runnable runnable) {
+		this.execute(this.nextLane.getAndIncrement(), runnable);
+	}
+
+	/**
+	 * @return The number of lanes of this executor.
+	 */
+	public int getLaneCount() {
+		return this.lanes.length;
+	}
+
+	/**
+	 * @return The number of tasks waiting to run across all lanes.
+	 */
+	public int getQueuedTasks() {
+		int queued = 0;
+		for (ThreadPoolExecutor lane : this.lanes) {
+			queued += lane.getQueue().size();
+		}
+		return queued;
+	}
+
+	/**
+	 * Gets the number of tasks waiting to run on the lane for a key.
+	 *
+	 * @param key The key to get the number of waiting tasks of the lane for.
+	 * @return The number of tasks waiting to run on the lane for the key.
+	 */
+	public int getQueuedTasks(long key) {
+		return this.lanes[this.getLane(key)].getQueue().size();
+	}
+
+	/**
+	 * @return The {@link OverflowPolicy} of this executor.
+	 */
+	public OverflowPolicy getOverflowPolicy() {
+		return this.overflowPolicy;
+	}
+
+	/**
+	 * Gets the number of tasks that were executed on a lane whose queue was full, whatever the {@link OverflowPolicy} did with them.
+	 *
+	 * @return The number of tasks that overflowed the queue of their lane.
+	 */
+	public long getRejectedTasks() {
+		return this.rejectedTasks.sum();
+	}
+
+	@Override
+	public void shutdown() {
+		this.shutdown = true;
+		for (ThreadPoolExecutor lane : this.lanes) {
+			lane.shutdown();
+		}
+	}
+
+	@Nonnull
+	@Override
+	public List<Runnable> shutdownNow() {
+		this.shutdown = true;
+		List<Runnable> runnables = new ArrayList<>();
+		for (ThreadPoolExecutor lane : this.lanes) {
+			runnables.addAll(lane.shutdownNow());
+		}
+		return runnables;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		for (ThreadPoolExecutor lane : this.lanes) {
+			if (!lane.isTerminated()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		for (ThreadPoolExecutor lane : this.lanes) {
+			if (!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "KeyedExecutorService{" +
+				"lanes=" + this.lanes.length +
+				", queuedTasks=" + this.getQueuedTasks() +
+				", overflowPolicy=" + this.overflowPolicy +
+				", rejectedTasks=" + this.getRejectedTasks() +
+				'}';
+	}
+
+	/**
+	 * Handles tasks that overflow the queue of a lane using this executor's {@link #overflowPolicy}.
+	 * <p>Each lane has its own handler, so the {@link FairScan} of a lane only ever gets shared by the threads executing tasks on that lane.</p>
+	 */
+	private final class OverflowHandler implements RejectedExecutionHandler {
+		private final int queueCapacity;
+		@Nullable
+		private FairScan fairScan;
+
+		private OverflowHandler(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		@Override
+		public void rejectedExecution(Runnable runnable, ThreadPoolExecutor lane) {
+			if (lane.isShutdown()) {
+				throw new RejectedExecutionException("Task " + runnable + " rejected from " + KeyedExecutorService.this + " as it has been shut down");
+			}
+			KeyedExecutorService.this.rejectedTasks.increment();
+			switch (KeyedExecutorService.this.overflowPolicy) {
+				case DROP_NEWEST:
+					break;
+				case DROP_OLDEST:
+					lane.getQueue().poll();
+					lane.execute(runnable);
+					break;
+				case DROP_FAIR:
+					Runnable dropped = this.getFairScan().findDrop(lane.getQueue(), ((FairTask) runnable).fairnessKey);
+					if (dropped != null && lane.getQueue().remove(dropped)) {
+						lane.execute(runnable);
+					}
+					break;
+				case CALLER_RUNS:
+					runnable.run();
+					break;
+				default:
+					throw new RejectedExecutionException("Task " + runnable + " rejected from " + KeyedExecutorService.this + " as its lane is full");
+			}
+		}
+
+		private synchronized FairScan getFairScan() {
+			FairScan fairScan = this.fairScan;
+			if (fairScan == null) {
+				this.fairScan = fairScan = new FairScan(this.queueCapacity);
+			}
+			return fairScan;
+		}
+	}
+
+	/**
+	 * The scratch space of a lane for finding the task {@link OverflowPolicy#DROP_FAIR} drops, so overflowing a full queue doesn't allocate.
+	 * <p>The tasks of the queue get copied into an array, and the tasks of each fairness key get counted in an open-addressed table of primitive keys and counts that gets cleared after each scan.
+	 * This gets created the first time the lane overflows, with room for a full queue.</p>
+	 */
+	private static final class FairScan {
+		private final Runnable[] tasks;
+		private final long[] keys;
+		private final int[] counts;
+		private final int[] usedSlots;
+		private final int mask;
+
+		private FairScan(int queueCapacity) {
+			//The capacity is at most MAXIMUM_BOUNDED_QUEUE_CAPACITY, so this is at most 2^30 and at least twice the number of keys a full queue can have
+			int tableSize = Integer.highestOneBit(queueCapacity * 2 - 1) << 1;
+			this.tasks = new Runnable[queueCapacity + 1];
+			this.keys = new long[tableSize];
+			this.counts = new int[tableSize];
+			this.usedSlots = new int[queueCapacity];
+			this.mask = tableSize - 1;
+		}
+
+		/**
+		 * Finds the oldest task of the fairness key with the most tasks in a queue, or null if that's the key of the new task.
+		 */
+		@Nullable
+		private synchronized Runnable findDrop(BlockingQueue<Runnable> queue, long newFairnessKey) {
+			Runnable[] tasks = queue.toArray(this.tasks);
+			int size = 0;
+			int used = 0;
+			int maxCount = 0;
+			long maxKey = newFairnessKey;
+			while (size < tasks.length && tasks[size] != null) {
+				long fairnessKey = ((FairTask) tasks[size++]).fairnessKey;
+				int slot = (int) ((fairnessKey * 0x9E3779B97F4A7C15L) >>> 32) & this.mask;
+				while (this.counts[slot] != 0 && this.keys[slot] != fairnessKey) {
+					slot = (slot + 1) & this.mask;
+				}
+				if (this.counts[slot] == 0) {
+					this.keys[slot] = fairnessKey;
+					this.usedSlots[used++] = slot;
+				}
+				int count = ++this.counts[slot];
+				if (count > maxCount || (count == maxCount && fairnessKey == newFairnessKey)) {
+					maxCount = count;
+					maxKey = fairnessKey;
+				}
+			}
+			Runnable dropped = null;
+			if (maxKey != newFairnessKey) {
+				for (int i = 0; i < size; i++) {
+					if (((FairTask) tasks[i]).fairnessKey == maxKey) {
+						dropped = tasks[i];
+						break;
+					}
+				}
+			}
+			for (int i = 0; i < used; i++) {
+				this.counts[this.usedSlots[i]] = 0;
+			}
+			Arrays.fill(tasks, 0, size, null);
+			return dropped;
+		}
+	}
+
+	/**
+	 * A task with the fairness key it was executed with, used by {@link OverflowPolicy#DROP_FAIR}.
+	 */
+	private static final class FairTask implements Runnable {
+		private final long fairnessKey;
+		private final Runnable runnable;
+
+		private FairTask(long fairnessKey, Runnable runnable) {
+			this.fairnessKey = fairnessKey;
+			this.runnable = runnable;
+		}
+
+		@Override
+		public void run() {
+			this.runnable.run();
+		}
+	}
+
+	/**
+	 * A builder class for a {@link KeyedExecutorService}.
+	 * <p>By default there is a lane for each available processor and the queues of the lanes are unbounded. Queues that are bounded use {@link OverflowPolicy#ABORT} by default.</p>
+	 *
+	 * @author Luke Tonon
+	 */
+	@NotThreadSafe
+	public static final class Builder {
+		private final ThreadFactory threadFactory;
+		private int laneCount = Runtime.getRuntime().availableProcessors();
+		private int queueCapacity = Integer.MAX_VALUE;
+		private OverflowPolicy overflowPolicy = OverflowPolicy.ABORT;
+		@Nullable
+		private UnaryOperator<Runnable> taskDecorator;
+
+		private Builder(ThreadFactory threadFactory) {
+			this.threadFactory = threadFactory;
+		}
+
+		/**
+		 * Sets the number of lanes, which is the number of tasks that can run at once.
+		 *
+		 * @param laneCount The number of lanes.
+		 * @return This builder.
+		 */
+		public Builder setLanes(int laneCount) {
+			if (laneCount <= 0) {
+				throw new IllegalArgumentException("Lane count must be positive: " + laneCount);
+			}
+			this.laneCount = laneCount;
+			return this;
+		}
+
+		/**
+		 * Sets the number of tasks that can wait to run on each lane.
+		 * <p>What happens to tasks executed on a lane with a full queue is decided by the {@link OverflowPolicy}.
+		 * A capacity of {@link Integer#MAX_VALUE}, which is the default, makes the queues unbounded, otherwise the capacity can be at most {@link #MAXIMUM_BOUNDED_QUEUE_CAPACITY}.</p>
+		 *
+		 * @param queueCapacity The number of tasks that can wait to run on each lane.
+		 * @return This builder.
+		 * @throws IllegalArgumentException If the capacity isn't positive, or is above {@link #MAXIMUM_BOUNDED_QUEUE_CAPACITY} without being {@link Integer#MAX_VALUE}.
+		 */
+		public Builder setQueueCapacity(int queueCapacity) {
+			if (queueCapacity <= 0) {
+				throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+			}
+			if (queueCapacity > MAXIMUM_BOUNDED_QUEUE_CAPACITY && queueCapacity != Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Bounded queue capacity must be at most " + MAXIMUM_BOUNDED_QUEUE_CAPACITY + ": " + queueCapacity);
+			}
+			this.queueCapacity = queueCapacity;
+			return this;
+		}
+
+		/**
+		 * Sets what happens to tasks executed on a lane with a full queue.
+		 * <p>Only {@link OverflowPolicy#ABORT} and {@link OverflowPolicy#DROP_NEWEST} keep every task of a key that gets run in order without ever running a task on the executing thread. See each policy for its caveats.</p>
+		 *
+		 * @param overflowPolicy The {@link OverflowPolicy} to use.
+		 * @return This builder.
+		 */
+		public Builder setOverflowPolicy(OverflowPolicy overflowPolicy) {
+			this.overflowPolicy = overflowPolicy;
+			return this;
+		}
+
+		/**
+		 * Sets a function that wraps every task when it gets executed, such as to carry context from the executing thread to the lane or to time tasks.
+		 * <p>The function gets called on the executing thread before the task gets queued, so it should be fast and must not block.</p>
+		 *
+		 * @param taskDecorator A {@link UnaryOperator} to wrap each task with, or null to run tasks as they are.
+		 * @return This builder.
+		 */
+		public Builder setTaskDecorator(@Nullable UnaryOperator<Runnable> taskDecorator) {
+			this.taskDecorator = taskDecorator;
+			return this;
+		}
+
+		/**
+		 * @return A new {@link KeyedExecutorService} built from this builder.
+		 */
+		public KeyedExecutorService build() {
+			return new KeyedExecutorService(this.laneCount, this.queueCapacity, this.overflowPolicy, this.threadFactory, this.taskDecorator);
+		}
+	}
+}
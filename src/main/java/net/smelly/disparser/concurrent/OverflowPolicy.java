@@ -0,0 +1,39 @@
+package net.smelly.disparser.concurrent;
+
+/**
+ * Policies for what a {@link KeyedExecutorService} does with a task executed on a lane whose queue is full.
+ * <p>Every task that overflows a queue gets counted by {@link KeyedExecutorService#getRejectedTasks()}, whatever the policy does with it.</p>
+ *
+ * @author Luke Tonon
+ * @see KeyedExecutorService.Builder#setOverflowPolicy(OverflowPolicy)
+ */
+public enum OverflowPolicy {
+	/**
+	 * Throws a {@link java.util.concurrent.RejectedExecutionException} for the new task.
+	 * <p>Tasks already queued are untouched, so the tasks of each key that do run, run in order on their lane. The command handlers catch the exception and count the command as rejected.</p>
+	 */
+	ABORT,
+	/**
+	 * Drops the new task.
+	 * <p>Tasks already queued are untouched, so the tasks of each key that do run, run in order on their lane.</p>
+	 */
+	DROP_NEWEST,
+	/**
+	 * Drops the task that has been waiting the longest in the queue to make room for the new task.
+	 * <p>The dropped task may belong to any key sharing the lane, so a key can lose a task while its later tasks still run. The tasks that run still run in order, but a later command may run without the earlier one it followed.</p>
+	 */
+	DROP_OLDEST,
+	/**
+	 * Drops the oldest task of the fairness key, such as a guild, with the most tasks waiting in the queue, so one busy key can't crowd out the others.
+	 * <p>If the new task's key has the most tasks waiting, the new task gets dropped instead.</p>
+	 * <p>Like {@link #DROP_OLDEST}, a key can lose a task while its later tasks still run.
+	 * Finding the task to drop scans the whole queue on the executing thread, such as the thread firing events, while holding a lock for the lane. The scan doesn't allocate, but its cost grows with the capacity of the queue.</p>
+	 */
+	DROP_FAIR,
+	/**
+	 * Runs the new task on the thread that executed it, which slows down whatever is producing tasks, such as the thread firing events.
+	 * <p><b>This breaks the ordering of each key.</b> The new task runs before the tasks of its key already waiting in the queue, and at the same time as the task running on the lane, so tasks of one key may run out of order and in parallel.</p>
+	 * <p>With the command handlers, the command runs on the thread firing events, which stalls every other event of the shard until it finishes. Only use this for commands that are fast and don't block.</p>
+	 */
+	CALLER_RUNS
+}
@@ -0,0 +1,234 @@
+package net.smelly.disparser.concurrent;
+
+import net.smelly.disparser.properties.RateLimit;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free token bucket that limits how often each key, such as the ID of a user or guild, can acquire a use of a {@link RateLimit}.
+ * <p>Each key's bucket is stored as the time its bucket will be full again, so refilling a bucket never needs a timer or any bookkeeping.
+ * Buckets live in a fixed size open-addressed table of primitive long keys, and a bucket that has fully refilled is free to be taken by another key, so keys that go quiet get evicted over time without any cleanup thread.</p>
+ * <p>If every slot near a key is taken by a key still on cooldown, the bucket closest to being full gets evicted, so a flood of new keys can only ever make this limiter more lenient, never lock out a key.
+ * Under contention two threads acquiring for the same new key may each claim a bucket, briefly allowing an extra use for that key.</p>
+ * <p>Rejecting a key doesn't create any new objects, apart from marking its bucket the first time it gets rejected while on cooldown.</p>
+ *
+ * @author Luke Tonon
+ * @see RateLimit
+ */
+@ThreadSafe
+public final class RateLimiter {
+	/**
+	 * The value {@link #tryAcquire(long)} returns when a use was acquired.
+	 */
+	public static final long ACQUIRED = 0L;
+	/**
+	 * The value {@link #tryAcquire(long)} returns when a key was rejected again while still on the same cooldown.
+	 */
+	public static final long REJECTED_SILENTLY = -1L;
+	/**
+	 * The largest capacity a {@link RateLimiter} can have, as the capacity gets rounded up to a power of two for the size of its table.
+	 */
+	public static final int MAXIMUM_CAPACITY = 1 << 30;
+	private static final int DEFAULT_CAPACITY = 4096;
+	private static final int PROBE_LIMIT = 8;
+	private final RateLimit rateLimit;
+	private final long interval;
+	private final long tolerance;
+	private final AtomicReferenceArray<Bucket> buckets;
+	private final int mask;
+
+	private RateLimiter(RateLimit rateLimit, int capacity) {
+		this.rateLimit = rateLimit;
+		this.interval = Math.max(1L, rateLimit.getPeriodNanos() / rateLimit.getUses());
+		this.tolerance = rateLimit.getPeriodNanos() - this.interval;
+		int size = Integer.highestOneBit(Math.max(PROBE_LIMIT, capacity - 1) << 1);
+		this.buckets = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Creates a new {@link RateLimiter} for a {@link RateLimit} with room for the buckets of 4096 keys.
+	 *
+	 * @param rateLimit The {@link RateLimit} to limit keys by.
+	 * @return A new {@link RateLimiter} for a {@link RateLimit}.
+	 */
+	public static RateLimiter create(RateLimit rateLimit) {
+		return create(rateLimit, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new {@link RateLimiter} for a {@link RateLimit} with room for the buckets of a number of keys.
+	 * <p>The capacity only needs to fit the keys that are on cooldown at once, as buckets that have fully refilled get reused.</p>
+	 *
+	 * @param rateLimit The {@link RateLimit} to limit keys by.
+	 * @param capacity  The number of keys to make room for, rounded up to a power of two.
+	 * @return A new {@link RateLimiter} for a {@link RateLimit}.
+	 * @throws IllegalArgumentException If the {@link RateLimit} is unlimited, or the capacity isn't positive or is above {@link #MAXIMUM_CAPACITY}.
+	 */
+	public static RateLimiter create(RateLimit rateLimit, int capacity) {
+		if (rateLimit.isUnlimited()) {
+			throw new IllegalArgumentException("Rate limit must not be unlimited");
+		}
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		if (capacity > MAXIMUM_CAPACITY) {
+			throw new IllegalArgumentException("Capacity must be at most " + MAXIMUM_CAPACITY + ": " + capacity);
+		}
+		return new RateLimiter(rateLimit, capacity);
+	}
+
+	/**
+	 * Tries to acquire a use for a key at the current time.
+	 *
+	 * @param key The key to acquire a use for, such as the ID of a user.
+	 * @return {@link #ACQUIRED} if a use was acquired, the nanoseconds until the key can acquire a use if this is its first rejection on this cooldown, or {@link #REJECTED_SILENTLY} otherwise.
+	 * @see #tryAcquire(long, long)
+	 */
+	public long tryAcquire(long key) {
+		return this.tryAcquire(key, System.nanoTime());
+	}
+
+	/**
+	 * Tries to acquire a use for a key at a time.
+	 * <p>Only the first rejection of a key on a cooldown reports how long is left, so callers can send one warning per cooldown and ignore the rest.</p>
+	 *
+	 * @param key The key to acquire a use for, such as the ID of a user.
+	 * @param now The current time, in the same nanoseconds as {@link System#nanoTime()}.
+	 * @return {@link #ACQUIRED} if a use was acquired, the nanoseconds until the key can acquire a use if this is its first rejection on this cooldown, or {@link #REJECTED_SILENTLY} otherwise.
+	 */
+	public long tryAcquire(long key, long now) {
+		AtomicReferenceArray<Bucket> buckets = this.buckets;
+		int mask = this.mask;
+		int start = hash(key) & mask;
+		while (true) {
+			int freeIndex = -1;
+			int evictIndex = start;
+			Bucket free = null;
+			Bucket evict = null;
+			for (int probe = 0; probe < PROBE_LIMIT; probe++) {
+				int index = (start + probe) & mask;
+				Bucket bucket = buckets.get(index);
+				if (bucket == null) {
+					if (freeIndex < 0) {
+						freeIndex = index;
+					}
+					break;
+				}
+				if (bucket.key == key) {
+					long result = this.tryAcquire(buckets, index, bucket, now);
+					if (result != Long.MIN_VALUE) {
+						return result;
+					}
+					freeIndex = -2;
+					break;
+				}
+				if (freeIndex == -1 && bucket.tat - now <= 0L) {
+					freeIndex = index;
+					free = bucket;
+				}
+				if (evict == null || bucket.tat - evict.tat < 0L) {
+					evictIndex = index;
+					evict = bucket;
+				}
+			}
+			if (freeIndex == -2) {
+				continue;
+			}
+			int index = freeIndex >= 0 ? freeIndex : evictIndex;
+			Bucket expected = freeIndex >= 0 ? free : evict;
+			if (buckets.compareAndSet(index, expected, new Bucket(key, now + this.interval, false))) {
+				return ACQUIRED;
+			}
+		}
+	}
+
+	/**
+	 * Tries to acquire a use from a bucket in the table.
+	 *
+	 * @return The result of acquiring, or {@link Long#MIN_VALUE} if the bucket was changed by another thread.
+	 */
+	private long tryAcquire(AtomicReferenceArray<Bucket> buckets, int index, Bucket bucket, long now) {
+		long tat = bucket.tat - now < 0L ? now : bucket.tat;
+		long wait = tat - now - this.tolerance;
+		if (wait > 0L) {
+			if (bucket.warned) {
+				return REJECTED_SILENTLY;
+			}
+			return buckets.compareAndSet(index, bucket, new Bucket(bucket.key, bucket.tat, true)) ? wait : Long.MIN_VALUE;
+		}
+		return buckets.compareAndSet(index, bucket, new Bucket(bucket.key, tat + this.interval, false)) ? ACQUIRED : Long.MIN_VALUE;
+	}
+
+	private static int hash(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+	}
+
+	/**
+	 * Gets the nanoseconds until a key can acquire a use at a time, without acquiring one.
+	 *
+	 * @param key The key to check.
+	 * @param now The current time, in the same nanoseconds as {@link System#nanoTime()}.
+	 * @return The nanoseconds until the key can acquire a use, or 0 if it can acquire one now.
+	 */
+	public long getWait(long key, long now) {
+		Bucket bucket = this.find(key);
+		return bucket == null ? 0L : Math.max(0L, bucket.tat - now - this.tolerance);
+	}
+
+	@Nullable
+	private Bucket find(long key) {
+		int start = hash(key) & this.mask;
+		for (int probe = 0; probe < PROBE_LIMIT; probe++) {
+			Bucket bucket = this.buckets.get((start + probe) & this.mask);
+			if (bucket == null) {
+				return null;
+			}
+			if (bucket.key == key) {
+				return bucket;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return The {@link RateLimit} this limiter limits keys by.
+	 */
+	public RateLimit getRateLimit() {
+		return this.rateLimit;
+	}
+
+	/**
+	 * @return The number of keys this limiter has room for.
+	 */
+	public int getCapacity() {
+		return this.buckets.length();
+	}
+
+	@Override
+	public String toString() {
+		return "RateLimiter{" +
+				"rateLimit=" + this.rateLimit +
+				", capacity=" + this.buckets.length() +
+				'}';
+	}
+
+	/**
+	 * A key and the time its bucket will be full again, known as its theoretical arrival time.
+	 */
+	@Immutable
+	private static final class Bucket {
+		private final long key;
+		private final long tat;
+		private final boolean warned;
+
+		private Bucket(long key, long tat, boolean warned) {
+			this.key = key;
+			this.tat = tat;
+			this.warned = warned;
+		}
+	}
+}
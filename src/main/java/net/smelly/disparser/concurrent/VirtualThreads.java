@@ -0,0 +1,94 @@
+package net.smelly.disparser.concurrent;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads for processing commands when the runtime supports them.
+ * <p>Disparser is built for Java 8, so virtual threads are looked up reflectively and everything here falls back when they aren't available.</p>
+ * <p>Virtual threads are useful for commands that block, such as ones with arguments that wait on REST requests, as a blocked virtual thread doesn't tie up a platform thread.</p>
+ *
+ * @author Luke Tonon
+ */
+@ThreadSafe
+public final class VirtualThreads {
+	@Nullable
+	private static final Method OF_VIRTUAL;
+	@Nullable
+	private static final Method NAME;
+	@Nullable
+	private static final Method FACTORY;
+	@Nullable
+	private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+	static {
+		Method ofVirtual = null, name = null, factory = null, newThreadPerTaskExecutor = null;
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			name = builderClass.getMethod("name", String.class, long.class);
+			factory = builderClass.getMethod("factory");
+			newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+		} catch (ReflectiveOperationException | LinkageError ignored) {
+			ofVirtual = null;
+		}
+		OF_VIRTUAL = ofVirtual;
+		NAME = name;
+		FACTORY = factory;
+		NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+	}
+
+	private VirtualThreads() {}
+
+	/**
+	 * @return If the runtime supports virtual threads.
+	 */
+	public static boolean isSupported() {
+		return newThreadFactory("Check") != null;
+	}
+
+	/**
+	 * Creates a new {@link ThreadFactory} for named virtual threads.
+	 * <p>This can be used to build a {@link KeyedExecutorService} with virtual lanes, which keeps commands from one channel in order.</p>
+	 *
+	 * @param workerSuffix The suffix to come after the "Disparser-Worker-" prefix for the naming of created threads with this factory.
+	 * @return A new {@link ThreadFactory} for virtual threads, or null if the runtime doesn't support them.
+	 */
+	@Nullable
+	public static ThreadFactory newThreadFactory(String workerSuffix) {
+		if (OF_VIRTUAL == null) {
+			return null;
+		}
+		try {
+			Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), DisparsingThreadFactory.DISPARSER_WORKER + workerSuffix + "-virtual-", 1L);
+			return (ThreadFactory) FACTORY.invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException exception) {
+			//Virtual threads are a preview feature on Java 19 and 20, so they may exist without being enabled.
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a new {@link ExecutorService} that runs each task on a new virtual thread, or returns a fallback {@link ExecutorService} if the runtime doesn't support virtual threads.
+	 * <p>Tasks run as soon as they are executed, so commands from one channel don't run in order.</p>
+	 *
+	 * @param workerSuffix The suffix to come after the "Disparser-Worker-" prefix for the naming of the virtual threads.
+	 * @param fallback     The {@link ExecutorService} to use if the runtime doesn't support virtual threads.
+	 * @return A new {@link ExecutorService} that runs each task on a new virtual thread, or the fallback {@link ExecutorService}.
+	 */
+	public static ExecutorService newExecutorService(String workerSuffix, ExecutorService fallback) {
+		ThreadFactory threadFactory = newThreadFactory(workerSuffix);
+		if (threadFactory == null) {
+			return fallback;
+		}
+		try {
+			return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+		} catch (ReflectiveOperationException | RuntimeException exception) {
+			return fallback;
+		}
+	}
+}
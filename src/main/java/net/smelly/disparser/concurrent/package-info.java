@@ -5,5 +5,9 @@
  * @author Luke Tonon
  * @version 1.4.0
  * @see net.smelly.disparser.concurrent.DisparsingThreadFactory
+ * @see net.smelly.disparser.concurrent.KeyedExecutorService
+ * @see net.smelly.disparser.concurrent.OverflowPolicy
+ * @see net.smelly.disparser.concurrent.RateLimiter
+ * @see net.smelly.disparser.concurrent.VirtualThreads
  */
 package net.smelly.disparser.concurrent;
\ No newline at end of file
@@ -4,6 +4,7 @@ import net.dv8tion.jda.api.events.Event;
 import net.smelly.disparser.Command;
 import net.smelly.disparser.ConfiguredArgument;
 import net.smelly.disparser.ParsedArgument;
+import net.smelly.disparser.PrimitiveArgument;
 import net.smelly.disparser.feedback.FeedbackHandler;
 import net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider;
 import net.smelly.disparser.properties.CommandPropertyMap;
@@ -16,6 +17,7 @@ import java.util.List;
  * A class that works as a wrapper around an event that's used in executing commands.
  * <p>The event is the 'source' of the command execution.</p>
  * <p>An instance of this class must be reused cautiously as the {@link CommandContext#parsedArguments} map is not thread-safe.</p>
+ * <p>Arguments parsed by a {@link PrimitiveArgument} are stored unboxed, and can be read without boxing using the primitive getters, such as {@link #getInt(int)}.</p>
  *
  * @param <E> The type of the event.
  * @author Luke Tonon
@@ -31,7 +33,7 @@ import java.util.List;
  */
 @NotThreadSafe
 public class CommandContext<E extends Event> {
-	protected final List<ParsedArgument<?>> parsedArguments;
+	protected final ParsedArgumentList parsedArguments;
 	protected final CommandPropertyMap.PropertyMap propertyMap;
 	protected final FeedbackHandler feedbackHandler;
 	protected final BuiltInExceptionProvider exceptionProvider;
@@ -39,7 +41,7 @@ public class CommandContext<E extends Event> {
 
 	public CommandContext(E event, List<ParsedArgument<?>> parsedArguments, CommandPropertyMap.PropertyMap propertyMap, FeedbackHandler feedbackHandler, BuiltInExceptionProvider exceptionProvider) {
 		this.event = event;
-		this.parsedArguments = parsedArguments;
+		this.parsedArguments = parsedArguments instanceof ParsedArgumentList ? (ParsedArgumentList) parsedArguments : new ParsedArgumentList(parsedArguments);
 		this.propertyMap = propertyMap;
 		this.feedbackHandler = feedbackHandler;
 		this.exceptionProvider = exceptionProvider;
@@ -119,4 +121,109 @@ public class CommandContext<E extends Event> {
 		ParsedArgument<A> parsedArgument = this.getParsedArgument(argument);
 		return parsedArgument.getResult();
 	}
+
+	/**
+	 * Gets an argument for this {@link CommandContext} by an index as an int.
+	 * <p>If the argument was parsed by a {@link PrimitiveArgument} this won't box it.</p>
+	 *
+	 * @param argument The index of the argument.
+	 * @return The argument at an index as an int.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws ClassCastException        If the argument at that index isn't a number.
+	 * @see ParsedArgumentList#getInt(int)
+	 */
+	public int getInt(int argument) {
+		return this.parsedArguments.getInt(argument);
+	}
+
+	/**
+	 * Gets an argument for this {@link CommandContext} by an index as a long.
+	 *
+	 * @param argument The index of the argument.
+	 * @return The argument at an index as a long.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws ClassCastException        If the argument at that index isn't a number.
+	 * @see #getInt(int)
+	 */
+	public long getLong(int argument) {
+		return this.parsedArguments.getLong(argument);
+	}
+
+	/**
+	 * Gets an argument for this {@link CommandContext} by an index as a short.
+	 *
+	 * @param argument The index of the argument.
+	 * @return The argument at an index as a short.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws ClassCastException        If the argument at that index isn't a number.
+	 * @see #getInt(int)
+	 */
+	public short getShort(int argument) {
+		return (short) this.parsedArguments.getLong(argument);
+	}
+
+	/**
+	 * Gets an argument for this {@link CommandContext} by an index as a byte.
+	 *
+	 * @param argument The index of the argument.
+	 * @return The argument at an index as a byte.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws ClassCastException        If the argument at that index isn't a number.
+	 * @see #getInt(int)
+	 */
+	public byte getByte(int argument) {
+		return (byte) this.parsedArguments.getLong(argument);
+	}
+
+	/**
+	 * Gets an argument for this {@link CommandContext} by an index as a double.
+	 *
+	 * @param argument The index of the argument.
+	 * @return The argument at an index as a double.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws ClassCastException        If the argument at that index isn't a number.
+	 * @see #getInt(int)
+	 */
+	public double getDouble(int argument) {
+		return this.parsedArguments.getDouble(argument);
+	}
+
+	/**
+	 * Gets an argument for this {@link CommandContext} by an index as a float.
+	 *
+	 * @param argument The index of the argument.
+	 * @return The argument at an index as a float.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws ClassCastException        If the argument at that index isn't a number.
+	 * @see #getInt(int)
+	 */
+	public float getFloat(int argument) {
+		return (float) this.parsedArguments.getDouble(argument);
+	}
+
+	/**
+	 * Gets an argument for this {@link CommandContext} by an index as a char.
+	 *
+	 * @param argument The index of the argument.
+	 * @return The argument at an index as a char.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws ClassCastException        If the argument at that index isn't a char.
+	 * @see #getInt(int)
+	 */
+	public char getChar(int argument) {
+		return this.parsedArguments.getChar(argument);
+	}
+
+	/**
+	 * Gets an argument for this {@link CommandContext} by an index as a boolean.
+	 *
+	 * @param argument The index of the argument.
+	 * @return The argument at an index as a boolean.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws ClassCastException        If the argument at that index isn't a boolean.
+	 * @see #getInt(int)
+	 */
+	public boolean getBoolean(int argument) {
+		return this.parsedArguments.getBoolean(argument);
+	}
 }
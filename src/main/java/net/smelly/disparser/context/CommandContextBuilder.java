@@ -4,17 +4,24 @@ import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.events.Event;
 import net.smelly.disparser.MessageReader;
 import net.smelly.disparser.ParsedArgument;
+import net.smelly.disparser.PrimitiveArgument;
 import net.smelly.disparser.context.tree.DisparsingNode;
+import net.smelly.disparser.context.tree.LocalizedTree;
 import net.smelly.disparser.context.tree.RootNode;
+import net.smelly.disparser.feedback.CommandMessage;
 import net.smelly.disparser.feedback.FeedbackHandler;
+import net.smelly.disparser.feedback.LocalizedMessageCache;
 import net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider;
 import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.metrics.CommandTrace;
 import net.smelly.disparser.properties.CommandPropertyMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * An abstract builder class for {@link CommandContext}s.
@@ -26,7 +33,7 @@ import java.util.*;
  */
 @NotThreadSafe
 public abstract class CommandContextBuilder<E extends Event, C extends CommandContext<E>> {
-	private final List<ParsedArgument<?>> arguments = new LinkedList<>();
+	private final ParsedArgumentList arguments = new ParsedArgumentList();
 	private final CommandPropertyMap.PropertyMap propertyMap;
 	private final E event;
 	private final MessageChannel channel;
@@ -37,6 +44,14 @@ public abstract class CommandContextBuilder<E extends Event, C extends CommandCo
 	private ContextConsumer<C> consumer;
 	@Nullable
 	private Exception exception;
+	@Nullable
+	private List<PendingArgument> pendingArguments;
+	@Nullable
+	private CommandTrace trace;
+	@Nullable
+	private LocalizedMessageCache.LocalizedMessages localizedMessages;
+	@Nullable
+	private LocalizedTree<E, C> localizedTree;
 
 	public CommandContextBuilder(E event, CommandPropertyMap.PropertyMap propertyMap, MessageChannel channel, FeedbackHandler feedbackHandler, BuiltInExceptionProvider exceptionProvider, MessageReader reader) {
 		this.event = event;
@@ -60,11 +75,19 @@ public abstract class CommandContextBuilder<E extends Event, C extends CommandCo
 	public static <E extends Event, C extends CommandContext<E>> CommandContextBuilder<E, C> disparseRoot(CommandContextBuilder<E, C> builder, RootNode<E, C> rootNode) {
 		Requirement.Result result = rootNode.getRequirement().test(builder.event);
 		if (result.getType() != Requirement.ResultType.FAILED) {
+			CommandTrace trace = builder.trace;
+			long start = trace != null ? System.nanoTime() : 0L;
 			try {
 				rootNode.disparse(builder, builder.reader);
 			} catch (CommandException e) {
+				if (trace != null) {
+					trace.addNode(rootNode, start, System.nanoTime() - start, false);
+				}
 				return builder.setException(e);
 			}
+			if (trace != null) {
+				trace.addNode(rootNode, start, System.nanoTime() - start, true);
+			}
 			return disparse(builder, rootNode);
 		}
 		return builder.setException(builder.exceptionProvider.getRequirementFailedException().create(result.getReason().getMessage(builder.channel)));
@@ -73,24 +96,65 @@ public abstract class CommandContextBuilder<E extends Event, C extends CommandCo
 	/**
 	 * This method is the core algorithm used in disparsing nodes.
 	 * <p>It uses recursion and iteration through nodes to parse them onto a {@link CommandContextBuilder}, similarly to a decision tree.</p>
-	 * <p>This also handles node requirements.</p>
+	 * <p>Children are tried using {@link DisparsingNode#tryDisparse(CommandContextBuilder, MessageReader)}, so failing children don't create exceptions unless their failure gets reported.</p>
+	 * <p>The next component is first looked up in the node's compiled literal index, and the matching {@link net.smelly.disparser.context.tree.CommandNode}, if any, gets tried first. The node's other children then get tried in order.</p>
+	 * <p>This also handles node requirements. When no child matches, the last child's requirement gets checked before reporting an argument error, the same as when every child gets tried.</p>
+	 * <p>If the builder has a {@link CommandTrace}, every child tried gets recorded onto it along with how long it took.</p>
 	 *
 	 * @param builder A {@link CommandContextBuilder} to disparse for.
 	 * @param node    A {@link DisparsingNode} to disparse.
 	 * @param <E>     The type of {@link Event} to disparse for.
 	 * @param <C>     The type of {@link CommandContext} for the {@link CommandContextBuilder}.
 	 * @return A {@link CommandContextBuilder} that's ran through disparsing the node.
+	 * @see DisparsingNode#findLiteralChild(MessageReader, int, CommandContextBuilder)
 	 */
 	public static <E extends Event, C extends CommandContext<E>> CommandContextBuilder<E, C> disparse(CommandContextBuilder<E, C> builder, DisparsingNode<E, C> node) {
 		MessageReader reader = builder.reader;
-		Iterator<DisparsingNode<E, C>> children = node.getChildren().iterator();
-		while (children.hasNext()) {
+		boolean hasNextArg = reader.hasNextArg();
+		DisparsingNode<E, C> literal = hasNextArg ? node.findLiteralChild(reader, reader.getIndex() + 1, builder) : null;
+		List<DisparsingNode<E, C>> argumentChildren = node.getArgumentChildren();
+		int offset = literal != null ? 1 : 0;
+		int candidates = argumentChildren.size() + offset;
+		if (candidates == 0) {
+			List<DisparsingNode<E, C>> literalChildren = node.getLiteralChildren();
+			if (hasNextArg && !literalChildren.isEmpty()) {
+				DisparsingNode<E, C> lastLiteral = literalChildren.get(literalChildren.size() - 1);
+				try {
+					Requirement.Result result = lastLiteral.getRequirement().test(builder.event);
+					if (result.getType() == Requirement.ResultType.FAILED) {
+						return builder.setException(builder.exceptionProvider.getRequirementFailedException().create(result.getReason().getMessage(builder.channel)));
+					}
+				} catch (Exception exception) {
+					return builder.setException(builder.exceptionProvider.getUnexpectedErrorException().create(exception.getMessage()));
+				}
+				int index = reader.getIndex() + 1;
+				CommandException invalidArgument = builder.exceptionProvider.getInvalidCommandArgumentException().create(reader.getComponent(index), index);
+				return builder.setException(builder.exceptionProvider.getArgumentErrorException().create(builder.getName(lastLiteral), invalidArgument.getCommandMessage().getMessage(builder.channel), index));
+			}
+			return builder;
+		}
+		CommandTrace trace = builder.trace;
+		for (int i = 0; i < candidates; i++) {
 			int prevIndex = reader.getIndex();
-			DisparsingNode<E, C> child = children.next();
+			DisparsingNode<E, C> child = i < offset ? literal : argumentChildren.get(i - offset);
+			boolean isLast = i == candidates - 1;
 			try {
 				Requirement.Result result = child.getRequirement().test(builder.event);
 				if (result.getType() != Requirement.ResultType.FAILED) {
-					child.disparse(builder, reader);
+					long start = trace != null ? System.nanoTime() : 0L;
+					Supplier<CommandException> failure = child.tryDisparse(builder, reader);
+					if (trace != null) {
+						trace.addNode(child, start, System.nanoTime() - start, failure == null);
+					}
+					if (failure != null) {
+						if (reader.getIndex() > prevIndex) {
+							reader.setIndex(prevIndex);
+							if (reader.hasNextArg() && isLast) {
+								return builder.setException(builder.exceptionProvider.getArgumentErrorException().create(builder.getName(child), builder.getMessage(failure.get()), reader.getIndex() + 1));
+							}
+						}
+						continue;
+					}
 					if (!child.getChildren().isEmpty()) {
 						if (!reader.hasNextArg() && builder.getConsumer() == null) {
 							return builder.setException(builder.exceptionProvider.getIncompleteCommandException().create(builder.channel, child.getChildren(), reader.getIndex()));
@@ -99,20 +163,9 @@ public abstract class CommandContextBuilder<E extends Event, C extends CommandCo
 					} else {
 						return builder.setConsumer(child.getConsumer());
 					}
-				} else if (!children.hasNext()) {
+				} else if (isLast) {
 					return builder.setException(builder.exceptionProvider.getRequirementFailedException().create(result.getReason().getMessage(builder.channel)));
 				}
-			} catch (CommandException syntaxException) {
-				if (reader.getIndex() > prevIndex) {
-					try {
-						reader.lastArgument();
-					} catch (Exception exception) {//Shouldn't happen, but we'll catch anyway
-						return builder.setException(exception);
-					}
-					if (reader.hasNextArg() && !children.hasNext()) {
-						return builder.setException(builder.exceptionProvider.getArgumentErrorException().create(child.getName(builder.channel), syntaxException.getCommandMessage().getMessage(builder.channel), reader.getIndex() + 1));
-					}
-				}
 			} catch (Exception exception) {
 				return builder.setException(builder.exceptionProvider.getUnexpectedErrorException().create(exception.getMessage()));
 			}
@@ -198,12 +251,119 @@ public abstract class CommandContextBuilder<E extends Event, C extends CommandCo
 		return this;
 	}
 
+	/**
+	 * Gets this builder's {@link #trace}.
+	 *
+	 * @return This builder's {@link #trace}, or null if its command isn't being traced.
+	 */
+	@Nullable
+	public CommandTrace getTrace() {
+		return this.trace;
+	}
+
+	/**
+	 * Sets this builder's {@link #trace}, which the nodes tried while disparsing get recorded onto.
+	 *
+	 * @param trace A {@link CommandTrace} to set, or null to not trace.
+	 * @return This builder.
+	 */
+	public CommandContextBuilder<E, C> setTrace(@Nullable CommandTrace trace) {
+		this.trace = trace;
+		return this;
+	}
+
+	/**
+	 * Gets this builder's {@link #localizedMessages}.
+	 *
+	 * @return This builder's {@link #localizedMessages}, or null if messages get rendered for the channel every time.
+	 */
+	@Nullable
+	public LocalizedMessageCache.LocalizedMessages getLocalizedMessages() {
+		return this.localizedMessages;
+	}
+
+	/**
+	 * Sets this builder's {@link #localizedMessages}, which the names of nodes and the messages of immutable exceptions get rendered through.
+	 * <p>Handlers with a {@link net.smelly.disparser.feedback.LocaleResolver} set these to the messages of the locale they resolved for the channel.</p>
+	 *
+	 * @param localizedMessages The {@link LocalizedMessageCache.LocalizedMessages} to set, or null to render messages for the channel every time.
+	 * @return This builder.
+	 */
+	public CommandContextBuilder<E, C> setLocalizedMessages(@Nullable LocalizedMessageCache.LocalizedMessages localizedMessages) {
+		this.localizedMessages = localizedMessages;
+		return this;
+	}
+
+	/**
+	 * Gets this builder's {@link #localizedTree}.
+	 *
+	 * @return This builder's {@link #localizedTree}, or null if its nodes don't get looked up in a compiled tree.
+	 */
+	@Nullable
+	public LocalizedTree<E, C> getLocalizedTree() {
+		return this.localizedTree;
+	}
+
+	/**
+	 * Sets this builder's {@link #localizedTree}, which the literal children and names of nodes get looked up in while disparsing.
+	 * <p>Handlers with a {@link net.smelly.disparser.feedback.LocaleResolver} set this to the tree of the command compiled for the locale they resolved for the channel.</p>
+	 *
+	 * @param localizedTree The {@link LocalizedTree} to set, or null to not look up nodes in a compiled tree.
+	 * @return This builder.
+	 * @see net.smelly.disparser.context.handlers.CommandRegistry#getLocalizedTree(net.smelly.disparser.Command, LocalizedMessageCache.LocalizedMessages, MessageChannel)
+	 */
+	public CommandContextBuilder<E, C> setLocalizedTree(@Nullable LocalizedTree<E, C> localizedTree) {
+		this.localizedTree = localizedTree;
+		return this;
+	}
+
+	/**
+	 * Renders a long-lived {@link CommandMessage} for this builder's {@link #channel}, through this builder's {@link #localizedMessages} if it has any.
+	 *
+	 * @param message A {@link CommandMessage} that lives at least as long as this builder's {@link #localizedMessages}, such as the name of a node.
+	 * @return The rendered message.
+	 */
+	public String getMessage(CommandMessage message) {
+		LocalizedMessageCache.LocalizedMessages localizedMessages = this.localizedMessages;
+		return localizedMessages != null ? localizedMessages.getMessage(message, this.channel) : message.getMessage(this.channel);
+	}
+
+	/**
+	 * Renders the message of a {@link CommandException} for this builder's {@link #channel}.
+	 * <p>Only the messages of {@link CommandException#isImmutable() immutable} exceptions get rendered through this builder's {@link #localizedMessages}, as other exceptions get created for each failure.</p>
+	 *
+	 * @param exception A {@link CommandException} to render the message of.
+	 * @return The rendered message.
+	 */
+	public String getMessage(CommandException exception) {
+		CommandMessage message = exception.getCommandMessage();
+		return exception.isImmutable() ? this.getMessage(message) : message.getMessage(this.channel);
+	}
+
+	/**
+	 * Gets the name of a {@link DisparsingNode} for this builder's {@link #channel}.
+	 * <p>The name gets looked up in this builder's {@link #localizedTree} if it has one, otherwise it gets rendered through this builder's {@link #localizedMessages} if it has any.</p>
+	 *
+	 * @param node A {@link DisparsingNode} to get the name of.
+	 * @return The name of the node.
+	 */
+	public String getName(DisparsingNode<?, ?> node) {
+		LocalizedTree<E, C> localizedTree = this.localizedTree;
+		if (localizedTree != null) {
+			String name = localizedTree.getName(node);
+			if (name != null) {
+				return name;
+			}
+		}
+		return this.getMessage(node.getName());
+	}
+
 	/**
 	 * Gets this builder's {@link #arguments}.
 	 *
 	 * @return This builder's {@link #arguments}.
 	 */
-	public List<ParsedArgument<?>> getArguments() {
+	public ParsedArgumentList getArguments() {
 		return this.arguments;
 	}
 
@@ -218,6 +378,66 @@ public abstract class CommandContextBuilder<E extends Event, C extends CommandCo
 		return this;
 	}
 
+	/**
+	 * Adds an unboxed primitive value parsed by a {@link PrimitiveArgument} to this builder.
+	 *
+	 * @param argument The {@link PrimitiveArgument} that parsed the value.
+	 * @param value    The value parsed by {@link PrimitiveArgument#parsePrimitive(MessageReader)}.
+	 * @return This builder.
+	 */
+	public CommandContextBuilder<E, C> addPrimitiveArgument(@Nonnull PrimitiveArgument<?> argument, long value) {
+		this.arguments.addPrimitive(argument, value);
+		return this;
+	}
+
+	/**
+	 * Adds a {@link ParsedArgument} that is still being parsed asynchronously to this builder.
+	 * <p>Its lookup keeps running while disparsing continues, so the lookups of all the arguments of a command run at once.</p>
+	 *
+	 * @param argument A {@link CompletableFuture} for the {@link ParsedArgument} to add to this builder.
+	 * @return This builder.
+	 * @see net.smelly.disparser.AsyncArgument
+	 * @see #resolveArguments()
+	 */
+	public CommandContextBuilder<E, C> addPendingArgument(@Nonnull CompletableFuture<? extends ParsedArgument<?>> argument) {
+		if (this.pendingArguments == null) {
+			this.pendingArguments = new ArrayList<>(2);
+		}
+		this.pendingArguments.add(new PendingArgument(this.arguments.size(), argument));
+		this.arguments.addPending();
+		return this;
+	}
+
+	/**
+	 * @return If this builder has any {@link ParsedArgument}s that are still being parsed asynchronously.
+	 */
+	public boolean hasPendingArguments() {
+		return this.pendingArguments != null;
+	}
+
+	/**
+	 * Waits for all of this builder's pending arguments without blocking, putting them into this builder's {@link #arguments} once they have all been parsed.
+	 * <p>This should only be called once disparsing has finished. The returned {@link CompletableFuture} completes exceptionally if any of the pending arguments failed.</p>
+	 *
+	 * @return A {@link CompletableFuture} that completes once all of this builder's pending arguments have been parsed.
+	 */
+	public CompletableFuture<Void> resolveArguments() {
+		List<PendingArgument> pendingArguments = this.pendingArguments;
+		if (pendingArguments == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[pendingArguments.size()];
+		for (int i = 0; i < futures.length; i++) {
+			futures[i] = pendingArguments.get(i).argument;
+		}
+		return CompletableFuture.allOf(futures).thenRun(() -> {
+			for (PendingArgument pendingArgument : pendingArguments) {
+				this.arguments.set(pendingArgument.index, pendingArgument.argument.join());
+			}
+			this.pendingArguments = null;
+		});
+	}
+
 	/**
 	 * Gets a {@link ParsedArgument} at an index.
 	 *
@@ -256,4 +476,14 @@ public abstract class CommandContextBuilder<E extends Event, C extends CommandCo
 	 * @return A {@link CommandContext} constructed by this builder.
 	 */
 	public abstract C build();
+
+	private static final class PendingArgument {
+		private final int index;
+		private final CompletableFuture<? extends ParsedArgument<?>> argument;
+
+		private PendingArgument(int index, CompletableFuture<? extends ParsedArgument<?>> argument) {
+			this.index = index;
+			this.argument = argument;
+		}
+	}
 }
@@ -0,0 +1,269 @@
+package net.smelly.disparser.context;
+
+import net.smelly.disparser.ParsedArgument;
+import net.smelly.disparser.PrimitiveArgument;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link List} of {@link ParsedArgument}s that can also store the values of {@link PrimitiveArgument}s unboxed.
+ * <p>Primitive values only get boxed into a {@link ParsedArgument} when they get accessed as one, so reading them with the primitive getters, such as {@link #getInt(int)}, never boxes.</p>
+ *
+ * @author Luke Tonon
+ * @see PrimitiveArgument
+ * @see CommandContext
+ */
+@NotThreadSafe
+public final class ParsedArgumentList extends AbstractList<ParsedArgument<?>> {
+	private static final int DEFAULT_CAPACITY = 4;
+	private ParsedArgument<?>[] arguments;
+	private PrimitiveArgument<?>[] primitiveArguments;
+	private long[] primitives;
+	private int size;
+
+	public ParsedArgumentList() {
+		this.arguments = new ParsedArgument<?>[DEFAULT_CAPACITY];
+		this.primitiveArguments = new PrimitiveArgument<?>[DEFAULT_CAPACITY];
+		this.primitives = new long[DEFAULT_CAPACITY];
+	}
+
+	public ParsedArgumentList(Collection<? extends ParsedArgument<?>> arguments) {
+		this();
+		this.addAll(arguments);
+	}
+
+	/**
+	 * Adds an unboxed primitive value to the end of this list.
+	 *
+	 * @param argument The {@link PrimitiveArgument} that parsed the value.
+	 * @param value    The value parsed by {@link PrimitiveArgument#parsePrimitive(net.smelly.disparser.MessageReader)}.
+	 */
+	public void addPrimitive(@Nonnull PrimitiveArgument<?> argument, long value) {
+		this.ensureCapacity(this.size + 1);
+		this.primitiveArguments[this.size] = argument;
+		this.primitives[this.size] = value;
+		this.size++;
+		this.modCount++;
+	}
+
+	/**
+	 * Adds a slot to the end of this list for an argument that is still being parsed asynchronously.
+	 * <p>The argument must be set using {@link #set(int, ParsedArgument)} before it gets accessed.</p>
+	 *
+	 * @see net.smelly.disparser.AsyncArgument
+	 */
+	public void addPending() {
+		this.ensureCapacity(this.size + 1);
+		this.arguments[this.size] = null;
+		this.primitiveArguments[this.size] = null;
+		this.size++;
+		this.modCount++;
+	}
+
+	/**
+	 * Gets a {@link ParsedArgument} at an index, boxing it if it's a primitive.
+	 *
+	 * @param index The index of the argument.
+	 * @return The {@link ParsedArgument} at an index.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws IllegalStateException     If the argument at the given index is still pending.
+	 */
+	@Override
+	public ParsedArgument<?> get(int index) {
+		this.checkIndex(index);
+		ParsedArgument<?> argument = this.arguments[index];
+		if (argument == null) {
+			if (this.primitiveArguments[index] == null) {
+				throw new IllegalStateException("Argument at index " + index + " is still pending");
+			}
+			argument = ParsedArgument.parse(this.primitiveArguments[index].box(this.primitives[index]));
+			this.arguments[index] = argument;
+		}
+		return argument;
+	}
+
+	@Override
+	public void add(int index, ParsedArgument<?> element) {
+		if (index < 0 || index > this.size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		}
+		this.ensureCapacity(this.size + 1);
+		int moved = this.size - index;
+		if (moved > 0) {
+			System.arraycopy(this.arguments, index, this.arguments, index + 1, moved);
+			System.arraycopy(this.primitiveArguments, index, this.primitiveArguments, index + 1, moved);
+			System.arraycopy(this.primitives, index, this.primitives, index + 1, moved);
+		}
+		this.arguments[index] = element;
+		this.primitiveArguments[index] = null;
+		this.primitives[index] = 0L;
+		this.size++;
+		this.modCount++;
+	}
+
+	@Override
+	public ParsedArgument<?> set(int index, ParsedArgument<?> element) {
+		this.checkIndex(index);
+		ParsedArgument<?> previous = this.arguments[index] != null || this.primitiveArguments[index] != null ? this.get(index) : null;
+		this.arguments[index] = element;
+		this.primitiveArguments[index] = null;
+		this.primitives[index] = 0L;
+		return previous;
+	}
+
+	@Override
+	public ParsedArgument<?> remove(int index) {
+		this.checkIndex(index);
+		ParsedArgument<?> removed = this.arguments[index] != null || this.primitiveArguments[index] != null ? this.get(index) : null;
+		int moved = this.size - index - 1;
+		if (moved > 0) {
+			System.arraycopy(this.arguments, index + 1, this.arguments, index, moved);
+			System.arraycopy(this.primitiveArguments, index + 1, this.primitiveArguments, index, moved);
+			System.arraycopy(this.primitives, index + 1, this.primitives, index, moved);
+		}
+		this.size--;
+		this.arguments[this.size] = null;
+		this.primitiveArguments[this.size] = null;
+		this.modCount++;
+		return removed;
+	}
+
+	/**
+	 * Clears this list without boxing any of its primitives.
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(this.arguments, 0, this.size, null);
+		Arrays.fill(this.primitiveArguments, 0, this.size, null);
+		this.size = 0;
+		this.modCount++;
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @param index The index of the argument.
+	 * @return If the argument at an index is stored as an unboxed primitive.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 */
+	public boolean isPrimitive(int index) {
+		this.checkIndex(index);
+		return this.primitiveArguments[index] != null;
+	}
+
+	/**
+	 * Gets an argument as a long.
+	 * <p>Unboxed primitives never get boxed by this, and boxed {@link Number}s get converted.</p>
+	 *
+	 * @param index The index of the argument.
+	 * @return The argument at an index as a long.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws IllegalStateException     If the argument at the given index is still pending.
+	 * @throws ClassCastException        If the argument at that index isn't a number.
+	 */
+	public long getLong(int index) {
+		PrimitiveArgument<?> primitiveArgument = this.getPrimitiveArgument(index);
+		if (primitiveArgument == null) {
+			return ((Number) this.getBoxedResult(index)).longValue();
+		}
+		long value = this.primitives[index];
+		return primitiveArgument.isFloatingPoint() ? (long) Double.longBitsToDouble(value) : value;
+	}
+
+	/**
+	 * Gets an argument as a double.
+	 *
+	 * @param index The index of the argument.
+	 * @return The argument at an index as a double.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws IllegalStateException     If the argument at the given index is still pending.
+	 * @throws ClassCastException        If the argument at that index isn't a number.
+	 * @see #getLong(int)
+	 */
+	public double getDouble(int index) {
+		PrimitiveArgument<?> primitiveArgument = this.getPrimitiveArgument(index);
+		if (primitiveArgument == null) {
+			return ((Number) this.getBoxedResult(index)).doubleValue();
+		}
+		long value = this.primitives[index];
+		return primitiveArgument.isFloatingPoint() ? Double.longBitsToDouble(value) : value;
+	}
+
+	/**
+	 * Gets an argument as an int.
+	 *
+	 * @param index The index of the argument.
+	 * @return The argument at an index as an int.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws IllegalStateException     If the argument at the given index is still pending.
+	 * @throws ClassCastException        If the argument at that index isn't a number.
+	 * @see #getLong(int)
+	 */
+	public int getInt(int index) {
+		return (int) this.getLong(index);
+	}
+
+	/**
+	 * Gets an argument as a char.
+	 *
+	 * @param index The index of the argument.
+	 * @return The argument at an index as a char.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws IllegalStateException     If the argument at the given index is still pending.
+	 * @throws ClassCastException        If the argument at that index isn't a char.
+	 */
+	public char getChar(int index) {
+		return this.getPrimitiveArgument(index) == null ? (Character) this.getBoxedResult(index) : (char) this.primitives[index];
+	}
+
+	/**
+	 * Gets an argument as a boolean.
+	 *
+	 * @param index The index of the argument.
+	 * @return The argument at an index as a boolean.
+	 * @throws IndexOutOfBoundsException If there is no argument at the given index.
+	 * @throws IllegalStateException     If the argument at the given index is still pending.
+	 * @throws ClassCastException        If the argument at that index isn't a boolean.
+	 */
+	public boolean getBoolean(int index) {
+		return this.getPrimitiveArgument(index) == null ? (Boolean) this.getBoxedResult(index) : this.primitives[index] != 0L;
+	}
+
+	private Object getBoxedResult(int index) {
+		ParsedArgument<?> argument = this.arguments[index];
+		if (argument == null) {
+			throw new IllegalStateException("Argument at index " + index + " is still pending");
+		}
+		return argument.getResult();
+	}
+
+	@Nullable
+	private PrimitiveArgument<?> getPrimitiveArgument(int index) {
+		this.checkIndex(index);
+		return this.primitiveArguments[index];
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > this.arguments.length) {
+			int newCapacity = Math.max(capacity, this.arguments.length << 1);
+			this.arguments = Arrays.copyOf(this.arguments, newCapacity);
+			this.primitiveArguments = Arrays.copyOf(this.primitiveArguments, newCapacity);
+			this.primitives = Arrays.copyOf(this.primitives, newCapacity);
+		}
+	}
+}
@@ -1,26 +1,52 @@
 package net.smelly.disparser.context.handlers;
 
 import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.events.Event;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.utils.PermissionUtil;
 import net.smelly.disparser.Command;
+import net.smelly.disparser.concurrent.KeyedExecutorService;
+import net.smelly.disparser.concurrent.RateLimiter;
 import net.smelly.disparser.context.CommandContext;
+import net.smelly.disparser.context.CommandContextBuilder;
+import net.smelly.disparser.context.ContextConsumer;
 import net.smelly.disparser.feedback.FeedbackHandler;
 import net.smelly.disparser.feedback.FeedbackHandlerBuilder;
+import net.smelly.disparser.feedback.LocaleResolver;
+import net.smelly.disparser.feedback.LocalizedMessageCache;
 import net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider;
+import net.smelly.disparser.feedback.exceptions.CommandException;
 import net.smelly.disparser.feedback.exceptions.DisparserExceptionProvider;
+import net.smelly.disparser.metrics.CommandMetrics;
+import net.smelly.disparser.metrics.CommandTrace;
+import net.smelly.disparser.metrics.CommandTracer;
 import net.smelly.disparser.properties.CommandProperty;
 import net.smelly.disparser.properties.CommandPropertyMap;
+import net.smelly.disparser.properties.RateLimit;
+import net.smelly.disparser.util.MessageUtil;
 import org.apache.commons.collections4.set.UnmodifiableSet;
 
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -41,23 +67,65 @@ import java.util.function.Function;
  */
 @ThreadSafe
 public abstract class AbstractCommandHandler<E extends Event, C extends CommandContext<E>> extends ListenerAdapter {
+	private static final ThreadLocal<AbstractCommandHandler<?, ?>> HANDLING_MESSAGE = new ThreadLocal<>();
+	/**
+	 * A copy of the aliases of this handler's current {@link CommandRegistry}, refreshed every time a registry gets swapped in.
+	 *
+	 * @deprecated Commands get looked up in this handler's {@link #getRegistry() registry}, so changes to this map are only seen once {@link #rebuildAliasIndex()} gets called.
+	 * Use {@link #updateRegistry(Consumer)} instead.
+	 */
+	@Deprecated
 	protected final ConcurrentHashMap<String, Command<E, C>> aliasMap = new ConcurrentHashMap<>();
+	/**
+	 * A {@link CommandPropertyMap} holding the same {@link CommandPropertyMap.PropertyMap}s as this handler's current {@link CommandRegistry}, refreshed every time a registry gets swapped in.
+	 * <p>Changing the values of commands already in the registry through this map changes them in the registry too.</p>
+	 *
+	 * @deprecated Commands put onto this map are only seen once {@link #rebuildAliasIndex()} gets called.
+	 * Use {@link #getRegistry()} and {@link #updateRegistry(Consumer)} instead.
+	 */
+	@Deprecated
 	protected final CommandPropertyMap<E, C> commandPropertyMap;
+	private volatile CommandRegistry<E, C> registry;
 	protected final Function<E, String> prefixFunction;
 	protected final Function<MessageChannel, BuiltInExceptionProvider> exceptionProviderFunction;
 	protected final FeedbackHandlerBuilder feedbackHandlerBuilder;
 	protected final ExecutorService executorService;
+	@Nullable
+	private final String constantPrefix;
+	@Nullable
+	private final PrefixCache<E> prefixCache;
+	private final boolean prefixOverridden;
+	@Nullable
+	private final KeyedExecutorService keyedExecutorService;
+	private final LongAdder rejectedCommands = new LongAdder();
+	private final AtomicLong nextDispatchKey = new AtomicLong();
+	private final ConcurrentHashMap<Command<E, C>, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Command<E, C>, CompiledPermissions> compiledPermissions = new ConcurrentHashMap<>();
+	private volatile CommandMetrics metrics = CommandMetrics.none();
+	private volatile boolean timed;
+	private volatile CommandTracer tracer = CommandTracer.none();
+	private volatile boolean tracing;
+	@Nullable
+	private volatile LocaleResolver localeResolver;
+	@Nullable
+	private volatile LocalizedMessageCache messageCache;
 
+	@SuppressWarnings("unchecked")
 	public AbstractCommandHandler(CommandPropertyMap<E, C> commandPropertyMap, Function<E, String> prefixFunction, FeedbackHandlerBuilder feedbackHandlerBuilder, Function<MessageChannel, BuiltInExceptionProvider> exceptionProviderFunction, ExecutorService executorService) {
-		this.commandPropertyMap = commandPropertyMap;
+		this.commandPropertyMap = CommandPropertyMap.create(commandPropertyMap.asMap());
+		this.registry = CommandRegistry.create(commandPropertyMap);
 		this.prefixFunction = prefixFunction;
+		this.constantPrefix = prefixFunction instanceof ConstantPrefixFunction ? ((ConstantPrefixFunction<E>) prefixFunction).prefix : null;
+		this.prefixCache = prefixFunction instanceof PrefixCache ? (PrefixCache<E>) prefixFunction : null;
+		this.prefixOverridden = overridesGetPrefix(this.getClass());
 		this.feedbackHandlerBuilder = feedbackHandlerBuilder;
 		this.exceptionProviderFunction = exceptionProviderFunction;
 		this.executorService = executorService;
+		this.keyedExecutorService = executorService instanceof KeyedExecutorService ? (KeyedExecutorService) executorService : null;
 	}
 
 	public AbstractCommandHandler(String prefix, FeedbackHandlerBuilder feedbackHandlerBuilder, Function<MessageChannel, BuiltInExceptionProvider> exceptionProviderFunction) {
-		this(CommandPropertyMap.createEmpty(), guild -> prefix, feedbackHandlerBuilder, exceptionProviderFunction, Executors.newSingleThreadExecutor());
+		this(CommandPropertyMap.createEmpty(), new ConstantPrefixFunction<>(prefix), feedbackHandlerBuilder, exceptionProviderFunction, KeyedExecutorService.builder("Default").build());
 	}
 
 	/**
@@ -66,7 +134,7 @@ public abstract class AbstractCommandHandler<E extends Event, C extends CommandC
 	 * @param commands The {@link Collection} of {@link Command}s to register.
 	 */
 	protected void registerCommands(Collection<Command<E, C>> commands) {
-		commands.forEach(this::registerCommand);
+		this.updateRegistry(builder -> commands.forEach(builder::putCommand));
 	}
 
 	/**
@@ -75,7 +143,7 @@ public abstract class AbstractCommandHandler<E extends Event, C extends CommandC
 	 * @param command The {@link Command} to register.
 	 */
 	protected void registerCommand(Command<E, C> command) {
-		this.commandPropertyMap.putCommand(command);
+		this.updateRegistry(builder -> builder.putCommand(command));
 	}
 
 	/**
@@ -84,23 +152,320 @@ public abstract class AbstractCommandHandler<E extends Event, C extends CommandC
 	 * @param command The {@link Command} to register.
 	 * @param map     The {@link Map} to put for this {@link Command}'s properties.
 	 */
-	@SuppressWarnings("unchecked")
 	protected void registerCommand(Command<E, C> command, Map<CommandProperty<?, ?>, CommandProperty.Value<?>> map) {
-		this.aliasMap.entrySet().removeIf(entry -> entry.getValue() == command);
-		for (String alias : (Set<String>) map.computeIfAbsent(command.getAliasesProperty(), (key) -> CommandProperty.Value.create(command.getAliasesProperty())).get()) {
-			this.aliasMap.put(alias, command);
+		this.updateRegistry(builder -> builder.register(command, map));
+	}
+
+	/**
+	 * Registers a {@link Map} of aliases to the {@link Command}s they call.
+	 *
+	 * @param aliases The {@link Map} of aliases to put.
+	 */
+	protected void registerAliases(Map<String, Command<E, C>> aliases) {
+		this.updateRegistry(builder -> builder.putAliases(aliases));
+	}
+
+	/**
+	 * Swaps in a {@link CommandRegistry} with the aliases of this handler's {@link #aliasMap} and the commands of its {@link #commandPropertyMap}.
+	 * <p>Extensions of this class that modify the {@link #aliasMap} or {@link #commandPropertyMap} directly must call this afterwards.</p>
+	 *
+	 * @deprecated Use {@link #updateRegistry(Consumer)} instead.
+	 */
+	@Deprecated
+	protected synchronized void rebuildAliasIndex() {
+		Map<String, Command<E, C>> aliases = new HashMap<>(this.aliasMap);
+		Map<Command<E, C>, CommandPropertyMap.PropertyMap> propertyMaps = new HashMap<>(this.commandPropertyMap.asMap());
+		this.updateRegistry(builder -> {
+			builder.clearAliases().putAliases(aliases);
+			propertyMaps.forEach(builder::putPropertyMap);
+			for (Command<E, C> command : aliases.values()) {
+				if (!propertyMaps.containsKey(command)) {
+					builder.putCommand(command);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Changes this handler's {@link CommandRegistry} by building a changed copy of it and swapping the copy in.
+	 * <p>Updates are serialized with each other and with {@link #reload(CommandRegistry)}, so no update gets lost.</p>
+	 *
+	 * @param updater A {@link Consumer} that changes a {@link CommandRegistry.Builder} holding everything in the current registry.
+	 */
+	protected final synchronized void updateRegistry(Consumer<CommandRegistry.Builder<E, C>> updater) {
+		CommandRegistry.Builder<E, C> builder = this.registry.toBuilder();
+		updater.accept(builder);
+		this.reload(builder.build());
+	}
+
+	/**
+	 * Swaps in a new {@link CommandRegistry}, replacing every command, alias, and property of this handler at once.
+	 * <p>The registry can be built on any thread, so commands can be reloaded without stopping this handler.
+	 * Messages already being dispatched finish with the registry they were found in, and every message after the swap uses the new one.
+	 * To only change part of the current registry, build it from {@link CommandRegistry#toBuilder()}.</p>
+	 * <p>Cooldowns of commands kept by the new registry carry over, and the permissions of its commands get compiled again. Commands that were removed get {@link CommandMetrics#removeCommands(Collection) removed} from this handler's {@link CommandMetrics}.
+	 * If this handler has a {@link LocaleResolver}, its {@link LocalizedMessageCache} gets cleared, so the names of replaced nodes don't stay cached. Trees compiled for each locale are kept by the registry they were compiled in, so they get dropped along with it.</p>
+	 *
+	 * @param registry The new {@link CommandRegistry}.
+	 */
+	public synchronized void reload(CommandRegistry<E, C> registry) {
+		Set<Command<E, C>> previousCommands = this.registry.getCommands();
+		this.registry = registry;
+		this.refreshBridges(registry);
+		Set<Command<E, C>> commands = registry.getCommands();
+		List<Command<E, C>> removedCommands = new ArrayList<>();
+		for (Command<E, C> command : previousCommands) {
+			if (!commands.contains(command)) {
+				removedCommands.add(command);
+			}
+		}
+		if (!removedCommands.isEmpty()) {
+			this.metrics.removeCommands(removedCommands);
+		}
+		this.rateLimiters.keySet().retainAll(commands);
+		this.compiledPermissions.keySet().retainAll(commands);
+		for (Command<E, C> command : commands) {
+			this.compilePermissions(command);
 		}
-		CommandPropertyMap.PropertyMap propertyMap = this.commandPropertyMap.getAndClearPropertyMap(command);
-		propertyMap.putAll(map);
+		LocalizedMessageCache messageCache = this.messageCache;
+		if (messageCache != null) {
+			messageCache.clear();
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	private void refreshBridges(CommandRegistry<E, C> registry) {
+		Map<String, Command<E, C>> aliases = registry.getAliases();
+		this.aliasMap.putAll(aliases);
+		this.aliasMap.keySet().retainAll(aliases.keySet());
+		this.commandPropertyMap.replaceAll(registry.getCommandPropertyMap().asMap());
+	}
+
+	/**
+	 * Gets this handler's current {@link CommandRegistry}.
+	 *
+	 * @return This handler's current {@link CommandRegistry}.
+	 */
+	public final CommandRegistry<E, C> getRegistry() {
+		return this.registry;
+	}
+
+	/**
+	 * Sets if this handler should match aliases ignoring their case, using the same rules as {@link String#equalsIgnoreCase(String)}.
+	 * <p>Aliases get folded once when the index of aliases gets built, so matching a message doesn't create any new objects either way.
+	 * This matches aliases the same way the literals of {@link net.smelly.disparser.context.tree.CommandNode}s get matched.</p>
+	 * <p>If two aliases only differ in case, the one that comes first in {@link String#compareTo(String)} order is used.</p>
+	 *
+	 * @param ignoreAliasCase If aliases should be matched ignoring their case.
+	 * @see AbstractCommandHandlerBuilder#setIgnoreAliasCase(boolean)
+	 */
+	protected void setIgnoreAliasCase(boolean ignoreAliasCase) {
+		this.updateRegistry(builder -> builder.setIgnoreAliasCase(ignoreAliasCase));
+	}
+
+	/**
+	 * @return If this handler matches aliases ignoring their case.
+	 */
+	public final boolean isIgnoringAliasCase() {
+		return this.registry.isIgnoringAliasCase();
+	}
+
+	/**
+	 * Sets the {@link CommandMetrics} this handler reports to.
+	 *
+	 * @param metrics The {@link CommandMetrics} to report to.
+	 * @see AbstractCommandHandlerBuilder#setMetrics(CommandMetrics)
+	 */
+	protected void setMetrics(CommandMetrics metrics) {
+		this.metrics = metrics;
+		this.timed = metrics.isEnabled();
+	}
+
+	/**
+	 * Gets this handler's {@link CommandMetrics}.
+	 * <p>This is {@link CommandMetrics#none()} by default.</p>
+	 *
+	 * @return This handler's {@link CommandMetrics}.
+	 */
+	public final CommandMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Sets the {@link CommandTracer} that decides which commands this handler traces.
+	 *
+	 * @param tracer The {@link CommandTracer} to use.
+	 * @see AbstractCommandHandlerBuilder#setTracer(CommandTracer)
+	 */
+	protected void setTracer(CommandTracer tracer) {
+		this.tracer = tracer;
+		this.tracing = tracer.isEnabled();
+	}
+
+	/**
+	 * Gets this handler's {@link CommandTracer}.
+	 * <p>This is {@link CommandTracer#none()} by default.</p>
+	 *
+	 * @return This handler's {@link CommandTracer}.
+	 */
+	public final CommandTracer getTracer() {
+		return this.tracer;
+	}
+
+	/**
+	 * Sets the {@link LocaleResolver} this handler resolves the locale of each command with, and creates the {@link LocalizedMessageCache} it renders messages through.
+	 *
+	 * @param localeResolver The {@link LocaleResolver} to use, or null to render messages for the channel every time.
+	 * @param maximumSize    The maximum number of messages to cache for each locale.
+	 * @see AbstractCommandHandlerBuilder#setLocaleResolver(LocaleResolver, int)
+	 */
+	protected void setLocaleResolver(@Nullable LocaleResolver localeResolver, int maximumSize) {
+		this.messageCache = localeResolver != null ? LocalizedMessageCache.create(maximumSize) : null;
+		this.localeResolver = localeResolver;
+	}
+
+	/**
+	 * Gets this handler's {@link LocaleResolver}.
+	 * <p>This is null by default, so messages get rendered for the channel every time.</p>
+	 *
+	 * @return This handler's {@link LocaleResolver}, or null if it doesn't have one.
+	 */
+	@Nullable
+	public final LocaleResolver getLocaleResolver() {
+		return this.localeResolver;
 	}
 
 	/**
-	 * Gets this handler's {@link CommandPropertyMap}.
+	 * Gets the {@link LocalizedMessageCache} this handler renders messages through.
 	 *
-	 * @return This handler's {@link CommandPropertyMap}.
+	 * @return This handler's {@link LocalizedMessageCache}, or null if it doesn't have a {@link LocaleResolver}.
+	 */
+	@Nullable
+	public final LocalizedMessageCache getMessageCache() {
+		return this.messageCache;
+	}
+
+	/**
+	 * Resolves the locale of a channel and gets its {@link LocalizedMessageCache.LocalizedMessages}.
+	 * <p>This should be called once for each command, and the result set onto its {@link CommandContextBuilder}.</p>
+	 *
+	 * @param channel The channel the command was sent in.
+	 * @return The {@link LocalizedMessageCache.LocalizedMessages} of the locale of the channel, or null if this handler doesn't have a {@link LocaleResolver}.
+	 * @see CommandContextBuilder#setLocalizedMessages(LocalizedMessageCache.LocalizedMessages)
+	 */
+	@Nullable
+	protected final LocalizedMessageCache.LocalizedMessages getLocalizedMessages(@Nullable MessageChannel channel) {
+		LocaleResolver localeResolver = this.localeResolver;
+		LocalizedMessageCache messageCache = this.messageCache;
+		return localeResolver != null && messageCache != null ? messageCache.forLocale(localeResolver.getLocale(channel)) : null;
+	}
+
+	/**
+	 * Sets the {@link LocalizedMessageCache.LocalizedMessages} of the locale of a builder's channel onto the builder, along with the {@link net.smelly.disparser.context.tree.LocalizedTree} of the {@link Command} for the locale.
+	 * <p>This does nothing if this handler doesn't have a {@link LocaleResolver}.</p>
+	 *
+	 * @param registry The {@link CommandRegistry} the command was found in, which keeps the compiled trees of its commands.
+	 * @param command  The {@link Command} being disparsed.
+	 * @param builder  The {@link CommandContextBuilder} to disparse the command onto.
+	 * @return The builder.
+	 * @see CommandRegistry#getLocalizedTree(Command, LocalizedMessageCache.LocalizedMessages, MessageChannel)
+	 */
+	protected final CommandContextBuilder<E, C> localize(CommandRegistry<E, C> registry, Command<E, C> command, CommandContextBuilder<E, C> builder) {
+		MessageChannel channel = builder.getChannel();
+		LocalizedMessageCache.LocalizedMessages localizedMessages = this.getLocalizedMessages(channel);
+		if (localizedMessages != null) {
+			builder.setLocalizedMessages(localizedMessages).setLocalizedTree(registry.getLocalizedTree(command, localizedMessages, channel));
+		}
+		return builder;
+	}
+
+	/**
+	 * Starts a {@link CommandTrace} for a {@link Command} that has just been found for an event, if this handler's {@link CommandTracer} samples it.
+	 * <p>The trace should be set onto the {@link CommandContextBuilder} of the command, so the nodes tried while disparsing it get recorded.</p>
+	 *
+	 * @param command The {@link Command} that was found.
+	 * @return A new {@link CommandTrace} for the {@link Command}, or null if it isn't being traced.
+	 * @see CommandContextBuilder#setTrace(CommandTrace)
+	 */
+	@Nullable
+	protected final CommandTrace startTrace(Command<E, C> command) {
+		return this.tracing && this.tracer.shouldTrace(command) ? CommandTrace.start(command) : null;
+	}
+
+	/**
+	 * Finishes a {@link CommandTrace} and sends it to this handler's {@link CommandTracer}.
+	 *
+	 * @param trace   The {@link CommandTrace} to finish, or null if the command isn't being traced.
+	 * @param outcome The {@link CommandMetrics.Outcome} the command finished with.
+	 */
+	protected final void finishTrace(@Nullable CommandTrace trace, CommandMetrics.Outcome outcome) {
+		if (trace != null) {
+			trace.finish(outcome);
+			this.tracer.onTrace(trace);
+		}
+	}
+
+	/**
+	 * Gets the current time for timing a {@link CommandMetrics.Phase}, if this handler's {@link CommandMetrics} are enabled.
+	 *
+	 * @return The current time in nanoseconds, or 0 if this handler's {@link CommandMetrics} are disabled.
+	 * @see #recordPhase(Command, CommandMetrics.Phase, long)
+	 */
+	protected final long startPhase() {
+		return this.timed ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Records how long a {@link CommandMetrics.Phase} took since it was started, if this handler's {@link CommandMetrics} are enabled.
+	 *
+	 * @param command The {@link Command} being handled, or null if no command was found yet.
+	 * @param phase   The {@link CommandMetrics.Phase} to record.
+	 * @param start   The time returned by {@link #startPhase()} when the phase started.
+	 * @return The current time in nanoseconds, for starting the next phase, or 0 if this handler's {@link CommandMetrics} are disabled.
+	 */
+	protected final long recordPhase(@Nullable Command<E, C> command, CommandMetrics.Phase phase, long start) {
+		if (this.timed) {
+			long now = System.nanoTime();
+			this.metrics.recordPhase(command, phase, now - start);
+			return now;
+		}
+		return 0L;
+	}
+
+	/**
+	 * Records a {@link CommandMetrics.Outcome} for a {@link Command}, if this handler's {@link CommandMetrics} are enabled.
+	 *
+	 * @param command The {@link Command} the outcome is for, or null for {@link CommandMetrics.Outcome#UNMATCHED}.
+	 * @param outcome The {@link CommandMetrics.Outcome} to record.
+	 */
+	protected final void recordOutcome(@Nullable Command<E, C> command, CommandMetrics.Outcome outcome) {
+		if (this.timed) {
+			this.metrics.recordOutcome(command, outcome);
+		}
+	}
+
+	/**
+	 * Reports an unexpected exception a {@link Command} threw while being processed to this handler's {@link CommandMetrics} and to its {@link CommandTrace}.
+	 * <p>Unlike other records, failures get reported even if this handler's {@link CommandMetrics} are disabled, and {@link CommandMetrics#none()} prints their stack traces, so they aren't lost.</p>
+	 *
+	 * @param command   The {@link Command} that threw.
+	 * @param trace     The {@link CommandTrace} of the command, or null if it isn't being traced.
+	 * @param throwable The exception the command threw.
+	 */
+	protected final void recordFailure(Command<E, C> command, @Nullable CommandTrace trace, Throwable throwable) {
+		this.metrics.recordFailure(command, throwable);
+		if (trace != null) {
+			trace.setFailure(throwable);
+		}
+	}
+
+	/**
+	 * Gets the {@link CommandPropertyMap} of this handler's current {@link CommandRegistry}.
+	 *
+	 * @return The {@link CommandPropertyMap} of this handler's current {@link CommandRegistry}.
 	 */
 	public final CommandPropertyMap<E, C> getCommandPropertyMap() {
-		return this.commandPropertyMap;
+		return this.registry.getCommandPropertyMap();
 	}
 
 	/**
@@ -110,17 +475,559 @@ public abstract class AbstractCommandHandler<E extends Event, C extends CommandC
 	 * @return The permissions for the given {@link Command}.
 	 */
 	public final UnmodifiableSet<Permission> getPermissions(Command<E, C> command) {
-		return this.commandPropertyMap.getPropertyMap(command).get(command.getPermissionsProperty()).get();
+		return this.getPermissions(this.registry, command);
+	}
+
+	/**
+	 * Gets the permissions for a given {@link Command} in a {@link CommandRegistry}.
+	 * <p>Handlers use this to get permissions from the registry a command was found in, even if a new registry has been swapped in since.</p>
+	 *
+	 * @param registry The {@link CommandRegistry} the command was found in.
+	 * @param command  The {@link Command} to get the permissions for.
+	 * @return The permissions for the given {@link Command}.
+	 * @see #getPermissions(Command)
+	 */
+	protected final UnmodifiableSet<Permission> getPermissions(CommandRegistry<E, C> registry, Command<E, C> command) {
+		return registry.getPropertyMap(command).get(command.getPermissionsProperty()).get();
+	}
+
+	/**
+	 * Gets the permissions for a given {@link Command} as a raw bitmask, as used by {@link Permission#getRaw(java.util.Collection)}.
+	 * <p>Permissions get compiled to a bitmask when a command gets registered, and compiled again whenever the command's permissions get changed, so this doesn't look up the command's properties.</p>
+	 *
+	 * @param command The {@link Command} to get the raw permissions for.
+	 * @return The permissions for the given {@link Command} as a raw bitmask.
+	 */
+	public final long getPermissionsRaw(Command<E, C> command) {
+		return this.getPermissionsRaw(this.registry, command);
+	}
+
+	private long getPermissionsRaw(CommandRegistry<E, C> registry, Command<E, C> command) {
+		CompiledPermissions compiled = this.compiledPermissions.get(command);
+		if (compiled == null || !compiled.isValid(registry)) {
+			compiled = registry == this.registry && registry.getCommands().contains(command) ? this.compilePermissions(command) : CompiledPermissions.compile(registry, command);
+		}
+		return compiled.raw;
+	}
+
+	/**
+	 * Checks if a {@link Member} has all the permissions of a {@link Command} in their guild.
+	 * <p>This compares the member's effective permissions against the command's {@link #getPermissionsRaw(Command) compiled bitmask}, without creating any new objects.
+	 * Owners of the guild and members with {@link Permission#ADMINISTRATOR} have every permission, the same as {@link Member#hasPermission(java.util.Collection)}.</p>
+	 *
+	 * @param member  The {@link Member} to check, or null if the command wasn't sent in a guild.
+	 * @param command The {@link Command} to check the permissions of.
+	 * @return If the member has all the permissions of the command, which is always true for a null member.
+	 */
+	protected final boolean hasPermissions(@Nullable Member member, Command<E, C> command) {
+		return this.hasPermissions(this.registry, member, command);
+	}
+
+	/**
+	 * Checks if a {@link Member} has all the permissions of a {@link Command} in a {@link CommandRegistry}.
+	 * <p>Handlers use this to check permissions against the registry a command was found in, even if a new registry has been swapped in since.</p>
+	 *
+	 * @param registry The {@link CommandRegistry} the command was found in.
+	 * @param member   The {@link Member} to check, or null if the command wasn't sent in a guild.
+	 * @param command  The {@link Command} to check the permissions of.
+	 * @return If the member has all the permissions of the command, which is always true for a null member.
+	 * @see #hasPermissions(Member, Command)
+	 */
+	protected final boolean hasPermissions(CommandRegistry<E, C> registry, @Nullable Member member, Command<E, C> command) {
+		if (member == null) {
+			return true;
+		}
+		long raw = this.getPermissionsRaw(registry, command);
+		return raw == 0L || (PermissionUtil.getEffectivePermission(member) & raw) == raw;
+	}
+
+	/**
+	 * Compiles the permissions of a {@link Command} to a raw bitmask.
+	 * <p>This gets done automatically when a command gets registered or its permissions change. Extensions of this class only need to call this to compile permissions ahead of time.</p>
+	 *
+	 * @param command The {@link Command} to compile the permissions of.
+	 * @return The compiled permissions of the {@link Command}.
+	 */
+	protected CompiledPermissions compilePermissions(Command<E, C> command) {
+		CommandRegistry<E, C> registry = this.registry;
+		CompiledPermissions compiled = CompiledPermissions.compile(registry, command);
+		this.compiledPermissions.put(command, compiled);
+		if (registry != this.registry && !this.registry.getCommands().contains(command)) {
+			this.compiledPermissions.remove(command, compiled);
+		}
+		return compiled;
+	}
+
+	/**
+	 * Gets the cooldown for a given {@link Command}.
+	 *
+	 * @param command The {@link Command} to get the cooldown for.
+	 * @return The cooldown for the given {@link Command}.
+	 */
+	public final RateLimit getCooldown(Command<E, C> command) {
+		return this.getCooldown(this.registry, command);
+	}
+
+	/**
+	 * Gets the cooldown for a given {@link Command} in a {@link CommandRegistry}.
+	 *
+	 * @param registry The {@link CommandRegistry} the command was found in.
+	 * @param command  The {@link Command} to get the cooldown for.
+	 * @return The cooldown for the given {@link Command}.
+	 * @see #getCooldown(Command)
+	 */
+	protected final RateLimit getCooldown(CommandRegistry<E, C> registry, Command<E, C> command) {
+		return registry.getPropertyMap(command).get(command.getCooldownProperty()).get();
 	}
 
 	/**
 	 * Override this in your own {@link AbstractCommandHandler} extension if you wish to have the prefix be more dynamic and/or configurable.
+	 * <p>If this handler's prefix was set using {@link AbstractCommandHandlerBuilder#setPrefix(String)}, the prefix is cached and no function gets called.
+	 * Dynamic prefixes can be cached using a {@link PrefixCache}.</p>
+	 * <p>Constant and cached prefixes get resolved on the thread the event was fired on, before the message gets handed off to the {@link #executorService}.
+	 * Any other prefix function may block, such as one that queries a database, so the built-in handlers hand every message off to the {@link #executorService} first and resolve its prefix there.
+	 * Overriding this counts as a prefix function that may block, unless {@link #isPrefixResolvedInline()} is overridden too.
+	 * A synchronous {@link PrefixCache} still loads missing prefixes on the thread the event was fired on, so slow prefix functions should be cached with {@link PrefixCache.Builder#setAsyncLoading(java.util.concurrent.Executor, String)}.</p>
 	 *
 	 * @param event The event belonging to the sent command.
 	 * @return The prefix for the commands.
 	 */
 	public String getPrefix(E event) {
-		return this.prefixFunction.apply(event);
+		String constantPrefix = this.constantPrefix;
+		return constantPrefix != null ? constantPrefix : this.prefixFunction.apply(event);
+	}
+
+	/**
+	 * Checks if this handler resolves prefixes on the thread the event was fired on.
+	 * <p>By default this is only true for constant prefixes and prefixes cached by a {@link PrefixCache}, and is always false if a subclass overrides {@link #getPrefix(Event)}, as the override may block.
+	 * The built-in handlers hand every message off to the {@link #executorService} before resolving its prefix when this is false, so a blocking prefix function never stalls the thread the event was fired on.</p>
+	 * <p>Subclasses that override {@link #getPrefix(Event)} with one that never blocks can override this to resolve their prefixes inline again.</p>
+	 *
+	 * @return If this handler resolves prefixes on the thread the event was fired on.
+	 * @see #getPrefix(Event)
+	 */
+	public boolean isPrefixResolvedInline() {
+		return !this.prefixOverridden && (this.constantPrefix != null || this.prefixCache != null);
+	}
+
+	private static boolean overridesGetPrefix(Class<?> type) {
+		for (Class<?> current = type; current != AbstractCommandHandler.class; current = current.getSuperclass()) {
+			for (Method method : current.getDeclaredMethods()) {
+				if (method.getName().equals("getPrefix") && method.getParameterCount() == 1 && Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets this handler's {@link PrefixCache}, if its prefix function is one.
+	 *
+	 * @return This handler's {@link PrefixCache}, or null if it doesn't cache prefixes.
+	 * @see AbstractCommandHandlerBuilder#setPrefixCache(PrefixCache)
+	 */
+	@Nullable
+	public final PrefixCache<E> getPrefixCache() {
+		return this.prefixCache;
+	}
+
+	/**
+	 * Removes the cached prefix for a key, such as the ID of a guild, so it gets loaded again for the next message.
+	 * <p>This should be called when a prefix gets changed. This does nothing if this handler doesn't have a {@link PrefixCache}.</p>
+	 *
+	 * @param id The key of the prefix to invalidate, such as the ID of a guild.
+	 * @see PrefixCache#invalidate(long)
+	 */
+	public void invalidatePrefix(long id) {
+		if (this.prefixCache != null) {
+			this.prefixCache.invalidate(id);
+		}
+	}
+
+	/**
+	 * Finds the {@link Command} that the content of a message is calling.
+	 * <p>This is used to filter messages on the thread the event was fired on, so only messages calling a registered {@link Command} get handed off to the {@link #executorService}.
+	 * If this handler doesn't {@link #isPrefixResolvedInline() resolve prefixes inline}, this gets called on the {@link #executorService} instead.
+	 * Neither the prefix check nor the alias lookup create any new objects, as aliases get looked up by the region of the content they're in.</p>
+	 *
+	 * @param event   The event of the message.
+	 * @param content The raw content of the message.
+	 * @return The {@link Command} that the content of the message is calling, or null if it's not calling any.
+	 * @see #getPrefix(Event)
+	 */
+	@Nullable
+	protected Command<E, C> findCommand(E event, String content) {
+		return this.findCommand(this.registry, event, content);
+	}
+
+	/**
+	 * Finds the {@link Command} that the content of a message is calling in a {@link CommandRegistry}.
+	 * <p>Handlers get their {@link #getRegistry() registry} once for each message and use it for everything the message does, so a command reload never gets seen halfway through a message.</p>
+	 *
+	 * @param registry The {@link CommandRegistry} to find the command in.
+	 * @param event    The event of the message.
+	 * @param content  The raw content of the message.
+	 * @return The {@link Command} that the content of the message is calling, or null if it's not calling any.
+	 * @see #findCommand(Event, String)
+	 */
+	@Nullable
+	protected Command<E, C> findCommand(CommandRegistry<E, C> registry, E event, String content) {
+		long start = this.startPhase();
+		String prefix = this.getPrefix(event);
+		int prefixLength = prefix.length();
+		int end = MessageUtil.getFirstComponentEnd(content);
+		boolean prefixed = end >= prefixLength && content.startsWith(prefix);
+		start = this.recordPhase(null, CommandMetrics.Phase.PREFIX, start);
+		if (!prefixed) {
+			this.recordOutcome(null, CommandMetrics.Outcome.UNMATCHED);
+			return null;
+		}
+		Command<E, C> command = registry.getCommand(content, prefixLength, end);
+		this.recordPhase(command, CommandMetrics.Phase.LOOKUP, start);
+		if (command == null) {
+			this.recordOutcome(null, CommandMetrics.Outcome.UNMATCHED);
+		}
+		return command;
+	}
+
+	/**
+	 * Tries to acquire a use of a {@link Command}'s cooldown for an event.
+	 * <p>This gets called on the thread the event was fired on, before the message gets handed off to the {@link #executorService}, so commands on cooldown never get disparsed or take up room in a queue.
+	 * If this handler doesn't {@link #isPrefixResolvedInline() resolve prefixes inline}, this gets called on the {@link #executorService} instead.
+	 * The built-in handlers only call this once the author's permissions have been checked, so members missing the command's permissions never use up a cooldown shared with others.
+	 * Uses get limited by a lock-free {@link RateLimiter} for each {@link Command}, keyed by the event's {@link #getCooldownKey(Event, RateLimit.Scope) cooldown key}.</p>
+	 * <p>Only the first rejection of a key on a cooldown calls {@link #onCooldown(Event, Command, long)}, so spamming a command on cooldown doesn't spam feedback.</p>
+	 *
+	 * @param event   The event of the command.
+	 * @param command The {@link Command} to acquire a use of.
+	 * @return If a use was acquired and the command should be processed.
+	 * @see net.smelly.disparser.annotations.Cooldown
+	 */
+	protected boolean tryAcquireCooldown(E event, Command<E, C> command) {
+		return this.tryAcquireCooldown(this.registry, event, command);
+	}
+
+	/**
+	 * Tries to acquire a use of a {@link Command}'s cooldown for an event, using the cooldown the command has in a {@link CommandRegistry}.
+	 * <p>Rate limiters only get created for commands in this handler's current registry.
+	 * A command that has been removed by a reload since it was found only gets limited by the rate limiter it already had, so it never puts a rate limiter back for a command that is gone.</p>
+	 *
+	 * @param registry The {@link CommandRegistry} the command was found in.
+	 * @param event    The event of the command.
+	 * @param command  The {@link Command} to acquire a use of.
+	 * @return If a use was acquired and the command should be processed.
+	 * @see #tryAcquireCooldown(Event, Command)
+	 */
+	protected boolean tryAcquireCooldown(CommandRegistry<E, C> registry, E event, Command<E, C> command) {
+		RateLimit rateLimit = this.getCooldown(registry, command);
+		if (rateLimit.isUnlimited()) {
+			return true;
+		}
+		RateLimiter rateLimiter = this.rateLimiters.get(command);
+		if (rateLimiter == null || !rateLimiter.getRateLimit().equals(rateLimit)) {
+			CommandRegistry<E, C> current = this.registry;
+			if (!current.getCommands().contains(command)) {
+				if (rateLimiter == null) {
+					return true;
+				}
+			} else {
+				RateLimiter created = this.rateLimiters.compute(command, (key, previous) -> previous != null && previous.getRateLimit().equals(rateLimit) ? previous : RateLimiter.create(rateLimit));
+				if (current != this.registry && !this.registry.getCommands().contains(command)) {
+					this.rateLimiters.remove(command, created);
+				}
+				rateLimiter = created;
+			}
+		}
+		long wait = rateLimiter.tryAcquire(this.getCooldownKey(event, rateLimit.getScope()));
+		if (wait == RateLimiter.ACQUIRED) {
+			return true;
+		}
+		this.recordOutcome(command, CommandMetrics.Outcome.COOLDOWN);
+		if (wait > 0L) {
+			this.onCooldown(event, command, wait);
+		}
+		return false;
+	}
+
+	/**
+	 * Sends the {@link BuiltInExceptionProvider#getMissingPermissionsException()} for a {@link Command} to the event's {@link #getChannel(Event) channel} on the {@link #executorService}.
+	 * <p>The built-in handlers call this on the thread the event was fired on when the author is missing the command's permissions, before any cooldown gets acquired.</p>
+	 *
+	 * @param event   The event of the command.
+	 * @param command The {@link Command} the author is missing the permissions of.
+	 */
+	protected void dispatchMissingPermissions(E event, Command<E, C> command) {
+		this.dispatchMissingPermissions(this.registry, event, command);
+	}
+
+	/**
+	 * Sends the {@link BuiltInExceptionProvider#getMissingPermissionsException()} for a {@link Command}, with the permissions the command has in a {@link CommandRegistry}.
+	 *
+	 * @param registry The {@link CommandRegistry} the command was found in.
+	 * @param event    The event of the command.
+	 * @param command  The {@link Command} the author is missing the permissions of.
+	 * @see #dispatchMissingPermissions(Event, Command)
+	 */
+	protected void dispatchMissingPermissions(CommandRegistry<E, C> registry, E event, Command<E, C> command) {
+		MessageChannel channel = this.getChannel(event);
+		if (channel == null) {
+			this.recordOutcome(command, CommandMetrics.Outcome.MISSING_PERMISSIONS);
+			return;
+		}
+		CommandTrace trace = this.startTrace(command);
+		this.dispatch(event, command, trace, () -> this.sendError(command, trace, this.feedbackHandlerBuilder.build(channel), this.exceptionProviderFunction.apply(channel).getMissingPermissionsException().create(this.getPermissions(registry, command)), CommandMetrics.Outcome.MISSING_PERMISSIONS));
+	}
+
+	/**
+	 * Called on the thread the event was fired on when a key first gets rejected while on a {@link Command}'s cooldown.
+	 * <p>By default this sends the {@link BuiltInExceptionProvider#getCooldownException()} to the event's {@link #getChannel(Event) channel} on the {@link #executorService}.</p>
+	 *
+	 * @param event     The event of the command.
+	 * @param command   The {@link Command} on cooldown.
+	 * @param waitNanos The nanoseconds until the command can be used again.
+	 */
+	protected void onCooldown(E event, Command<E, C> command, long waitNanos) {
+		MessageChannel channel = this.getChannel(event);
+		if (channel != null) {
+			long seconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+			this.dispatch(event, () -> this.feedbackHandlerBuilder.build(channel).sendError(this.exceptionProviderFunction.apply(channel).getCooldownException().create(seconds)));
+		}
+	}
+
+	/**
+	 * Gets the key that uses of a command's cooldown get limited by for an event.
+	 * <p>By default this is the ID of the event's {@link #getChannel(Event) channel} for every {@link RateLimit.Scope}, or 0 for events without a channel so their cooldowns are shared.
+	 * The built-in handlers use the ID of the author, guild, or channel.</p>
+	 *
+	 * @param event The event of the command.
+	 * @param scope The {@link RateLimit.Scope} of the command's cooldown.
+	 * @return The key that uses of the command's cooldown get limited by.
+	 */
+	protected long getCooldownKey(E event, RateLimit.Scope scope) {
+		MessageChannel channel = this.getChannel(event);
+		return channel != null ? channel.getIdLong() : 0L;
+	}
+
+	/**
+	 * Gets the {@link MessageChannel} an event was sent in, used for sending feedback before a command gets processed.
+	 *
+	 * @param event The event of the command.
+	 * @return The {@link MessageChannel} the event was sent in, or null if it has none.
+	 */
+	@Nullable
+	protected MessageChannel getChannel(E event) {
+		return null;
+	}
+
+	/**
+	 * Hands off a task for processing a command to this handler's {@link #executorService}.
+	 * <p>If the {@link #executorService} is a {@link KeyedExecutorService}, the task gets executed on the lane for the event's {@link #getDispatchKey(Event) dispatch key}, so commands with the same key run in the order they were sent in.
+	 * If its queues are full, its {@link net.smelly.disparser.concurrent.OverflowPolicy} decides what happens to the task, using the event's {@link #getFairnessKey(Event) fairness key}.</p>
+	 * <p>Tasks rejected by the {@link #executorService} get dropped and counted by {@link #getRejectedCommands()}, instead of throwing on the thread the event was fired on.</p>
+	 *
+	 * @param event    The event of the command.
+	 * @param runnable The task for processing the command.
+	 */
+	protected void dispatch(E event, Runnable runnable) {
+		this.dispatch(event, null, null, runnable);
+	}
+
+	/**
+	 * Hands off a task for handling a whole message, including resolving its prefix, to this handler's {@link #executorService}.
+	 * <p>The built-in handlers use this for every message when they don't {@link #isPrefixResolvedInline() resolve prefixes inline}.
+	 * Anything the task {@link #dispatch(Event, Command, CommandTrace, Runnable) dispatches} for this handler runs right away on the same worker instead of getting handed off again,
+	 * so a command only takes one trip through the {@link #executorService} and keeps its place in the order of its dispatch key.</p>
+	 *
+	 * @param event    The event of the message.
+	 * @param runnable The task for handling the message.
+	 */
+	protected final void dispatchMessage(E event, Runnable runnable) {
+		this.dispatch(event, () -> {
+			HANDLING_MESSAGE.set(this);
+			try {
+				runnable.run();
+			} finally {
+				HANDLING_MESSAGE.remove();
+			}
+		});
+	}
+
+	/**
+	 * Hands off a task for processing a {@link Command} to this handler's {@link #executorService}, recording it onto this handler's {@link CommandMetrics}.
+	 * <p>If this handler's {@link CommandMetrics} are enabled, the time the task spends waiting in the queue and running gets recorded, along with the depth of the queue it was put on.
+	 * If the command is being traced, the times it was put onto and taken off the queue get recorded onto its {@link CommandTrace}.</p>
+	 * <p>Tasks dispatched while a {@link #dispatchMessage(Event, Runnable) dispatched message} of this handler is being handled run right away on the current worker.</p>
+	 *
+	 * @param event    The event of the command.
+	 * @param command  The {@link Command} the task is for, or null if the task isn't for processing a command.
+	 * @param trace    The {@link CommandTrace} of the command, or null if it isn't being traced.
+	 * @param runnable The task for processing the command.
+	 * @see #dispatch(Event, Runnable)
+	 */
+	protected void dispatch(E event, @Nullable Command<E, C> command, @Nullable CommandTrace trace, Runnable runnable) {
+		KeyedExecutorService keyedExecutorService = this.keyedExecutorService;
+		boolean timed = this.timed;
+		Runnable task = timed || trace != null ? this.timeTask(command, trace, runnable) : runnable;
+		if (HANDLING_MESSAGE.get() == this) {
+			if (command != null) {
+				this.recordOutcome(command, CommandMetrics.Outcome.DISPATCHED);
+			}
+			task.run();
+			return;
+		}
+		try {
+			if (keyedExecutorService != null) {
+				long key = this.getDispatchKey(event);
+				keyedExecutorService.execute(key, this.getFairnessKey(event), task);
+				if (timed) {
+					this.metrics.recordQueueDepth(keyedExecutorService.getQueuedTasks(key));
+				}
+			} else {
+				this.executorService.execute(task);
+				if (timed && this.executorService instanceof ThreadPoolExecutor) {
+					this.metrics.recordQueueDepth(((ThreadPoolExecutor) this.executorService).getQueue().size());
+				}
+			}
+			if (command != null) {
+				this.recordOutcome(command, CommandMetrics.Outcome.DISPATCHED);
+			}
+		} catch (RejectedExecutionException exception) {
+			this.rejectedCommands.increment();
+			this.recordOutcome(command, CommandMetrics.Outcome.REJECTED);
+			this.finishTrace(trace, CommandMetrics.Outcome.REJECTED);
+		}
+	}
+
+	private Runnable timeTask(@Nullable Command<E, C> command, @Nullable CommandTrace trace, Runnable runnable) {
+		long enqueued = this.startPhase();
+		if (trace != null) {
+			trace.markEnqueued();
+		}
+		return () -> {
+			if (trace != null) {
+				trace.markDequeued();
+			}
+			long start = this.recordPhase(command, CommandMetrics.Phase.QUEUE, enqueued);
+			try {
+				runnable.run();
+			} finally {
+				this.recordPhase(command, CommandMetrics.Phase.RUN, start);
+			}
+		};
+	}
+
+	/**
+	 * Gets the number of commands this handler's {@link #executorService} has rejected, such as from its queue being full or it being shut down.
+	 * <p>Commands dropped by the {@link net.smelly.disparser.concurrent.OverflowPolicy} of a {@link KeyedExecutorService} aren't rejected, and are counted by {@link KeyedExecutorService#getRejectedTasks()} instead.</p>
+	 *
+	 * @return The number of commands this handler's {@link #executorService} has rejected.
+	 */
+	public final long getRejectedCommands() {
+		return this.rejectedCommands.sum();
+	}
+
+	/**
+	 * Processes a {@link Command} once its message has been disparsed onto a {@link CommandContextBuilder}, sending any errors to a {@link FeedbackHandler}.
+	 * <p>If the builder has arguments still being parsed asynchronously, the {@link Command} gets dispatched again once they have all been parsed, so the current thread doesn't wait on them.
+	 * Commands with pending arguments may then run after later commands with the same {@link #getDispatchKey(Event) dispatch key}.</p>
+	 *
+	 * @param event           The event of the command.
+	 * @param command         The {@link Command} to process.
+	 * @param builder         The {@link CommandContextBuilder} the message was disparsed onto.
+	 * @param feedbackHandler The {@link FeedbackHandler} to send errors to.
+	 * @see net.smelly.disparser.AsyncArgument
+	 */
+	protected void processCommand(E event, Command<E, C> command, CommandContextBuilder<E, C> builder, FeedbackHandler feedbackHandler) {
+		Exception exception = builder.getException();
+		ContextConsumer<C> consumer = builder.getConsumer();
+		CommandTrace trace = builder.getTrace();
+		if (exception != null) {
+			this.sendError(command, trace, feedbackHandler, exception, CommandMetrics.Outcome.PARSE_ERROR);
+		} else if (consumer != null) {
+			if (builder.hasPendingArguments()) {
+				builder.resolveArguments().whenComplete((ignored, throwable) -> this.dispatch(event, () -> {
+					if (trace != null) {
+						trace.markResolved();
+					}
+					if (throwable != null) {
+						Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+						this.sendError(command, trace, feedbackHandler, cause instanceof CommandException ? (CommandException) cause : builder.getExceptionProvider().getUnexpectedErrorException().create(cause.getMessage()), CommandMetrics.Outcome.PARSE_ERROR);
+					} else {
+						this.runCommand(command, builder, consumer, feedbackHandler);
+					}
+				}));
+			} else {
+				this.runCommand(command, builder, consumer, feedbackHandler);
+			}
+		}
+	}
+
+	private void runCommand(Command<E, C> command, CommandContextBuilder<E, C> builder, ContextConsumer<C> consumer, FeedbackHandler feedbackHandler) {
+		CommandTrace trace = builder.getTrace();
+		long start = trace != null ? System.nanoTime() : this.startPhase();
+		Exception error = null;
+		try {
+			command.processCommand(builder.build(), consumer);
+		} catch (CommandException commandException) {
+			error = commandException;
+		} catch (Exception exception) {
+			error = exception;
+			this.recordFailure(command, trace, exception);
+		}
+		this.recordPhase(command, CommandMetrics.Phase.PROCESS, start);
+		if (trace != null) {
+			trace.setConsumer(start, System.nanoTime());
+		}
+		if (error != null) {
+			this.sendError(command, trace, feedbackHandler, error, CommandMetrics.Outcome.FAILED);
+		} else {
+			this.recordOutcome(command, CommandMetrics.Outcome.COMPLETED);
+			this.finishTrace(trace, CommandMetrics.Outcome.COMPLETED);
+		}
+	}
+
+	/**
+	 * Sends an error for a {@link Command} to a {@link FeedbackHandler}, recording the {@link CommandMetrics.Outcome} it ended with and how long sending took.
+	 *
+	 * @param command         The {@link Command} the error is for.
+	 * @param trace           The {@link CommandTrace} of the command to finish, or null if it isn't being traced.
+	 * @param feedbackHandler The {@link FeedbackHandler} to send the error to.
+	 * @param exception       The error to send.
+	 * @param outcome         The {@link CommandMetrics.Outcome} the command ended with.
+	 */
+	protected void sendError(Command<E, C> command, @Nullable CommandTrace trace, FeedbackHandler feedbackHandler, Exception exception, CommandMetrics.Outcome outcome) {
+		this.recordOutcome(command, outcome);
+		long start = this.startPhase();
+		feedbackHandler.sendError(exception);
+		this.recordPhase(command, CommandMetrics.Phase.FEEDBACK, start);
+		this.finishTrace(trace, outcome);
+	}
+
+	/**
+	 * Gets the key that commands for an event get ordered by when this handler's {@link #executorService} is a {@link KeyedExecutorService}.
+	 * <p>Commands with the same key run one at a time in the order they were sent in. By default this is the ID of the event's {@link #getChannel(Event) channel},
+	 * and events without a channel get keys in turn so they spread over every lane without any ordering. Return the ID of the guild instead to order commands across a whole guild.</p>
+	 *
+	 * @param event The event of the command.
+	 * @return The key that commands for the event get ordered by.
+	 */
+	protected long getDispatchKey(E event) {
+		MessageChannel channel = this.getChannel(event);
+		return channel != null ? channel.getIdLong() : this.nextDispatchKey.getAndIncrement();
+	}
+
+	/**
+	 * Gets the key that full queues get balanced by when this handler's {@link #executorService} is a {@link KeyedExecutorService} using {@link net.smelly.disparser.concurrent.OverflowPolicy#DROP_FAIR}.
+	 * <p>By default this is the ID of the event's {@link #getChannel(Event) channel}, or 0 for events without a channel so they get balanced as one.
+	 * The built-in handlers use the ID of the guild for messages sent in guilds, so one guild can't crowd out the others.</p>
+	 *
+	 * @param event The event of the command.
+	 * @return The key that full queues get balanced by.
+	 */
+	protected long getFairnessKey(E event) {
+		MessageChannel channel = this.getChannel(event);
+		return channel != null ? channel.getIdLong() : 0L;
 	}
 
 	/**
@@ -151,4 +1058,53 @@ public abstract class AbstractCommandHandler<E extends Event, C extends CommandC
 	public void shutdown() {
 		this.executorService.shutdown();
 	}
+
+	/**
+	 * The permissions of a {@link Command} compiled to a raw bitmask, along with what they were compiled from.
+	 * <p>Compiled permissions are valid until the {@link CommandProperty.Value} they were compiled from gets a new set of permissions, gets detached by its {@link CommandPropertyMap.PropertyMap} being cleared, or a new {@link CommandRegistry} gets swapped in.</p>
+	 */
+	@Immutable
+	protected static final class CompiledPermissions {
+		private final CommandRegistry<?, ?> registry;
+		private final CommandPropertyMap.PropertyMap propertyMap;
+		private final int generation;
+		private final CommandProperty.Value<UnmodifiableSet<Permission>> value;
+		private final UnmodifiableSet<Permission> permissions;
+		private final long raw;
+
+		private CompiledPermissions(CommandRegistry<?, ?> registry, CommandPropertyMap.PropertyMap propertyMap, int generation, CommandProperty.Value<UnmodifiableSet<Permission>> value, UnmodifiableSet<Permission> permissions, long raw) {
+			this.registry = registry;
+			this.propertyMap = propertyMap;
+			this.generation = generation;
+			this.value = value;
+			this.permissions = permissions;
+			this.raw = raw;
+		}
+
+		private static <E extends Event, C extends CommandContext<E>> CompiledPermissions compile(CommandRegistry<E, C> registry, Command<E, C> command) {
+			CommandPropertyMap.PropertyMap propertyMap = registry.getPropertyMap(command);
+			int generation = propertyMap.getGeneration();
+			CommandProperty.Value<UnmodifiableSet<Permission>> value = propertyMap.get(command.getPermissionsProperty());
+			UnmodifiableSet<Permission> permissions = value.get();
+			return new CompiledPermissions(registry, propertyMap, generation, value, permissions, Permission.getRaw(permissions));
+		}
+
+		private boolean isValid(CommandRegistry<?, ?> registry) {
+			return this.registry == registry && this.value.get() == this.permissions && this.propertyMap.getGeneration() == this.generation;
+		}
+
+		/**
+		 * @return The permissions these were compiled from.
+		 */
+		public UnmodifiableSet<Permission> getPermissions() {
+			return this.permissions;
+		}
+
+		/**
+		 * @return The permissions as a raw bitmask.
+		 */
+		public long getRaw() {
+			return this.raw;
+		}
+	}
 }
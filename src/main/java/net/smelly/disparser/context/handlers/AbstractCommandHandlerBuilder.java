@@ -5,14 +5,22 @@ import net.dv8tion.jda.api.events.Event;
 import net.smelly.disparser.Command;
 import net.smelly.disparser.annotations.Aliases;
 import net.smelly.disparser.annotations.Context;
+import net.smelly.disparser.annotations.Cooldown;
 import net.smelly.disparser.annotations.Permissions;
-import net.smelly.disparser.concurrent.DisparsingThreadFactory;
+import net.smelly.disparser.concurrent.KeyedExecutorService;
+import net.smelly.disparser.concurrent.OverflowPolicy;
+import net.smelly.disparser.concurrent.VirtualThreads;
 import net.smelly.disparser.context.CommandContext;
 import net.smelly.disparser.feedback.FeedbackHandlerBuilder;
+import net.smelly.disparser.feedback.LocaleResolver;
+import net.smelly.disparser.feedback.LocalizedMessageCache;
 import net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider;
 import net.smelly.disparser.feedback.exceptions.DisparserExceptionProvider;
+import net.smelly.disparser.metrics.CommandMetrics;
+import net.smelly.disparser.metrics.CommandTracer;
 import net.smelly.disparser.properties.AliasesProperty;
 import net.smelly.disparser.properties.CommandPropertyMap;
+import net.smelly.disparser.properties.CooldownProperty;
 import net.smelly.disparser.properties.PermissionsProperty;
 import org.apache.commons.collections4.set.UnmodifiableSet;
 
@@ -23,7 +31,6 @@ import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.function.Function;
 
 /**
@@ -44,10 +51,16 @@ import java.util.function.Function;
 public abstract class AbstractCommandHandlerBuilder<E extends Event, C extends CommandContext<E>, H extends AbstractCommandHandler<E, C>, B extends AbstractCommandHandlerBuilder<E, C, H, B>> {
 	protected final Map<String, Command<E, C>> aliasMap = new HashMap<>();
 	protected final Map<Command<E, C>, CommandPropertyMap.PropertyMap> commandPropertyMap = new HashMap<>();
-	protected Function<E, String> prefixFunction = event -> "!";
+	protected Function<E, String> prefixFunction = new ConstantPrefixFunction<>("!");
 	protected FeedbackHandlerBuilder feedbackHandlerBuilder = FeedbackHandlerBuilder.SIMPLE_BUILDER;
 	protected Function<MessageChannel, BuiltInExceptionProvider> exceptionProviderFunction = DisparserExceptionProvider.GETTER;
-	protected ExecutorService executorService = Executors.newSingleThreadExecutor(new DisparsingThreadFactory("Default"));
+	protected ExecutorService executorService = KeyedExecutorService.builder("Default").build();
+	protected boolean ignoreAliasCase;
+	protected CommandMetrics metrics = CommandMetrics.none();
+	protected CommandTracer tracer = CommandTracer.none();
+	@Nullable
+	protected LocaleResolver localeResolver;
+	protected int localizedMessageCacheSize = LocalizedMessageCache.DEFAULT_MAXIMUM_SIZE;
 
 	/**
 	 * Registers a command for an alias.
@@ -89,8 +102,22 @@ public abstract class AbstractCommandHandlerBuilder<E extends Event, C extends C
 	 * @param permissions The {@link Permissions} annotation to use with this command.
 	 * @return This builder.
 	 */
-	@SuppressWarnings("unchecked")
 	public B registerCommand(Command<E, C> command, @Nullable Aliases aliases, @Nullable Permissions permissions) {
+		return this.registerCommand(command, aliases, permissions, null);
+	}
+
+	/**
+	 * Registers a command with {@link Aliases}, {@link Permissions}, and {@link Cooldown} annotations.
+	 * <p>This method is simply a way to further customize the aliases, permissions, and cooldown of a command when you want to use an immutable command.</p>
+	 *
+	 * @param command     The command to register.
+	 * @param aliases     The {@link Aliases} annotation to use with this command.
+	 * @param permissions The {@link Permissions} annotation to use with this command.
+	 * @param cooldown    The {@link Cooldown} annotation to use with this command.
+	 * @return This builder.
+	 */
+	@SuppressWarnings("unchecked")
+	public B registerCommand(Command<E, C> command, @Nullable Aliases aliases, @Nullable Permissions permissions, @Nullable Cooldown cooldown) {
 		AliasesProperty aliasesProperty = command.getAliasesProperty();
 		UnmodifiableSet<String> commandAliases = aliasesProperty.get(aliases);
 		this.aliasMap.entrySet().removeIf(entry -> entry.getValue() == command);
@@ -98,7 +125,8 @@ public abstract class AbstractCommandHandlerBuilder<E extends Event, C extends C
 			this.aliasMap.put(alias, command);
 		}
 		PermissionsProperty permissionsProperty = command.getPermissionsProperty();
-		this.commandPropertyMap.computeIfAbsent(command, (key) -> new CommandPropertyMap.PropertyMap()).putOrModify(aliasesProperty, commandAliases).putOrModify(permissionsProperty, permissionsProperty.get(permissions));
+		CooldownProperty cooldownProperty = command.getCooldownProperty();
+		this.commandPropertyMap.computeIfAbsent(command, (key) -> new CommandPropertyMap.PropertyMap()).putOrModify(aliasesProperty, commandAliases).putOrModify(permissionsProperty, permissionsProperty.get(permissions)).putOrModify(cooldownProperty, cooldownProperty.get(cooldown));
 		return (B) this;
 	}
 
@@ -135,7 +163,7 @@ public abstract class AbstractCommandHandlerBuilder<E extends Event, C extends C
 					if (object instanceof Command<?, ?>) {
 						Context context = field.getAnnotation(Context.class);
 						if (context == null || this.getContextClass().isAssignableFrom(context.value())) {
-							this.registerCommand((Command<E, C>) object, field.getAnnotation(Aliases.class), field.getAnnotation(Permissions.class));
+							this.registerCommand((Command<E, C>) object, field.getAnnotation(Aliases.class), field.getAnnotation(Permissions.class), field.getAnnotation(Cooldown.class));
 						}
 					}
 				}
@@ -148,18 +176,21 @@ public abstract class AbstractCommandHandlerBuilder<E extends Event, C extends C
 
 	/**
 	 * Sets a prefix for the {@link AbstractCommandHandler}.
+	 * <p>Unlike a prefix function, the handler caches this prefix so it never has to be computed for a message.</p>
 	 *
 	 * @param prefix The prefix to set.
 	 * @return This builder.
 	 */
 	@SuppressWarnings("unchecked")
 	public B setPrefix(String prefix) {
-		this.prefixFunction = (event) -> prefix;
+		this.prefixFunction = new ConstantPrefixFunction<>(prefix);
 		return (B) this;
 	}
 
 	/**
 	 * Sets a prefix function for the {@link CommandHandler}.
+	 * <p>The function may block, so handlers hand every message off to their executor before calling it, including messages that aren't commands.
+	 * Use {@link #setPrefixCache(PrefixCache)} to resolve prefixes on the thread the event was fired on and only hand off commands.</p>
 	 *
 	 * @param prefixFunction The prefix function to set.
 	 * @return This builder.
@@ -170,6 +201,88 @@ public abstract class AbstractCommandHandlerBuilder<E extends Event, C extends C
 		return (B) this;
 	}
 
+	/**
+	 * Sets a {@link PrefixCache} as the prefix function for the {@link AbstractCommandHandler}.
+	 * <p>The handler's cached prefixes can then be invalidated using {@link AbstractCommandHandler#invalidatePrefix(long)}.</p>
+	 * <p>Cached prefixes get resolved on the thread the event was fired on, so only commands get handed off to the handler's executor.
+	 * Unless the cache loads prefixes on an executor, missing prefixes get loaded on the thread the event was fired on too.</p>
+	 *
+	 * @param prefixCache The {@link PrefixCache} to get prefixes from.
+	 * @return This builder.
+	 * @see PrefixCache.Builder
+	 */
+	@SuppressWarnings("unchecked")
+	public B setPrefixCache(PrefixCache<E> prefixCache) {
+		this.prefixFunction = prefixCache;
+		return (B) this;
+	}
+
+	/**
+	 * Sets if the {@link AbstractCommandHandler} should match aliases ignoring their case, so {@code !Ping} calls a command with the alias {@code ping}.
+	 * <p>This is false by default.</p>
+	 *
+	 * @param ignoreAliasCase If aliases should be matched ignoring their case.
+	 * @return This builder.
+	 */
+	@SuppressWarnings("unchecked")
+	public B setIgnoreAliasCase(boolean ignoreAliasCase) {
+		this.ignoreAliasCase = ignoreAliasCase;
+		return (B) this;
+	}
+
+	/**
+	 * Sets the {@link CommandMetrics} the {@link AbstractCommandHandler} reports to, such as a {@link net.smelly.disparser.metrics.DefaultCommandMetrics}.
+	 * <p>This is {@link CommandMetrics#none()} by default, which doesn't time anything.</p>
+	 *
+	 * @param metrics The {@link CommandMetrics} to report to.
+	 * @return This builder.
+	 */
+	@SuppressWarnings("unchecked")
+	public B setMetrics(CommandMetrics metrics) {
+		this.metrics = metrics;
+		return (B) this;
+	}
+
+	/**
+	 * Sets the {@link CommandTracer} that decides which commands the {@link AbstractCommandHandler} traces, such as one from {@link CommandTracer#sampled(double, java.util.function.Consumer)}.
+	 * <p>This is {@link CommandTracer#none()} by default, which doesn't trace anything.</p>
+	 *
+	 * @param tracer The {@link CommandTracer} to use.
+	 * @return This builder.
+	 */
+	@SuppressWarnings("unchecked")
+	public B setTracer(CommandTracer tracer) {
+		this.tracer = tracer;
+		return (B) this;
+	}
+
+	/**
+	 * Sets the {@link LocaleResolver} the {@link AbstractCommandHandler} resolves the locale of each command with, so the names of nodes and the messages of shared exceptions get rendered once for each locale.
+	 * <p>This is null by default, which renders messages for the channel every time. Only set this if those messages render the same for every channel with the same locale.</p>
+	 *
+	 * @param localeResolver The {@link LocaleResolver} to use.
+	 * @return This builder.
+	 * @see LocalizedMessageCache
+	 */
+	public B setLocaleResolver(LocaleResolver localeResolver) {
+		return this.setLocaleResolver(localeResolver, LocalizedMessageCache.DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Sets the {@link LocaleResolver} the {@link AbstractCommandHandler} resolves the locale of each command with, along with how many messages get cached for each locale.
+	 *
+	 * @param localeResolver The {@link LocaleResolver} to use.
+	 * @param maximumSize    The maximum number of messages to cache for each locale.
+	 * @return This builder.
+	 * @see #setLocaleResolver(LocaleResolver)
+	 */
+	@SuppressWarnings("unchecked")
+	public B setLocaleResolver(LocaleResolver localeResolver, int maximumSize) {
+		this.localeResolver = localeResolver;
+		this.localizedMessageCacheSize = maximumSize;
+		return (B) this;
+	}
+
 	/**
 	 * Sets a {@link FeedbackHandlerBuilder} for the {@link CommandHandler}.
 	 *
@@ -196,6 +309,8 @@ public abstract class AbstractCommandHandlerBuilder<E extends Event, C extends C
 
 	/**
 	 * Sets the {@link ExecutorService} for the {@link CommandHandler}.
+	 * <p>By default this is a {@link KeyedExecutorService} with a lane for each available processor, so commands from different channels run in parallel while commands from one channel run in order.
+	 * Other types of {@link ExecutorService}, such as a fixed thread pool, don't keep commands from one channel in order.</p>
 	 *
 	 * @param executorService The {@link ExecutorService} to set.
 	 * @return This builder.
@@ -206,6 +321,36 @@ public abstract class AbstractCommandHandlerBuilder<E extends Event, C extends C
 		return (B) this;
 	}
 
+	/**
+	 * Sets the {@link ExecutorService} for the {@link CommandHandler} to a {@link KeyedExecutorService} with bounded queues, so bursts of commands, such as from spam, can't queue up without limit.
+	 * <p>The queue of each lane holds at most the capacity of commands, and the {@link OverflowPolicy} decides what happens to commands sent when it's full.</p>
+	 *
+	 * @param queueCapacity  The number of commands that can wait to run on each lane. At most {@link KeyedExecutorService#MAXIMUM_BOUNDED_QUEUE_CAPACITY}, or {@link Integer#MAX_VALUE} for unbounded queues.
+	 * @param overflowPolicy The {@link OverflowPolicy} for commands sent when a queue is full.
+	 * @return This builder.
+	 * @see AbstractCommandHandler#getRejectedCommands()
+	 * @see KeyedExecutorService#getRejectedTasks()
+	 */
+	@SuppressWarnings("unchecked")
+	public B setDispatchQueue(int queueCapacity, OverflowPolicy overflowPolicy) {
+		this.executorService = KeyedExecutorService.builder("Default").setQueueCapacity(queueCapacity).setOverflowPolicy(overflowPolicy).build();
+		return (B) this;
+	}
+
+	/**
+	 * Sets the {@link ExecutorService} for the {@link CommandHandler} to one that runs each command on a new virtual thread, if the runtime supports virtual threads.
+	 * <p>This is useful for commands that block, such as ones with arguments that wait on REST requests, but commands from one channel no longer run in order.
+	 * If the runtime doesn't support virtual threads, the current {@link ExecutorService} is kept.</p>
+	 *
+	 * @return This builder.
+	 * @see VirtualThreads
+	 */
+	@SuppressWarnings("unchecked")
+	public B setVirtualThreadExecutor() {
+		this.executorService = VirtualThreads.newExecutorService("Virtual", this.executorService);
+		return (B) this;
+	}
+
 	/**
 	 * Gets the {@link Class} for the type of {@link CommandContext} for the type of {@link AbstractCommandHandler} this builds for.
 	 * <p>This in itself might not seem to useful, but it's useful in a dynamic scenario for knowing what type of commands you can register.</p>
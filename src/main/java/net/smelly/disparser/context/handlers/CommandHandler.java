@@ -1,7 +1,5 @@
 package net.smelly.disparser.context.handlers;
 
-import net.dv8tion.jda.api.Permission;
-import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.smelly.disparser.Command;
@@ -12,10 +10,10 @@ import net.smelly.disparser.context.MessageCommandContext;
 import net.smelly.disparser.feedback.FeedbackHandler;
 import net.smelly.disparser.feedback.FeedbackHandlerBuilder;
 import net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.metrics.CommandMetrics;
+import net.smelly.disparser.metrics.CommandTrace;
 import net.smelly.disparser.properties.CommandPropertyMap;
-import net.smelly.disparser.util.MessageUtil;
-import org.apache.commons.collections4.set.UnmodifiableSet;
+import net.smelly.disparser.properties.RateLimit;
 
 import javax.annotation.Nonnull;
 import java.util.concurrent.ExecutorService;
@@ -34,40 +32,84 @@ public class CommandHandler extends AbstractCommandHandler<MessageReceivedEvent,
 		super(commandPropertyMap, prefixFunction, feedbackHandlerBuilder, exceptionProviderFunction, executorService);
 	}
 
+	/**
+	 * Orders commands by the ID of the channel they were sent in.
+	 *
+	 * @param event The event of the command.
+	 * @return The ID of the channel the command was sent in.
+	 */
+	@Override
+	protected long getDispatchKey(MessageReceivedEvent event) {
+		return event.getChannel().getIdLong();
+	}
+
+	/**
+	 * Balances full queues by the ID of the guild the command was sent in, or the ID of the channel for private messages.
+	 *
+	 * @param event The event of the command.
+	 * @return The ID of the guild the command was sent in, or the ID of the channel if it wasn't sent in a guild.
+	 */
+	@Override
+	protected long getFairnessKey(MessageReceivedEvent event) {
+		return event.isFromGuild() ? event.getGuild().getIdLong() : event.getChannel().getIdLong();
+	}
+
+	/**
+	 * Limits cooldowns by the ID of the author, the ID of the guild, or the ID of the channel for private messages, or the ID of the channel, depending on the scope.
+	 *
+	 * @param event The event of the command.
+	 * @param scope The {@link RateLimit.Scope} of the command's cooldown.
+	 * @return The key that uses of the command's cooldown get limited by.
+	 */
+	@Override
+	protected long getCooldownKey(MessageReceivedEvent event, RateLimit.Scope scope) {
+		switch (scope) {
+			case USER:
+				return event.getAuthor().getIdLong();
+			case GUILD:
+				return event.isFromGuild() ? event.getGuild().getIdLong() : event.getChannel().getIdLong();
+			default:
+				return event.getChannel().getIdLong();
+		}
+	}
+
+	@Override
+	protected MessageChannel getChannel(MessageReceivedEvent event) {
+		return event.getChannel();
+	}
+
 	@Override
 	public void onMessageReceived(@Nonnull MessageReceivedEvent event) {
 		if (!this.executorService.isShutdown()) {
-			this.executorService.execute(() -> {
-				String firstComponent = MessageUtil.getFirstComponent(event.getMessage().getContentRaw());
-				String prefix = this.getPrefix(event);
-				if (firstComponent.startsWith(prefix)) {
-					Command<MessageReceivedEvent, MessageCommandContext> command = this.aliasMap.get(firstComponent.substring(prefix.length()));
-					if (command != null) {
-						MessageChannel channel = event.getChannel();
-						FeedbackHandler feedbackHandler = this.feedbackHandlerBuilder.build(channel);
-						BuiltInExceptionProvider provider = this.exceptionProviderFunction.apply(channel);
-						Member member = event.getMember();
-						UnmodifiableSet<Permission> permissions = this.getPermissions(command);
-						if (member != null && !member.hasPermission(permissions)) {
-							feedbackHandler.sendError(provider.getMissingPermissionsException().create(permissions));
-						} else {
-							MessageCommandContext.Builder builder = (MessageCommandContext.Builder) CommandContextBuilder.disparseRoot(new MessageCommandContext.Builder(event, this.commandPropertyMap.getPropertyMap(command), channel, feedbackHandler, provider, MessageReader.create(provider, event.getMessage())), command.getRootNode());
-							if (builder.getException() != null) {
-								feedbackHandler.sendError(builder.getException());
-							} else if (builder.getConsumer() != null) {
-								try {
-									command.processCommand(builder.build(), builder.getConsumer());
-								} catch (CommandException commandException) {
-									feedbackHandler.sendError(commandException);
-								} catch (Exception exception) {
-									exception.printStackTrace();
-									feedbackHandler.sendError(exception);
-								}
-							}
-						}
-					}
-				}
-			});
+			if (this.isPrefixResolvedInline()) {
+				this.handleMessage(event);
+			} else {
+				this.dispatchMessage(event, () -> this.handleMessage(event));
+			}
+		}
+	}
+
+	private void handleMessage(MessageReceivedEvent event) {
+		CommandRegistry<MessageReceivedEvent, MessageCommandContext> registry = this.getRegistry();
+		Command<MessageReceivedEvent, MessageCommandContext> command = this.findCommand(registry, event, event.getMessage().getContentRaw());
+		if (command != null) {
+			long start = this.startPhase();
+			boolean permitted = this.hasPermissions(registry, event.getMember(), command);
+			this.recordPhase(command, CommandMetrics.Phase.PERMISSIONS, start);
+			if (!permitted) {
+				this.dispatchMissingPermissions(registry, event, command);
+			} else if (this.tryAcquireCooldown(registry, event, command)) {
+				CommandTrace trace = this.startTrace(command);
+				this.dispatch(event, command, trace, () -> {
+					MessageChannel channel = event.getChannel();
+					FeedbackHandler feedbackHandler = this.feedbackHandlerBuilder.build(channel);
+					BuiltInExceptionProvider provider = this.exceptionProviderFunction.apply(channel);
+					long disparseStart = this.startPhase();
+					MessageCommandContext.Builder builder = (MessageCommandContext.Builder) CommandContextBuilder.disparseRoot(this.localize(registry, command, new MessageCommandContext.Builder(event, registry.getPropertyMap(command), channel, feedbackHandler, provider, MessageReader.create(provider, event.getMessage())).setTrace(trace)), command.getRootNode());
+					this.recordPhase(command, CommandMetrics.Phase.DISPARSE, disparseStart);
+					this.processCommand(event, command, builder, feedbackHandler);
+				});
+			}
 		}
 	}
 
@@ -91,7 +133,11 @@ public class CommandHandler extends AbstractCommandHandler<MessageReceivedEvent,
 		@Override
 		public CommandHandler build() {
 			CommandHandler commandHandler = new CommandHandler(CommandPropertyMap.create(this.commandPropertyMap), this.prefixFunction, this.feedbackHandlerBuilder, this.exceptionProviderFunction, this.executorService);
-			commandHandler.aliasMap.putAll(this.aliasMap);
+			commandHandler.setIgnoreAliasCase(this.ignoreAliasCase);
+			commandHandler.setMetrics(this.metrics);
+			commandHandler.setTracer(this.tracer);
+			commandHandler.setLocaleResolver(this.localeResolver, this.localizedMessageCacheSize);
+			commandHandler.registerAliases(this.aliasMap);
 			return commandHandler;
 		}
 	}
@@ -0,0 +1,506 @@
+package net.smelly.disparser.context.handlers;
+
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.events.Event;
+import net.smelly.disparser.Command;
+import net.smelly.disparser.context.CommandContext;
+import net.smelly.disparser.context.tree.LocalizedTree;
+import net.smelly.disparser.context.tree.RootNode;
+import net.smelly.disparser.feedback.LocalizedMessageCache;
+import net.smelly.disparser.properties.CommandProperty;
+import net.smelly.disparser.properties.CommandPropertyMap;
+import net.smelly.disparser.util.ComponentIndex;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A snapshot of the commands registered to an {@link AbstractCommandHandler}.
+ * <p>A registry holds the aliases commands are called by, the {@link ComponentIndex} those aliases get looked up in, and the {@link CommandPropertyMap} holding the properties of its commands.
+ * The node trees of its commands are already immutable, so they get swapped along with the commands themselves.</p>
+ * <p>Handlers hold their registry in a single volatile field, and every change to their commands builds a new registry and swaps it in.
+ * A message being dispatched always sees one whole registry, never one that is half updated.
+ * Registries can be built on any thread with a {@link Builder} and swapped in with {@link AbstractCommandHandler#reload(CommandRegistry)}, so commands can be reloaded without stopping the handler.</p>
+ * <p>The values of a registry's properties can still be changed after it has been built, as {@link CommandPropertyMap} is thread-safe.</p>
+ * <p>The only other state a registry keeps is a cache of the {@link RootNode}s of its commands compiled for the locales they have been used in, which only changes how fast commands get disparsed.
+ * Every registry starts with an empty cache, so swapping in a new registry never keeps trees compiled from replaced nodes, and handlers never share trees.
+ * The commands and aliases of a registry never change once it's built, but as this cache does, registries are thread-safe rather than immutable.</p>
+ *
+ * @param <E> The type of {@link Event} the commands are for.
+ * @param <C> The type of {@link CommandContext} the commands are for.
+ * @author Luke Tonon
+ * @see AbstractCommandHandler#getRegistry()
+ * @see AbstractCommandHandler#reload(CommandRegistry)
+ */
+@ThreadSafe
+public final class CommandRegistry<E extends Event, C extends CommandContext<E>> {
+	/**
+	 * The default maximum number of locales a registry keeps the {@link RootNode}s of its commands compiled for.
+	 */
+	public static final int DEFAULT_MAXIMUM_LOCALIZED_TREES = 16;
+	private final Map<String, Command<E, C>> aliases;
+	private final Map<Command<E, C>, Set<String>> commands;
+	private final CommandPropertyMap<E, C> commandPropertyMap;
+	private final ComponentIndex<Command<E, C>> aliasIndex;
+	private final boolean ignoreAliasCase;
+	private final int maximumLocalizedTrees;
+	private final ConcurrentHashMap<Locale, LocaleTrees<E, C>> localizedTrees = new ConcurrentHashMap<>();
+	private volatile long localizedTreeClock;
+
+	private CommandRegistry(Map<String, Command<E, C>> aliases, Map<Command<E, C>, Set<String>> commands, CommandPropertyMap<E, C> commandPropertyMap, boolean ignoreAliasCase, int maximumLocalizedTrees) {
+		this.aliases = aliases;
+		this.commands = commands;
+		this.commandPropertyMap = commandPropertyMap;
+		this.aliasIndex = ComponentIndex.create(ignoreAliasCase ? new TreeMap<>(aliases) : aliases, ignoreAliasCase);
+		this.ignoreAliasCase = ignoreAliasCase;
+		this.maximumLocalizedTrees = maximumLocalizedTrees;
+	}
+
+	/**
+	 * Creates a {@link CommandRegistry} with no aliases that uses a {@link CommandPropertyMap}.
+	 *
+	 * @param commandPropertyMap The {@link CommandPropertyMap} for the registry to use.
+	 * @param <E>                The type of {@link Event} the commands are for.
+	 * @param <C>                The type of {@link CommandContext} the commands are for.
+	 * @return A {@link CommandRegistry} with no aliases that uses a {@link CommandPropertyMap}.
+	 */
+	public static <E extends Event, C extends CommandContext<E>> CommandRegistry<E, C> create(CommandPropertyMap<E, C> commandPropertyMap) {
+		return new CommandRegistry<>(Collections.emptyMap(), Collections.emptyMap(), commandPropertyMap, false, DEFAULT_MAXIMUM_LOCALIZED_TREES);
+	}
+
+	/**
+	 * Creates a new {@link Builder} for building a {@link CommandRegistry} from nothing.
+	 *
+	 * @param <E> The type of {@link Event} the commands are for.
+	 * @param <C> The type of {@link CommandContext} the commands are for.
+	 * @return A new empty {@link Builder}.
+	 */
+	public static <E extends Event, C extends CommandContext<E>> Builder<E, C> builder() {
+		return new Builder<>(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), false, DEFAULT_MAXIMUM_LOCALIZED_TREES);
+	}
+
+	/**
+	 * Creates a new {@link Builder} holding everything in this registry, for building a changed copy of it.
+	 * <p>Commands that are kept share their {@link CommandPropertyMap.PropertyMap}s with this registry, so changes made to their values at runtime carry over.</p>
+	 *
+	 * @return A new {@link Builder} holding everything in this registry.
+	 */
+	public Builder<E, C> toBuilder() {
+		return new Builder<>(this.aliases, this.commands, this.commandPropertyMap.asMap(), this.ignoreAliasCase, this.maximumLocalizedTrees);
+	}
+
+	/**
+	 * Gets the {@link Command} an alias calls, following this registry's case sensitivity.
+	 *
+	 * @param alias The alias to get the {@link Command} for.
+	 * @return The {@link Command} the alias calls, or null if it doesn't call any.
+	 */
+	@Nullable
+	public Command<E, C> getCommand(String alias) {
+		return this.aliasIndex.get(alias);
+	}
+
+	/**
+	 * Gets the {@link Command} a region of a message calls, without creating a new {@link String} for the region.
+	 *
+	 * @param content The content containing the alias.
+	 * @param start   The inclusive start of the alias.
+	 * @param end     The exclusive end of the alias.
+	 * @return The {@link Command} the region calls, or null if it doesn't call any.
+	 */
+	@Nullable
+	public Command<E, C> getCommand(String content, int start, int end) {
+		return this.aliasIndex.get(content, start, end);
+	}
+
+	/**
+	 * @return An unmodifiable map of every alias in this registry to the {@link Command} it calls.
+	 */
+	public Map<String, Command<E, C>> getAliases() {
+		return this.aliases;
+	}
+
+	/**
+	 * Gets the aliases a {@link Command} is called by in this registry.
+	 *
+	 * @param command The {@link Command} to get the aliases of.
+	 * @return An unmodifiable set of the aliases the {@link Command} is called by, which is empty if it isn't called by any.
+	 */
+	public Set<String> getAliases(Command<E, C> command) {
+		return this.commands.getOrDefault(command, Collections.emptySet());
+	}
+
+	/**
+	 * @return An unmodifiable set of every {@link Command} called by an alias in this registry.
+	 */
+	public Set<Command<E, C>> getCommands() {
+		return this.commands.keySet();
+	}
+
+	/**
+	 * @return The {@link CommandPropertyMap} holding the properties of this registry's commands.
+	 */
+	public CommandPropertyMap<E, C> getCommandPropertyMap() {
+		return this.commandPropertyMap;
+	}
+
+	/**
+	 * Gets the {@link CommandPropertyMap.PropertyMap} of a {@link Command} in this registry.
+	 * <p>This never puts anything onto this registry's {@link CommandPropertyMap}, so looking up a command that isn't in this registry can't add it to registries built from this one.
+	 * A {@link Command} without properties in this registry gets a new {@link CommandPropertyMap.PropertyMap} with its default values, which isn't kept.</p>
+	 *
+	 * @param command The {@link Command} to get the {@link CommandPropertyMap.PropertyMap} of.
+	 * @return The {@link CommandPropertyMap.PropertyMap} of the {@link Command}.
+	 * @see #getPropertyMapIfPresent(Command)
+	 */
+	public CommandPropertyMap.PropertyMap getPropertyMap(Command<E, C> command) {
+		CommandPropertyMap.PropertyMap propertyMap = this.commandPropertyMap.getPropertyMapIfPresent(command);
+		return propertyMap != null ? propertyMap : CommandPropertyMap.PropertyMap.createDefault(command);
+	}
+
+	/**
+	 * Gets the {@link CommandPropertyMap.PropertyMap} of a {@link Command} in this registry, if it has one.
+	 *
+	 * @param command The {@link Command} to get the {@link CommandPropertyMap.PropertyMap} of.
+	 * @return The {@link CommandPropertyMap.PropertyMap} of the {@link Command}, or null if it has no properties in this registry.
+	 */
+	@Nullable
+	public CommandPropertyMap.PropertyMap getPropertyMapIfPresent(Command<E, C> command) {
+		return this.commandPropertyMap.getPropertyMapIfPresent(command);
+	}
+
+	/**
+	 * @return The {@link ComponentIndex} this registry's aliases get looked up in.
+	 */
+	public ComponentIndex<Command<E, C>> getAliasIndex() {
+		return this.aliasIndex;
+	}
+
+	/**
+	 * @return If this registry matches aliases ignoring their case.
+	 */
+	public boolean isIgnoringAliasCase() {
+		return this.ignoreAliasCase;
+	}
+
+	/**
+	 * Gets the {@link RootNode} of a {@link Command} compiled for the locale of some {@link LocalizedMessageCache.LocalizedMessages}, compiling it the first time the locale gets used.
+	 * <p>The names of the nodes get rendered through the {@link LocalizedMessageCache.LocalizedMessages} for the channel, so they must render the same for every channel with the same locale.
+	 * Once the trees of more than {@link #getMaximumLocalizedTrees()} locales have been compiled, the trees of the least recently used locale get evicted.
+	 * Uses are only told apart by which locale was last added before them, so using a locale costs a single field write at most, and two locales used between the same additions count as equally recent.</p>
+	 * <p>Only the trees of commands in this registry get cached.</p>
+	 *
+	 * @param command           The {@link Command} to get the compiled tree of.
+	 * @param localizedMessages The {@link LocalizedMessageCache.LocalizedMessages} of the locale to get the compiled tree for.
+	 * @param channel           The channel to render the names of the nodes for if the tree hasn't been compiled yet, can be null.
+	 * @return The {@link Command}'s {@link RootNode} compiled for the locale.
+	 * @see net.smelly.disparser.context.CommandContextBuilder#setLocalizedTree(LocalizedTree)
+	 */
+	public LocalizedTree<E, C> getLocalizedTree(Command<E, C> command, LocalizedMessageCache.LocalizedMessages localizedMessages, @Nullable MessageChannel channel) {
+		Locale locale = localizedMessages.getLocale();
+		LocaleTrees<E, C> localeTrees = this.localizedTrees.get(locale);
+		LocalizedTree<E, C> localizedTree = null;
+		if (localeTrees != null) {
+			localeTrees.use(this.localizedTreeClock);
+			localizedTree = localeTrees.trees.get(command);
+		}
+		if (localizedTree == null) {
+			localizedTree = LocalizedTree.compile(command.getRootNode(), locale, message -> localizedMessages.getMessage(message, channel));
+			if (this.commands.containsKey(command)) {
+				LocalizedTree<E, C> previous = (localeTrees != null ? localeTrees : this.getOrAddLocale(locale)).trees.putIfAbsent(command, localizedTree);
+				if (previous != null) {
+					return previous;
+				}
+			}
+		}
+		return localizedTree;
+	}
+
+	private LocaleTrees<E, C> getOrAddLocale(Locale locale) {
+		synchronized (this.localizedTrees) {
+			LocaleTrees<E, C> trees = this.localizedTrees.get(locale);
+			if (trees == null) {
+				//Uses after this get stamped one past the added locale, so they count as more recent than it
+				long added = this.localizedTreeClock + 1;
+				this.localizedTreeClock = added + 1;
+				if (this.localizedTrees.size() >= this.maximumLocalizedTrees) {
+					Locale leastRecentlyUsed = null;
+					long lastUsed = Long.MAX_VALUE;
+					for (Map.Entry<Locale, LocaleTrees<E, C>> entry : this.localizedTrees.entrySet()) {
+						long entryLastUsed = entry.getValue().lastUsed;
+						if (entryLastUsed < lastUsed) {
+							leastRecentlyUsed = entry.getKey();
+							lastUsed = entryLastUsed;
+						}
+					}
+					this.localizedTrees.remove(leastRecentlyUsed);
+				}
+				trees = new LocaleTrees<>(added);
+				this.localizedTrees.put(locale, trees);
+			}
+			return trees;
+		}
+	}
+
+	/**
+	 * Removes every compiled {@link LocalizedTree} of this registry, so the names of the nodes of its commands get rendered again for the next message of each locale.
+	 */
+	public void clearLocalizedTrees() {
+		synchronized (this.localizedTrees) {
+			this.localizedTrees.clear();
+		}
+	}
+
+	/**
+	 * @return An unmodifiable {@link Set} of the {@link Locale}s this registry has compiled trees for.
+	 */
+	public Set<Locale> getLocalizedTreeLocales() {
+		return Collections.unmodifiableSet(this.localizedTrees.keySet());
+	}
+
+	/**
+	 * @return The maximum number of locales this registry keeps the {@link RootNode}s of its commands compiled for.
+	 */
+	public int getMaximumLocalizedTrees() {
+		return this.maximumLocalizedTrees;
+	}
+
+	@Override
+	public String toString() {
+		return "CommandRegistry{" +
+				"aliases=" + this.aliases.keySet() +
+				", commands=" + this.commands.size() +
+				", ignoreAliasCase=" + this.ignoreAliasCase +
+				'}';
+	}
+
+	/**
+	 * The compiled trees of a single locale, along with the value of {@link #localizedTreeClock} when the locale was last used.
+	 */
+	@ThreadSafe
+	private static final class LocaleTrees<E extends Event, C extends CommandContext<E>> {
+		private final ConcurrentHashMap<Command<E, C>, LocalizedTree<E, C>> trees = new ConcurrentHashMap<>();
+		private volatile long lastUsed;
+
+		private LocaleTrees(long lastUsed) {
+			this.lastUsed = lastUsed;
+		}
+
+		private void use(long clock) {
+			if (this.lastUsed != clock) {
+				this.lastUsed = clock;
+			}
+		}
+	}
+
+	/**
+	 * A builder for a {@link CommandRegistry}.
+	 * <p>Changing the aliases of a {@link Command} only touches that command's aliases, so rebuilding a large registry to change a single command stays cheap.</p>
+	 *
+	 * @param <E> The type of {@link Event} the commands are for.
+	 * @param <C> The type of {@link CommandContext} the commands are for.
+	 */
+	@NotThreadSafe
+	public static final class Builder<E extends Event, C extends CommandContext<E>> {
+		private final Map<String, Command<E, C>> aliases;
+		private final Map<Command<E, C>, Set<String>> commands = new HashMap<>();
+		private final Map<Command<E, C>, CommandPropertyMap.PropertyMap> propertyMaps;
+		private boolean ignoreAliasCase;
+		private int maximumLocalizedTrees;
+
+		private Builder(Map<String, Command<E, C>> aliases, Map<Command<E, C>, Set<String>> commands, Map<Command<E, C>, CommandPropertyMap.PropertyMap> propertyMaps, boolean ignoreAliasCase, int maximumLocalizedTrees) {
+			this.aliases = new LinkedHashMap<>(aliases);
+			commands.forEach((command, commandAliases) -> this.commands.put(command, new LinkedHashSet<>(commandAliases)));
+			this.propertyMaps = new HashMap<>(propertyMaps);
+			this.ignoreAliasCase = ignoreAliasCase;
+			this.maximumLocalizedTrees = maximumLocalizedTrees;
+		}
+
+		/**
+		 * Registers a {@link Command} by all the aliases of its {@link net.smelly.disparser.properties.AliasesProperty}, with the default values of all its properties.
+		 * <p>Any aliases the command was previously registered by get removed.</p>
+		 *
+		 * @param command The {@link Command} to register.
+		 * @return This builder.
+		 */
+		public Builder<E, C> register(Command<E, C> command) {
+			this.propertyMaps.put(command, CommandPropertyMap.PropertyMap.createDefault(command));
+			return this.setAliases(command, command.getAliasesProperty().get(null));
+		}
+
+		/**
+		 * Registers a {@link Command} with a preset value map of its properties, by the aliases in that map.
+		 * <p>Any aliases the command was previously registered by get removed. If the map has no aliases for the command, it gets registered by the default aliases of its {@link net.smelly.disparser.properties.AliasesProperty}.</p>
+		 *
+		 * @param command The {@link Command} to register.
+		 * @param map     The {@link Map} to put for this {@link Command}'s properties.
+		 * @return This builder.
+		 * @throws ClassCastException If the value of a {@link CommandProperty.Value} isn't an instance of the return value of one of the properties.
+		 */
+		@SuppressWarnings("unchecked")
+		public Builder<E, C> register(Command<E, C> command, Map<CommandProperty<?, ?>, CommandProperty.Value<?>> map) {
+			CommandPropertyMap.PropertyMap propertyMap = new CommandPropertyMap.PropertyMap();
+			propertyMap.replaceAll(map);
+			this.propertyMaps.put(command, propertyMap);
+			CommandProperty.Value<?> aliases = map.get(command.getAliasesProperty());
+			return this.setAliases(command, aliases != null ? (Set<String>) aliases.get() : command.getAliasesProperty().get(null));
+		}
+
+		/**
+		 * Puts a {@link Command} with the default values of all its properties, without changing the aliases it's called by.
+		 *
+		 * @param command The {@link Command} to put.
+		 * @return This builder.
+		 * @see CommandPropertyMap#putCommand(Command)
+		 */
+		public Builder<E, C> putCommand(Command<E, C> command) {
+			this.propertyMaps.put(command, CommandPropertyMap.PropertyMap.createDefault(command));
+			return this;
+		}
+
+		/**
+		 * Puts a {@link Command} with an existing {@link CommandPropertyMap.PropertyMap}, without changing the aliases it's called by.
+		 * <p>The {@link CommandPropertyMap.PropertyMap} gets shared with the built registry, so changes made to its values carry over.</p>
+		 *
+		 * @param command     The {@link Command} to put.
+		 * @param propertyMap The {@link CommandPropertyMap.PropertyMap} holding the {@link Command}'s properties.
+		 * @return This builder.
+		 */
+		public Builder<E, C> putPropertyMap(Command<E, C> command, CommandPropertyMap.PropertyMap propertyMap) {
+			this.propertyMaps.put(command, propertyMap);
+			return this;
+		}
+
+		/**
+		 * Registers a {@link Command} for an alias, replacing any command the alias already calls.
+		 *
+		 * @param alias   The alias for the {@link Command}.
+		 * @param command The {@link Command} to register.
+		 * @return This builder.
+		 */
+		public Builder<E, C> putAlias(String alias, Command<E, C> command) {
+			Command<E, C> previous = this.aliases.put(alias, command);
+			if (previous != null && previous != command) {
+				this.removeAlias(previous, alias);
+			}
+			this.commands.computeIfAbsent(command, key -> new LinkedHashSet<>()).add(alias);
+			return this;
+		}
+
+		/**
+		 * Registers a map of aliases to the {@link Command}s they call.
+		 *
+		 * @param aliases The {@link Map} of aliases to put.
+		 * @return This builder.
+		 */
+		public Builder<E, C> putAliases(Map<String, Command<E, C>> aliases) {
+			aliases.forEach(this::putAlias);
+			return this;
+		}
+
+		/**
+		 * Replaces the aliases a {@link Command} is called by.
+		 *
+		 * @param command The {@link Command} to set the aliases of.
+		 * @param aliases The new aliases of the {@link Command}.
+		 * @return This builder.
+		 */
+		public Builder<E, C> setAliases(Command<E, C> command, Collection<String> aliases) {
+			this.removeAliases(command);
+			for (String alias : aliases) {
+				this.putAlias(alias, command);
+			}
+			return this;
+		}
+
+		/**
+		 * Removes every alias, keeping the properties of every {@link Command}.
+		 *
+		 * @return This builder.
+		 */
+		public Builder<E, C> clearAliases() {
+			this.aliases.clear();
+			this.commands.clear();
+			return this;
+		}
+
+		/**
+		 * Removes a {@link Command}, its aliases, and its properties.
+		 *
+		 * @param command The {@link Command} to remove.
+		 * @return This builder.
+		 */
+		public Builder<E, C> unregister(Command<E, C> command) {
+			this.removeAliases(command);
+			this.propertyMaps.remove(command);
+			return this;
+		}
+
+		/**
+		 * Sets if the built registry should match aliases ignoring their case.
+		 *
+		 * @param ignoreAliasCase If aliases should be matched ignoring their case.
+		 * @return This builder.
+		 * @see AbstractCommandHandler#setIgnoreAliasCase(boolean)
+		 */
+		public Builder<E, C> setIgnoreAliasCase(boolean ignoreAliasCase) {
+			this.ignoreAliasCase = ignoreAliasCase;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of locales the built registry keeps the {@link RootNode}s of its commands compiled for.
+		 * <b>Set this if your bot supports more locales than {@link #DEFAULT_MAXIMUM_LOCALIZED_TREES}</b>
+		 *
+		 * @param maximumLocalizedTrees The maximum number of locales to keep compiled trees for.
+		 * @return This builder.
+		 * @throws IllegalArgumentException If the maximum is less than 1.
+		 */
+		public Builder<E, C> setMaximumLocalizedTrees(int maximumLocalizedTrees) {
+			if (maximumLocalizedTrees < 1) {
+				throw new IllegalArgumentException("Maximum localized trees must be at least 1");
+			}
+			this.maximumLocalizedTrees = maximumLocalizedTrees;
+			return this;
+		}
+
+		private void removeAliases(Command<E, C> command) {
+			Set<String> aliases = this.commands.remove(command);
+			if (aliases != null) {
+				for (String alias : aliases) {
+					this.aliases.remove(alias, command);
+				}
+			}
+		}
+
+		private void removeAlias(Command<E, C> command, String alias) {
+			Set<String> aliases = this.commands.get(command);
+			if (aliases != null && aliases.remove(alias) && aliases.isEmpty()) {
+				this.commands.remove(command);
+			}
+		}
+
+		/**
+		 * Builds a new {@link CommandRegistry}.
+		 * <p>This can be done on any thread, and nothing is visible to a handler until the registry gets passed to {@link AbstractCommandHandler#reload(CommandRegistry)}.</p>
+		 *
+		 * @return A new {@link CommandRegistry}.
+		 */
+		public CommandRegistry<E, C> build() {
+			Map<Command<E, C>, Set<String>> commands = new HashMap<>();
+			this.commands.forEach((command, aliases) -> commands.put(command, Collections.unmodifiableSet(new LinkedHashSet<>(aliases))));
+			return new CommandRegistry<>(Collections.unmodifiableMap(new LinkedHashMap<>(this.aliases)), Collections.unmodifiableMap(commands), CommandPropertyMap.create(this.propertyMaps), this.ignoreAliasCase, this.maximumLocalizedTrees);
+		}
+	}
+}
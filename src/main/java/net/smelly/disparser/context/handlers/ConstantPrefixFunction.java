@@ -0,0 +1,35 @@
+package net.smelly.disparser.context.handlers;
+
+import net.dv8tion.jda.api.events.Event;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.function.Function;
+
+/**
+ * A prefix function that always returns the same prefix.
+ * <p>{@link AbstractCommandHandler}s recognize this function and cache its prefix, so getting the prefix for a message doesn't need to call any function.</p>
+ *
+ * @param <E> The type of {@link Event} this function is for.
+ * @author Luke Tonon
+ * @see AbstractCommandHandler#getPrefix(Event)
+ */
+@Immutable
+final class ConstantPrefixFunction<E extends Event> implements Function<E, String> {
+	final String prefix;
+
+	ConstantPrefixFunction(String prefix) {
+		this.prefix = prefix;
+	}
+
+	@Override
+	public String apply(E event) {
+		return this.prefix;
+	}
+
+	@Override
+	public String toString() {
+		return "ConstantPrefixFunction{" +
+				"prefix=" + this.prefix +
+				'}';
+	}
+}
@@ -1,8 +1,6 @@
 package net.smelly.disparser.context.handlers;
 
-import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import net.smelly.disparser.Command;
@@ -13,10 +11,10 @@ import net.smelly.disparser.context.GuildMessageCommandContext;
 import net.smelly.disparser.feedback.FeedbackHandler;
 import net.smelly.disparser.feedback.FeedbackHandlerBuilder;
 import net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.metrics.CommandMetrics;
+import net.smelly.disparser.metrics.CommandTrace;
 import net.smelly.disparser.properties.CommandPropertyMap;
-import net.smelly.disparser.util.MessageUtil;
-import org.apache.commons.collections4.set.UnmodifiableSet;
+import net.smelly.disparser.properties.RateLimit;
 
 import javax.annotation.Nonnull;
 import java.util.concurrent.ExecutorService;
@@ -35,46 +33,92 @@ public class GuildCommandHandler extends AbstractCommandHandler<GuildMessageRece
 		super(commandPropertyMap, prefixFunction, feedbackHandlerBuilder, exceptionProviderFunction, executorService);
 	}
 
+	/**
+	 * Orders commands by the ID of the channel they were sent in.
+	 *
+	 * @param event The event of the command.
+	 * @return The ID of the channel the command was sent in.
+	 */
+	@Override
+	protected long getDispatchKey(GuildMessageReceivedEvent event) {
+		return event.getChannel().getIdLong();
+	}
+
+	/**
+	 * Balances full queues by the ID of the guild the command was sent in.
+	 *
+	 * @param event The event of the command.
+	 * @return The ID of the guild the command was sent in.
+	 */
+	@Override
+	protected long getFairnessKey(GuildMessageReceivedEvent event) {
+		return event.getGuild().getIdLong();
+	}
+
+	/**
+	 * Limits cooldowns by the ID of the author, the ID of the guild, or the ID of the channel, depending on the scope.
+	 *
+	 * @param event The event of the command.
+	 * @param scope The {@link RateLimit.Scope} of the command's cooldown.
+	 * @return The key that uses of the command's cooldown get limited by.
+	 */
+	@Override
+	protected long getCooldownKey(GuildMessageReceivedEvent event, RateLimit.Scope scope) {
+		switch (scope) {
+			case USER:
+				return event.getAuthor().getIdLong();
+			case GUILD:
+				return event.getGuild().getIdLong();
+			default:
+				return event.getChannel().getIdLong();
+		}
+	}
+
+	@Override
+	protected MessageChannel getChannel(GuildMessageReceivedEvent event) {
+		return event.getChannel();
+	}
+
 	@Override
 	public void onGuildMessageReceived(@Nonnull GuildMessageReceivedEvent event) {
 		if (!this.executorService.isShutdown()) {
-			this.executorService.execute(() -> {
-				String firstComponent = MessageUtil.getFirstComponent(event.getMessage().getContentRaw());
-				String prefix = this.getPrefix(event);
-				if (firstComponent.startsWith(prefix)) {
-					Command<GuildMessageReceivedEvent, GuildMessageCommandContext> command = this.aliasMap.get(firstComponent.substring(prefix.length()));
-					if (command != null) {
-						Member member = event.getMember();
-						MessageChannel channel = event.getChannel();
-						FeedbackHandler feedbackHandler = this.feedbackHandlerBuilder.build(channel);
-						BuiltInExceptionProvider provider = this.exceptionProviderFunction.apply(channel);
-						UnmodifiableSet<Permission> permissions = this.getPermissions(command);
-						if (member != null && !member.hasPermission(permissions)) {
-							feedbackHandler.sendError(provider.getMissingPermissionsException().create(permissions));
-						} else {
-							GuildMessageCommandContext.Builder builder = (GuildMessageCommandContext.Builder) CommandContextBuilder.disparseRoot(new GuildMessageCommandContext.Builder(event, this.commandPropertyMap.getPropertyMap(command), channel, feedbackHandler, provider, MessageReader.create(provider, event.getMessage())), command.getRootNode());
-							if (builder.getException() != null) {
-								feedbackHandler.sendError(builder.getException());
-							} else if (builder.getConsumer() != null) {
-								try {
-									command.processCommand(builder.build(), builder.getConsumer());
-								} catch (CommandException commandException) {
-									feedbackHandler.sendError(commandException);
-								} catch (Exception exception) {
-									exception.printStackTrace();
-									feedbackHandler.sendError(exception);
-								}
-							}
-						}
-					}
-				}
-			});
+			if (this.isPrefixResolvedInline()) {
+				this.handleMessage(event);
+			} else {
+				this.dispatchMessage(event, () -> this.handleMessage(event));
+			}
+		}
+	}
+
+	private void handleMessage(GuildMessageReceivedEvent event) {
+		CommandRegistry<GuildMessageReceivedEvent, GuildMessageCommandContext> registry = this.getRegistry();
+		Command<GuildMessageReceivedEvent, GuildMessageCommandContext> command = this.findCommand(registry, event, event.getMessage().getContentRaw());
+		if (command != null) {
+			long start = this.startPhase();
+			boolean permitted = this.hasPermissions(registry, event.getMember(), command);
+			this.recordPhase(command, CommandMetrics.Phase.PERMISSIONS, start);
+			if (!permitted) {
+				this.dispatchMissingPermissions(registry, event, command);
+			} else if (this.tryAcquireCooldown(registry, event, command)) {
+				CommandTrace trace = this.startTrace(command);
+				this.dispatch(event, command, trace, () -> {
+					MessageChannel channel = event.getChannel();
+					FeedbackHandler feedbackHandler = this.feedbackHandlerBuilder.build(channel);
+					BuiltInExceptionProvider provider = this.exceptionProviderFunction.apply(channel);
+					long disparseStart = this.startPhase();
+					GuildMessageCommandContext.Builder builder = (GuildMessageCommandContext.Builder) CommandContextBuilder.disparseRoot(this.localize(registry, command, new GuildMessageCommandContext.Builder(event, registry.getPropertyMap(command), channel, feedbackHandler, provider, MessageReader.create(provider, event.getMessage())).setTrace(trace)), command.getRootNode());
+					this.recordPhase(command, CommandMetrics.Phase.DISPARSE, disparseStart);
+					this.processCommand(event, command, builder, feedbackHandler);
+				});
+			}
 		}
 	}
 
 	public static class Builder extends AbstractCommandHandlerBuilder<GuildMessageReceivedEvent, GuildMessageCommandContext, GuildCommandHandler, Builder> {
 		/**
 		 * Sets a prefix for the {@link GuildCommandHandler} using {@link Guild} as the function parameter.
+		 * <p>The function may block, so the handler hands every message off to its executor before calling it.
+		 * Use {@link #setGuildPrefix(Function, PrefixCache.Builder)} to only hand off commands.</p>
 		 *
 		 * @param prefixFunction The prefix function to set.
 		 * @return This builder.
@@ -84,6 +128,20 @@ public class GuildCommandHandler extends AbstractCommandHandler<GuildMessageRece
 			return this;
 		}
 
+		/**
+		 * Sets a prefix for the {@link GuildCommandHandler} using {@link Guild} as the function parameter, caching the prefix for each guild.
+		 * <p>This is useful for prefix functions that are slow, such as ones that query a database.</p>
+		 *
+		 * @param prefixFunction The prefix function to set.
+		 * @param cacheBuilder   A {@link PrefixCache.Builder} to build the cache of prefixes with.
+		 * @return This builder.
+		 * @see GuildCommandHandler#invalidatePrefix(long)
+		 */
+		public Builder setGuildPrefix(Function<Guild, String> prefixFunction, PrefixCache.Builder cacheBuilder) {
+			this.prefixFunction = cacheBuilder.build(event -> event.getGuild().getIdLong(), event -> prefixFunction.apply(event.getGuild()));
+			return this;
+		}
+
 		/**
 		 * @return The {@link GuildMessageCommandContext} class for the type of {@link CommandContext} for the type of {@link AbstractCommandHandler} this builds for.
 		 */
@@ -100,7 +158,11 @@ public class GuildCommandHandler extends AbstractCommandHandler<GuildMessageRece
 		@Override
 		public GuildCommandHandler build() {
 			GuildCommandHandler commandHandler = new GuildCommandHandler(CommandPropertyMap.create(this.commandPropertyMap), this.prefixFunction, this.feedbackHandlerBuilder, this.exceptionProviderFunction, this.executorService);
-			commandHandler.aliasMap.putAll(this.aliasMap);
+			commandHandler.setIgnoreAliasCase(this.ignoreAliasCase);
+			commandHandler.setMetrics(this.metrics);
+			commandHandler.setTracer(this.tracer);
+			commandHandler.setLocaleResolver(this.localeResolver, this.localizedMessageCacheSize);
+			commandHandler.registerAliases(this.aliasMap);
 			return commandHandler;
 		}
 	}
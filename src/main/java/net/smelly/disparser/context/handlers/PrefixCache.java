@@ -0,0 +1,514 @@
+package net.smelly.disparser.context.handlers;
+
+import net.dv8tion.jda.api.events.Event;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded cache of prefixes for a prefix function, keyed by an ID of the event such as the ID of its guild or channel.
+ * <p>Prefixes expire after a set amount of time since they were loaded, and prefixes that haven't been used recently get evicted when the cache is full, found with a clock hand that gives each used prefix a second chance.
+ * The cache is split into segments by key to reduce contention, so a prefix may get evicted slightly before the whole cache is full.
+ * Looking up a cached prefix doesn't create any new objects.</p>
+ * <p>Prefixes can be loaded asynchronously using an {@link Executor}, so a slow prefix function, such as one querying a database, never blocks the thread dispatching a message.
+ * While a prefix is being loaded, the expired prefix or a fallback prefix gets used instead.</p>
+ * <p>Use {@link AbstractCommandHandlerBuilder#setPrefixCache(PrefixCache)} to use a cache for a command handler.</p>
+ *
+ * @param <E> The type of {@link Event} this cache gets prefixes for.
+ * @author Luke Tonon
+ * @see Builder
+ * @see AbstractCommandHandler#invalidatePrefix(long)
+ */
+@ThreadSafe
+public final class PrefixCache<E extends Event> implements Function<E, String> {
+	private static final int MAX_SEGMENTS = 16;
+	private final ToLongFunction<E> keyFunction;
+	private final Function<E, String> loader;
+	private final long expireAfterWriteNanos;
+	@Nullable
+	private final Executor executor;
+	@Nullable
+	private final String fallbackPrefix;
+	private final Segment[] segments;
+	private final Set<Long> loading = ConcurrentHashMap.newKeySet();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder loadSuccesses = new LongAdder();
+	private final LongAdder loadFailures = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	private PrefixCache(ToLongFunction<E> keyFunction, Function<E, String> loader, int maximumSize, long expireAfterWriteNanos, @Nullable Executor executor, @Nullable String fallbackPrefix) {
+		this.keyFunction = keyFunction;
+		this.loader = loader;
+		this.expireAfterWriteNanos = expireAfterWriteNanos;
+		this.executor = executor;
+		this.fallbackPrefix = fallbackPrefix;
+		int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumSize));
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			this.segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Gets the prefix for an event, loading it if it isn't cached or has expired.
+	 *
+	 * @param event The event to get the prefix for.
+	 * @return The prefix for the event.
+	 * @see #get(Event)
+	 */
+	@Override
+	public String apply(E event) {
+		return this.get(event);
+	}
+
+	/**
+	 * Gets the prefix for an event, loading it if it isn't cached or has expired.
+	 * <p>If this cache loads asynchronously, a missing prefix gets loaded in the background and the expired prefix or the fallback prefix gets returned.
+	 * Otherwise the prefix gets loaded on the calling thread.</p>
+	 *
+	 * @param event The event to get the prefix for.
+	 * @return The prefix for the event.
+	 */
+	public String get(E event) {
+		long key = this.keyFunction.applyAsLong(event);
+		Segment segment = this.getSegment(key);
+		long now = System.nanoTime();
+		Entry entry = segment.get(key);
+		if (entry != null && !this.isExpired(entry, now)) {
+			this.hits.increment();
+			return entry.prefix;
+		}
+		this.misses.increment();
+		if (this.executor == null) {
+			return this.load(event, key, segment, segment.getVersion(key));
+		}
+		if (this.loading.add(key)) {
+			long version = segment.getVersion(key);
+			try {
+				this.executor.execute(() -> {
+					try {
+						this.load(event, key, segment, version);
+					} catch (RuntimeException ignored) {
+						// Counted as a load failure, the next message for the key tries again.
+					} finally {
+						this.loading.remove(key);
+					}
+				});
+			} catch (RuntimeException exception) {
+				this.loading.remove(key);
+				throw exception;
+			}
+		}
+		return entry != null ? entry.prefix : this.fallbackPrefix;
+	}
+
+	/**
+	 * Puts a prefix for a key, replacing any cached prefix for the key.
+	 * <p>This is useful for updating the prefix of a guild right after it gets changed. Loads for the key that are in progress won't replace it.</p>
+	 *
+	 * @param key    The key to put the prefix for.
+	 * @param prefix The prefix.
+	 */
+	public void put(long key, String prefix) {
+		this.evictions.add(this.getSegment(key).replace(key, new Entry(Objects.requireNonNull(prefix), System.nanoTime())));
+	}
+
+	/**
+	 * Removes the cached prefix for a key, so it gets loaded again when it's next needed.
+	 * <p>Loads for the key that are in progress won't get cached, while loads for other keys still do.</p>
+	 *
+	 * @param key The key to remove the prefix for.
+	 */
+	public void invalidate(long key) {
+		this.getSegment(key).remove(key);
+	}
+
+	/**
+	 * Removes all cached prefixes.
+	 */
+	public void invalidateAll() {
+		for (Segment segment : this.segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * @return The amount of prefixes in this cache, including expired ones that haven't been removed yet.
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @return A snapshot of this cache's {@link Stats}.
+	 */
+	public Stats getStats() {
+		return new Stats(this.hits.sum(), this.misses.sum(), this.loadSuccesses.sum(), this.loadFailures.sum(), this.evictions.sum());
+	}
+
+	private String load(E event, long key, Segment segment, long version) {
+		String prefix;
+		try {
+			prefix = Objects.requireNonNull(this.loader.apply(event), "Loaded prefix cannot be null");
+		} catch (RuntimeException exception) {
+			this.loadFailures.increment();
+			throw exception;
+		}
+		this.loadSuccesses.increment();
+		this.evictions.add(segment.put(key, new Entry(prefix, System.nanoTime()), version));
+		return prefix;
+	}
+
+	private boolean isExpired(Entry entry, long now) {
+		return this.expireAfterWriteNanos > 0L && now - entry.writeTime >= this.expireAfterWriteNanos;
+	}
+
+	private Segment getSegment(long key) {
+		// Segments use the high bits of the hash, so the low bits used for slots in a segment stay spread out.
+		return this.segments[(spread(key) >>> 28) & (this.segments.length - 1)];
+	}
+
+	private static int spread(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return "PrefixCache{" +
+				"size=" + this.size() +
+				", stats=" + this.getStats() +
+				'}';
+	}
+
+	@Immutable
+	private static final class Entry {
+		private final String prefix;
+		private final long writeTime;
+
+		private Entry(String prefix, long writeTime) {
+			this.prefix = prefix;
+			this.writeTime = writeTime;
+		}
+	}
+
+	/**
+	 * A fixed size open addressing table of entries, evicting with a clock hand when it's full.
+	 * <p>Each slot has a reference bit that gets set when its entry is read. The hand sweeps the slots from where it last stopped, clearing set bits, and evicts the first entry whose bit was already clear.</p>
+	 * <p>Loads get stamped with a version when they start, made up of the amount of times the segment was cleared and the amount of times the stripe of the load's key was invalidated.
+	 * Stripes are indexed like slots, so invalidating a key only discards the in-progress loads of keys in the same stripe, which are almost always just that key.</p>
+	 */
+	@ThreadSafe
+	private static final class Segment {
+		private final int maximumSize;
+		@GuardedBy("this")
+		private final long[] keys;
+		@GuardedBy("this")
+		private final Entry[] entries;
+		@GuardedBy("this")
+		private final boolean[] referenced;
+		@GuardedBy("this")
+		private final int[] invalidations;
+		@GuardedBy("this")
+		private int size;
+		@GuardedBy("this")
+		private int hand;
+		@GuardedBy("this")
+		private int clears;
+
+		private Segment(int maximumSize) {
+			this.maximumSize = maximumSize;
+			int capacity = Integer.highestOneBit(Math.max(2, maximumSize * 2 - 1)) << 1;
+			this.keys = new long[capacity];
+			this.entries = new Entry[capacity];
+			this.referenced = new boolean[capacity];
+			this.invalidations = new int[capacity];
+		}
+
+		@Nullable
+		private synchronized Entry get(long key) {
+			int slot = this.find(key);
+			if (slot < 0) return null;
+			this.referenced[slot] = true;
+			return this.entries[slot];
+		}
+
+		/**
+		 * Puts an entry unless the key got invalidated or the segment got cleared since the given version.
+		 *
+		 * @return The amount of entries evicted.
+		 */
+		private synchronized int put(long key, Entry entry, long version) {
+			return version == this.getVersion(key) ? this.putEntry(key, entry) : 0;
+		}
+
+		/**
+		 * Puts an entry, discarding the loads of the key that are in progress.
+		 *
+		 * @return The amount of entries evicted.
+		 */
+		private synchronized int replace(long key, Entry entry) {
+			this.invalidations[spread(key) & (this.invalidations.length - 1)]++;
+			return this.putEntry(key, entry);
+		}
+
+		@GuardedBy("this")
+		private int putEntry(long key, Entry entry) {
+			int slot = this.find(key);
+			if (slot >= 0) {
+				this.entries[slot] = entry;
+				return 0;
+			}
+			int evicted = 0;
+			if (this.size >= this.maximumSize) {
+				this.removeSlot(this.advanceHand());
+				evicted = 1;
+			}
+			int mask = this.keys.length - 1;
+			slot = spread(key) & mask;
+			while (this.entries[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			this.keys[slot] = key;
+			this.entries[slot] = entry;
+			this.referenced[slot] = false;
+			this.size++;
+			return evicted;
+		}
+
+		private synchronized void remove(long key) {
+			this.invalidations[spread(key) & (this.invalidations.length - 1)]++;
+			int slot = this.find(key);
+			if (slot >= 0) {
+				this.removeSlot(slot);
+			}
+		}
+
+		private synchronized void clear() {
+			this.clears++;
+			Arrays.fill(this.entries, null);
+			this.size = 0;
+		}
+
+		private synchronized int size() {
+			return this.size;
+		}
+
+		private synchronized long getVersion(long key) {
+			return ((long) this.clears << 32) | (this.invalidations[spread(key) & (this.invalidations.length - 1)] & 0xFFFFFFFFL);
+		}
+
+		@GuardedBy("this")
+		private int find(long key) {
+			int mask = this.keys.length - 1;
+			int slot = spread(key) & mask;
+			while (this.entries[slot] != null) {
+				if (this.keys[slot] == key) {
+					return slot;
+				}
+				slot = (slot + 1) & mask;
+			}
+			return -1;
+		}
+
+		/**
+		 * Sweeps the clock hand to the next entry that hasn't been read since the hand last passed it.
+		 * <p>The hand clears every bit it passes, so it stops within two sweeps of the table, and the sweeps get spread over many evictions.</p>
+		 */
+		@GuardedBy("this")
+		private int advanceHand() {
+			int mask = this.keys.length - 1;
+			int slot = this.hand;
+			while (this.entries[slot] == null || this.referenced[slot]) {
+				this.referenced[slot] = false;
+				slot = (slot + 1) & mask;
+			}
+			this.hand = (slot + 1) & mask;
+			return slot;
+		}
+
+		/**
+		 * Removes a slot, shifting back the entries after it so probing never stops early.
+		 */
+		@GuardedBy("this")
+		private void removeSlot(int slot) {
+			int mask = this.keys.length - 1;
+			int hole = slot;
+			int next = (hole + 1) & mask;
+			while (this.entries[next] != null) {
+				int home = spread(this.keys[next]) & mask;
+				if (((next - home) & mask) >= ((next - hole) & mask)) {
+					this.keys[hole] = this.keys[next];
+					this.entries[hole] = this.entries[next];
+					this.referenced[hole] = this.referenced[next];
+					hole = next;
+				}
+				next = (next + 1) & mask;
+			}
+			this.entries[hole] = null;
+			this.referenced[hole] = false;
+			this.size--;
+		}
+	}
+
+	/**
+	 * A snapshot of the statistics of a {@link PrefixCache}.
+	 */
+	@Immutable
+	public static final class Stats {
+		private final long hitCount;
+		private final long missCount;
+		private final long loadSuccessCount;
+		private final long loadFailureCount;
+		private final long evictionCount;
+
+		private Stats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount, long evictionCount) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.loadSuccessCount = loadSuccessCount;
+			this.loadFailureCount = loadFailureCount;
+			this.evictionCount = evictionCount;
+		}
+
+		/**
+		 * @return The amount of times a cached prefix was found.
+		 */
+		public long getHitCount() {
+			return this.hitCount;
+		}
+
+		/**
+		 * @return The amount of times a prefix wasn't cached or had expired.
+		 */
+		public long getMissCount() {
+			return this.missCount;
+		}
+
+		/**
+		 * @return The ratio of hits to lookups, or 1 if there were no lookups.
+		 */
+		public double getHitRate() {
+			long lookups = this.hitCount + this.missCount;
+			return lookups == 0L ? 1.0D : (double) this.hitCount / lookups;
+		}
+
+		/**
+		 * @return The amount of prefixes successfully loaded.
+		 */
+		public long getLoadSuccessCount() {
+			return this.loadSuccessCount;
+		}
+
+		/**
+		 * @return The amount of times loading a prefix failed.
+		 */
+		public long getLoadFailureCount() {
+			return this.loadFailureCount;
+		}
+
+		/**
+		 * @return The amount of prefixes evicted because the cache was full.
+		 */
+		public long getEvictionCount() {
+			return this.evictionCount;
+		}
+
+		@Override
+		public String toString() {
+			return "Stats{" +
+					"hitCount=" + this.hitCount +
+					", missCount=" + this.missCount +
+					", loadSuccessCount=" + this.loadSuccessCount +
+					", loadFailureCount=" + this.loadFailureCount +
+					", evictionCount=" + this.evictionCount +
+					'}';
+		}
+	}
+
+	/**
+	 * A builder for {@link PrefixCache}s.
+	 * <p>By default a cache holds up to 10000 prefixes that never expire and loads them on the calling thread.</p>
+	 */
+	@NotThreadSafe
+	public static final class Builder {
+		private int maximumSize = 10000;
+		private long expireAfterWriteNanos;
+		@Nullable
+		private Executor executor;
+		@Nullable
+		private String fallbackPrefix;
+
+		/**
+		 * Sets the maximum amount of prefixes the cache holds before evicting the ones that haven't been used recently.
+		 *
+		 * @param maximumSize The maximum amount of prefixes.
+		 * @return This builder.
+		 * @throws IllegalArgumentException If the size is less than 1.
+		 */
+		public Builder setMaximumSize(int maximumSize) {
+			if (maximumSize < 1) {
+				throw new IllegalArgumentException("Maximum size must be at least 1");
+			}
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * Sets how long prefixes stay cached after they were loaded.
+		 *
+		 * @param duration The duration, or 0 for prefixes to never expire.
+		 * @param unit     The {@link TimeUnit} of the duration.
+		 * @return This builder.
+		 * @throws IllegalArgumentException If the duration is negative.
+		 */
+		public Builder setExpireAfterWrite(long duration, TimeUnit unit) {
+			if (duration < 0L) {
+				throw new IllegalArgumentException("Duration cannot be negative");
+			}
+			this.expireAfterWriteNanos = unit.toNanos(duration);
+			return this;
+		}
+
+		/**
+		 * Makes the cache load prefixes asynchronously.
+		 *
+		 * @param executor       The {@link Executor} to load prefixes on.
+		 * @param fallbackPrefix The prefix to use while a prefix that isn't cached is being loaded.
+		 * @return This builder.
+		 */
+		public Builder setAsyncLoading(Executor executor, String fallbackPrefix) {
+			this.executor = Objects.requireNonNull(executor);
+			this.fallbackPrefix = Objects.requireNonNull(fallbackPrefix);
+			return this;
+		}
+
+		/**
+		 * Builds a {@link PrefixCache} from this builder.
+		 *
+		 * @param keyFunction A {@link ToLongFunction} to get the key of an event, such as the ID of its guild.
+		 * @param loader      The prefix function to load prefixes with.
+		 * @param <E>         The type of {@link Event} the cache gets prefixes for.
+		 * @return A new {@link PrefixCache} from this builder.
+		 */
+		public <E extends Event> PrefixCache<E> build(ToLongFunction<E> keyFunction, Function<E, String> loader) {
+			return new PrefixCache<>(keyFunction, loader, this.maximumSize, this.expireAfterWriteNanos, this.executor, this.fallbackPrefix);
+		}
+	}
+}
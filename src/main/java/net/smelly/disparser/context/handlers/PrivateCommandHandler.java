@@ -11,9 +11,10 @@ import net.smelly.disparser.context.PrivateMessageCommandContext;
 import net.smelly.disparser.feedback.FeedbackHandler;
 import net.smelly.disparser.feedback.FeedbackHandlerBuilder;
 import net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider;
-import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.metrics.CommandMetrics;
+import net.smelly.disparser.metrics.CommandTrace;
 import net.smelly.disparser.properties.CommandPropertyMap;
-import net.smelly.disparser.util.MessageUtil;
+import net.smelly.disparser.properties.RateLimit;
 
 import javax.annotation.Nonnull;
 import java.util.concurrent.ExecutorService;
@@ -32,33 +33,58 @@ public class PrivateCommandHandler extends AbstractCommandHandler<PrivateMessage
 		super(commandPropertyMap, prefixFunction, feedbackHandlerBuilder, exceptionProviderFunction, executorService);
 	}
 
+	/**
+	 * Orders commands by the ID of the channel they were sent in.
+	 *
+	 * @param event The event of the command.
+	 * @return The ID of the channel the command was sent in.
+	 */
+	@Override
+	protected long getDispatchKey(PrivateMessageReceivedEvent event) {
+		return event.getChannel().getIdLong();
+	}
+
+	/**
+	 * Limits cooldowns by the ID of the author for {@link RateLimit.Scope#USER}, or the ID of the private channel otherwise.
+	 *
+	 * @param event The event of the command.
+	 * @param scope The {@link RateLimit.Scope} of the command's cooldown.
+	 * @return The key that uses of the command's cooldown get limited by.
+	 */
+	@Override
+	protected long getCooldownKey(PrivateMessageReceivedEvent event, RateLimit.Scope scope) {
+		return scope == RateLimit.Scope.USER ? event.getAuthor().getIdLong() : event.getChannel().getIdLong();
+	}
+
+	@Override
+	protected MessageChannel getChannel(PrivateMessageReceivedEvent event) {
+		return event.getChannel();
+	}
+
 	@Override
 	public void onPrivateMessageReceived(@Nonnull PrivateMessageReceivedEvent event) {
 		if (!this.executorService.isShutdown()) {
-			this.executorService.execute(() -> {
-				String firstComponent = MessageUtil.getFirstComponent(event.getMessage().getContentRaw());
-				String prefix = this.getPrefix(event);
-				if (firstComponent.startsWith(prefix)) {
-					Command<PrivateMessageReceivedEvent, PrivateMessageCommandContext> command = this.aliasMap.get(firstComponent.substring(prefix.length()));
-					if (command != null) {
-						MessageChannel channel = event.getChannel();
-						FeedbackHandler feedbackHandler = this.feedbackHandlerBuilder.build(channel);
-						BuiltInExceptionProvider provider = this.exceptionProviderFunction.apply(channel);
-						PrivateMessageCommandContext.Builder builder = (PrivateMessageCommandContext.Builder) CommandContextBuilder.disparseRoot(new PrivateMessageCommandContext.Builder(event, this.commandPropertyMap.getPropertyMap(command), channel, feedbackHandler, provider, MessageReader.create(provider, event.getMessage())), command.getRootNode());
-						if (builder.getException() != null) {
-							feedbackHandler.sendError(builder.getException());
-						} else if (builder.getConsumer() != null) {
-							try {
-								command.processCommand(builder.build(), builder.getConsumer());
-							} catch (CommandException commandException) {
-								feedbackHandler.sendError(commandException);
-							} catch (Exception exception) {
-								exception.printStackTrace();
-								feedbackHandler.sendError(exception);
-							}
-						}
-					}
-				}
+			if (this.isPrefixResolvedInline()) {
+				this.handleMessage(event);
+			} else {
+				this.dispatchMessage(event, () -> this.handleMessage(event));
+			}
+		}
+	}
+
+	private void handleMessage(PrivateMessageReceivedEvent event) {
+		CommandRegistry<PrivateMessageReceivedEvent, PrivateMessageCommandContext> registry = this.getRegistry();
+		Command<PrivateMessageReceivedEvent, PrivateMessageCommandContext> command = this.findCommand(registry, event, event.getMessage().getContentRaw());
+		if (command != null && this.tryAcquireCooldown(registry, event, command)) {
+			CommandTrace trace = this.startTrace(command);
+			this.dispatch(event, command, trace, () -> {
+				MessageChannel channel = event.getChannel();
+				FeedbackHandler feedbackHandler = this.feedbackHandlerBuilder.build(channel);
+				BuiltInExceptionProvider provider = this.exceptionProviderFunction.apply(channel);
+				long start = this.startPhase();
+				PrivateMessageCommandContext.Builder builder = (PrivateMessageCommandContext.Builder) CommandContextBuilder.disparseRoot(this.localize(registry, command, new PrivateMessageCommandContext.Builder(event, registry.getPropertyMap(command), channel, feedbackHandler, provider, MessageReader.create(provider, event.getMessage())).setTrace(trace)), command.getRootNode());
+				this.recordPhase(command, CommandMetrics.Phase.DISPARSE, start);
+				this.processCommand(event, command, builder, feedbackHandler);
 			});
 		}
 	}
@@ -66,6 +92,8 @@ public class PrivateCommandHandler extends AbstractCommandHandler<PrivateMessage
 	public static class Builder extends AbstractCommandHandlerBuilder<PrivateMessageReceivedEvent, PrivateMessageCommandContext, PrivateCommandHandler, Builder> {
 		/**
 		 * Sets a prefix for the {@link PrivateCommandHandler} using the {@link User} that's the author of the event as the function parameter.
+		 * <p>The function may block, so the handler hands every message off to its executor before calling it.
+		 * Use {@link #setPrefixCache(PrefixCache)} to only hand off commands.</p>
 		 *
 		 * @param prefixFunction The prefix function to set.
 		 * @return This builder.
@@ -91,7 +119,11 @@ public class PrivateCommandHandler extends AbstractCommandHandler<PrivateMessage
 		@Override
 		public PrivateCommandHandler build() {
 			PrivateCommandHandler commandHandler = new PrivateCommandHandler(CommandPropertyMap.create(this.commandPropertyMap), this.prefixFunction, this.feedbackHandlerBuilder, this.exceptionProviderFunction, this.executorService);
-			commandHandler.aliasMap.putAll(this.aliasMap);
+			commandHandler.setIgnoreAliasCase(this.ignoreAliasCase);
+			commandHandler.setMetrics(this.metrics);
+			commandHandler.setTracer(this.tracer);
+			commandHandler.setLocaleResolver(this.localeResolver, this.localizedMessageCacheSize);
+			commandHandler.registerAliases(this.aliasMap);
 			return commandHandler;
 		}
 	}
@@ -1,8 +1,12 @@
 package net.smelly.disparser.context.tree;
 
 import net.dv8tion.jda.api.events.Event;
+import net.smelly.disparser.AsyncArgument;
 import net.smelly.disparser.ConfiguredArgument;
 import net.smelly.disparser.MessageReader;
+import net.smelly.disparser.ParseResult;
+import net.smelly.disparser.ParsedArgument;
+import net.smelly.disparser.PrimitiveArgument;
 import net.smelly.disparser.context.CommandContext;
 import net.smelly.disparser.context.CommandContextBuilder;
 import net.smelly.disparser.context.ContextConsumer;
@@ -10,9 +14,12 @@ import net.smelly.disparser.context.Requirement;
 import net.smelly.disparser.feedback.CommandMessage;
 import net.smelly.disparser.feedback.exceptions.CommandException;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * A {@link DisparsingNode} extension representing an {@link ConfiguredArgument}.
@@ -25,14 +32,22 @@ import java.util.LinkedHashMap;
 @Immutable
 public final class ArgumentNode<E extends Event, C extends CommandContext<E>> extends DisparsingNode<E, C> {
 	private final ConfiguredArgument<?> argument;
+	@Nullable
+	private final PrimitiveArgument<?> primitiveArgument;
+	@Nullable
+	private final AsyncArgument<?> asyncArgument;
 
 	public ArgumentNode(LinkedHashMap<CommandMessage, DisparsingNode<E, C>> children, ConfiguredArgument<?> argument, Requirement<E> requirement, ContextConsumer<C> consumer) {
 		super(children, argument.getName(), requirement, consumer);
 		this.argument = argument;
+		this.primitiveArgument = argument.getArgument() instanceof PrimitiveArgument ? (PrimitiveArgument<?>) argument.getArgument() : null;
+		this.asyncArgument = argument.getArgument() instanceof AsyncArgument && ((AsyncArgument<?>) argument.getArgument()).isAsync() ? (AsyncArgument<?>) argument.getArgument() : null;
 	}
 
 	/**
 	 * Disparses this {@link ArgumentNode} for a given {@link CommandContextBuilder} and {@link MessageReader}.
+	 * <p>If this node's internal {@link #argument} is a {@link PrimitiveArgument}, its value gets added unboxed.
+	 * If it's an {@link AsyncArgument}, its lookup gets started and it gets added as a pending argument.</p>
 	 *
 	 * @param builder A {@link CommandContextBuilder} to disparse this node for.
 	 * @param reader  A {@link MessageReader} for reading the next argument.
@@ -40,10 +55,39 @@ public final class ArgumentNode<E extends Event, C extends CommandContext<E>> ex
 	 */
 	@Override
 	public void disparse(CommandContextBuilder<E, C> builder, MessageReader reader) throws CommandException {
-		builder.addArgument(this.argument.parse(reader));
+		Supplier<CommandException> failure = this.tryDisparse(builder, reader);
+		if (failure != null) {
+			throw failure.get();
+		}
+	}
+
+	@Nullable
+	@Override
+	public Supplier<CommandException> tryDisparse(CommandContextBuilder<E, C> builder, MessageReader reader) {
+		PrimitiveArgument<?> primitiveArgument = this.primitiveArgument;
+		if (primitiveArgument != null) {
+			long value = primitiveArgument.tryParsePrimitive(reader);
+			if (reader.hasReadFailed()) {
+				return reader.getReadFailure();
+			}
+			builder.addPrimitiveArgument(primitiveArgument, value);
+		} else if (this.asyncArgument != null) {
+			ParseResult<? extends CompletableFuture<? extends ParsedArgument<?>>> result = this.asyncArgument.tryParseAsync(reader);
+			if (!result.isSuccess()) {
+				return result.getFailure();
+			}
+			builder.addPendingArgument(result.getArgument().getResult());
+		} else {
+			ParseResult<?> result = this.argument.tryParse(reader);
+			if (!result.isSuccess()) {
+				return result.getFailure();
+			}
+			builder.addArgument(result.getArgument());
+		}
 		if (this.getConsumer() != null) {
 			builder.setConsumer(this.getConsumer());
 		}
+		return null;
 	}
 
 	@Override
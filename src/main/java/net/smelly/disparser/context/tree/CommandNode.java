@@ -7,11 +7,14 @@ import net.smelly.disparser.context.CommandContextBuilder;
 import net.smelly.disparser.context.ContextConsumer;
 import net.smelly.disparser.context.Requirement;
 import net.smelly.disparser.feedback.CommandMessage;
+import net.smelly.disparser.feedback.exceptions.BuiltInExceptionProvider;
 import net.smelly.disparser.feedback.exceptions.CommandException;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.LinkedHashMap;
+import java.util.function.Supplier;
 
 /**
  * A {@link DisparsingNode} extension representing a sub-command as an argument.
@@ -37,12 +40,25 @@ public final class CommandNode<E extends Event, C extends CommandContext<E>> ext
 	 */
 	@Override
 	public void disparse(CommandContextBuilder<E, C> builder, MessageReader reader) throws CommandException {
-		String nextArg = reader.nextArgument();
-		if (nextArg.equalsIgnoreCase(this.getName(reader.getMessage().getChannel()))) {
+		Supplier<CommandException> failure = this.tryDisparse(builder, reader);
+		if (failure != null) {
+			throw failure.get();
+		}
+	}
+
+	@Nullable
+	@Override
+	public Supplier<CommandException> tryDisparse(CommandContextBuilder<E, C> builder, MessageReader reader) {
+		int component = reader.tryNextComponent();
+		if (reader.hasReadFailed()) {
+			return reader.getReadFailure();
+		}
+		if (reader.componentEqualsIgnoreCase(component, builder.getName(this))) {
 			builder.setConsumer(this.getConsumer());
-		} else {
-			throw builder.getExceptionProvider().getInvalidCommandArgumentException().create(nextArg, reader.getIndex());
+			return null;
 		}
+		BuiltInExceptionProvider exceptionProvider = builder.getExceptionProvider();
+		return () -> exceptionProvider.getInvalidCommandArgumentException().create(reader.getComponent(component), component);
 	}
 
 	@Override
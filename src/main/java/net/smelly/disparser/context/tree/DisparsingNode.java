@@ -9,17 +9,19 @@ import net.smelly.disparser.context.ContextConsumer;
 import net.smelly.disparser.context.Requirement;
 import net.smelly.disparser.feedback.CommandMessage;
 import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.util.ComponentIndex;
 import org.apache.commons.collections4.map.UnmodifiableMap;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
-import java.util.Collection;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * An immutable node class that represents an argument to be disparsed.
  * <p>These nodes make up trees that can be disparsed from a {@link net.dv8tion.jda.api.entities.Message} to build a {@link CommandContext}</p>
+ * <p>When a node gets constructed its children get compiled into a dispatch structure, where the {@link CommandNode} children get indexed by their names ignoring case and the rest of the children get tried in order after a literal lookup misses.
+ * The {@link CommandNode} children with {@link CommandMessage#isChannelDependent() channel dependent} names get flagged, so only their names get rendered for the channel when the index misses.</p>
  *
  * @param <E> The type of {@link Event} this node disparses for.
  * @param <C> The type of {@link CommandContext} this node builds for.
@@ -35,12 +37,35 @@ public abstract class DisparsingNode<E extends Event, C extends CommandContext<E
 	private final Requirement<E> requirement;
 	@Nullable
 	private final ContextConsumer<C> consumer;
+	private final List<DisparsingNode<E, C>> literalChildren;
+	private final List<DisparsingNode<E, C>> argumentChildren;
+	private final List<DisparsingNode<E, C>> channelDependentLiterals;
+	private final ComponentIndex<DisparsingNode<E, C>> literalIndex;
 
 	public DisparsingNode(LinkedHashMap<CommandMessage, DisparsingNode<E, C>> children, CommandMessage name, Requirement<E> requirement, @Nullable ContextConsumer<C> consumer) {
 		this.children = UnmodifiableMap.unmodifiableMap(new LinkedHashMap<>(children));
 		this.name = name;
 		this.requirement = requirement;
 		this.consumer = consumer;
+		List<DisparsingNode<E, C>> literalChildren = new ArrayList<>();
+		List<DisparsingNode<E, C>> argumentChildren = new ArrayList<>();
+		List<DisparsingNode<E, C>> channelDependentLiterals = new ArrayList<>();
+		Map<String, DisparsingNode<E, C>> literals = new LinkedHashMap<>();
+		for (DisparsingNode<E, C> child : children.values()) {
+			if (child instanceof CommandNode) {
+				literalChildren.add(child);
+				literals.putIfAbsent(child.getName(null), child);
+				if (child.name.isChannelDependent()) {
+					channelDependentLiterals.add(child);
+				}
+			} else {
+				argumentChildren.add(child);
+			}
+		}
+		this.literalChildren = Collections.unmodifiableList(literalChildren);
+		this.argumentChildren = Collections.unmodifiableList(argumentChildren);
+		this.channelDependentLiterals = channelDependentLiterals.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(channelDependentLiterals);
+		this.literalIndex = ComponentIndex.create(literals, true);
 	}
 
 	/**
@@ -53,6 +78,24 @@ public abstract class DisparsingNode<E extends Event, C extends CommandContext<E
 	 */
 	public abstract void disparse(CommandContextBuilder<E, C> builder, MessageReader reader) throws CommandException;
 
+	/**
+	 * Tries to disparse this node without throwing, which is what {@link CommandContextBuilder#disparse(CommandContextBuilder, DisparsingNode)} uses to try children.
+	 * <p>By default this adapts {@link #disparse(CommandContextBuilder, MessageReader)}, but nodes should override this so that failing to disparse doesn't create an exception.</p>
+	 *
+	 * @param builder A {@link CommandContextBuilder} to disparse this node for.
+	 * @param reader  A {@link MessageReader} for reading the next argument.
+	 * @return Null if this node disparsed successfully, otherwise a {@link Supplier} to lazily create the {@link CommandException} describing why it failed.
+	 */
+	@Nullable
+	public Supplier<CommandException> tryDisparse(CommandContextBuilder<E, C> builder, MessageReader reader) {
+		try {
+			this.disparse(builder, reader);
+			return null;
+		} catch (CommandException exception) {
+			return () -> exception;
+		}
+	}
+
 	/**
 	 * Gets this node's child nodes.
 	 *
@@ -62,6 +105,87 @@ public abstract class DisparsingNode<E extends Event, C extends CommandContext<E
 		return this.children.values();
 	}
 
+	/**
+	 * Gets this node's child {@link CommandNode}s, in the order of {@link #getChildren()}.
+	 *
+	 * @return An unmodifiable {@link List} of this node's child {@link CommandNode}s.
+	 */
+	public List<DisparsingNode<E, C>> getLiteralChildren() {
+		return this.literalChildren;
+	}
+
+	/**
+	 * Gets this node's children that aren't {@link CommandNode}s, in the order of {@link #getChildren()}.
+	 * <p>These children get tried in order after a literal lookup misses.</p>
+	 *
+	 * @return An unmodifiable {@link List} of this node's children that aren't {@link CommandNode}s.
+	 */
+	public List<DisparsingNode<E, C>> getArgumentChildren() {
+		return this.argumentChildren;
+	}
+
+	/**
+	 * Gets this node's child {@link CommandNode}s with {@link CommandMessage#isChannelDependent() channel dependent} names, in the order of {@link #getChildren()}.
+	 * <p>These are the only children whose names get rendered for the channel when a literal lookup misses.</p>
+	 *
+	 * @return An unmodifiable {@link List} of this node's child {@link CommandNode}s with channel dependent names.
+	 */
+	public List<DisparsingNode<E, C>> getChannelDependentLiterals() {
+		return this.channelDependentLiterals;
+	}
+
+	/**
+	 * Looks up the child {@link CommandNode} matching a component of a {@link MessageReader}, ignoring case.
+	 * <p>The lookup is done in the compiled index of the literal names for no channel, so it doesn't allocate.
+	 * If that misses, the names of the {@link #getChannelDependentLiterals() channel dependent literals} for the given channel get compared, so channel dependent names still match. Literals with constant names never get rendered again.</p>
+	 *
+	 * @param reader    A {@link MessageReader} to read the component from.
+	 * @param component The index of the component to look up.
+	 * @param channel   A {@link MessageChannel} to get the names of the literals for.
+	 * @return The child {@link CommandNode} matching the component, or null if there is none.
+	 */
+	@Nullable
+	public DisparsingNode<E, C> findLiteralChild(MessageReader reader, int component, @Nullable MessageChannel channel) {
+		if (this.literalChildren.isEmpty()) return null;
+		DisparsingNode<E, C> literal = this.literalIndex.get(reader.getContent(), reader.getComponentStart(component), reader.getComponentEnd(component));
+		if (literal == null && channel != null) {
+			for (DisparsingNode<E, C> child : this.channelDependentLiterals) {
+				if (reader.componentEqualsIgnoreCase(component, child.getName(channel))) {
+					return child;
+				}
+			}
+		}
+		return literal;
+	}
+
+	/**
+	 * Looks up the child {@link CommandNode} matching a component of a {@link MessageReader}, ignoring case.
+	 * <p>If the {@link CommandContextBuilder} has a {@link CommandContextBuilder#getLocalizedTree() localized tree}, the lookup is done in this node's index for the tree's locale, so no names get rendered.
+	 * Otherwise this works like {@link #findLiteralChild(MessageReader, int, MessageChannel)}, except the names of the literals get rendered through the {@link CommandContextBuilder}, so they only get rendered once for each locale when it has {@link CommandContextBuilder#getLocalizedMessages() localized messages}.</p>
+	 *
+	 * @param reader    A {@link MessageReader} to read the component from.
+	 * @param component The index of the component to look up.
+	 * @param builder   The {@link CommandContextBuilder} being disparsed onto.
+	 * @return The child {@link CommandNode} matching the component, or null if there is none.
+	 */
+	@Nullable
+	public DisparsingNode<E, C> findLiteralChild(MessageReader reader, int component, CommandContextBuilder<E, C> builder) {
+		if (this.literalChildren.isEmpty()) return null;
+		LocalizedTree<E, C> localizedTree = builder.getLocalizedTree();
+		if (localizedTree != null) {
+			return localizedTree.findLiteralChild(this, reader, component);
+		}
+		DisparsingNode<E, C> literal = this.literalIndex.get(reader.getContent(), reader.getComponentStart(component), reader.getComponentEnd(component));
+		if (literal == null && builder.getChannel() != null) {
+			for (DisparsingNode<E, C> child : this.channelDependentLiterals) {
+				if (reader.componentEqualsIgnoreCase(component, builder.getName(child))) {
+					return child;
+				}
+			}
+		}
+		return literal;
+	}
+
 	/**
 	 * Gets the name of this node for a given {@link MessageChannel}.
 	 *
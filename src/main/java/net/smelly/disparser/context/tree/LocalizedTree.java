@@ -0,0 +1,122 @@
+package net.smelly.disparser.context.tree;
+
+import net.dv8tion.jda.api.events.Event;
+import net.smelly.disparser.MessageReader;
+import net.smelly.disparser.context.CommandContext;
+import net.smelly.disparser.feedback.CommandMessage;
+import net.smelly.disparser.util.ComponentIndex;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A tree of {@link DisparsingNode}s compiled for a single {@link Locale}.
+ * <p>The names of every node in the tree get rendered once when it's compiled, and the {@link CommandNode} children of each node get indexed by their names for the locale ignoring case.
+ * Looking up a literal child or the name of a node in a compiled tree never reads a {@link CommandMessage}.</p>
+ *
+ * @param <E> The type of {@link Event} the tree disparses for.
+ * @param <C> The type of {@link CommandContext} the tree builds for.
+ * @author Luke Tonon
+ * @see net.smelly.disparser.context.handlers.CommandRegistry#getLocalizedTree(net.smelly.disparser.Command, net.smelly.disparser.feedback.LocalizedMessageCache.LocalizedMessages, net.dv8tion.jda.api.entities.MessageChannel)
+ */
+@Immutable
+public final class LocalizedTree<E extends Event, C extends CommandContext<E>> {
+	private final Locale locale;
+	private final IdentityHashMap<DisparsingNode<E, C>, String> names;
+	private final IdentityHashMap<DisparsingNode<E, C>, ComponentIndex<DisparsingNode<E, C>>> literalIndexes;
+
+	private LocalizedTree(Locale locale, IdentityHashMap<DisparsingNode<E, C>, String> names, IdentityHashMap<DisparsingNode<E, C>, ComponentIndex<DisparsingNode<E, C>>> literalIndexes) {
+		this.locale = locale;
+		this.names = names;
+		this.literalIndexes = literalIndexes;
+	}
+
+	/**
+	 * Compiles a tree of nodes for a {@link Locale}.
+	 *
+	 * @param rootNode The {@link RootNode} of the tree to compile.
+	 * @param locale   The {@link Locale} to compile the tree for.
+	 * @param renderer A {@link Function} to render the names of the nodes for the locale.
+	 * @param <E>      The type of {@link Event} the tree disparses for.
+	 * @param <C>      The type of {@link CommandContext} the tree builds for.
+	 * @return A new {@link LocalizedTree} of the nodes compiled for the {@link Locale}.
+	 */
+	public static <E extends Event, C extends CommandContext<E>> LocalizedTree<E, C> compile(RootNode<E, C> rootNode, Locale locale, Function<CommandMessage, String> renderer) {
+		IdentityHashMap<DisparsingNode<E, C>, String> names = new IdentityHashMap<>();
+		IdentityHashMap<DisparsingNode<E, C>, ComponentIndex<DisparsingNode<E, C>>> literalIndexes = new IdentityHashMap<>();
+		Deque<DisparsingNode<E, C>> nodes = new ArrayDeque<>();
+		nodes.push(rootNode);
+		names.put(rootNode, renderer.apply(rootNode.getName()));
+		while (!nodes.isEmpty()) {
+			DisparsingNode<E, C> node = nodes.pop();
+			for (DisparsingNode<E, C> child : node.getChildren()) {
+				if (!names.containsKey(child)) {
+					names.put(child, renderer.apply(child.getName()));
+					nodes.push(child);
+				}
+			}
+			if (!node.getLiteralChildren().isEmpty()) {
+				Map<String, DisparsingNode<E, C>> literals = new LinkedHashMap<>();
+				for (DisparsingNode<E, C> child : node.getLiteralChildren()) {
+					literals.putIfAbsent(names.get(child), child);
+				}
+				literalIndexes.put(node, ComponentIndex.create(literals, true));
+			}
+		}
+		return new LocalizedTree<>(locale, names, literalIndexes);
+	}
+
+	/**
+	 * Looks up the child {@link CommandNode} of a node matching a component of a {@link MessageReader} by its name for this tree's locale, ignoring case.
+	 *
+	 * @param node      A {@link DisparsingNode} in this tree to look up the child of.
+	 * @param reader    A {@link MessageReader} to read the component from.
+	 * @param component The index of the component to look up.
+	 * @return The child {@link CommandNode} matching the component, or null if there is none.
+	 */
+	@Nullable
+	public DisparsingNode<E, C> findLiteralChild(DisparsingNode<E, C> node, MessageReader reader, int component) {
+		ComponentIndex<DisparsingNode<E, C>> literalIndex = this.literalIndexes.get(node);
+		return literalIndex != null ? literalIndex.get(reader.getContent(), reader.getComponentStart(component), reader.getComponentEnd(component)) : null;
+	}
+
+	/**
+	 * Gets the name of a node for this tree's locale.
+	 *
+	 * @param node A {@link DisparsingNode} to get the name of.
+	 * @return The name of the node for this tree's locale, or null if the node isn't in this tree.
+	 */
+	@Nullable
+	public String getName(DisparsingNode<?, ?> node) {
+		return this.names.get(node);
+	}
+
+	/**
+	 * @return The {@link Locale} this tree was compiled for.
+	 */
+	public Locale getLocale() {
+		return this.locale;
+	}
+
+	/**
+	 * @return The number of nodes in this tree.
+	 */
+	public int size() {
+		return this.names.size();
+	}
+
+	@Override
+	public String toString() {
+		return "LocalizedTree{" +
+				"locale=" + this.locale +
+				", nodes=" + this.names.size() +
+				'}';
+	}
+}
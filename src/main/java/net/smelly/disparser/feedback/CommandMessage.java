@@ -23,4 +23,16 @@ public interface CommandMessage {
 	 */
 	@Nonnull
 	String getMessage(@Nullable MessageChannel channel);
+
+	/**
+	 * Checks if this message may render differently for different channels.
+	 * <p>Nodes use this when they get built to find the literal children whose names need to be rendered for the channel of each message, and the rest only get looked up by their name for no channel.
+	 * This is false by default, so messages that render differently for different channels, like translatable messages, should override this to return true when they get used as the name of a {@link net.smelly.disparser.context.tree.CommandNode}.
+	 * Names of nodes looked up through a localized tree get rendered for each locale either way.</p>
+	 *
+	 * @return If this message may render differently for different channels.
+	 */
+	default boolean isChannelDependent() {
+		return false;
+	}
 }
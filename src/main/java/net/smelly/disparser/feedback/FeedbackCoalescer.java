@@ -0,0 +1,468 @@
+package net.smelly.disparser.feedback;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.requests.restaction.MessageAction;
+import net.smelly.disparser.concurrent.DisparsingThreadFactory;
+import net.smelly.disparser.feedback.exceptions.CommandException;
+import net.smelly.disparser.util.MessageUtil;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A {@link FeedbackHandlerBuilder} that coalesces the feedback sent to each channel over a short window, so it gets sent in as few messages as possible.
+ * <p>The first feedback sent to a channel starts its window, and everything sent to the channel until the window ends gets merged and sent at once.
+ * Feedback gets merged in the order it was sent: text gets joined into the content of a message, a success or error following text becomes the embed of the same message, and consecutive successes or consecutive errors get listed in a single embed.
+ * Merged messages stay within {@link Message#MAX_CONTENT_LENGTH} characters of content and {@link MessageEmbed#TEXT_MAX_LENGTH} characters of embed description, so a command sending several lines or a burst of failing commands in a channel only takes a few requests and rate limit waits.</p>
+ * <p>Use {@link net.smelly.disparser.context.handlers.AbstractCommandHandlerBuilder#setFeedbackBuilder(FeedbackHandlerBuilder)} to use a coalescer for a command handler. A coalescer can be shared by any number of handlers, and should be {@link #shutdown() shut down} along with them.</p>
+ *
+ * @author Luke Tonon
+ * @see Builder
+ * @see SimpleFeedbackHandler
+ */
+@ThreadSafe
+public final class FeedbackCoalescer implements FeedbackHandlerBuilder {
+	private final ConcurrentHashMap<Long, ChannelBuffer> buffers = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService scheduler;
+	private final boolean ownsScheduler;
+	private final long windowNanos;
+	private volatile boolean shutdown;
+	private final LongAdder received = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder sent = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final Consumer<Throwable> failureCallback = throwable -> this.failed.increment();
+
+	private FeedbackCoalescer(ScheduledExecutorService scheduler, boolean ownsScheduler, long windowNanos) {
+		this.scheduler = scheduler;
+		this.ownsScheduler = ownsScheduler;
+		this.windowNanos = windowNanos;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link FeedbackCoalescer}.
+	 *
+	 * @return A new {@link Builder}.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Builds a {@link FeedbackHandler} that coalesces the feedback it sends with all other feedback sent to the same channel.
+	 *
+	 * @param channel The {@link MessageChannel} for building this {@link FeedbackHandler}.
+	 * @return A {@link FeedbackHandler} that coalesces the feedback it sends.
+	 */
+	@Override
+	public FeedbackHandler build(MessageChannel channel) {
+		return new CoalescingFeedbackHandler(this, channel);
+	}
+
+	/**
+	 * Sends all the feedback waiting to be sent right away, without waiting for the windows of the channels to end.
+	 */
+	public void flush() {
+		for (ChannelBuffer buffer : this.buffers.values()) {
+			this.flush(buffer);
+		}
+	}
+
+	/**
+	 * Sends all the feedback waiting to be sent, and shuts down the scheduler of this coalescer if it created it.
+	 * <p>Feedback sent after this gets sent right away without being coalesced, whether or not the scheduler was set with {@link Builder#setScheduler(ScheduledExecutorService)}.</p>
+	 */
+	public void shutdown() {
+		this.shutdown = true;
+		if (this.ownsScheduler) {
+			this.scheduler.shutdown();
+		}
+		this.flush();
+	}
+
+	/**
+	 * @return The amount of channels that have feedback waiting to be sent.
+	 */
+	public int getPendingChannels() {
+		return this.buffers.size();
+	}
+
+	/**
+	 * @return How long the window of a channel lasts, in nanoseconds.
+	 */
+	public long getWindowNanos() {
+		return this.windowNanos;
+	}
+
+	/**
+	 * @return A snapshot of this coalescer's {@link Stats}.
+	 */
+	public Stats getStats() {
+		return new Stats(this.received.sum(), this.coalesced.sum(), this.sent.sum(), this.failed.sum());
+	}
+
+	private void offer(MessageChannel channel, Kind kind, @Nullable String text, @Nullable MessageEmbed embed) {
+		this.received.increment();
+		Long key = channel.getIdLong();
+		while (true) {
+			ChannelBuffer buffer = this.buffers.get(key);
+			if (buffer == null) {
+				ChannelBuffer created = new ChannelBuffer(key, channel);
+				buffer = this.buffers.putIfAbsent(key, created);
+				if (buffer == null) {
+					buffer = created;
+				}
+			}
+			boolean schedule;
+			synchronized (buffer) {
+				// A buffer gets closed once it has been flushed, so feedback sent after that goes into a new buffer.
+				if (buffer.closed) continue;
+				if (buffer.add(kind, text, embed)) {
+					this.coalesced.increment();
+				}
+				schedule = !buffer.scheduled;
+				buffer.scheduled = true;
+			}
+			if (schedule && !this.shutdown) {
+				ChannelBuffer scheduled = buffer;
+				try {
+					this.scheduler.schedule(() -> this.flush(scheduled), this.windowNanos, TimeUnit.NANOSECONDS);
+				} catch (RejectedExecutionException exception) {
+					this.flush(scheduled);
+				}
+			}
+			// Checked again after scheduling, as a scheduler set on the builder keeps running after this coalescer gets shut down.
+			if (this.shutdown) {
+				this.flush(buffer);
+			}
+			return;
+		}
+	}
+
+	private void flush(ChannelBuffer buffer) {
+		List<PendingMessage> messages;
+		synchronized (buffer) {
+			buffer.closed = true;
+			messages = buffer.messages;
+			buffer.messages = Collections.emptyList();
+		}
+		this.buffers.remove(buffer.key, buffer);
+		for (PendingMessage message : messages) {
+			this.send(buffer.channel, message);
+		}
+	}
+
+	private void send(MessageChannel channel, PendingMessage message) {
+		try {
+			MessageEmbed embed = message.buildEmbed();
+			MessageAction action;
+			if (message.content != null) {
+				action = channel.sendMessage(message.content);
+				if (embed != null) {
+					action = action.embed(embed);
+				}
+			} else {
+				action = channel.sendMessage(Objects.requireNonNull(embed));
+			}
+			action.queue(null, this.failureCallback);
+			this.sent.increment();
+		} catch (RuntimeException exception) {
+			this.failed.increment();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FeedbackCoalescer{" +
+				"windowNanos=" + this.windowNanos +
+				", pendingChannels=" + this.buffers.size() +
+				", stats=" + this.getStats() +
+				'}';
+	}
+
+	private enum Kind {
+		TEXT,
+		SUCCESS,
+		ERROR,
+		EMBED
+	}
+
+	/**
+	 * The feedback waiting to be sent to a channel.
+	 */
+	private static final class ChannelBuffer {
+		private final Long key;
+		private final MessageChannel channel;
+		@GuardedBy("this")
+		private List<PendingMessage> messages = new ArrayList<>(2);
+		@GuardedBy("this")
+		private boolean scheduled;
+		@GuardedBy("this")
+		private boolean closed;
+
+		private ChannelBuffer(Long key, MessageChannel channel) {
+			this.key = key;
+			this.channel = channel;
+		}
+
+		/**
+		 * Adds feedback to this buffer, merging it into the last message if it fits.
+		 *
+		 * @return If the feedback was merged into a message that was already waiting to be sent.
+		 */
+		@GuardedBy("this")
+		private boolean add(Kind kind, @Nullable String text, @Nullable MessageEmbed embed) {
+			int size = this.messages.size();
+			if (size > 0 && this.messages.get(size - 1).add(kind, text, embed)) {
+				return true;
+			}
+			PendingMessage message = new PendingMessage();
+			message.add(kind, text, embed);
+			this.messages.add(message);
+			return false;
+		}
+	}
+
+	/**
+	 * A message waiting to be sent, made up of the content of the text merged into it and a single embed.
+	 */
+	@NotThreadSafe
+	private static final class PendingMessage {
+		@Nullable
+		private StringBuilder content;
+		@Nullable
+		private Kind embedKind;
+		@Nullable
+		private List<String> lines;
+		private int descriptionLength;
+		@Nullable
+		private MessageEmbed embed;
+
+		/**
+		 * Merges feedback into this message. Feedback always gets merged into an empty message, even if it's too long.
+		 *
+		 * @return If the feedback was merged into this message.
+		 */
+		private boolean add(Kind kind, @Nullable String text, @Nullable MessageEmbed embed) {
+			switch (kind) {
+				case TEXT:
+					// Content shows above the embed, so text can't follow an embed in the same message.
+					if (this.embedKind != null) return false;
+					if (this.content == null) {
+						this.content = new StringBuilder(text);
+						return true;
+					}
+					if (this.content.length() + 1 + text.length() > Message.MAX_CONTENT_LENGTH) return false;
+					this.content.append('\n').append(text);
+					return true;
+				case EMBED:
+					if (this.embedKind != null) return false;
+					this.embedKind = Kind.EMBED;
+					this.embed = embed;
+					return true;
+				default:
+					int length = kind == Kind.ERROR ? MessageUtil.ERROR_REASON_PREFIX.length() + text.length() : text.length();
+					if (this.embedKind == null) {
+						this.embedKind = kind;
+						this.lines = new ArrayList<>(2);
+						this.lines.add(text);
+						this.descriptionLength = length;
+						return true;
+					}
+					if (this.embedKind != kind || this.descriptionLength + 1 + length > MessageEmbed.TEXT_MAX_LENGTH) return false;
+					this.lines.add(text);
+					this.descriptionLength += 1 + length;
+					return true;
+			}
+		}
+
+		@Nullable
+		private MessageEmbed buildEmbed() {
+			if (this.embedKind == null) return null;
+			switch (this.embedKind) {
+				case SUCCESS:
+					return MessageUtil.createSuccessfulMessage(this.lines);
+				case ERROR:
+					return MessageUtil.createErrorMessage(this.lines);
+				default:
+					return this.embed;
+			}
+		}
+	}
+
+	/**
+	 * A {@link FeedbackHandler} that hands the feedback it sends to a {@link FeedbackCoalescer}.
+	 */
+	@ThreadSafe
+	private static final class CoalescingFeedbackHandler implements FeedbackHandler {
+		private final FeedbackCoalescer coalescer;
+		private final MessageChannel channel;
+
+		private CoalescingFeedbackHandler(FeedbackCoalescer coalescer, MessageChannel channel) {
+			this.coalescer = coalescer;
+			this.channel = channel;
+		}
+
+		@Override
+		public void sendFeedback(CommandMessage commandMessage) {
+			this.coalescer.offer(this.channel, Kind.TEXT, commandMessage.getMessage(this.channel), null);
+		}
+
+		@Override
+		public void sendFeedback(MessageEmbed messageEmbed) {
+			this.coalescer.offer(this.channel, Kind.EMBED, null, messageEmbed);
+		}
+
+		@Override
+		public void sendSuccess(CommandMessage message) {
+			this.coalescer.offer(this.channel, Kind.SUCCESS, message.getMessage(this.channel), null);
+		}
+
+		@Override
+		public void sendError(Exception exception) {
+			String message;
+			if (exception instanceof CommandException) {
+				message = ((CommandException) exception).getCommandMessage().getMessage(this.channel);
+			} else {
+				message = exception.getMessage();
+				if (message == null) {
+					message = "Unknown";
+				}
+			}
+			this.coalescer.offer(this.channel, Kind.ERROR, message, null);
+		}
+	}
+
+	/**
+	 * A snapshot of the statistics of a {@link FeedbackCoalescer}.
+	 */
+	@Immutable
+	public static final class Stats {
+		private final long receivedCount;
+		private final long coalescedCount;
+		private final long sentCount;
+		private final long failedCount;
+
+		private Stats(long receivedCount, long coalescedCount, long sentCount, long failedCount) {
+			this.receivedCount = receivedCount;
+			this.coalescedCount = coalescedCount;
+			this.sentCount = sentCount;
+			this.failedCount = failedCount;
+		}
+
+		/**
+		 * @return The amount of feedback sent to the coalescer, such as texts, successes, and errors.
+		 */
+		public long getReceivedCount() {
+			return this.receivedCount;
+		}
+
+		/**
+		 * @return The amount of feedback merged into a message that was already waiting to be sent, each of which saved a request.
+		 */
+		public long getCoalescedCount() {
+			return this.coalescedCount;
+		}
+
+		/**
+		 * @return The amount of messages sent to Discord.
+		 */
+		public long getSentCount() {
+			return this.sentCount;
+		}
+
+		/**
+		 * @return The amount of messages that failed to send.
+		 */
+		public long getFailedCount() {
+			return this.failedCount;
+		}
+
+		/**
+		 * @return The ratio of feedback merged into other messages to feedback received, or 0 if no feedback was received.
+		 */
+		public double getCoalescingRate() {
+			return this.receivedCount == 0L ? 0.0D : (double) this.coalescedCount / this.receivedCount;
+		}
+
+		@Override
+		public String toString() {
+			return "Stats{" +
+					"receivedCount=" + this.receivedCount +
+					", coalescedCount=" + this.coalescedCount +
+					", sentCount=" + this.sentCount +
+					", failedCount=" + this.failedCount +
+					'}';
+		}
+	}
+
+	/**
+	 * A builder for {@link FeedbackCoalescer}s.
+	 * <p>By default a coalescer has a window of 250 milliseconds and creates its own scheduler.</p>
+	 */
+	@NotThreadSafe
+	public static final class Builder {
+		private long windowNanos = TimeUnit.MILLISECONDS.toNanos(250L);
+		@Nullable
+		private ScheduledExecutorService scheduler;
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets how long feedback sent to a channel waits to be coalesced with other feedback before it gets sent.
+		 *
+		 * @param duration The duration, or 0 to only coalesce feedback sent at the same time.
+		 * @param unit     The {@link TimeUnit} of the duration.
+		 * @return This builder.
+		 * @throws IllegalArgumentException If the duration is negative.
+		 */
+		public Builder setWindow(long duration, TimeUnit unit) {
+			if (duration < 0L) {
+				throw new IllegalArgumentException("Duration cannot be negative");
+			}
+			this.windowNanos = unit.toNanos(duration);
+			return this;
+		}
+
+		/**
+		 * Sets the {@link ScheduledExecutorService} that coalesced feedback gets sent on.
+		 * <p>A scheduler set here doesn't get shut down by {@link FeedbackCoalescer#shutdown()}.</p>
+		 *
+		 * @param scheduler The {@link ScheduledExecutorService} to send coalesced feedback on.
+		 * @return This builder.
+		 */
+		public Builder setScheduler(ScheduledExecutorService scheduler) {
+			this.scheduler = Objects.requireNonNull(scheduler);
+			return this;
+		}
+
+		/**
+		 * Builds a {@link FeedbackCoalescer} from this builder.
+		 *
+		 * @return A new {@link FeedbackCoalescer} from this builder.
+		 */
+		public FeedbackCoalescer build() {
+			if (this.scheduler != null) {
+				return new FeedbackCoalescer(this.scheduler, false, this.windowNanos);
+			}
+			return new FeedbackCoalescer(Executors.newSingleThreadScheduledExecutor(new DisparsingThreadFactory("Feedback")), true, this.windowNanos);
+		}
+	}
+}
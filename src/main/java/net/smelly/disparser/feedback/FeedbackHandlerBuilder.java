@@ -10,6 +10,7 @@ import javax.annotation.concurrent.ThreadSafe;
  *
  * @author Luke Tonon
  * @see FeedbackHandler
+ * @see FeedbackCoalescer
  */
 @ThreadSafe
 @FunctionalInterface
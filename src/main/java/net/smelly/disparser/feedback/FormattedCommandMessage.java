@@ -4,24 +4,40 @@ import net.dv8tion.jda.api.entities.MessageChannel;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * An implementation of {@link CommandMessage} where a message is formatted with {@link String#format(String, Object...)}.
+ * <p>The message only gets formatted the first time it gets read, and the result gets reused after that. Because of this, the arguments passed in should be immutable.</p>
  *
  * @author Luke Tonon
  */
-@Immutable
+@ThreadSafe
 public final class FormattedCommandMessage implements CommandMessage {
-	private final String formattedMessage;
+	private final String message;
+	private final Object[] args;
+	@Nullable
+	private volatile String formattedMessage;
 
 	public FormattedCommandMessage(String message, Object... args) {
-		this.formattedMessage = String.format(message, args);
+		this.message = message;
+		this.args = args;
 	}
 
 	@Nonnull
 	@Override
 	public String getMessage(@Nullable MessageChannel channel) {
-		return this.formattedMessage;
+		String formattedMessage = this.formattedMessage;
+		if (formattedMessage == null) {
+			this.formattedMessage = formattedMessage = String.format(this.message, this.args);
+		}
+		return formattedMessage;
+	}
+
+	@Override
+	public String toString() {
+		return "FormattedCommandMessage{" +
+				"message='" + this.getMessage(null) + '\'' +
+				'}';
 	}
 }
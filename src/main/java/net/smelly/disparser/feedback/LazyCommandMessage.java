@@ -0,0 +1,68 @@
+package net.smelly.disparser.feedback;
+
+import net.dv8tion.jda.api.entities.MessageChannel;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.function.Supplier;
+
+/**
+ * An implementation of {@link CommandMessage} that only creates the {@link CommandMessage} it wraps the first time it gets read, then reuses it.
+ * <p>Exception creators use this so exceptions only hold onto their creator's function and raw arguments, and nothing gets formatted for exceptions that never get sent.</p>
+ * <p>Two threads reading a message at once may both create the wrapped message, so creating it must have no side effects.</p>
+ *
+ * @author Luke Tonon
+ * @see net.smelly.disparser.feedback.exceptions.DynamicCommandExceptionCreator
+ */
+@ThreadSafe
+public abstract class LazyCommandMessage implements CommandMessage {
+	@Nullable
+	private volatile CommandMessage message;
+
+	/**
+	 * Creates a new {@link LazyCommandMessage} that gets its {@link CommandMessage} from a {@link Supplier}.
+	 *
+	 * @param supplier A {@link Supplier} to create the {@link CommandMessage}.
+	 * @return A new {@link LazyCommandMessage} that gets its {@link CommandMessage} from a {@link Supplier}.
+	 */
+	public static LazyCommandMessage of(Supplier<CommandMessage> supplier) {
+		return new LazyCommandMessage() {
+			@Override
+			protected CommandMessage create() {
+				return supplier.get();
+			}
+		};
+	}
+
+	/**
+	 * Creates the {@link CommandMessage} this wraps. This only gets called the first time this message gets read.
+	 *
+	 * @return The {@link CommandMessage} this wraps.
+	 */
+	protected abstract CommandMessage create();
+
+	/**
+	 * @return The {@link CommandMessage} this wraps, creating it if it hasn't been yet.
+	 */
+	public CommandMessage get() {
+		CommandMessage message = this.message;
+		if (message == null) {
+			this.message = message = this.create();
+		}
+		return message;
+	}
+
+	@Nonnull
+	@Override
+	public String getMessage(@Nullable MessageChannel channel) {
+		return this.get().getMessage(channel);
+	}
+
+	@Override
+	public String toString() {
+		return "LazyCommandMessage{" +
+				"message=" + this.message +
+				'}';
+	}
+}
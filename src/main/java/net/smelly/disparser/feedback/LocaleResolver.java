@@ -0,0 +1,40 @@
+package net.smelly.disparser.feedback;
+
+import net.dv8tion.jda.api.entities.MessageChannel;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Locale;
+
+/**
+ * This interface is used to resolve the {@link Locale} that messages get rendered in for a {@link MessageChannel}.
+ * <p>Command handlers with a resolver resolve the locale of a message once, and then render the names of nodes and the messages of shared exceptions through a {@link LocalizedMessageCache}, so they get rendered once for each locale instead of once for every message.</p>
+ * <p>Using a resolver tells the handler that these {@link CommandMessage}s render the same for every channel with the same locale.</p>
+ *
+ * @author Luke Tonon
+ * @see LocalizedMessageCache
+ * @see net.smelly.disparser.context.handlers.AbstractCommandHandlerBuilder#setLocaleResolver(LocaleResolver)
+ */
+@ThreadSafe
+@FunctionalInterface
+public interface LocaleResolver {
+	/**
+	 * Creates a {@link LocaleResolver} that resolves the same {@link Locale} for every channel.
+	 *
+	 * @param locale The {@link Locale} to resolve.
+	 * @return A {@link LocaleResolver} that resolves the same {@link Locale} for every channel.
+	 */
+	static LocaleResolver constant(Locale locale) {
+		return channel -> locale;
+	}
+
+	/**
+	 * Resolves the {@link Locale} for a {@link MessageChannel}. This gets called once for every command, so it should be fast.
+	 *
+	 * @param channel The channel to resolve the {@link Locale} for, can be null.
+	 * @return The {@link Locale} to render messages in for the channel.
+	 */
+	@Nonnull
+	Locale getLocale(@Nullable MessageChannel channel);
+}
@@ -0,0 +1,166 @@
+package net.smelly.disparser.feedback;
+
+import net.dv8tion.jda.api.entities.MessageChannel;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A cache of rendered {@link CommandMessage}s for each {@link Locale}, used to render long-lived messages such as the names of nodes once for each locale instead of once for every message.
+ * <p>Messages are cached by {@link Object#equals(Object)}, which for most {@link CommandMessage}s is by identity, so only messages that live as long as the cache should be rendered through it.
+ * Each locale caches a bounded number of messages, and messages rendered after that get rendered every time instead.</p>
+ * <p>A message gets rendered for the first channel of a locale that reads it, so the messages rendered through this must render the same for every channel with the same locale.</p>
+ *
+ * @author Luke Tonon
+ * @see LocaleResolver
+ * @see LocalizedMessages
+ */
+@ThreadSafe
+public final class LocalizedMessageCache {
+	/**
+	 * The default maximum number of messages cached for each {@link Locale}.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+	private final ConcurrentHashMap<Locale, LocalizedMessages> locales = new ConcurrentHashMap<>();
+	private final Function<Locale, LocalizedMessages> factory;
+	private final int maximumSize;
+
+	private LocalizedMessageCache(int maximumSize) {
+		this.maximumSize = maximumSize;
+		this.factory = locale -> new LocalizedMessages(locale, maximumSize);
+	}
+
+	/**
+	 * Creates a new {@link LocalizedMessageCache} that caches up to {@link #DEFAULT_MAXIMUM_SIZE} messages for each {@link Locale}.
+	 *
+	 * @return A new {@link LocalizedMessageCache}.
+	 */
+	public static LocalizedMessageCache create() {
+		return create(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Creates a new {@link LocalizedMessageCache} that caches up to a maximum number of messages for each {@link Locale}.
+	 *
+	 * @param maximumSize The maximum number of messages to cache for each {@link Locale}.
+	 * @return A new {@link LocalizedMessageCache}.
+	 * @throws IllegalArgumentException If the size is less than 1.
+	 */
+	public static LocalizedMessageCache create(int maximumSize) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("Maximum size must be at least 1");
+		}
+		return new LocalizedMessageCache(maximumSize);
+	}
+
+	/**
+	 * Gets the {@link LocalizedMessages} of a {@link Locale}, creating them if this is the first time the locale has been used.
+	 * <p>This should be called once for every command, and the returned {@link LocalizedMessages} used for all the messages the command renders.</p>
+	 *
+	 * @param locale The {@link Locale} to get the {@link LocalizedMessages} of.
+	 * @return The {@link LocalizedMessages} of the {@link Locale}.
+	 */
+	public LocalizedMessages forLocale(Locale locale) {
+		LocalizedMessages messages = this.locales.get(locale);
+		return messages != null ? messages : this.locales.computeIfAbsent(locale, this.factory);
+	}
+
+	/**
+	 * Removes every cached message, such as after commands get reloaded and their nodes get replaced.
+	 * <p>{@link LocalizedMessages} already handed out keep their messages, and the next call to {@link #forLocale(Locale)} creates new ones.</p>
+	 */
+	public void clear() {
+		this.locales.clear();
+	}
+
+	/**
+	 * @return An unmodifiable {@link Set} of the {@link Locale}s that have cached messages.
+	 */
+	public Set<Locale> getLocales() {
+		return Collections.unmodifiableSet(this.locales.keySet());
+	}
+
+	/**
+	 * @return The maximum number of messages cached for each {@link Locale}.
+	 */
+	public int getMaximumSize() {
+		return this.maximumSize;
+	}
+
+	@Override
+	public String toString() {
+		return "LocalizedMessageCache{" +
+				"locales=" + this.locales.values() +
+				", maximumSize=" + this.maximumSize +
+				'}';
+	}
+
+	/**
+	 * The rendered messages of a {@link LocalizedMessageCache} for a single {@link Locale}.
+	 *
+	 * @author Luke Tonon
+	 * @see LocalizedMessageCache#forLocale(Locale)
+	 */
+	@ThreadSafe
+	public static final class LocalizedMessages {
+		private final ConcurrentHashMap<CommandMessage, String> messages = new ConcurrentHashMap<>();
+		private final Locale locale;
+		private final int maximumSize;
+
+		private LocalizedMessages(Locale locale, int maximumSize) {
+			this.locale = locale;
+			this.maximumSize = maximumSize;
+		}
+
+		/**
+		 * Gets a {@link CommandMessage} rendered for this locale, rendering it for a channel if it hasn't been yet.
+		 * <p>Two threads reading a message at once may both render it, but only one of the rendered strings gets kept.</p>
+		 *
+		 * @param message The {@link CommandMessage} to get.
+		 * @param channel The channel to render the message for if it hasn't been rendered yet, can be null.
+		 * @return The {@link CommandMessage} rendered for this locale.
+		 */
+		@Nonnull
+		public String getMessage(CommandMessage message, @Nullable MessageChannel channel) {
+			String rendered = this.messages.get(message);
+			if (rendered == null) {
+				rendered = message.getMessage(channel);
+				if (this.messages.size() < this.maximumSize) {
+					String previous = this.messages.putIfAbsent(message, rendered);
+					if (previous != null) {
+						rendered = previous;
+					}
+				}
+			}
+			return rendered;
+		}
+
+		/**
+		 * @return The {@link Locale} of these messages.
+		 */
+		public Locale getLocale() {
+			return this.locale;
+		}
+
+		/**
+		 * @return The number of messages cached for this locale.
+		 */
+		public int size() {
+			return this.messages.size();
+		}
+
+		@Override
+		public String toString() {
+			return "LocalizedMessages{" +
+					"locale=" + this.locale +
+					", size=" + this.messages.size() +
+					'}';
+		}
+	}
+}
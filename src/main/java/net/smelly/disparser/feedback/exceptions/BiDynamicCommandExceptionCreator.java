@@ -1,6 +1,7 @@
 package net.smelly.disparser.feedback.exceptions;
 
 import net.smelly.disparser.feedback.CommandMessage;
+import net.smelly.disparser.feedback.LazyCommandMessage;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
@@ -39,10 +40,10 @@ public class BiDynamicCommandExceptionCreator<T, U> implements ExceptionCreator<
 
 	@Override
 	public CommandException create() {
-		return new CommandException(this.function.apply(this.first, this.second));
+		return new CommandException(LazyCommandMessage.of(() -> this.function.apply(this.first, this.second)));
 	}
 
 	public CommandException create(T first, U second) {
-		return new CommandException(this.function.apply(first, second));
+		return new CommandException(LazyCommandMessage.of(() -> this.function.apply(first, second)));
 	}
 }
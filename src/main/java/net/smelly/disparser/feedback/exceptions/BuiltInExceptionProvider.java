@@ -19,6 +19,8 @@ import java.util.Set;
 public interface BuiltInExceptionProvider {
 	DynamicCommandExceptionCreator<Set<Permission>> getMissingPermissionsException();
 
+	DynamicCommandExceptionCreator<Long> getCooldownException();
+
 	SimpleCommandExceptionCreator getNoArgumentsException();
 
 	TriDynamicCommandExceptionCreator<MessageChannel, Collection<? extends DisparsingNode<?, ?>>, Integer> getIncompleteCommandException();
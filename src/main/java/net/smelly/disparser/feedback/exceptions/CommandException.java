@@ -7,6 +7,8 @@ import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * An exception that represents a command syntax exception.
+ * <p>The message of this exception doesn't get read when it's created, only when {@link #getMessage()} or {@link #getCommandMessage()} gets used, such as by a {@link net.smelly.disparser.feedback.FeedbackHandler} sending it.</p>
+ * <p>Command exceptions don't fill in a stack trace unless one gets asked for, and {@link #setWritableStackTraces(boolean)} can stop them from ever doing so, so a spam of malformed commands never walks the stack.</p>
  *
  * @author Luke Tonon
  * @see SimpleCommandExceptionCreator
@@ -14,7 +16,9 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 @SuppressWarnings("serial")
 public class CommandException extends Exception {
+	private static volatile boolean writableStackTraces = true;
 	private final CommandMessage message;
+	private final boolean immutable;
 
 	/**
 	 * A simple constructor that sets a message for this exception.
@@ -32,8 +36,63 @@ public class CommandException extends Exception {
 	 * @param enableStacktrace If stack traces should be enabled for this exception.
 	 */
 	public CommandException(CommandMessage message, boolean enableStacktrace) {
-		super(message.getMessage(null), null, true, enableStacktrace);
+		this(message, true, enableStacktrace);
+	}
+
+	/**
+	 * A constructor that sets a message for this exception and if it can have suppressed exceptions and a stack trace.
+	 * <p>An exception with neither can't be changed after it's created, so it can be shared and thrown any number of times.</p>
+	 *
+	 * @param message           Message for the exception, {@link #getMessage()}.
+	 * @param enableSuppression If suppressed exceptions can be added to this exception.
+	 * @param enableStacktrace  If stack traces should be enabled for this exception. This is ignored if {@link #areStackTracesWritable()} is false.
+	 * @see #createImmutable(CommandMessage)
+	 */
+	protected CommandException(CommandMessage message, boolean enableSuppression, boolean enableStacktrace) {
+		super(null, null, enableSuppression, enableStacktrace && writableStackTraces);
 		this.message = message;
+		this.immutable = !enableSuppression && !enableStacktrace;
+	}
+
+	/**
+	 * Creates a {@link CommandException} that can't be changed after it's created, having no stack trace, no cause, and no suppressed exceptions.
+	 * <p>Immutable exceptions are safe to share between threads and throw any number of times, so exceptions that take no arguments only need to be created once.</p>
+	 *
+	 * @param message Message for the exception, {@link #getMessage()}.
+	 * @return A new immutable {@link CommandException}.
+	 * @see SimpleCommandExceptionCreator
+	 */
+	public static CommandException createImmutable(CommandMessage message) {
+		return new CommandException(message, false, false);
+	}
+
+	/**
+	 * Sets if new {@link CommandException}s can fill in stack traces.
+	 * <p>When this is false, no command exception fills in a stack trace, even if it was created by an extension of this class or a custom {@link BuiltInExceptionProvider} asking for one. This is true by default, and the built-in exceptions never ask for stack traces either way.</p>
+	 *
+	 * @param writable If new {@link CommandException}s can fill in stack traces.
+	 */
+	public static void setWritableStackTraces(boolean writable) {
+		writableStackTraces = writable;
+	}
+
+	/**
+	 * @return If new {@link CommandException}s can fill in stack traces.
+	 * @see #setWritableStackTraces(boolean)
+	 */
+	public static boolean areStackTracesWritable() {
+		return writableStackTraces;
+	}
+
+	/**
+	 * Gets if this exception can't be changed after it was created, having neither suppressed exceptions nor a stack trace.
+	 * <p>Immutable exceptions get shared between every failure they describe, so their messages are long-lived and get rendered once for each locale by handlers with a {@link net.smelly.disparser.feedback.LocaleResolver}.</p>
+	 *
+	 * @return If this exception is immutable.
+	 * @see #createImmutable(CommandMessage)
+	 */
+	public boolean isImmutable() {
+		return this.immutable;
 	}
 
 	@Override
@@ -23,6 +23,7 @@ public class DisparserExceptionProvider implements BuiltInExceptionProvider {
 	public static final Function<MessageChannel, BuiltInExceptionProvider> GETTER = channel -> INSTANCE;
 
 	private static final DynamicCommandExceptionCreator<Set<Permission>> PERMISSIONS_EXCEPTION = DynamicCommandExceptionCreator.createInstance((permissions) -> new FormattedCommandMessage("You do not have permission to run this command! Required Permissions: %s", permissions));
+	private static final DynamicCommandExceptionCreator<Long> COOLDOWN_EXCEPTION = DynamicCommandExceptionCreator.createInstance((seconds) -> new FormattedCommandMessage("This command is on cooldown! Try again in `%d` seconds", seconds));
 	private static final SimpleCommandExceptionCreator NO_ARGUMENTS_EXCEPTION = new SimpleCommandExceptionCreator(channel -> "No arguments are present!");
 
 	private static final DynamicCommandExceptionCreator<String> UNEXPECTED_ERROR_EXCEPTION = DynamicCommandExceptionCreator.createInstance((exceptionMessage) -> {
@@ -182,6 +183,11 @@ public class DisparserExceptionProvider implements BuiltInExceptionProvider {
 		return PERMISSIONS_EXCEPTION;
 	}
 
+	@Override
+	public DynamicCommandExceptionCreator<Long> getCooldownException() {
+		return COOLDOWN_EXCEPTION;
+	}
+
 	@Override
 	public SimpleCommandExceptionCreator getNoArgumentsException() {
 		return NO_ARGUMENTS_EXCEPTION;
@@ -1,6 +1,7 @@
 package net.smelly.disparser.feedback.exceptions;
 
 import net.smelly.disparser.feedback.CommandMessage;
+import net.smelly.disparser.feedback.LazyCommandMessage;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
@@ -10,6 +11,7 @@ import java.util.function.Function;
  * This class contains a function for creating a {@link CommandException}.
  * The function takes in a generic type object and uses it to create a {@link CommandMessage} to be used for creating a {@link CommandException}.
  * This class can store an object internally to be re-used for creating a {@link CommandException}.
+ * <p>The function only gets applied the first time the created exception's message gets read, so exceptions that get discarded never create their {@link CommandMessage}.</p>
  *
  * @author Luke Tonon
  * @see ExceptionCreator
@@ -35,10 +37,10 @@ public class DynamicCommandExceptionCreator<T> implements ExceptionCreator<Comma
 
 	@Override
 	public CommandException create() {
-		return new CommandException(this.function.apply(this.object));
+		return new CommandException(LazyCommandMessage.of(() -> this.function.apply(this.object)));
 	}
 
 	public CommandException create(T object) {
-		return new CommandException(this.function.apply(object));
+		return new CommandException(LazyCommandMessage.of(() -> this.function.apply(object)));
 	}
 }
@@ -6,6 +6,7 @@ import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * A simple class for sending an exception with a message.
+ * <p>The exception takes no arguments, so a single {@link CommandException#createImmutable(CommandMessage) immutable} exception gets created with this creator and returned every time, making creating it free.</p>
  *
  * @author Luke Tonon
  * @see ExceptionCreator
@@ -14,16 +15,25 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 public final class SimpleCommandExceptionCreator implements ExceptionCreator<CommandException> {
 	private final CommandMessage message;
+	private final CommandException exception;
 
 	public SimpleCommandExceptionCreator(CommandMessage message) {
 		this.message = message;
+		this.exception = CommandException.createImmutable(message);
 	}
 
 	/**
-	 * @return Creates a new {@link CommandException} with this creator's message.
+	 * @return The immutable {@link CommandException} with this creator's message.
 	 */
 	@Override
 	public CommandException create() {
-		return new CommandException(this.message);
+		return this.exception;
+	}
+
+	/**
+	 * @return This creator's {@link CommandMessage}.
+	 */
+	public CommandMessage getMessage() {
+		return this.message;
 	}
 }
@@ -1,6 +1,7 @@
 package net.smelly.disparser.feedback.exceptions;
 
 import net.smelly.disparser.feedback.CommandMessage;
+import net.smelly.disparser.feedback.LazyCommandMessage;
 
 import javax.annotation.Nullable;
 
@@ -42,11 +43,11 @@ public class TetraDynamicCommandExceptionCreator<T, U, V, W> implements Exceptio
 
 	@Override
 	public CommandException create() {
-		return new CommandException(this.function.apply(this.first, this.second, this.third, this.fourth));
+		return new CommandException(LazyCommandMessage.of(() -> this.function.apply(this.first, this.second, this.third, this.fourth)));
 	}
 
 	public CommandException create(T first, U second, V third, W fourth) {
-		return new CommandException(this.function.apply(first, second, third, fourth));
+		return new CommandException(LazyCommandMessage.of(() -> this.function.apply(first, second, third, fourth)));
 	}
 
 	public interface TetraFunction<T, U, V, W> {
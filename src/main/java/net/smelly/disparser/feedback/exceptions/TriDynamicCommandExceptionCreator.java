@@ -1,6 +1,7 @@
 package net.smelly.disparser.feedback.exceptions;
 
 import net.smelly.disparser.feedback.CommandMessage;
+import net.smelly.disparser.feedback.LazyCommandMessage;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
@@ -41,11 +42,11 @@ public class TriDynamicCommandExceptionCreator<T, U, V> implements ExceptionCrea
 
 	@Override
 	public CommandException create() {
-		return new CommandException(this.function.apply(this.first, this.second, this.third));
+		return new CommandException(LazyCommandMessage.of(() -> this.function.apply(this.first, this.second, this.third)));
 	}
 
 	public CommandException create(T first, U second, V third) {
-		return new CommandException(this.function.apply(first, second, third));
+		return new CommandException(LazyCommandMessage.of(() -> this.function.apply(first, second, third)));
 	}
 
 	public interface TriFunction<T, U, V> {
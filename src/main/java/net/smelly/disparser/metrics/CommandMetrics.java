@@ -0,0 +1,189 @@
+package net.smelly.disparser.metrics;
+
+import net.smelly.disparser.Command;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collection;
+
+/**
+ * A listener that gets told how long each phase of handling a command took and how each command ended, used for monitoring a {@link net.smelly.disparser.context.handlers.AbstractCommandHandler}.
+ * <p>Methods of this interface get called from the thread events get fired on and from the worker threads of the handler at once, so implementations must be thread-safe and should never block.</p>
+ * <p>Handlers only ever read the time for a phase if their metrics are {@link #isEnabled() enabled}, so {@link #none()} costs nothing.</p>
+ *
+ * @author Luke Tonon
+ * @see DefaultCommandMetrics
+ * @see net.smelly.disparser.context.handlers.AbstractCommandHandlerBuilder#setMetrics(CommandMetrics)
+ */
+@ThreadSafe
+public interface CommandMetrics {
+	/**
+	 * @return A {@link CommandMetrics} that doesn't record anything.
+	 */
+	static CommandMetrics none() {
+		return NoMetrics.INSTANCE;
+	}
+
+	/**
+	 * If this records anything. Handlers skip timing phases when this is false.
+	 *
+	 * @return If this records anything.
+	 */
+	default boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * Records how long a phase of handling a command took.
+	 *
+	 * @param command The {@link Command} being handled, or null if no command was found yet.
+	 * @param phase   The {@link Phase} that was timed.
+	 * @param nanos   How long the phase took, in nanoseconds.
+	 */
+	void recordPhase(@Nullable Command<?, ?> command, Phase phase, long nanos);
+
+	/**
+	 * Records something that happened to a command, such as it being dispatched or failing.
+	 * <p>A dispatched command will later record one of {@link Outcome#MISSING_PERMISSIONS}, {@link Outcome#PARSE_ERROR}, {@link Outcome#FAILED}, or {@link Outcome#COMPLETED}, unless its task gets dropped.</p>
+	 *
+	 * @param command The {@link Command} the outcome is for, or null for {@link Outcome#UNMATCHED}.
+	 * @param outcome The {@link Outcome} to record.
+	 */
+	void recordOutcome(@Nullable Command<?, ?> command, Outcome outcome);
+
+	/**
+	 * Records an unexpected exception a command threw while being processed, right before {@link Outcome#FAILED} gets recorded for it.
+	 * <p>This is how handlers report exceptions thrown by commands, and it gets called even if these metrics aren't {@link #isEnabled() enabled}.
+	 * By default this prints the stack trace of the exception, like handlers did before they had metrics, so implementations that override this should log the exception themselves.</p>
+	 *
+	 * @param command   The {@link Command} that threw.
+	 * @param throwable The exception the command threw.
+	 */
+	default void recordFailure(Command<?, ?> command, Throwable throwable) {
+		throwable.printStackTrace();
+	}
+
+	/**
+	 * Tells these metrics that commands were removed from a handler, such as by reloading it, so anything recorded for them can be dropped.
+	 * <p>Commands still running when they get removed may record again afterwards. This does nothing by default.</p>
+	 *
+	 * @param commands The {@link Command}s that were removed.
+	 */
+	default void removeCommands(Collection<? extends Command<?, ?>> commands) {
+	}
+
+	/**
+	 * Records the number of tasks waiting in the queue a command was dispatched onto.
+	 *
+	 * @param depth The number of tasks waiting in the queue, including the new task.
+	 */
+	void recordQueueDepth(int depth);
+
+	/**
+	 * The phases of handling a command that get timed.
+	 */
+	enum Phase {
+		/**
+		 * Getting and checking the prefix of a message, on the thread the event was fired on.
+		 */
+		PREFIX,
+		/**
+		 * Looking up the command a message calls by its alias, on the thread the event was fired on.
+		 */
+		LOOKUP,
+		/**
+		 * Waiting in the queue of the handler's executor.
+		 */
+		QUEUE,
+		/**
+		 * Running the whole task for a command on a worker thread, which is how long the worker was busy for.
+		 */
+		RUN,
+		/**
+		 * Checking if the sender has permission to use the command.
+		 */
+		PERMISSIONS,
+		/**
+		 * Disparsing the message into a {@link net.smelly.disparser.context.CommandContext}, which includes parsing its arguments.
+		 */
+		DISPARSE,
+		/**
+		 * Processing the command, which includes its {@link net.smelly.disparser.context.ContextConsumer}.
+		 */
+		PROCESS,
+		/**
+		 * Sending an error to a {@link net.smelly.disparser.feedback.FeedbackHandler}.
+		 */
+		FEEDBACK
+	}
+
+	/**
+	 * The things that can happen to a command.
+	 */
+	enum Outcome {
+		/**
+		 * A message didn't call any command.
+		 */
+		UNMATCHED,
+		/**
+		 * A command was rejected for being on cooldown.
+		 */
+		COOLDOWN,
+		/**
+		 * A command was handed off to the handler's executor.
+		 */
+		DISPATCHED,
+		/**
+		 * A command was rejected by the handler's executor.
+		 */
+		REJECTED,
+		/**
+		 * A command was sent by someone without permission to use it.
+		 */
+		MISSING_PERMISSIONS,
+		/**
+		 * A command failed to be disparsed, such as from an invalid argument.
+		 */
+		PARSE_ERROR,
+		/**
+		 * A command threw an exception while being processed.
+		 */
+		FAILED,
+		/**
+		 * A command was processed without any errors.
+		 */
+		COMPLETED
+	}
+
+	/**
+	 * The {@link CommandMetrics} returned by {@link #none()}.
+	 */
+	final class NoMetrics implements CommandMetrics {
+		private static final NoMetrics INSTANCE = new NoMetrics();
+
+		private NoMetrics() {
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+
+		@Override
+		public void recordPhase(@Nullable Command<?, ?> command, Phase phase, long nanos) {
+		}
+
+		@Override
+		public void recordOutcome(@Nullable Command<?, ?> command, Outcome outcome) {
+		}
+
+		@Override
+		public void recordQueueDepth(int depth) {
+		}
+
+		@Override
+		public String toString() {
+			return "CommandMetrics{none}";
+		}
+	}
+}
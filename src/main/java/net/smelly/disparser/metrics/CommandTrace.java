@@ -0,0 +1,287 @@
+package net.smelly.disparser.metrics;
+
+import net.smelly.disparser.Command;
+import net.smelly.disparser.context.tree.DisparsingNode;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A record of when each step of handling a single command happened, used for finding out why a command was slow.
+ * <p>All times are in the nanoseconds of {@link System#nanoTime()}, and times of steps that never happened are {@link #NEVER}.
+ * A trace gets filled in by one thread at a time as its command gets handed off between threads, and should only be read once it has been sent to {@link CommandTracer#onTrace(CommandTrace)}.</p>
+ *
+ * @author Luke Tonon
+ * @see CommandTracer
+ */
+@NotThreadSafe
+public final class CommandTrace {
+	/**
+	 * The time of steps that never happened.
+	 */
+	public static final long NEVER = Long.MIN_VALUE;
+	private final Command<?, ?> command;
+	private final long receivedNanos;
+	private final List<NodeSpan> nodes = new ArrayList<>(4);
+	private long enqueuedNanos = NEVER;
+	private long dequeuedNanos = NEVER;
+	private long resolvedNanos = NEVER;
+	private long consumerStartNanos = NEVER;
+	private long consumerEndNanos = NEVER;
+	private long finishedNanos = NEVER;
+	@Nullable
+	private CommandMetrics.Outcome outcome;
+	@Nullable
+	private Throwable failure;
+
+	private CommandTrace(Command<?, ?> command, long receivedNanos) {
+		this.command = command;
+		this.receivedNanos = receivedNanos;
+	}
+
+	/**
+	 * Starts a new {@link CommandTrace} for a {@link Command} that has just been found for an event.
+	 *
+	 * @param command The {@link Command} to trace.
+	 * @return A new {@link CommandTrace} for the {@link Command}.
+	 */
+	public static CommandTrace start(Command<?, ?> command) {
+		return new CommandTrace(command, System.nanoTime());
+	}
+
+	/**
+	 * Marks the command as put onto the queue of the handler's executor.
+	 */
+	public void markEnqueued() {
+		this.enqueuedNanos = System.nanoTime();
+	}
+
+	/**
+	 * Marks the command as taken off the queue of the handler's executor by a worker.
+	 */
+	public void markDequeued() {
+		this.dequeuedNanos = System.nanoTime();
+	}
+
+	/**
+	 * Records a {@link DisparsingNode} being tried while disparsing the command.
+	 *
+	 * @param node          The {@link DisparsingNode} that was tried.
+	 * @param startNanos    The time the node started being tried.
+	 * @param durationNanos How long trying the node took, including parsing its argument.
+	 * @param matched       If the node matched the message.
+	 */
+	public void addNode(DisparsingNode<?, ?> node, long startNanos, long durationNanos, boolean matched) {
+		this.nodes.add(new NodeSpan(node, startNanos, durationNanos, matched));
+	}
+
+	/**
+	 * Marks the command's asynchronous arguments as having all been parsed.
+	 *
+	 * @see net.smelly.disparser.AsyncArgument
+	 */
+	public void markResolved() {
+		this.resolvedNanos = System.nanoTime();
+	}
+
+	/**
+	 * Records when the command's consumer ran.
+	 *
+	 * @param startNanos The time the consumer started.
+	 * @param endNanos   The time the consumer finished.
+	 */
+	public void setConsumer(long startNanos, long endNanos) {
+		this.consumerStartNanos = startNanos;
+		this.consumerEndNanos = endNanos;
+	}
+
+	/**
+	 * Records the exception the command threw while being processed.
+	 *
+	 * @param failure The exception the command threw.
+	 */
+	public void setFailure(Throwable failure) {
+		this.failure = failure;
+	}
+
+	/**
+	 * Marks the command as finished.
+	 *
+	 * @param outcome The {@link CommandMetrics.Outcome} the command finished with.
+	 */
+	public void finish(CommandMetrics.Outcome outcome) {
+		this.finishedNanos = System.nanoTime();
+		this.outcome = outcome;
+	}
+
+	/**
+	 * @return The {@link Command} this traces.
+	 */
+	public Command<?, ?> getCommand() {
+		return this.command;
+	}
+
+	/**
+	 * @return The time the handler found the command for its event.
+	 */
+	public long getReceivedNanos() {
+		return this.receivedNanos;
+	}
+
+	/**
+	 * @return The time the command was put onto the queue of the handler's executor, or {@link #NEVER} if it never was.
+	 */
+	public long getEnqueuedNanos() {
+		return this.enqueuedNanos;
+	}
+
+	/**
+	 * @return The time the command was taken off the queue of the handler's executor, or {@link #NEVER} if it never was.
+	 */
+	public long getDequeuedNanos() {
+		return this.dequeuedNanos;
+	}
+
+	/**
+	 * @return The {@link NodeSpan}s of every node tried while disparsing the command, in the order they were tried.
+	 */
+	public List<NodeSpan> getNodes() {
+		return Collections.unmodifiableList(this.nodes);
+	}
+
+	/**
+	 * @return The time the command's asynchronous arguments were all parsed, or {@link #NEVER} if it had none.
+	 */
+	public long getResolvedNanos() {
+		return this.resolvedNanos;
+	}
+
+	/**
+	 * @return The time the command's consumer started, or {@link #NEVER} if it never ran.
+	 */
+	public long getConsumerStartNanos() {
+		return this.consumerStartNanos;
+	}
+
+	/**
+	 * @return The time the command's consumer finished, or {@link #NEVER} if it never ran.
+	 */
+	public long getConsumerEndNanos() {
+		return this.consumerEndNanos;
+	}
+
+	/**
+	 * @return The time the command finished, or {@link #NEVER} if it hasn't finished.
+	 */
+	public long getFinishedNanos() {
+		return this.finishedNanos;
+	}
+
+	/**
+	 * @return The {@link CommandMetrics.Outcome} the command finished with, or null if it hasn't finished.
+	 */
+	@Nullable
+	public CommandMetrics.Outcome getOutcome() {
+		return this.outcome;
+	}
+
+	/**
+	 * @return The exception the command threw while being processed, or null if it didn't throw one.
+	 */
+	@Nullable
+	public Throwable getFailure() {
+		return this.failure;
+	}
+
+	/**
+	 * @return How long the command waited in the queue of the handler's executor, or -1 if it was never taken off the queue.
+	 */
+	public long getQueueNanos() {
+		return this.enqueuedNanos == NEVER || this.dequeuedNanos == NEVER ? -1L : this.dequeuedNanos - this.enqueuedNanos;
+	}
+
+	/**
+	 * @return How long the command's consumer took, or -1 if it never ran.
+	 */
+	public long getConsumerNanos() {
+		return this.consumerStartNanos == NEVER ? -1L : this.consumerEndNanos - this.consumerStartNanos;
+	}
+
+	/**
+	 * @return How long the command took from being found to finishing, or -1 if it hasn't finished.
+	 */
+	public long getTotalNanos() {
+		return this.finishedNanos == NEVER ? -1L : this.finishedNanos - this.receivedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "CommandTrace{" +
+				"command=" + this.command.getAliasesProperty() +
+				", outcome=" + this.outcome +
+				", failure=" + this.failure +
+				", totalNanos=" + this.getTotalNanos() +
+				", queueNanos=" + this.getQueueNanos() +
+				", nodes=" + this.nodes +
+				", resolvedAfterNanos=" + (this.resolvedNanos == NEVER ? -1L : this.resolvedNanos - this.receivedNanos) +
+				", consumerNanos=" + this.getConsumerNanos() +
+				'}';
+	}
+
+	/**
+	 * A record of a single {@link DisparsingNode} being tried while disparsing a command.
+	 */
+	public static final class NodeSpan {
+		private final DisparsingNode<?, ?> node;
+		private final long startNanos;
+		private final long durationNanos;
+		private final boolean matched;
+
+		private NodeSpan(DisparsingNode<?, ?> node, long startNanos, long durationNanos, boolean matched) {
+			this.node = node;
+			this.startNanos = startNanos;
+			this.durationNanos = durationNanos;
+			this.matched = matched;
+		}
+
+		/**
+		 * @return The {@link DisparsingNode} that was tried.
+		 */
+		public DisparsingNode<?, ?> getNode() {
+			return this.node;
+		}
+
+		/**
+		 * @return The time the node started being tried.
+		 */
+		public long getStartNanos() {
+			return this.startNanos;
+		}
+
+		/**
+		 * @return How long trying the node took, including parsing its argument.
+		 */
+		public long getDurationNanos() {
+			return this.durationNanos;
+		}
+
+		/**
+		 * @return If the node matched the message.
+		 */
+		public boolean isMatched() {
+			return this.matched;
+		}
+
+		@Override
+		public String toString() {
+			return "NodeSpan{" +
+					"name=" + this.node.getName(null) +
+					", durationNanos=" + this.durationNanos +
+					", matched=" + this.matched +
+					'}';
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package net.smelly.disparser.metrics;
+
+import net.smelly.disparser.Command;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * A hook that decides which commands get traced and receives their {@link CommandTrace}s once they have finished.
+ * <p>Tracing a command records when each step of handling it happened, so it's much more expensive than {@link CommandMetrics}. Use {@link #sampled(double, Consumer)} to only trace a fraction of commands.</p>
+ * <p>Methods of this interface get called from the thread events get fired on and from the worker threads of the handler at once, so implementations must be thread-safe and should never block.</p>
+ *
+ * @author Luke Tonon
+ * @see CommandTrace
+ * @see net.smelly.disparser.context.handlers.AbstractCommandHandlerBuilder#setTracer(CommandTracer)
+ */
+@ThreadSafe
+public interface CommandTracer {
+	/**
+	 * @return A {@link CommandTracer} that doesn't trace anything.
+	 */
+	static CommandTracer none() {
+		return NoTracer.INSTANCE;
+	}
+
+	/**
+	 * Creates a {@link CommandTracer} that traces a random fraction of commands.
+	 *
+	 * @param rate     The fraction of commands to trace, from 0 to 1.
+	 * @param consumer A {@link Consumer} to send finished {@link CommandTrace}s to.
+	 * @return A {@link CommandTracer} that traces a random fraction of commands.
+	 */
+	static CommandTracer sampled(double rate, Consumer<CommandTrace> consumer) {
+		if (!(rate >= 0.0D && rate <= 1.0D)) {
+			throw new IllegalArgumentException("Rate must be between 0 and 1: " + rate);
+		}
+		return new CommandTracer() {
+			@Override
+			public boolean shouldTrace(Command<?, ?> command) {
+				return rate >= 1.0D || (rate > 0.0D && ThreadLocalRandom.current().nextDouble() < rate);
+			}
+
+			@Override
+			public void onTrace(CommandTrace trace) {
+				consumer.accept(trace);
+			}
+
+			@Override
+			public String toString() {
+				return "CommandTracer{" +
+						"rate=" + rate +
+						'}';
+			}
+		};
+	}
+
+	/**
+	 * If this traces anything. Handlers skip sampling commands when this is false.
+	 *
+	 * @return If this traces anything.
+	 */
+	default boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * Decides if a command that was just found for an event should be traced.
+	 * <p>This gets called on the thread the event was fired on for every command found, so it should be fast.</p>
+	 *
+	 * @param command The {@link Command} to decide for.
+	 * @return If the command should be traced.
+	 */
+	boolean shouldTrace(Command<?, ?> command);
+
+	/**
+	 * Receives a {@link CommandTrace} once its command has finished.
+	 *
+	 * @param trace The finished {@link CommandTrace}.
+	 */
+	void onTrace(CommandTrace trace);
+
+	/**
+	 * The {@link CommandTracer} returned by {@link #none()}.
+	 */
+	final class NoTracer implements CommandTracer {
+		private static final NoTracer INSTANCE = new NoTracer();
+
+		private NoTracer() {
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+
+		@Override
+		public boolean shouldTrace(Command<?, ?> command) {
+			return false;
+		}
+
+		@Override
+		public void onTrace(CommandTrace trace) {
+		}
+
+		@Override
+		public String toString() {
+			return "CommandTracer{none}";
+		}
+	}
+}
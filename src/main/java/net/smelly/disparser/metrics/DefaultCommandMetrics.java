@@ -0,0 +1,201 @@
+package net.smelly.disparser.metrics;
+
+import net.smelly.disparser.Command;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The default lock-free implementation of {@link CommandMetrics}.
+ * <p>Every {@link Command} gets its own {@link CommandStats}, holding a counter for each {@link CommandMetrics.Outcome} and a {@link LatencyHistogram} for each {@link CommandMetrics.Phase}.
+ * Phases timed before a command was found, such as checking the prefix of messages that don't call a command, get recorded onto {@link #getUnmatchedStats()}.</p>
+ *
+ * @author Luke Tonon
+ * @see CommandMetrics
+ * @see LatencyHistogram
+ */
+@ThreadSafe
+public final class DefaultCommandMetrics implements CommandMetrics {
+	private final ConcurrentHashMap<Command<?, ?>, CommandStats> commandStats = new ConcurrentHashMap<>();
+	private final CommandStats unmatchedStats = new CommandStats();
+	private final LatencyHistogram queueDepth = new LatencyHistogram();
+	private final LongAdder busyNanos = new LongAdder();
+	private final long createdNanos = System.nanoTime();
+
+	private DefaultCommandMetrics() {
+	}
+
+	/**
+	 * @return A new {@link DefaultCommandMetrics} instance.
+	 */
+	public static DefaultCommandMetrics create() {
+		return new DefaultCommandMetrics();
+	}
+
+	@Override
+	public void recordPhase(@Nullable Command<?, ?> command, Phase phase, long nanos) {
+		this.getStats(command).phases[phase.ordinal()].record(nanos);
+		if (phase == Phase.RUN) {
+			this.busyNanos.add(nanos);
+		}
+	}
+
+	@Override
+	public void recordOutcome(@Nullable Command<?, ?> command, Outcome outcome) {
+		this.getStats(command).outcomes[outcome.ordinal()].increment();
+	}
+
+	/**
+	 * Keeps the exception as the {@link CommandStats#getLastFailure() last failure} of the command and prints its stack trace.
+	 * <p>Only the last failure of each command gets kept, so earlier failures are only in the printed stack traces. Their amount is the count of {@link CommandMetrics.Outcome#FAILED}.</p>
+	 */
+	@Override
+	public void recordFailure(Command<?, ?> command, Throwable throwable) {
+		this.getStats(command).lastFailure = throwable;
+		CommandMetrics.super.recordFailure(command, throwable);
+	}
+
+	/**
+	 * Drops the {@link CommandStats} of the removed commands, so reloading commands doesn't keep the stats of every command that was ever registered.
+	 */
+	@Override
+	public void removeCommands(Collection<? extends Command<?, ?>> commands) {
+		for (Command<?, ?> command : commands) {
+			this.commandStats.remove(command);
+		}
+	}
+
+	@Override
+	public void recordQueueDepth(int depth) {
+		this.queueDepth.record(depth);
+	}
+
+	/**
+	 * Gets the {@link CommandStats} of a {@link Command}, creating them if the command hasn't recorded anything yet.
+	 *
+	 * @param command The {@link Command} to get the {@link CommandStats} of, or null for {@link #getUnmatchedStats()}.
+	 * @return The {@link CommandStats} of the {@link Command}.
+	 */
+	public CommandStats getStats(@Nullable Command<?, ?> command) {
+		if (command == null) {
+			return this.unmatchedStats;
+		}
+		CommandStats stats = this.commandStats.get(command);
+		return stats != null ? stats : this.commandStats.computeIfAbsent(command, key -> new CommandStats());
+	}
+
+	/**
+	 * @return The {@link CommandStats} recorded before a command was found, such as for messages that don't call any command.
+	 */
+	public CommandStats getUnmatchedStats() {
+		return this.unmatchedStats;
+	}
+
+	/**
+	 * @return An unmodifiable view of the {@link CommandStats} of every {@link Command} that has recorded anything.
+	 */
+	public Map<Command<?, ?>, CommandStats> getAllStats() {
+		return Collections.unmodifiableMap(this.commandStats);
+	}
+
+	/**
+	 * @return A {@link LatencyHistogram} of how many tasks were waiting in the queue each command was dispatched onto.
+	 */
+	public LatencyHistogram getQueueDepth() {
+		return this.queueDepth;
+	}
+
+	/**
+	 * @return The total nanoseconds worker threads have spent running commands.
+	 */
+	public long getBusyNanos() {
+		return this.busyNanos.sum();
+	}
+
+	/**
+	 * Gets the fraction of time worker threads have spent running commands since these metrics were created.
+	 *
+	 * @param workers The number of worker threads of the handler, such as {@link net.smelly.disparser.concurrent.KeyedExecutorService#getLaneCount()}.
+	 * @return The fraction of time worker threads have spent running commands, from 0 to 1.
+	 */
+	public double getWorkerUtilization(int workers) {
+		long elapsed = System.nanoTime() - this.createdNanos;
+		return elapsed <= 0L || workers <= 0 ? 0.0D : Math.min(1.0D, (double) this.busyNanos.sum() / ((double) elapsed * workers));
+	}
+
+	@Override
+	public String toString() {
+		return "DefaultCommandMetrics{" +
+				"commandStats=" + this.commandStats +
+				", unmatchedStats=" + this.unmatchedStats +
+				", queueDepth=" + this.queueDepth +
+				", busyNanos=" + this.busyNanos +
+				'}';
+	}
+
+	/**
+	 * The counters and histograms recorded for a single {@link Command}.
+	 */
+	@ThreadSafe
+	public static final class CommandStats {
+		private final LongAdder[] outcomes = new LongAdder[Outcome.values().length];
+		private final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+		@Nullable
+		private volatile Throwable lastFailure;
+
+		private CommandStats() {
+			for (int i = 0; i < this.outcomes.length; i++) {
+				this.outcomes[i] = new LongAdder();
+			}
+			for (int i = 0; i < this.phases.length; i++) {
+				this.phases[i] = new LatencyHistogram();
+			}
+		}
+
+		/**
+		 * Gets the number of times an {@link CommandMetrics.Outcome} has been recorded.
+		 *
+		 * @param outcome The {@link CommandMetrics.Outcome} to get the count of.
+		 * @return The number of times the {@link CommandMetrics.Outcome} has been recorded.
+		 */
+		public long getCount(Outcome outcome) {
+			return this.outcomes[outcome.ordinal()].sum();
+		}
+
+		/**
+		 * Gets the {@link LatencyHistogram} of how long a {@link CommandMetrics.Phase} took, in nanoseconds.
+		 *
+		 * @param phase The {@link CommandMetrics.Phase} to get the {@link LatencyHistogram} of.
+		 * @return The {@link LatencyHistogram} of how long the {@link CommandMetrics.Phase} took.
+		 */
+		public LatencyHistogram getLatency(Phase phase) {
+			return this.phases[phase.ordinal()];
+		}
+
+		/**
+		 * @return The last exception the command threw while being processed, or null if it never threw one. Each failure overwrites the one before it.
+		 */
+		@Nullable
+		public Throwable getLastFailure() {
+			return this.lastFailure;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder("CommandStats{");
+			for (Outcome outcome : Outcome.values()) {
+				builder.append(outcome).append('=').append(this.getCount(outcome)).append(", ");
+			}
+			for (Phase phase : Phase.values()) {
+				builder.append(phase).append('=').append(this.getLatency(phase)).append(", ");
+			}
+			builder.setLength(builder.length() - 2);
+			return builder.append('}').toString();
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package net.smelly.disparser.metrics;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative long values, such as latencies in nanoseconds.
+ * <p>Values get counted in buckets that grow exponentially, with each power of two split into 16 buckets, so any value is reported within 1/16th (6.25%) of what was recorded.
+ * This covers every long value in a fixed 960 buckets, so recording never allocates or resizes anything.</p>
+ * <p>Reading percentiles while values are being recorded is safe, but the counts read may be from slightly different moments.</p>
+ *
+ * @author Luke Tonon
+ * @see DefaultCommandMetrics
+ */
+@ThreadSafe
+public final class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a value. Negative values get recorded as 0.
+	 *
+	 * @param value The value to record.
+	 */
+	public void record(long value) {
+		if (value < 0L) {
+			value = 0L;
+		}
+		this.counts.incrementAndGet(getBucket(value));
+		this.count.increment();
+		this.total.add(value);
+		AtomicLong max = this.max;
+		long currentMax = max.get();
+		while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+			currentMax = max.get();
+		}
+	}
+
+	private static int getBucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	private static long getHighestValue(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1L;
+	}
+
+	/**
+	 * @return The number of values recorded.
+	 */
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	/**
+	 * @return The sum of all values recorded.
+	 */
+	public long getTotal() {
+		return this.total.sum();
+	}
+
+	/**
+	 * @return The mean of all values recorded, or 0 if none have been recorded.
+	 */
+	public double getMean() {
+		long count = this.count.sum();
+		return count == 0L ? 0.0D : (double) this.total.sum() / count;
+	}
+
+	/**
+	 * @return The highest value recorded, or 0 if none have been recorded.
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * Gets the value that a percentage of recorded values are less than or equal to, such as 99 for the 99th percentile.
+	 *
+	 * @param percentile The percentile to get the value of, from 0 to 100.
+	 * @return The value at the percentile, or 0 if no values have been recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		AtomicLongArray counts = this.counts;
+		long recorded = 0L;
+		for (int i = 0; i < BUCKETS; i++) {
+			recorded += counts.get(i);
+		}
+		if (recorded == 0L) {
+			return 0L;
+		}
+		long target = Math.max(1L, (long) Math.ceil(Math.min(100.0D, Math.max(0.0D, percentile)) / 100.0D * recorded));
+		long seen = 0L;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(getHighestValue(i), this.max.get());
+			}
+		}
+		return this.max.get();
+	}
+
+	@Override
+	public String toString() {
+		return "LatencyHistogram{" +
+				"count=" + this.getCount() +
+				", mean=" + this.getMean() +
+				", p50=" + this.getValueAtPercentile(50.0D) +
+				", p99=" + this.getValueAtPercentile(99.0D) +
+				", max=" + this.getMax() +
+				'}';
+	}
+}
@@ -0,0 +1,13 @@
+/**
+ * This package contains types for monitoring how commands get handled.
+ * <p>Handlers report to a {@link net.smelly.disparser.metrics.CommandMetrics} and trace sampled commands with a {@link net.smelly.disparser.metrics.CommandTracer}, neither of which record anything by default.</p>
+ *
+ * @author Luke Tonon
+ * @version 1.4.0
+ * @see net.smelly.disparser.metrics.CommandMetrics
+ * @see net.smelly.disparser.metrics.CommandTrace
+ * @see net.smelly.disparser.metrics.CommandTracer
+ * @see net.smelly.disparser.metrics.DefaultCommandMetrics
+ * @see net.smelly.disparser.metrics.LatencyHistogram
+ */
+package net.smelly.disparser.metrics;
\ No newline at end of file
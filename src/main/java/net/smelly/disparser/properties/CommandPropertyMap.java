@@ -5,11 +5,16 @@ import net.smelly.disparser.Command;
 import net.smelly.disparser.context.CommandContext;
 
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
 import javax.annotation.concurrent.ThreadSafe;
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A class for mappings values of {@link CommandProperty}s for {@link Command}s.
@@ -55,10 +60,8 @@ public final class CommandPropertyMap<E extends Event, C extends CommandContext<
 	 * @return A {@link PropertyMap} containing the default property values of the {@link Command}.
 	 */
 	public PropertyMap putCommand(Command<E, C> command) {
-		PropertyMap propertyMap = this.getAndClearPropertyMap(command);
-		for (CommandProperty<?, ?> property : command.getProperties()) {
-			propertyMap.putUnsafe(property, property.get(null));
-		}
+		PropertyMap propertyMap = this.getPropertyMap(command);
+		propertyMap.reset(command.getProperties(), null, null);
 		return propertyMap;
 	}
 
@@ -75,14 +78,7 @@ public final class CommandPropertyMap<E extends Event, C extends CommandContext<
 	public <T, A extends Annotation, P extends CommandProperty<T, A>> void putCommandAnnotated(Command<E, C> command, P property, @Nullable A annotation) {
 		Set<CommandProperty<?, ?>> properties = command.getProperties();
 		if (properties.contains(property)) {
-			PropertyMap propertyMap = this.getAndClearPropertyMap(command);
-			for (CommandProperty<?, ?> commandProperty : properties) {
-				if (commandProperty == property) {
-					propertyMap.put(property, property.get(annotation));
-				} else {
-					propertyMap.putUnsafe(property, property.get(null));
-				}
-			}
+			this.getPropertyMap(command).reset(properties, property, annotation);
 		}
 	}
 
@@ -94,15 +90,27 @@ public final class CommandPropertyMap<E extends Event, C extends CommandContext<
 	 * @return A {@link PropertyMap} for a given {@link Command}.
 	 */
 	public PropertyMap getPropertyMap(Command<E, C> command) {
+		PropertyMap existing = this.commandPropertyMap.get(command);
+		if (existing != null) {
+			return existing;
+		}
 		return this.commandPropertyMap.computeIfAbsent(command, (key) -> {
-			PropertyMap propertyMap = new PropertyMap();
-			for (CommandProperty<?, ?> property : command.getProperties()) {
-				propertyMap.putUnsafe(property, property.get(null));
-			}
-			return propertyMap;
+			return PropertyMap.createDefault(command);
 		});
 	}
 
+	/**
+	 * Gets the {@link PropertyMap} for a given {@link Command} without creating one.
+	 *
+	 * @param command The {@link Command} to get the {@link PropertyMap} for.
+	 * @return The {@link PropertyMap} for the given {@link Command}, or null if it has none.
+	 * @see #getPropertyMap(Command)
+	 */
+	@Nullable
+	public PropertyMap getPropertyMapIfPresent(Command<E, C> command) {
+		return this.commandPropertyMap.get(command);
+	}
+
 	/**
 	 * Gets and clears a {@link PropertyMap} for a given {@link Command}.
 	 * <p>It is recommended to only use this when resetting the properties of a given {@link Command}.</p>
@@ -130,16 +138,41 @@ public final class CommandPropertyMap<E extends Event, C extends CommandContext<
 		return this.getPropertyMap(command).get(property);
 	}
 
+	/**
+	 * Replaces every {@link PropertyMap} in this map with the {@link PropertyMap}s of another map.
+	 * <p>The {@link PropertyMap}s get put as they are, so changes made to their values through either map are seen by both.
+	 * This isn't atomic with respect to concurrent readers: each {@link Command} gets swapped on its own, so other threads may see a mix of the old and new {@link PropertyMap}s, and commands missing from the new map are only removed after every new {@link PropertyMap} has been put.</p>
+	 *
+	 * @param map The {@link Map} of {@link Command}s to the {@link PropertyMap}s to put.
+	 */
+	public void replaceAll(Map<Command<E, C>, PropertyMap> map) {
+		this.commandPropertyMap.putAll(map);
+		this.commandPropertyMap.keySet().retainAll(map.keySet());
+	}
+
+	/**
+	 * Gets an unmodifiable view of the {@link PropertyMap}s of every {@link Command} in this map.
+	 *
+	 * @return An unmodifiable view of the {@link PropertyMap}s of every {@link Command} in this map.
+	 */
+	public Map<Command<E, C>, PropertyMap> asMap() {
+		return Collections.unmodifiableMap(this.commandPropertyMap);
+	}
+
 	/**
 	 * A thread-safe class for mapping the values of {@link CommandProperty}s.
 	 * Use {@link PropertyMap#get(CommandProperty)} instead of the other methods when possible.
-	 * <p>If you wish to make further use of the map inside this class extend it to add your own needs.</p>
+	 * <p>Properties are kept in an immutable snapshot of arrays, each property getting the next index of the arrays when it's first put onto the map.
+	 * Reads are plain array loads of the current snapshot, while putting new properties, clearing, or resetting the map copies the snapshot and swaps it in atomically.
+	 * Setting the value of a property already on the map only sets its {@link CommandProperty.Value} and never copies the snapshot.</p>
+	 * <p>If you wish to make further use of the map inside this class extend it to add your own needs.
+	 * Subclasses can read the properties through {@link #getProperties()} and change them through {@link #putOrModify(CommandProperty, Object)}, {@link #replaceAll(Map)}, and {@link #clear()}.</p>
 	 *
 	 * @author Luke Tonon
 	 */
 	@ThreadSafe
 	public static class PropertyMap {
-		protected final ConcurrentHashMap<CommandProperty<?, ?>, CommandProperty.Value<?>> propertyMap = new ConcurrentHashMap<>();
+		private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
 
 		/**
 		 * Creates a new {@link PropertyMap} instance with initial values of another map.
@@ -153,6 +186,18 @@ public final class CommandPropertyMap<E extends Event, C extends CommandContext<
 			return propertyMap;
 		}
 
+		/**
+		 * Creates a new {@link PropertyMap} instance with the default values of every property of a {@link Command}.
+		 *
+		 * @param command The {@link Command} to get the default property values of.
+		 * @return A new {@link PropertyMap} instance with the default values of every property of a {@link Command}.
+		 */
+		public static PropertyMap createDefault(Command<?, ?> command) {
+			PropertyMap propertyMap = new PropertyMap();
+			propertyMap.reset(command.getProperties(), null, null);
+			return propertyMap;
+		}
+
 		/**
 		 * Assigns a new value to a {@link CommandProperty.Value} for to a {@link CommandProperty}.
 		 * <p>For the dynamic version of this method, use {@link #putUnsafe(CommandProperty, Object)}</p>
@@ -187,13 +232,29 @@ public final class CommandPropertyMap<E extends Event, C extends CommandContext<
 		 * @throws ClassCastException If the value of a {@link CommandProperty.Value} isn't an instance of the return value of one of the properties.
 		 */
 		public void putAll(Map<CommandProperty<?, ?>, CommandProperty.Value<?>> map) {
-			map.forEach((commandProperty, value) -> {
-				if (commandProperty.get(null).getClass().isInstance(value.get())) {
-					this.putOrModify(commandProperty, value);
-				} else {
-					throw new ClassCastException(String.format("Property type doesn't match value type! Property: %1$s, Value: %2$s", commandProperty, value));
-				}
-			});
+			map.forEach((commandProperty, value) -> this.putOrModify(commandProperty, checkValue(commandProperty, value)));
+		}
+
+		/**
+		 * Safely replaces every property of this map with a map of properties to values.
+		 * <p>The new properties are swapped in at once, so a lookup made after this never sees an empty map or a mix of the old and new properties.
+		 * This isn't atomic with respect to concurrent readers though: like {@link #clear()}, it detaches the {@link CommandProperty.Value}s of the old properties, so a reader that got a {@link CommandProperty.Value} before the swap keeps seeing the old value.
+		 * A property put onto the map by another thread while this runs may also be lost. Use {@link #getGeneration()} to know when to get a {@link CommandProperty.Value} again.</p>
+		 *
+		 * @param map The map to replace this map's properties with.
+		 * @throws ClassCastException If the value of a {@link CommandProperty.Value} isn't an instance of the return value of one of the properties.
+		 */
+		public void replaceAll(Map<CommandProperty<?, ?>, CommandProperty.Value<?>> map) {
+			int size = map.size();
+			CommandProperty<?, ?>[] properties = new CommandProperty<?, ?>[size];
+			CommandProperty.Value<?>[] values = new CommandProperty.Value<?>[size];
+			int index = 0;
+			for (Map.Entry<CommandProperty<?, ?>, CommandProperty.Value<?>> entry : map.entrySet()) {
+				CommandProperty<?, ?> commandProperty = entry.getKey();
+				properties[index] = commandProperty;
+				values[index++] = CommandProperty.Value.create(checkValue(commandProperty, entry.getValue()));
+			}
+			this.replace(properties, values);
 		}
 
 		/**
@@ -205,7 +266,7 @@ public final class CommandPropertyMap<E extends Event, C extends CommandContext<
 		 * @return This instance.
 		 */
 		public PropertyMap putOrModify(CommandProperty<?, ?> commandProperty, Object value) {
-			this.propertyMap.computeIfAbsent(commandProperty, (key) -> CommandProperty.Value.create(commandProperty)).unsafeSet(value);
+			this.getOrCreate(commandProperty).unsafeSet(value);
 			return this;
 		}
 
@@ -220,14 +281,140 @@ public final class CommandPropertyMap<E extends Event, C extends CommandContext<
 		 */
 		@SuppressWarnings("unchecked")
 		public <T, P extends CommandProperty<T, ?>> CommandProperty.Value<T> get(P commandProperty) {
-			return (CommandProperty.Value<T>) this.propertyMap.computeIfAbsent(commandProperty, (key) -> CommandProperty.Value.create(commandProperty));
+			return (CommandProperty.Value<T>) this.getOrCreate(commandProperty);
 		}
 
 		/**
 		 * Clears the map.
 		 */
 		public void clear() {
-			this.propertyMap.clear();
+			this.replace(Snapshot.EMPTY.properties, Snapshot.EMPTY.values);
+		}
+
+		/**
+		 * Gets the number of times this map has been cleared or reset.
+		 * <p>Clearing a map detaches its {@link CommandProperty.Value}s, so anything holding onto one of them can compare this to know when to get it again.</p>
+		 *
+		 * @return The number of times this map has been cleared or reset.
+		 */
+		public int getGeneration() {
+			return this.snapshot.get().generation;
+		}
+
+		/**
+		 * @return The number of properties in this map.
+		 */
+		public int size() {
+			return this.snapshot.get().properties.length;
+		}
+
+		/**
+		 * Gets a read-only copy of the properties in this map, in the order they were put onto it.
+		 * <p>The copy doesn't change when properties get put onto the map or the map gets cleared, but its {@link CommandProperty.Value}s are the ones of this map, so setting one of them sets the value in this map.</p>
+		 *
+		 * @return A read-only copy of the properties in this map.
+		 */
+		protected Map<CommandProperty<?, ?>, CommandProperty.Value<?>> getProperties() {
+			Snapshot snapshot = this.snapshot.get();
+			Map<CommandProperty<?, ?>, CommandProperty.Value<?>> properties = new LinkedHashMap<>();
+			for (int i = 0; i < snapshot.properties.length; i++) {
+				properties.put(snapshot.properties[i], snapshot.values[i]);
+			}
+			return Collections.unmodifiableMap(properties);
+		}
+
+		private CommandProperty.Value<?> getOrCreate(CommandProperty<?, ?> commandProperty) {
+			Snapshot snapshot = this.snapshot.get();
+			int index = snapshot.indexOf(commandProperty);
+			if (index >= 0) {
+				return snapshot.values[index];
+			}
+			CommandProperty.Value<?> value = CommandProperty.Value.create(commandProperty);
+			while (!this.snapshot.compareAndSet(snapshot, snapshot.with(commandProperty, value))) {
+				snapshot = this.snapshot.get();
+				index = snapshot.indexOf(commandProperty);
+				if (index >= 0) {
+					return snapshot.values[index];
+				}
+			}
+			return value;
+		}
+
+		private <A extends Annotation> void reset(Set<CommandProperty<?, ?>> properties, @Nullable CommandProperty<?, A> annotated, @Nullable A annotation) {
+			CommandProperty<?, ?>[] keys = properties.toArray(new CommandProperty<?, ?>[0]);
+			CommandProperty.Value<?>[] values = new CommandProperty.Value<?>[keys.length];
+			for (int i = 0; i < keys.length; i++) {
+				CommandProperty<?, ?> property = keys[i];
+				values[i] = CommandProperty.Value.create(property == annotated ? annotated.get(annotation) : property.get(null));
+			}
+			this.replace(keys, values);
+		}
+
+		private void replace(CommandProperty<?, ?>[] properties, CommandProperty.Value<?>[] values) {
+			Snapshot snapshot;
+			do {
+				snapshot = this.snapshot.get();
+			} while (!this.snapshot.compareAndSet(snapshot, new Snapshot(properties, values, snapshot.generation + 1)));
+		}
+
+		private static Object checkValue(CommandProperty<?, ?> commandProperty, CommandProperty.Value<?> value) {
+			Object object = value.get();
+			if (!commandProperty.get(null).getClass().isInstance(object)) {
+				throw new ClassCastException(String.format("Property type doesn't match value type! Property: %1$s, Value: %2$s", commandProperty, value));
+			}
+			return object;
+		}
+
+		@Override
+		public String toString() {
+			Snapshot snapshot = this.snapshot.get();
+			StringBuilder builder = new StringBuilder("PropertyMap{");
+			for (int i = 0; i < snapshot.properties.length; i++) {
+				builder.append(i > 0 ? ", " : "").append(snapshot.properties[i]).append('=').append(snapshot.values[i].get());
+			}
+			return builder.append('}').toString();
+		}
+
+		/**
+		 * An immutable snapshot of the properties of a {@link PropertyMap}, with the {@link CommandProperty.Value} of each property at the same index as the property.
+		 * <p>Commands only have a handful of properties, so scanning the array by identity is quicker than hashing the property.</p>
+		 */
+		@Immutable
+		private static final class Snapshot {
+			private static final Snapshot EMPTY = new Snapshot(new CommandProperty<?, ?>[0], new CommandProperty.Value<?>[0], 0);
+			private final CommandProperty<?, ?>[] properties;
+			private final CommandProperty.Value<?>[] values;
+			private final int generation;
+
+			private Snapshot(CommandProperty<?, ?>[] properties, CommandProperty.Value<?>[] values, int generation) {
+				this.properties = properties;
+				this.values = values;
+				this.generation = generation;
+			}
+
+			private int indexOf(CommandProperty<?, ?> property) {
+				CommandProperty<?, ?>[] properties = this.properties;
+				for (int i = 0; i < properties.length; i++) {
+					if (properties[i] == property) {
+						return i;
+					}
+				}
+				for (int i = 0; i < properties.length; i++) {
+					if (properties[i].equals(property)) {
+						return i;
+					}
+				}
+				return -1;
+			}
+
+			private Snapshot with(CommandProperty<?, ?> property, CommandProperty.Value<?> value) {
+				int length = this.properties.length;
+				CommandProperty<?, ?>[] properties = Arrays.copyOf(this.properties, length + 1);
+				CommandProperty.Value<?>[] values = Arrays.copyOf(this.values, length + 1);
+				properties[length] = property;
+				values[length] = value;
+				return new Snapshot(properties, values, this.generation);
+			}
 		}
 	}
 }
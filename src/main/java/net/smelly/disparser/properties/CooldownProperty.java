@@ -0,0 +1,51 @@
+package net.smelly.disparser.properties;
+
+import net.smelly.disparser.annotations.Cooldown;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A {@link CommandProperty} implementation for command cooldowns.
+ * <p>This class is immutable, meaning it's cooldown can never be altered, thereby making it thread-safe.</p>
+ *
+ * @author Luke Tonon
+ * @see CommandProperty
+ * @see RateLimit
+ */
+@Immutable
+public final class CooldownProperty implements CommandProperty<RateLimit, Cooldown> {
+	private final RateLimit rateLimit;
+
+	private CooldownProperty(RateLimit rateLimit) {
+		this.rateLimit = rateLimit;
+	}
+
+	/**
+	 * Creates a new {@link CooldownProperty} instance with a default {@link RateLimit}.
+	 *
+	 * @param rateLimit The default {@link RateLimit}.
+	 * @return A new {@link CooldownProperty} instance with a default {@link RateLimit}.
+	 */
+	public static CooldownProperty create(RateLimit rateLimit) {
+		return new CooldownProperty(rateLimit);
+	}
+
+	/**
+	 * Gets the {@link RateLimit} for this property when combined with a {@link Cooldown} annotation.
+	 *
+	 * @param cooldown The {@link Cooldown} annotation to overwrite the {@link RateLimit} of this property.
+	 * @return The {@link RateLimit} for this property when combined with a {@link Cooldown} annotation.
+	 */
+	@Override
+	public RateLimit get(@Nullable Cooldown cooldown) {
+		return cooldown != null ? RateLimit.create(cooldown) : this.rateLimit;
+	}
+
+	@Override
+	public String toString() {
+		return "CooldownProperty{" +
+				"rateLimit=" + this.rateLimit +
+				'}';
+	}
+}
@@ -0,0 +1,133 @@
+package net.smelly.disparser.properties;
+
+import net.smelly.disparser.annotations.Cooldown;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable configuration of how often a command can be used, such as at most 3 uses every 10 seconds per user.
+ * <p>Uses recover gradually, one every period divided by the number of uses, so a command with 3 uses every 10 seconds gets a use back every 3⅓ seconds.</p>
+ *
+ * @author Luke Tonon
+ * @see CooldownProperty
+ * @see net.smelly.disparser.concurrent.RateLimiter
+ */
+@Immutable
+public final class RateLimit {
+	private static final RateLimit UNLIMITED = new RateLimit(Integer.MAX_VALUE, 0L, Scope.USER);
+	private final int uses;
+	private final long periodNanos;
+	private final Scope scope;
+
+	private RateLimit(int uses, long periodNanos, Scope scope) {
+		this.uses = uses;
+		this.periodNanos = periodNanos;
+		this.scope = scope;
+	}
+
+	/**
+	 * @return A {@link RateLimit} that doesn't limit anything.
+	 */
+	public static RateLimit unlimited() {
+		return UNLIMITED;
+	}
+
+	/**
+	 * Creates a new {@link RateLimit} allowing a number of uses every period for each key of a {@link Scope}.
+	 *
+	 * @param uses   The number of uses allowed every period.
+	 * @param period The length of the period.
+	 * @param unit   The {@link TimeUnit} of the period.
+	 * @param scope  The {@link Scope} to limit uses for.
+	 * @return A new {@link RateLimit}.
+	 */
+	public static RateLimit create(int uses, long period, TimeUnit unit, Scope scope) {
+		if (uses <= 0) {
+			throw new IllegalArgumentException("Uses must be positive: " + uses);
+		}
+		if (period < 0) {
+			throw new IllegalArgumentException("Period must not be negative: " + period);
+		}
+		return period == 0L ? UNLIMITED : new RateLimit(uses, unit.toNanos(period), scope);
+	}
+
+	/**
+	 * Creates a new {@link RateLimit} from a {@link Cooldown} annotation.
+	 *
+	 * @param cooldown The {@link Cooldown} annotation to create the {@link RateLimit} from.
+	 * @return A new {@link RateLimit} from a {@link Cooldown} annotation.
+	 */
+	public static RateLimit create(Cooldown cooldown) {
+		return create(cooldown.uses(), cooldown.value(), cooldown.unit(), cooldown.scope());
+	}
+
+	/**
+	 * @return If this doesn't limit anything.
+	 */
+	public boolean isUnlimited() {
+		return this == UNLIMITED;
+	}
+
+	/**
+	 * @return The number of uses allowed every period.
+	 */
+	public int getUses() {
+		return this.uses;
+	}
+
+	/**
+	 * @return The length of the period in nanoseconds.
+	 */
+	public long getPeriodNanos() {
+		return this.periodNanos;
+	}
+
+	/**
+	 * @return The {@link Scope} uses get limited for.
+	 */
+	public Scope getScope() {
+		return this.scope;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || this.getClass() != o.getClass()) return false;
+		RateLimit that = (RateLimit) o;
+		return this.uses == that.uses && this.periodNanos == that.periodNanos && this.scope == that.scope;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.uses, this.periodNanos, this.scope);
+	}
+
+	@Override
+	public String toString() {
+		return this.isUnlimited() ? "RateLimit{unlimited}" : "RateLimit{" +
+				"uses=" + this.uses +
+				", periodNanos=" + this.periodNanos +
+				", scope=" + this.scope +
+				'}';
+	}
+
+	/**
+	 * What uses of a command get limited for.
+	 */
+	public enum Scope {
+		/**
+		 * Limits the uses of each user.
+		 */
+		USER,
+		/**
+		 * Limits the uses in each guild, or each private channel for private messages.
+		 */
+		GUILD,
+		/**
+		 * Limits the uses in each channel.
+		 */
+		CHANNEL
+	}
+}
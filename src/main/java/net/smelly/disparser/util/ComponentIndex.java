@@ -0,0 +1,147 @@
+package net.smelly.disparser.util;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Map;
+
+/**
+ * An immutable open addressing hash index of strings that can be probed with a region of another string.
+ * <p>This is useful for looking up a component of a message without having to turn the component into a {@link String} first, making lookups allocation-free.</p>
+ * <p>If two keys collide, the first one added is kept.</p>
+ *
+ * @param <V> The type of values in this index.
+ * @author Luke Tonon
+ */
+@Immutable
+public final class ComponentIndex<V> {
+	private static final ComponentIndex<?> EMPTY = new ComponentIndex<>(new String[1], new Object[1], 0, false);
+	private final String[] keys;
+	private final Object[] values;
+	private final int mask;
+	private final int size;
+	private final boolean ignoreCase;
+
+	private ComponentIndex(String[] keys, Object[] values, int size, boolean ignoreCase) {
+		this.keys = keys;
+		this.values = values;
+		this.mask = keys.length - 1;
+		this.size = size;
+		this.ignoreCase = ignoreCase;
+	}
+
+	/**
+	 * @param <V> The type of values in the index.
+	 * @return An empty {@link ComponentIndex}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> ComponentIndex<V> empty() {
+		return (ComponentIndex<V>) EMPTY;
+	}
+
+	/**
+	 * Creates a new {@link ComponentIndex} from a map of keys to values.
+	 *
+	 * @param map        A {@link Map} of keys to values to index, iterated in its order.
+	 * @param ignoreCase If keys should be matched ignoring case, following the same rules as {@link String#equalsIgnoreCase(String)}.
+	 * @param <V>        The type of values in the index.
+	 * @return A new {@link ComponentIndex} from a map of keys to values.
+	 */
+	public static <V> ComponentIndex<V> create(Map<String, ? extends V> map, boolean ignoreCase) {
+		if (map.isEmpty()) return empty();
+		int capacity = Integer.highestOneBit(Math.max(2, map.size() * 2 - 1)) << 1;
+		String[] keys = new String[capacity];
+		Object[] values = new Object[capacity];
+		int mask = capacity - 1;
+		int size = 0;
+		for (Map.Entry<String, ? extends V> entry : map.entrySet()) {
+			String key = entry.getKey();
+			int slot = hash(key, 0, key.length(), ignoreCase) & mask;
+			boolean duplicate = false;
+			while (keys[slot] != null) {
+				if (matches(keys[slot], key, 0, key.length(), ignoreCase)) {
+					duplicate = true;
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+			if (!duplicate) {
+				keys[slot] = key;
+				values[slot] = entry.getValue();
+				size++;
+			}
+		}
+		return new ComponentIndex<>(keys, values, size, ignoreCase);
+	}
+
+	/**
+	 * Gets the value for a key.
+	 *
+	 * @param key The key to get the value for.
+	 * @return The value for the key, or null if there is none.
+	 */
+	@Nullable
+	public V get(String key) {
+		return this.get(key, 0, key.length());
+	}
+
+	/**
+	 * Gets the value for a region of a string without creating a new {@link String} for the region.
+	 *
+	 * @param content The string containing the region.
+	 * @param start   The inclusive start of the region.
+	 * @param end     The exclusive end of the region.
+	 * @return The value for the region, or null if there is none.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V get(String content, int start, int end) {
+		if (this.size == 0) return null;
+		int mask = this.mask;
+		String[] keys = this.keys;
+		int slot = hash(content, start, end, this.ignoreCase) & mask;
+		String key;
+		while ((key = keys[slot]) != null) {
+			if (matches(key, content, start, end, this.ignoreCase)) {
+				return (V) this.values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * @return The amount of keys in this index.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return If this index matches keys ignoring case.
+	 */
+	public boolean isIgnoreCase() {
+		return this.ignoreCase;
+	}
+
+	private static int hash(String content, int start, int end, boolean ignoreCase) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			char character = content.charAt(i);
+			hash = 31 * hash + (ignoreCase ? Character.toLowerCase(Character.toUpperCase(character)) : character);
+		}
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean matches(String key, String content, int start, int end, boolean ignoreCase) {
+		int length = end - start;
+		return key.length() == length && key.regionMatches(ignoreCase, 0, content, start, length);
+	}
+
+	@Override
+	public String toString() {
+		return "ComponentIndex{" +
+				"size=" + this.size +
+				", ignoreCase=" + this.ignoreCase +
+				'}';
+	}
+}
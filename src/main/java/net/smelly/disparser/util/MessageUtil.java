@@ -11,6 +11,11 @@ import java.util.Collection;
  * @author Luke Tonon
  */
 public final class MessageUtil {
+	/**
+	 * The prefix of each reason in the description of an error message created by {@link #createErrorMessage(String)}.
+	 */
+	public static final String ERROR_REASON_PREFIX = "**Reason: **";
+
 	/**
 	 * Creates a simple error message as a {@link MessageEmbed}.
 	 *
@@ -21,11 +26,22 @@ public final class MessageUtil {
 	public static MessageEmbed createErrorMessage(String message) {
 		EmbedBuilder embedBuilder = new EmbedBuilder();
 		embedBuilder.setTitle(":x: " + "Command Failed");
-		embedBuilder.appendDescription("**Reason: **" + message);
+		embedBuilder.appendDescription(ERROR_REASON_PREFIX + message);
 		embedBuilder.setColor(14495300);
 		return embedBuilder.build();
 	}
 
+	/**
+	 * Creates a simple error message as a {@link MessageEmbed} listing several reasons, one on each line.
+	 *
+	 * @param messages The error reason messages.
+	 * @return a simple error message as a {@link MessageEmbed} listing several reasons.
+	 * @see #createErrorMessage(String)
+	 */
+	public static MessageEmbed createErrorMessage(Collection<String> messages) {
+		return createErrorMessage(String.join("\n" + ERROR_REASON_PREFIX, messages));
+	}
+
 	/**
 	 * Creates a simple successful completion message as a {@link MessageEmbed}.
 	 *
@@ -41,6 +57,17 @@ public final class MessageUtil {
 		return embedBuilder.build();
 	}
 
+	/**
+	 * Creates a simple successful completion message as a {@link MessageEmbed} listing several messages, one on each line.
+	 *
+	 * @param messages The messages to be displayed.
+	 * @return a simple successful completion message as a {@link MessageEmbed} listing several messages.
+	 * @see #createSuccessfulMessage(String)
+	 */
+	public static MessageEmbed createSuccessfulMessage(Collection<String> messages) {
+		return createSuccessfulMessage(String.join("\n", messages));
+	}
+
 	/**
 	 * Gets the ordinal for an integer.
 	 * 1st, 2nd, 3rd, 4th, etc...
@@ -87,13 +114,24 @@ public final class MessageUtil {
 	 * @return The first part of the string.
 	 */
 	public static String getFirstComponent(String message) {
-		StringBuilder builder = new StringBuilder();
-		for (int i = 0; i < message.length(); i++) {
-			char character = message.charAt(i);
-			if (!Character.isWhitespace(character)) {
-				builder.append(character);
-			} else break;
+		int end = getFirstComponentEnd(message);
+		return end == message.length() ? message : message.substring(0, end);
+	}
+
+	/**
+	 * Searches for the end of the first part of a string without creating a new {@link String} for it.
+	 *
+	 * @param message A string to get the end of the first part of.
+	 * @return The exclusive end index of the first part of the string, which is the index of the first whitespace or the length of the string.
+	 * @see #getFirstComponent(String)
+	 */
+	public static int getFirstComponentEnd(String message) {
+		int length = message.length();
+		for (int i = 0; i < length; i++) {
+			if (Character.isWhitespace(message.charAt(i))) {
+				return i;
+			}
 		}
-		return builder.toString();
+		return length;
 	}
-}
\ No newline at end of file
+}
@@ -7,14 +7,13 @@ import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.entities.Activity.ActivityType;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.smelly.disparser.commands.Commands;
-import net.smelly.disparser.concurrent.DisparsingThreadFactory;
+import net.smelly.disparser.concurrent.KeyedExecutorService;
 import net.smelly.disparser.context.handlers.CommandHandler;
 import net.smelly.disparser.context.handlers.GuildCommandHandler;
 import net.smelly.disparser.feedback.TestExceptionProvider;
 import net.smelly.disparser.feedback.TestFeedbackHandler;
 
 import javax.security.auth.login.LoginException;
-import java.util.concurrent.Executors;
 
 public final class TestBot {
 	public static JDA BOT;
@@ -29,7 +28,7 @@ public final class TestBot {
 						.registerCommands(Commands.class)
 						.setFeedbackBuilder(TestFeedbackHandler::new)
 						.setExceptionProviderBuilder(channel -> TestExceptionProvider.INSTANCE)
-						.setExecutorService(Executors.newFixedThreadPool(6, new DisparsingThreadFactory("Test")))
+						.setExecutorService(KeyedExecutorService.builder("Test").setLanes(6).build())
 						.build(),
 				new GuildCommandHandler.Builder()
 						.setPrefix("g!")
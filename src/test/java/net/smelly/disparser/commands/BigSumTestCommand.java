@@ -36,7 +36,7 @@ public final class BigSumTestCommand extends Command<MessageReceivedEvent, Messa
 		feedbackHandler.sendFeedback(channel -> "Queueing random sum, this may take some time to complete!");
 		int sumNumber = SUM_NUMBER.incrementAndGet();
 		QUEUE.add(sumNumber);
-		int sequences = context.getParsedResult(0);
+		int sequences = context.getInt(0);
 		int sum = 0;
 		Random random = ThreadLocalRandom.current();
 		for (int i = 0; i < sequences; i++) {
@@ -29,6 +29,11 @@ public final class TestTranslatableCommandMessage implements CommandMessage {
 		return MAP.getOrDefault(channel != null ? channel instanceof TextChannel ? ((TextChannel) channel).getGuild().getIdLong() : 0L : 0L, Language.ENGLISH_US).translator.apply(this.translatableString) + this.invalidColor;
 	}
 
+	@Override
+	public boolean isChannelDependent() {
+		return true;
+	}
+
 	//Example, translations really shouldn't be done like this...
 	enum Language {
 		ENGLISH_US(s -> s.equals("command.exception.color") ? "Invalid Color: " : s),